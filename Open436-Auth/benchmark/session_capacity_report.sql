@@ -0,0 +1,92 @@
+-- M1 认证授权服务 - 会话容量报告
+-- 估算 Access/Refresh Token 拆分上线前后 Redis 中常驻的会话数、键数与内存
+--
+-- 上线前：所有登录签发一个 30 天有效、自动续签的会话
+-- 上线后：Access Token 30 分钟有效、不续签，每次登录/刷新独立签发（is-share: false）；
+--         Refresh Token 族（auth:refresh:{族ID}）记住我 30 天、其余 12 小时，每次刷新重新计时，
+--         另有每个用户一个族索引（auth:refresh:user:{用户ID}）
+-- 以 users_auth.last_login_at 近似用户最近一次登录时间（每次登录开启一个族，多设备登录时族数偏低）
+--
+-- 参数（psql -v 传入）:
+--   remember_me_ratio  勾选"记住我"的登录占比，取自 /actuator/metrics/auth.login
+--                      （remember_me=true 次数 / 总次数），默认 0.3
+--   bytes_per_session  每个 Access Token 会话占用的 Redis 内存（字节），取自 SaTokenDaoBenchmark，默认 300
+--   bytes_per_family   每个 Refresh Token 族 Hash 占用的 Redis 内存（字节），默认 400
+--   online_users       30 分钟内活跃（登录或刷新）的用户数，取自监控；
+--                      默认用 30 分钟内登录的用户数，刷新不更新 last_login_at，结果偏低
+-- 运行方式:
+--   psql -d open436 -v remember_me_ratio=0.25 -v online_users=1200 -f benchmark/session_capacity_report.sql
+
+\if :{?remember_me_ratio}
+\else
+\set remember_me_ratio 0.3
+\endif
+\if :{?bytes_per_session}
+\else
+\set bytes_per_session 300
+\endif
+\if :{?bytes_per_family}
+\else
+\set bytes_per_family 400
+\endif
+\if :{?online_users}
+\else
+\set online_users -1
+\endif
+
+-- 每个在线会话常驻 2 个键：Token -> LoginId 映射、Account-Session
+\set keys_per_session 2
+
+-- ============================================
+-- 1. 最近登录分布
+-- ============================================
+SELECT CASE
+           WHEN last_login_at >= now() - INTERVAL '12 hours' THEN '0-12小时'
+           WHEN last_login_at >= now() - INTERVAL '1 day' THEN '12-24小时'
+           WHEN last_login_at >= now() - INTERVAL '7 days' THEN '1-7天'
+           WHEN last_login_at >= now() - INTERVAL '30 days' THEN '7-30天'
+           ELSE '30天以上/从未登录'
+       END AS 最近登录,
+       count(*) AS 用户数
+FROM users_auth
+GROUP BY 1
+ORDER BY min(coalesce(now() - last_login_at, INTERVAL '100 years'));
+
+-- ============================================
+-- 2. 常驻会话与 Token 族估算
+-- ============================================
+WITH recent AS (
+    SELECT count(*) FILTER (WHERE last_login_at >= now() - INTERVAL '30 days') AS within_30d,
+           count(*) FILTER (WHERE last_login_at >= now() - INTERVAL '12 hours') AS within_12h,
+           count(*) FILTER (WHERE last_login_at >= now() - INTERVAL '30 minutes') AS within_30m
+    FROM users_auth
+),
+estimate AS (
+    SELECT within_30d AS before_sessions,
+           CASE WHEN :online_users < 0 THEN within_30m ELSE :online_users END AS after_sessions,
+           round(within_30d * :remember_me_ratio
+                 + within_12h * (1 - :remember_me_ratio)) AS after_families
+    FROM recent
+),
+totals AS (
+    SELECT before_sessions,
+           after_sessions,
+           after_families,
+           before_sessions * :keys_per_session AS before_keys,
+           -- 每个族一个 Hash；族索引每个用户一个，这里按族数估算（上限）
+           after_sessions * :keys_per_session + after_families * 2 AS after_keys,
+           before_sessions * :bytes_per_session AS before_bytes,
+           after_sessions * :bytes_per_session + after_families * :bytes_per_family AS after_bytes
+    FROM estimate
+)
+SELECT before_sessions AS 上线前会话数,
+       after_sessions AS 上线后Access会话数,
+       after_families AS 上线后Refresh族数,
+       before_keys AS 上线前键数,
+       after_keys AS 上线后键数,
+       pg_size_pretty(before_bytes::BIGINT) AS 上线前内存,
+       pg_size_pretty(after_bytes::BIGINT) AS 上线后内存,
+       CASE WHEN before_bytes = 0 THEN 0
+            ELSE round(100.0 * (before_bytes - after_bytes) / before_bytes, 1)
+       END AS 内存减少百分比
+FROM totals;
@@ -0,0 +1,145 @@
+-- M1 认证授权服务 - 用户权限查询基准测试
+-- 对比 三表关联查询（findByUserId）与 user_effective_permissions 读模型（findEffectiveByUserId）
+--
+-- 数据规模: 1,000,000 用户 × 每人 5 个角色（共 20 个角色，200 个权限，每个角色 30 个权限）
+-- 运行方式（请使用独立的测试库，已执行 V1~V3 迁移）:
+--   psql -v ON_ERROR_STOP=1 -d open436_bench -f benchmark/user_effective_permissions.sql
+-- 生成数据约需数分钟，占用约 1.5GB 磁盘
+
+\timing on
+
+-- ============================================
+-- 1. 生成测试数据（装载期间禁用触发器，最后统一回填）
+-- ============================================
+ALTER TABLE user_roles DISABLE TRIGGER USER;
+ALTER TABLE role_permissions DISABLE TRIGGER USER;
+
+INSERT INTO permissions (name, code, resource, action)
+SELECT '基准权限' || i,
+       'bench:p' || i,
+       'bench',
+       (ARRAY['create', 'read', 'update', 'delete', 'manage'])[i % 5 + 1]
+FROM generate_series(1, 200) AS i;
+
+INSERT INTO roles (name, code, description)
+SELECT '基准角色' || i, 'bench_role_' || chr(97 + i), '基准测试角色'
+FROM generate_series(0, 19) AS i;
+
+-- 每个角色 30 个权限，相邻角色之间部分重叠
+INSERT INTO role_permissions (role_id, permission_id)
+SELECT r.id, p.id
+FROM roles r
+CROSS JOIN generate_series(0, 29) AS k
+INNER JOIN permissions p
+    ON p.code = 'bench:p' || (((ascii(substr(r.code, 12, 1)) - 97) * 10 + k) % 200 + 1)
+WHERE r.code LIKE 'bench_role_%';
+
+INSERT INTO users_auth (username, password_hash)
+SELECT 'bench_u' || i, '$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchmarkbe'
+FROM generate_series(1, 1000000) AS i;
+
+-- 每个用户 5 个互不相同的角色
+INSERT INTO user_roles (user_id, role_id)
+SELECT u.id, r.id
+FROM users_auth u
+CROSS JOIN generate_series(0, 4) AS k
+INNER JOIN roles r
+    ON r.code = 'bench_role_' || chr(97 + ((u.id % 20) + k * 4) % 20)
+WHERE u.username LIKE 'bench_u%';
+
+ALTER TABLE user_roles ENABLE TRIGGER USER;
+ALTER TABLE role_permissions ENABLE TRIGGER USER;
+
+-- 回填读模型
+SELECT refresh_user_effective_permissions(array_agg(id))
+FROM users_auth
+WHERE username LIKE 'bench_u%';
+
+VACUUM ANALYZE users_auth;
+VACUUM ANALYZE roles;
+VACUUM ANALYZE permissions;
+VACUUM ANALYZE user_roles;
+VACUUM ANALYZE role_permissions;
+VACUUM ANALYZE user_effective_permissions;
+
+-- ============================================
+-- 2. 查询计划对比
+-- ============================================
+SELECT id AS bench_user_id FROM users_auth WHERE username = 'bench_u500000' \gset
+
+-- 三表关联（findByUserId）
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT DISTINCT p.* FROM permissions p
+INNER JOIN role_permissions rp ON p.id = rp.permission_id
+INNER JOIN user_roles ur ON rp.role_id = ur.role_id
+WHERE ur.user_id = :bench_user_id;
+
+-- 读模型（findEffectiveByUserId）
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.* FROM user_effective_permissions uep
+INNER JOIN permissions p ON p.id = ANY(uep.permission_ids)
+WHERE uep.user_id = :bench_user_id;
+
+-- ============================================
+-- 3. 随机用户查询耗时（各 10,000 次）
+-- ============================================
+DO $$
+DECLARE
+    v_min_id INTEGER;
+    v_max_id INTEGER;
+    v_start TIMESTAMP;
+    v_count INTEGER;
+    i INTEGER;
+BEGIN
+    SELECT min(id), max(id) INTO v_min_id, v_max_id
+    FROM users_auth WHERE username LIKE 'bench_u%';
+    
+    PERFORM setseed(0.436);
+    v_start := clock_timestamp();
+    FOR i IN 1..10000 LOOP
+        SELECT count(*) INTO v_count FROM (
+            SELECT DISTINCT p.* FROM permissions p
+            INNER JOIN role_permissions rp ON p.id = rp.permission_id
+            INNER JOIN user_roles ur ON rp.role_id = ur.role_id
+            WHERE ur.user_id = v_min_id + floor(random() * (v_max_id - v_min_id + 1))::INTEGER
+        ) t;
+    END LOOP;
+    RAISE NOTICE '三表关联: 平均 % ms/次',
+        round((extract(epoch FROM clock_timestamp() - v_start) * 1000 / 10000)::NUMERIC, 4);
+    
+    PERFORM setseed(0.436);
+    v_start := clock_timestamp();
+    FOR i IN 1..10000 LOOP
+        SELECT count(*) INTO v_count FROM (
+            SELECT p.* FROM user_effective_permissions uep
+            INNER JOIN permissions p ON p.id = ANY(uep.permission_ids)
+            WHERE uep.user_id = v_min_id + floor(random() * (v_max_id - v_min_id + 1))::INTEGER
+        ) t;
+    END LOOP;
+    RAISE NOTICE '读模型: 平均 % ms/次',
+        round((extract(epoch FROM clock_timestamp() - v_start) * 1000 / 10000)::NUMERIC, 4);
+END;
+$$;
+
+-- ============================================
+-- 4. 写入代价：修改角色权限会刷新该角色下的所有用户（约 250,000 人）
+-- ============================================
+BEGIN;
+INSERT INTO role_permissions (role_id, permission_id)
+SELECT r.id, p.id FROM roles r, permissions p
+WHERE r.code = 'bench_role_a' AND p.code = 'bench:p200';
+ROLLBACK;
+
+-- 单个用户分配角色
+BEGIN;
+DELETE FROM user_roles
+WHERE user_id = :bench_user_id
+  AND role_id = (SELECT id FROM roles WHERE code = 'bench_role_a');
+ROLLBACK;
+
+-- ============================================
+-- 5. 清理（可选）
+-- ============================================
+-- DELETE FROM users_auth WHERE username LIKE 'bench_u%';
+-- DELETE FROM roles WHERE code LIKE 'bench_role_%';
+-- DELETE FROM permissions WHERE code LIKE 'bench:p%';
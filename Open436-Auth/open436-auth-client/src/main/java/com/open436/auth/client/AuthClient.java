@@ -0,0 +1,352 @@
+package com.open436.auth.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.open436.auth.dto.ApiResponse;
+import com.open436.auth.dto.TokenVerifyResponse;
+import com.open436.auth.dto.UserTokenInfo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Open436 认证服务客户端
+ * 供 JVM 服务嵌入使用，Token 验证结果与授权决策缓存在本地，命中时不产生网络调用：
+ * <ul>
+ *   <li>缓存键为 Token 的 SHA-256（与认证服务的吊销广播一致），内存中不按明文 Token 索引</li>
+ *   <li>同一 Token 或同一决策并发未命中时只回源一次</li>
+ *   <li>无效 Token 短期负缓存，避免伪造 Token 反复穿透到认证服务</li>
+ *   <li>配合 {@link RedisRevocationSubscriber} 在登出、禁用、角色/权限变化时立即失效</li>
+ * </ul>
+ * 与认证服务之间使用 JDK HttpClient：HTTP/2 多路复用单个连接，对端不支持时降级为 HTTP/1.1 Keep-Alive 连接池。
+ * 认证服务不可用时抛出 {@link AuthClientException}，失败结果不缓存
+ */
+@Slf4j
+public class AuthClient implements AutoCloseable {
+
+    private static final String VERIFY_PATH = "/api/auth/verify";
+    private static final String VERIFY_BATCH_PATH = "/api/auth/verify/batch";
+    private static final String AUTHORIZE_PATH = "/api/auth/authorize";
+    private static final String SERVICE_TOKEN_HEADER = "X-Service-Token";
+
+    private static final TypeReference<ApiResponse<TokenVerifyResponse>> VERIFY_TYPE = new TypeReference<>() {};
+    private static final TypeReference<ApiResponse<List<TokenVerifyResponse>>> VERIFY_BATCH_TYPE =
+        new TypeReference<>() {};
+    private static final TypeReference<ApiResponse<Map<String, Object>>> AUTHORIZE_TYPE = new TypeReference<>() {};
+
+    /**
+     * Token 的验证结果，user 为 null 表示 Token 无效
+     */
+    private record Identity(UserTokenInfo user) {
+        boolean valid() {
+            return user != null;
+        }
+    }
+
+    /**
+     * 授权决策缓存键
+     */
+    private record Decision(Long userId, String resource, String action) {
+    }
+
+    private final AuthClientConfig config;
+    private final MeterRegistry meterRegistry;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final AsyncCache<String, Identity> identities;
+    private final AsyncCache<Decision, Boolean> decisions;
+    private final UserIndex<String> tokensByUser = new UserIndex<>();
+    private final UserIndex<Decision> decisionsByUser = new UserIndex<>();
+
+    public AuthClient(AuthClientConfig config) {
+        this.config = config;
+        this.meterRegistry = config.getMeterRegistry();
+        this.httpClient = HttpClient.newBuilder()
+            .version(config.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+            .connectTimeout(config.getConnectTimeout())
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+
+        this.identities = Caffeine.newBuilder()
+            .maximumSize(config.getMaximumSize())
+            .expireAfter(new IdentityExpiry())
+            .removalListener((String hash, Identity identity, RemovalCause cause) -> {
+                if (identity != null && identity.valid()) {
+                    tokensByUser.remove(identity.user().getUserId(), hash);
+                }
+            })
+            .recordStats()
+            .buildAsync();
+        this.decisions = Caffeine.newBuilder()
+            .maximumSize(config.getMaximumSize())
+            .expireAfterWrite(config.getDecisionTtl())
+            .removalListener((Decision decision, Boolean allowed, RemovalCause cause) -> {
+                if (decision != null) {
+                    decisionsByUser.remove(decision.userId(), decision);
+                }
+            })
+            .recordStats()
+            .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, identities, "open436.auth.client.tokens");
+        CaffeineCacheMetrics.monitor(meterRegistry, decisions, "open436.auth.client.decisions");
+    }
+
+    /**
+     * 验证 Token
+     * @param token Access Token（不含 Bearer 前缀）
+     * @return Token 对应的用户信息，Token 无效时返回 null
+     * @throws AuthClientException 认证服务不可用
+     */
+    public UserTokenInfo verify(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String hash = hash(token);
+        return join(identities.get(hash, (key, executor) -> post("verify", VERIFY_PATH,
+                Map.of("token", token), VERIFY_TYPE)
+            .thenApply(response -> remember(key, identity(response))))).user();
+    }
+
+    /**
+     * 批量验证 Token
+     * 本地命中的直接返回，其余合并为一次批量请求（超过 batchSize 时分批）
+     * @param tokens Access Token 集合
+     * @return 有效 Token 到用户信息的映射（无效 Token 不在结果中）
+     * @throws AuthClientException 认证服务不可用
+     */
+    public Map<String, UserTokenInfo> verifyAll(Collection<String> tokens) {
+        Map<String, CompletableFuture<Identity>> futures = new LinkedHashMap<>();
+        Map<String, CompletableFuture<Identity>> owned = new LinkedHashMap<>();
+
+        for (String token : tokens) {
+            if (token == null || token.isBlank() || futures.containsKey(token)) {
+                continue;
+            }
+            // 占位后由本次请求加载；已有其他线程在加载时复用其结果
+            CompletableFuture<Identity> pending = new CompletableFuture<>();
+            CompletableFuture<Identity> existing = identities.asMap().putIfAbsent(hash(token), pending);
+            if (existing != null) {
+                futures.put(token, existing);
+            } else {
+                futures.put(token, pending);
+                owned.put(token, pending);
+            }
+        }
+
+        List<String> misses = new ArrayList<>(owned.keySet());
+        for (int from = 0; from < misses.size(); from += config.getBatchSize()) {
+            loadBatch(misses.subList(from, Math.min(from + config.getBatchSize(), misses.size())), owned);
+        }
+
+        Map<String, UserTokenInfo> result = new LinkedHashMap<>();
+        futures.forEach((token, future) -> {
+            UserTokenInfo user = join(future).user();
+            if (user != null) {
+                result.put(token, user);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 判断用户能否对资源执行操作（POST /api/auth/authorize）
+     * @param userId 用户ID
+     * @param resource 资源类型（如：post, user, section）
+     * @param action 操作类型（如：create, read, update, delete, manage）
+     * @return 是否允许
+     * @throws AuthClientException 认证服务不可用
+     */
+    public boolean isAllowed(Long userId, String resource, String action) {
+        Decision decision = new Decision(userId, resource, action);
+        return join(decisions.get(decision, (key, executor) -> {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("subject", userId);
+            body.put("resource", resource);
+            body.put("action", action);
+            return post("authorize", AUTHORIZE_PATH, body, AUTHORIZE_TYPE)
+                .thenApply(data -> {
+                    decisionsByUser.add(userId, key);
+                    return Boolean.TRUE.equals(data.get("allowed"));
+                });
+        }));
+    }
+
+    /**
+     * 失效单个 Token（登出、踢下线）
+     * @param tokenHash Token 的 SHA-256（十六进制）
+     */
+    public void invalidateToken(String tokenHash) {
+        identities.synchronous().invalidate(tokenHash);
+        meterRegistry.counter("open436.auth.client.invalidations", "type", "token").increment();
+    }
+
+    /**
+     * 失效用户的全部本地缓存（禁用、会话吊销、角色/权限变化）
+     * @param userId 用户ID
+     */
+    public void invalidateUser(Long userId) {
+        Set<String> hashes = tokensByUser.removeAll(userId);
+        if (!hashes.isEmpty()) {
+            identities.synchronous().invalidateAll(hashes);
+        }
+        Set<Decision> userDecisions = decisionsByUser.removeAll(userId);
+        if (!userDecisions.isEmpty()) {
+            decisions.synchronous().invalidateAll(userDecisions);
+        }
+        meterRegistry.counter("open436.auth.client.invalidations", "type", "user").increment();
+    }
+
+    /**
+     * 清空全部本地缓存（如吊销事件可能丢失时）
+     */
+    public void invalidateAll() {
+        identities.synchronous().invalidateAll();
+        decisions.synchronous().invalidateAll();
+        tokensByUser.clear();
+        decisionsByUser.clear();
+        meterRegistry.counter("open436.auth.client.invalidations", "type", "all").increment();
+    }
+
+    @Override
+    public void close() {
+        httpClient.close();
+    }
+
+    /**
+     * Token 的 SHA-256（十六进制），与认证服务吊销广播的消息体一致
+     */
+    public static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void loadBatch(List<String> tokens, Map<String, CompletableFuture<Identity>> owned) {
+        post("verify_batch", VERIFY_BATCH_PATH, Map.of("tokens", tokens), VERIFY_BATCH_TYPE)
+            .whenComplete((results, e) -> {
+                if (e == null && (results == null || results.size() != tokens.size())) {
+                    e = new AuthClientException("批量验证结果数量与请求不一致");
+                }
+                for (int i = 0; i < tokens.size(); i++) {
+                    CompletableFuture<Identity> future = owned.get(tokens.get(i));
+                    if (e != null) {
+                        // 失败的 Future 会被缓存自动移除，下次重新加载
+                        future.completeExceptionally(e);
+                    } else {
+                        future.complete(remember(hash(tokens.get(i)), identity(results.get(i))));
+                    }
+                }
+            });
+    }
+
+    private Identity remember(String hash, Identity identity) {
+        if (identity.valid()) {
+            tokensByUser.add(identity.user().getUserId(), hash);
+        }
+        return identity;
+    }
+
+    private static Identity identity(TokenVerifyResponse response) {
+        boolean valid = response != null && Boolean.TRUE.equals(response.getValid()) && response.getData() != null;
+        return new Identity(valid ? response.getData() : null);
+    }
+
+    /**
+     * 发送 JSON 请求并解析 ApiResponse.data
+     */
+    private <T> CompletableFuture<T> post(String operation, String path, Object body,
+                                          TypeReference<ApiResponse<T>> type) {
+        HttpRequest request;
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(config.getBaseUri().resolve(path))
+                .timeout(config.getRequestTimeout())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            if (config.getServiceToken() != null) {
+                builder.header(SERVICE_TOKEN_HEADER, config.getServiceToken());
+            }
+            request = builder.build();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new AuthClientException("请求序列化失败", e));
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+            .thenApply(response -> {
+                if (response.statusCode() != 200) {
+                    throw new AuthClientException("认证服务返回非预期状态: " + response.statusCode());
+                }
+                try {
+                    return objectMapper.readValue(response.body(), type).getData();
+                } catch (IOException e) {
+                    throw new AuthClientException("认证服务响应解析失败", e);
+                }
+            })
+            .whenComplete((result, e) -> sample.stop(Timer.builder("open436.auth.client.requests")
+                .tag("operation", operation)
+                .tag("outcome", e == null ? "success" : "error")
+                .register(meterRegistry)));
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof AuthClientException authClientException) {
+                throw authClientException;
+            }
+            throw new AuthClientException("调用认证服务失败: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * 有效与无效 Token 使用不同的缓存时间
+     */
+    private class IdentityExpiry implements Expiry<String, Identity> {
+
+        @Override
+        public long expireAfterCreate(String hash, Identity identity, long currentTime) {
+            return (identity.valid() ? config.getTokenTtl() : config.getNegativeTtl()).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String hash, Identity identity, long currentTime, long currentDuration) {
+            return expireAfterCreate(hash, identity, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String hash, Identity identity, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
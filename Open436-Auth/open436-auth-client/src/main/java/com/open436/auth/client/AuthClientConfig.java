@@ -0,0 +1,86 @@
+package com.open436.auth.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * 认证客户端配置
+ */
+@Getter
+@Builder
+public class AuthClientConfig {
+    
+    /**
+     * 认证服务地址（如 http://auth-service:8081）
+     */
+    @NonNull
+    private final URI baseUri;
+    
+    /**
+     * 内部服务凭证（认证服务的 authorization.service-token），以 X-Service-Token 请求头发送；
+     * 批量验证 Token 与查询任意用户的授权决策时必须配置
+     */
+    private final String serviceToken;
+    
+    /**
+     * 建立连接的超时时间
+     */
+    @Builder.Default
+    private final Duration connectTimeout = Duration.ofSeconds(2);
+    
+    /**
+     * 单次请求的超时时间
+     */
+    @Builder.Default
+    private final Duration requestTimeout = Duration.ofSeconds(3);
+    
+    /**
+     * 是否优先使用 HTTP/2（对端不支持时自动降级为 HTTP/1.1）
+     */
+    @Builder.Default
+    private final boolean http2 = true;
+    
+    /**
+     * 本地缓存的最大条目数（Token 与授权决策分别计算）
+     */
+    @Builder.Default
+    private final long maximumSize = 100_000L;
+    
+    /**
+     * 有效 Token 的缓存时间
+     * 配合 {@link RedisRevocationSubscriber} 时可以较长；不订阅吊销事件时即 Token 吊销后的最长生效延迟，
+     * 建议不超过认证服务的 sa-token.verify-cache-max-age
+     */
+    @Builder.Default
+    private final Duration tokenTtl = Duration.ofMinutes(5);
+    
+    /**
+     * 无效 Token 的缓存时间（负缓存，避免伪造 Token 反复穿透）
+     */
+    @Builder.Default
+    private final Duration negativeTtl = Duration.ofSeconds(5);
+    
+    /**
+     * 授权决策的缓存时间
+     */
+    @Builder.Default
+    private final Duration decisionTtl = Duration.ofMinutes(1);
+    
+    /**
+     * 批量验证时单次请求的最大 Token 数（与认证服务的限制一致）
+     */
+    @Builder.Default
+    private final int batchSize = 1000;
+    
+    /**
+     * 指标注册表
+     */
+    @Builder.Default
+    private final MeterRegistry meterRegistry = Metrics.globalRegistry;
+}
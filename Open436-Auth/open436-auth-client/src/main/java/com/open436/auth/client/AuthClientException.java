@@ -0,0 +1,16 @@
+package com.open436.auth.client;
+
+/**
+ * 认证服务调用异常
+ * 认证服务不可达、超时或返回非预期响应时抛出，与"Token 无效"区分开，由调用方决定降级策略
+ */
+public class AuthClientException extends RuntimeException {
+    
+    public AuthClientException(String message) {
+        super(message);
+    }
+    
+    public AuthClientException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,171 @@
+package com.open436.auth.client;
+
+import io.lettuce.core.Limit;
+import io.lettuce.core.Range;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.StreamMessage;
+import io.lettuce.core.XReadArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 认证服务变更事件订阅器
+ * 将认证服务发布的事件转换为 {@link AuthClient} 的本地缓存失效：
+ * <ul>
+ *   <li>吊销频道（auth:token:revoked）：登出、踢下线时广播 Token 的 SHA-256，失效单个 Token</li>
+ *   <li>事件流（auth:events）：用户禁用、会话吊销、角色/权限变化，失效该用户的全部缓存</li>
+ * </ul>
+ * 事件流从订阅时的最新位置开始读取；事件流或吊销频道的连接中断期间可能遗漏事件，恢复后清空全部本地缓存
+ */
+@Slf4j
+public class RedisRevocationSubscriber implements AutoCloseable {
+
+    public static final String DEFAULT_REVOCATION_CHANNEL = "auth:token:revoked";
+    public static final String DEFAULT_EVENT_STREAM = "auth:events";
+
+    private static final Duration BLOCK_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration RETRY_INTERVAL = Duration.ofSeconds(5);
+    private static final long READ_COUNT = 500;
+
+    private final RedisClient redisClient;
+    private final AuthClient authClient;
+    private final String revocationChannel;
+    private final String eventStream;
+
+    private StatefulRedisPubSubConnection<String, String> pubSubConnection;
+    private Thread streamReader;
+    private volatile boolean running;
+
+    /**
+     * 订阅连接是否在上次订阅后断开过（频道消息不会补发，重新订阅后需要清空本地缓存）
+     */
+    private final AtomicBoolean pubSubDisconnected = new AtomicBoolean();
+
+    public RedisRevocationSubscriber(RedisClient redisClient, AuthClient authClient) {
+        this(redisClient, authClient, DEFAULT_REVOCATION_CHANNEL, DEFAULT_EVENT_STREAM);
+    }
+
+    public RedisRevocationSubscriber(RedisClient redisClient, AuthClient authClient,
+                                     String revocationChannel, String eventStream) {
+        this.redisClient = redisClient;
+        this.authClient = authClient;
+        this.revocationChannel = revocationChannel;
+        this.eventStream = eventStream;
+    }
+
+    /**
+     * 开始订阅
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+
+        // Lettuce 的订阅连接断线后自动重连并重新订阅；断线期间发布的吊销消息会丢失，
+        // 重新订阅成功后清空本地缓存，之后的吊销消息不会再遗漏
+        pubSubConnection = redisClient.connectPubSub();
+        pubSubConnection.addListener(new RedisConnectionStateListener() {
+            @Override
+            public void onRedisDisconnected(RedisChannelHandler<?, ?> connection) {
+                if (running) {
+                    pubSubDisconnected.set(true);
+                    log.warn("Token 吊销频道连接断开，等待重连");
+                }
+            }
+        });
+        pubSubConnection.addListener(new RedisPubSubAdapter<>() {
+            @Override
+            public void message(String channel, String tokenHash) {
+                authClient.invalidateToken(tokenHash);
+            }
+
+            @Override
+            public void subscribed(String channel, long count) {
+                if (pubSubDisconnected.compareAndSet(true, false)) {
+                    log.info("Token 吊销频道已重新订阅，清空本地缓存");
+                    authClient.invalidateAll();
+                }
+            }
+        });
+        pubSubConnection.sync().subscribe(revocationChannel);
+
+        streamReader = new Thread(this::readEvents, "auth-client-events");
+        streamReader.setDaemon(true);
+        streamReader.start();
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (streamReader != null) {
+            streamReader.interrupt();
+        }
+        if (pubSubConnection != null) {
+            pubSubConnection.close();
+        }
+    }
+
+    private void readEvents() {
+        String offset = null;
+        while (running) {
+            try (StatefulRedisConnection<String, String> connection = redisClient.connect()) {
+                connection.setTimeout(BLOCK_TIMEOUT.plus(RETRY_INTERVAL));
+                RedisCommands<String, String> commands = connection.sync();
+                if (offset == null) {
+                    offset = latestId(commands);
+                } else {
+                    // 断线期间的事件可能已被裁剪，无法确认是否遗漏，直接清空本地缓存
+                    authClient.invalidateAll();
+                }
+
+                while (running) {
+                    List<StreamMessage<String, String>> messages = commands.xread(
+                        XReadArgs.Builder.block(BLOCK_TIMEOUT).count(READ_COUNT),
+                        XReadArgs.StreamOffset.from(eventStream, offset));
+                    for (StreamMessage<String, String> message : messages) {
+                        handle(message);
+                        offset = message.getId();
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("认证事件流读取中断，{} 秒后重连: {}", RETRY_INTERVAL.toSeconds(), e.getMessage());
+                try {
+                    Thread.sleep(RETRY_INTERVAL.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private String latestId(RedisCommands<String, String> commands) {
+        List<StreamMessage<String, String>> latest = commands.xrevrange(eventStream, Range.unbounded(), Limit.from(1));
+        return latest.isEmpty() ? "0-0" : latest.get(0).getId();
+    }
+
+    private void handle(StreamMessage<String, String> message) {
+        String userId = message.getBody().get("userId");
+        if (userId == null) {
+            return;
+        }
+        try {
+            authClient.invalidateUser(Long.valueOf(userId));
+        } catch (NumberFormatException e) {
+            log.warn("忽略无法解析的认证事件: id={}, userId={}", message.getId(), userId);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.open436.auth.client;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 用户到缓存键的反向索引
+ * 收到用户级事件时直接定位该用户的缓存条目，无需扫描整个缓存
+ * @param <K> 缓存键类型
+ */
+final class UserIndex<K> {
+    
+    private final ConcurrentHashMap<Long, Set<K>> keys = new ConcurrentHashMap<>();
+    
+    void add(Long userId, K key) {
+        keys.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(key);
+    }
+    
+    void remove(Long userId, K key) {
+        keys.computeIfPresent(userId, (id, set) -> {
+            set.remove(key);
+            return set.isEmpty() ? null : set;
+        });
+    }
+    
+    Set<K> removeAll(Long userId) {
+        Set<K> removed = keys.remove(userId);
+        return removed != null ? removed : Set.of();
+    }
+    
+    void clear() {
+        keys.clear();
+    }
+}
@@ -0,0 +1,235 @@
+package com.open436.auth.client;
+
+import com.open436.auth.dto.UserTokenInfo;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * AuthClient 单元测试
+ * 使用 JDK 内置 HttpServer 模拟认证服务，统计回源次数
+ */
+@DisplayName("认证客户端测试")
+class AuthClientTest {
+
+    private static final String VALID_TOKEN = "valid-token";
+    private static final String OTHER_TOKEN = "other-token";
+    private static final String SERVICE_TOKEN = "svc-secret";
+
+    private static final String VALID_BODY =
+        "{\"code\":200,\"data\":{\"valid\":true,\"data\":{\"userId\":1,\"username\":\"admin\",\"role\":\"admin\"}}}";
+    private static final String OTHER_BODY =
+        "{\"code\":200,\"data\":{\"valid\":true,\"data\":{\"userId\":2,\"username\":\"user\",\"role\":\"user\"}}}";
+    private static final String INVALID_BODY = "{\"code\":200,\"data\":{\"valid\":false,\"data\":null}}";
+
+    private HttpServer server;
+    private AuthClient authClient;
+    private final AtomicInteger verifyCalls = new AtomicInteger();
+    private final AtomicInteger batchCalls = new AtomicInteger();
+    private final AtomicInteger authorizeCalls = new AtomicInteger();
+    private volatile CountDownLatch verifyGate;
+    private volatile int status = 200;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/api/auth/verify", exchange -> {
+            verifyCalls.incrementAndGet();
+            awaitGate();
+            String body = read(exchange);
+            respond(exchange, body.contains(VALID_TOKEN) ? VALID_BODY
+                : body.contains(OTHER_TOKEN) ? OTHER_BODY : INVALID_BODY);
+        });
+        server.createContext("/api/auth/verify/batch", exchange -> {
+            batchCalls.incrementAndGet();
+            String body = read(exchange);
+            List<String> results = new ArrayList<>();
+            for (String token : body.substring(body.indexOf('[') + 1, body.indexOf(']')).split(",")) {
+                String value = token.replace("\"", "");
+                results.add(extractData(value.equals(VALID_TOKEN) ? VALID_BODY
+                    : value.equals(OTHER_TOKEN) ? OTHER_BODY : INVALID_BODY));
+            }
+            respond(exchange, "{\"code\":200,\"data\":[" + String.join(",", results) + "]}");
+        });
+        server.createContext("/api/auth/authorize", exchange -> {
+            authorizeCalls.incrementAndGet();
+            String body = read(exchange);
+            // 只接受携带内部服务凭证的请求
+            boolean allowed = SERVICE_TOKEN.equals(exchange.getRequestHeaders().getFirst("X-Service-Token"))
+                && body.contains("\"subject\":1");
+            respond(exchange, "{\"code\":200,\"data\":{\"allowed\":" + allowed + "}}");
+        });
+        server.start();
+
+        authClient = new AuthClient(AuthClientConfig.builder()
+            .baseUri(URI.create("http://127.0.0.1:" + server.getAddress().getPort()))
+            .serviceToken(SERVICE_TOKEN)
+            .http2(false)
+            .meterRegistry(new SimpleMeterRegistry())
+            .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        authClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("验证 Token - 有效与无效结果都在本地缓存")
+    void verify_CachesPositiveAndNegativeResults() {
+        // When
+        UserTokenInfo first = authClient.verify(VALID_TOKEN);
+        UserTokenInfo second = authClient.verify(VALID_TOKEN);
+        UserTokenInfo invalid = authClient.verify("forged-token");
+        authClient.verify("forged-token");
+
+        // Then
+        assertThat(first.getUserId()).isEqualTo(1L);
+        assertThat(second).isSameAs(first);
+        assertThat(invalid).isNull();
+        assertThat(verifyCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("验证 Token - 并发未命中只回源一次")
+    void verify_ConcurrentMisses_SingleFlight() throws Exception {
+        // Given
+        verifyGate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        List<CompletableFuture<UserTokenInfo>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(CompletableFuture.supplyAsync(() -> authClient.verify(VALID_TOKEN), executor));
+        }
+        Thread.sleep(200);
+        verifyGate.countDown();
+
+        // Then
+        for (CompletableFuture<UserTokenInfo> future : futures) {
+            assertThat(future.get().getUserId()).isEqualTo(1L);
+        }
+        assertThat(verifyCalls.get()).isEqualTo(1);
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("批量验证 - 未命中的 Token 合并为一次请求")
+    void verifyAll_MergesMissesIntoSingleBatch() {
+        // Given
+        authClient.verify(VALID_TOKEN);
+
+        // When
+        Map<String, UserTokenInfo> result = authClient.verifyAll(
+            List.of(VALID_TOKEN, OTHER_TOKEN, "forged-token"));
+
+        // Then
+        assertThat(result).containsOnlyKeys(VALID_TOKEN, OTHER_TOKEN);
+        assertThat(result.get(OTHER_TOKEN).getUserId()).isEqualTo(2L);
+        assertThat(batchCalls.get()).isEqualTo(1);
+
+        // 批量结果同样进入缓存
+        authClient.verify(OTHER_TOKEN);
+        assertThat(verifyCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("失效用户 - Token 与授权决策重新回源")
+    void invalidateUser_ReloadsTokensAndDecisions() {
+        // Given
+        authClient.verify(VALID_TOKEN);
+        authClient.verify(OTHER_TOKEN);
+        assertThat(authClient.isAllowed(1L, "post", "create")).isTrue();
+        assertThat(authClient.isAllowed(1L, "post", "create")).isTrue();
+        assertThat(authClient.isAllowed(2L, "post", "create")).isFalse();
+
+        // When
+        authClient.invalidateUser(1L);
+        authClient.verify(VALID_TOKEN);
+        authClient.verify(OTHER_TOKEN);
+        authClient.isAllowed(1L, "post", "create");
+        authClient.isAllowed(2L, "post", "create");
+
+        // Then - 只有用户 1 的条目被失效
+        assertThat(verifyCalls.get()).isEqualTo(3);
+        assertThat(authorizeCalls.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("失效 Token - 按 SHA-256 失效单个 Token")
+    void invalidateToken_ByHash() {
+        // Given
+        authClient.verify(VALID_TOKEN);
+
+        // When
+        authClient.invalidateToken(AuthClient.hash(VALID_TOKEN));
+        authClient.verify(VALID_TOKEN);
+
+        // Then
+        assertThat(verifyCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("认证服务异常 - 抛出异常且不缓存失败结果")
+    void verify_ServiceError_NotCached() {
+        // Given
+        status = 503;
+
+        // When & Then
+        assertThatThrownBy(() -> authClient.verify(VALID_TOKEN))
+            .isInstanceOf(AuthClientException.class);
+
+        status = 200;
+        assertThat(authClient.verify(VALID_TOKEN).getUserId()).isEqualTo(1L);
+        assertThat(verifyCalls.get()).isEqualTo(2);
+    }
+
+    private void awaitGate() {
+        CountDownLatch gate = verifyGate;
+        if (gate != null) {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static String extractData(String response) {
+        return response.substring("{\"code\":200,\"data\":".length(), response.length() - 1);
+    }
+
+    private static String read(HttpExchange exchange) throws IOException {
+        return new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -0,0 +1,187 @@
+package com.open436.auth.grpc;
+
+import com.open436.auth.dto.UserTokenInfo;
+import com.open436.auth.entity.UserAuth;
+import com.open436.auth.enums.ErrorCode;
+import com.open436.auth.exception.BusinessException;
+import com.open436.auth.grpc.proto.AuthServiceGrpc;
+import com.open436.auth.grpc.proto.BatchVerifyRequest;
+import com.open436.auth.grpc.proto.BatchVerifyResponse;
+import com.open436.auth.grpc.proto.CheckPermissionRequest;
+import com.open436.auth.grpc.proto.CheckPermissionResponse;
+import com.open436.auth.grpc.proto.GetUserSnapshotRequest;
+import com.open436.auth.grpc.proto.UserSnapshot;
+import com.open436.auth.grpc.proto.VerifyRequest;
+import com.open436.auth.grpc.proto.VerifyResponse;
+import com.open436.auth.repository.UserAuthRepository;
+import com.open436.auth.service.PermissionService;
+import com.open436.auth.service.RoleService;
+import com.open436.auth.service.TokenVerificationService;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 认证服务 gRPC 实现
+ * 与 REST 接口共用 {@link TokenVerificationService}、{@link PermissionService} 等服务层（含缓存与 Redis 降级）；
+ * 业务异常按 HTTP 状态映射为 gRPC 状态码，Redis 不可用时返回 UNAVAILABLE
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthGrpcService extends AuthServiceGrpc.AuthServiceImplBase {
+    
+    private final TokenVerificationService tokenVerificationService;
+    private final PermissionService permissionService;
+    private final RoleService roleService;
+    private final UserAuthRepository userAuthRepository;
+    
+    @Override
+    public void verify(VerifyRequest request, StreamObserver<VerifyResponse> responseObserver) {
+        unary(request, this::doVerify, responseObserver);
+    }
+    
+    @Override
+    public void batchVerify(BatchVerifyRequest request, StreamObserver<BatchVerifyResponse> responseObserver) {
+        unary(request, req -> {
+            BatchVerifyResponse.Builder builder = BatchVerifyResponse.newBuilder();
+            for (String token : req.getTokensList()) {
+                builder.addResults(verifyToken(token));
+            }
+            return builder.build();
+        }, responseObserver);
+    }
+    
+    @Override
+    public void checkPermission(CheckPermissionRequest request,
+                                StreamObserver<CheckPermissionResponse> responseObserver) {
+        unary(request, this::doCheckPermission, responseObserver);
+    }
+    
+    @Override
+    public void getUserSnapshot(GetUserSnapshotRequest request, StreamObserver<UserSnapshot> responseObserver) {
+        unary(request, this::doGetUserSnapshot, responseObserver);
+    }
+    
+    @Override
+    public StreamObserver<VerifyRequest> verifyStream(StreamObserver<VerifyResponse> responseObserver) {
+        return stream(this::doVerify, responseObserver);
+    }
+    
+    @Override
+    public StreamObserver<CheckPermissionRequest> checkPermissionStream(
+            StreamObserver<CheckPermissionResponse> responseObserver) {
+        return stream(this::doCheckPermission, responseObserver);
+    }
+    
+    private VerifyResponse doVerify(VerifyRequest request) {
+        return verifyToken(request.getToken());
+    }
+    
+    private VerifyResponse verifyToken(String token) {
+        UserTokenInfo userInfo = tokenVerificationService.verify(token);
+        if (userInfo == null) {
+            return VerifyResponse.newBuilder().setValid(false).build();
+        }
+        VerifyResponse.Builder builder = VerifyResponse.newBuilder()
+            .setValid(true)
+            .setUserId(userInfo.getUserId())
+            .setRole(userInfo.getRole());
+        if (userInfo.getUsername() != null) {
+            builder.setUsername(userInfo.getUsername());
+        }
+        return builder.build();
+    }
+    
+    private CheckPermissionResponse doCheckPermission(CheckPermissionRequest request) {
+        Map<String, Boolean> granted = permissionService.checkPermissions(
+            request.getUserId(), request.getPermissionCodesList());
+        CheckPermissionResponse.Builder builder = CheckPermissionResponse.newBuilder()
+            .setUserId(request.getUserId());
+        for (String code : request.getPermissionCodesList()) {
+            builder.addGranted(granted.get(code));
+        }
+        return builder.build();
+    }
+    
+    private UserSnapshot doGetUserSnapshot(GetUserSnapshotRequest request) {
+        UserAuth user = userAuthRepository.findById(request.getUserId())
+            .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
+        return UserSnapshot.newBuilder()
+            .setUserId(user.getId())
+            .setUsername(user.getUsername())
+            .setStatus(user.getStatus())
+            .addAllRoles(roleService.getUserRoleCodes(user.getId()))
+            .addAllPermissions(permissionService.getUserPermissionCodes(user.getId()))
+            .build();
+    }
+    
+    private <Q, R> void unary(Q request, Function<Q, R> handler, StreamObserver<R> responseObserver) {
+        R response;
+        try {
+            response = handler.apply(request);
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatus(e));
+            return;
+        }
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+    
+    /**
+     * 双向流：每收到一条请求立即返回一条结果，出错时以对应状态码结束整个流
+     */
+    private <Q, R> StreamObserver<Q> stream(Function<Q, R> handler, StreamObserver<R> responseObserver) {
+        return new StreamObserver<>() {
+            
+            private boolean failed;
+            
+            @Override
+            public void onNext(Q request) {
+                if (failed) {
+                    return;
+                }
+                try {
+                    responseObserver.onNext(handler.apply(request));
+                } catch (RuntimeException e) {
+                    failed = true;
+                    responseObserver.onError(toStatus(e));
+                }
+            }
+            
+            @Override
+            public void onError(Throwable t) {
+                log.debug("gRPC 客户端取消流: {}", t.getMessage());
+            }
+            
+            @Override
+            public void onCompleted() {
+                if (!failed) {
+                    responseObserver.onCompleted();
+                }
+            }
+        };
+    }
+    
+    private StatusRuntimeException toStatus(RuntimeException e) {
+        if (!(e instanceof BusinessException be)) {
+            log.error("gRPC 调用异常", e);
+            return Status.INTERNAL.withDescription("服务器内部错误").asRuntimeException();
+        }
+        Status status = switch (be.getHttpStatus()) {
+            case BAD_REQUEST -> Status.INVALID_ARGUMENT;
+            case UNAUTHORIZED -> Status.UNAUTHENTICATED;
+            case FORBIDDEN -> Status.PERMISSION_DENIED;
+            case NOT_FOUND -> Status.NOT_FOUND;
+            case SERVICE_UNAVAILABLE -> Status.UNAVAILABLE;
+            default -> Status.INTERNAL;
+        };
+        return status.withDescription(be.getCode() + ": " + be.getMessage()).asRuntimeException();
+    }
+}
@@ -0,0 +1,90 @@
+package com.open436.auth.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * gRPC 服务端生命周期
+ * 随 Spring 容器启动与停止，与 REST 接口使用独立端口；
+ * 服务实现会访问 Redis 与数据库（阻塞调用），每个调用在虚拟线程上执行。
+ * 所有调用需携带服务令牌（{@link ServiceTokenInterceptor}）；配置证书后启用 TLS
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "grpc.server", name = "enabled", havingValue = "true")
+public class GrpcServerLifecycle implements SmartLifecycle {
+    
+    private final GrpcServerProperties properties;
+    private final List<BindableService> services;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile Server server;
+    
+    public GrpcServerLifecycle(GrpcServerProperties properties, List<BindableService> services) {
+        this.properties = properties;
+        this.services = services;
+    }
+    
+    @Override
+    public void start() {
+        ServiceTokenInterceptor interceptor = new ServiceTokenInterceptor(properties.getServiceToken());
+        NettyServerBuilder builder = NettyServerBuilder.forPort(properties.getPort())
+            .executor(executor)
+            .maxConcurrentCallsPerConnection(properties.getMaxConcurrentCallsPerConnection())
+            .keepAliveTime(properties.getKeepAliveTime().toMillis(), TimeUnit.MILLISECONDS)
+            .permitKeepAliveTime(properties.getPermitKeepAliveTime().toMillis(), TimeUnit.MILLISECONDS);
+        services.forEach(service -> builder.addService(ServerInterceptors.intercept(service, interceptor)));
+        
+        GrpcServerProperties.Tls tls = properties.getTls();
+        if (tls.isEnabled()) {
+            builder.useTransportSecurity(new File(tls.getCertChain()), new File(tls.getPrivateKey()));
+        } else {
+            log.warn("gRPC 服务端未配置 TLS，端口只能在受信任的内部网络开放: port={}", properties.getPort());
+        }
+        
+        try {
+            server = builder.build().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("gRPC 服务端启动失败: port=" + properties.getPort(), e);
+        }
+        log.info("gRPC 服务端已启动: port={}, services={}, tls={}", properties.getPort(), services.size(), tls.isEnabled());
+    }
+    
+    @Override
+    public void stop() {
+        Server current = server;
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(properties.getShutdownGracePeriod().toMillis(), TimeUnit.MILLISECONDS)) {
+                current.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            current.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdown();
+        server = null;
+        log.info("gRPC 服务端已停止");
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
@@ -0,0 +1,78 @@
+package com.open436.auth.grpc;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * gRPC 服务端配置属性类
+ * 从grpc-server.yml中读取grpc.server配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "grpc.server")
+public class GrpcServerProperties {
+    
+    /**
+     * 是否启动 gRPC 服务端
+     */
+    private boolean enabled = false;
+    
+    /**
+     * 监听端口
+     */
+    private int port = 9090;
+    
+    /**
+     * 内部服务调用凭证，调用方通过 metadata x-service-token 携带；启用服务端时必须配置
+     */
+    private String serviceToken;
+    
+    /**
+     * TLS 配置（证书链与私钥均配置时启用，否则为明文，只能部署在受信任的内部网络）
+     */
+    private Tls tls = new Tls();
+    
+    /**
+     * 单个连接上允许的最大并发调用数（HTTP/2 流）
+     */
+    private int maxConcurrentCallsPerConnection = 1000;
+    
+    /**
+     * 服务端 keepalive ping 间隔，及时发现失效的长连接
+     */
+    private Duration keepAliveTime = Duration.ofMinutes(1);
+    
+    /**
+     * 允许客户端发送 keepalive ping 的最小间隔
+     */
+    private Duration permitKeepAliveTime = Duration.ofSeconds(30);
+    
+    /**
+     * 停机时等待进行中调用完成的最长时间
+     */
+    private Duration shutdownGracePeriod = Duration.ofSeconds(10);
+    
+    /**
+     * TLS 配置
+     */
+    @Data
+    public static class Tls {
+        
+        /**
+         * PEM 格式证书链文件路径
+         */
+        private String certChain;
+        
+        /**
+         * PEM 格式私钥文件路径（PKCS#8）
+         */
+        private String privateKey;
+        
+        public boolean isEnabled() {
+            return certChain != null && !certChain.isBlank() && privateKey != null && !privateKey.isBlank();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.open436.auth.grpc;
+
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * 服务令牌拦截器
+ * gRPC 接口面向内部服务（GetUserSnapshot 会返回任意用户的角色与权限），
+ * 调用方必须在 metadata x-service-token 中携带配置的服务令牌，否则以 UNAUTHENTICATED 结束调用
+ */
+@Slf4j
+public class ServiceTokenInterceptor implements ServerInterceptor {
+    
+    static final Metadata.Key<String> SERVICE_TOKEN_KEY =
+        Metadata.Key.of("x-service-token", Metadata.ASCII_STRING_MARSHALLER);
+    
+    private final byte[] expected;
+    
+    public ServiceTokenInterceptor(String serviceToken) {
+        if (serviceToken == null || serviceToken.isBlank()) {
+            throw new IllegalStateException("启用 gRPC 服务端时必须配置 grpc.server.service-token");
+        }
+        this.expected = serviceToken.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                       ServerCallHandler<Q, R> next) {
+        String token = headers.get(SERVICE_TOKEN_KEY);
+        // 常量时间比较，避免通过响应时间逐字节猜测令牌
+        if (token == null || !MessageDigest.isEqual(expected, token.getBytes(StandardCharsets.UTF_8))) {
+            log.warn("gRPC 调用缺少有效的服务令牌: method={}", call.getMethodDescriptor().getFullMethodName());
+            call.close(Status.UNAUTHENTICATED.withDescription("缺少有效的服务令牌"), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+        return next.startCall(call, headers);
+    }
+}
@@ -0,0 +1,72 @@
+package com.open436.auth.grpc;
+
+import com.open436.auth.base.BaseUnitTest;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.Status;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * ServiceTokenInterceptor 单元测试
+ * 测试 gRPC 调用的服务令牌校验
+ */
+class ServiceTokenInterceptorTest extends BaseUnitTest {
+    
+    @Mock
+    private ServerCall<Object, Object> call;
+    
+    @Mock
+    private ServerCallHandler<Object, Object> next;
+    
+    private final ServiceTokenInterceptor interceptor = new ServiceTokenInterceptor("s3cret");
+    
+    @Test
+    void testValidToken_StartsCall() {
+        // Given: 携带正确的服务令牌
+        Metadata headers = new Metadata();
+        headers.put(ServiceTokenInterceptor.SERVICE_TOKEN_KEY, "s3cret");
+        
+        // When
+        interceptor.interceptCall(call, headers, next);
+        
+        // Then: 交给服务实现处理
+        verify(next).startCall(call, headers);
+        verify(call, never()).close(any(), any());
+    }
+    
+    @Test
+    void testMissingOrWrongToken_Unauthenticated() {
+        // Given
+        MethodDescriptor<Object, Object> method = mock(MethodDescriptor.class);
+        when(method.getFullMethodName()).thenReturn("open436.auth.v1.AuthService/GetUserSnapshot");
+        when(call.getMethodDescriptor()).thenReturn(method);
+        Metadata wrong = new Metadata();
+        wrong.put(ServiceTokenInterceptor.SERVICE_TOKEN_KEY, "guess");
+        
+        // When: 未携带令牌、携带错误令牌
+        interceptor.interceptCall(call, new Metadata(), next);
+        interceptor.interceptCall(call, wrong, next);
+        
+        // Then: 以 UNAUTHENTICATED 结束，不调用服务实现
+        ArgumentCaptor<Status> status = ArgumentCaptor.forClass(Status.class);
+        verify(call, times(2)).close(status.capture(), any(Metadata.class));
+        assertThat(status.getAllValues()).allMatch(s -> s.getCode() == Status.Code.UNAUTHENTICATED);
+        verifyNoInteractions(next);
+    }
+    
+    @Test
+    void testBlankToken_RefusesToStart() {
+        // When & Then: 未配置服务令牌时拒绝启动
+        assertThatThrownBy(() -> new ServiceTokenInterceptor(" "))
+            .isInstanceOf(IllegalStateException.class);
+    }
+}
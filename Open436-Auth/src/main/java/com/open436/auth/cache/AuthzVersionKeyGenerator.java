@@ -0,0 +1,37 @@
+package com.open436.auth.cache;
+
+import com.open436.auth.service.AuthzVersionService;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * 带授权版本的用户缓存 Key 生成器
+ * Key 格式：userId:授权版本（第一个参数为用户ID），用于 userRoles / userPermissions 缓存；
+ * 用户的角色或权限变化后版本递增，旧 Key 不再被读取，随 TTL 过期
+ */
+@Component(AuthzVersionKeyGenerator.BEAN_NAME)
+public class AuthzVersionKeyGenerator implements KeyGenerator {
+    
+    public static final String BEAN_NAME = "authzVersionKeyGenerator";
+    
+    private final AuthzVersionService authzVersionService;
+    
+    public AuthzVersionKeyGenerator(AuthzVersionService authzVersionService) {
+        this.authzVersionService = authzVersionService;
+    }
+    
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        Long userId = (Long) params[0];
+        return key(userId, authzVersionService.getVersion(userId));
+    }
+    
+    /**
+     * 拼接缓存 Key（不含缓存名前缀）
+     */
+    public static String key(Long userId, long version) {
+        return userId + ":" + version;
+    }
+}
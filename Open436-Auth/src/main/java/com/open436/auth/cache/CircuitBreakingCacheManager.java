@@ -0,0 +1,133 @@
+package com.open436.auth.cache;
+
+import com.open436.auth.resilience.RedisCircuitBreaker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 带熔断保护的缓存管理器
+ * 包装 Redis 缓存：Redis 不可用时读缓存按未命中处理（回源数据库），写缓存直接跳过，
+ * 避免每次请求都等待 Redis 超时，也避免缓存故障让业务接口整体报错
+ */
+@Slf4j
+public class CircuitBreakingCacheManager implements CacheManager {
+    
+    private final CacheManager delegate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+    
+    public CircuitBreakingCacheManager(CacheManager delegate, RedisCircuitBreaker circuitBreaker) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+    }
+    
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, key -> {
+            Cache cache = delegate.getCache(key);
+            return cache != null ? new CircuitBreakingCache(cache) : null;
+        });
+    }
+    
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+    
+    /**
+     * 带熔断保护的缓存
+     */
+    private class CircuitBreakingCache implements Cache {
+        
+        private final Cache delegate;
+        
+        CircuitBreakingCache(Cache delegate) {
+            this.delegate = delegate;
+        }
+        
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+        
+        @Override
+        public Object getNativeCache() {
+            return delegate.getNativeCache();
+        }
+        
+        @Override
+        public ValueWrapper get(Object key) {
+            return guard(() -> delegate.get(key));
+        }
+        
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            return guard(() -> delegate.get(key, type));
+        }
+        
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            ValueWrapper cached = get(key);
+            if (cached != null) {
+                @SuppressWarnings("unchecked")
+                T value = (T) cached.get();
+                return value;
+            }
+            T value;
+            try {
+                value = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            put(key, value);
+            return value;
+        }
+        
+        @Override
+        public void put(Object key, Object value) {
+            guard(() -> {
+                delegate.put(key, value);
+                return null;
+            });
+        }
+        
+        @Override
+        public void evict(Object key) {
+            guard(() -> {
+                delegate.evict(key);
+                return null;
+            });
+        }
+        
+        @Override
+        public void clear() {
+            guard(() -> {
+                delegate.clear();
+                return null;
+            });
+        }
+        
+        /**
+         * 在熔断器保护下访问缓存，Redis 不可用时返回 null（按未命中处理）
+         * 失效操作被跳过时，依靠缓存过期时间兜底
+         */
+        private <T> T guard(Supplier<T> call) {
+            try {
+                return circuitBreaker.execute(call);
+            } catch (RuntimeException e) {
+                if (!RedisCircuitBreaker.isInfrastructureFailure(e)) {
+                    throw e;
+                }
+                log.debug("Redis 不可用，跳过缓存操作: cache={}, error={}", delegate.getName(), e.getMessage());
+                return null;
+            }
+        }
+    }
+}
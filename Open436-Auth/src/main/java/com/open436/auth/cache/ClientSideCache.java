@@ -0,0 +1,203 @@
+package com.open436.auth.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.open436.auth.config.RedisStoreProperties;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.support.caching.CacheAccessor;
+import io.lettuce.core.support.caching.CacheFrontend;
+import io.lettuce.core.support.caching.ClientSideCaching;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceExceptionConverter;
+
+/**
+ * Redis 客户端缓存
+ * 基于 RESP3 CLIENT TRACKING：通过一条独立的跟踪连接读取 Key，结果保存在本地（Caffeine，有容量和时间上限），
+ * 任何客户端修改、删除该 Key 或 Key 过期时，Redis 向跟踪连接推送失效通知并移除本地副本。
+ * 跟踪连接断开期间的通知会丢失，因此断开时清空本地缓存，重连后首次读取前重新开启跟踪。
+ * 本实例的写操作完成后调用 {@link #evict} 立即移除本地副本，不依赖异步通知。
+ * 跟踪连接直接使用 Lettuce API，异常转换为 Spring 的 DataAccessException，熔断与降级逻辑与模板调用一致
+ */
+@Slf4j
+public class ClientSideCache implements DisposableBean {
+    
+    private static final LettuceExceptionConverter EXCEPTION_CONVERTER = new LettuceExceptionConverter();
+    
+    private final String name;
+    private final LettuceConnectionFactory connectionFactory;
+    private final boolean enabled;
+    private final Cache<String, byte[]> store;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter invalidationCounter;
+    
+    private volatile StatefulRedisConnection<String, byte[]> connection;
+    private volatile CacheFrontend<String, byte[]> frontend;
+    private volatile boolean trackingLost;
+    
+    public ClientSideCache(String name, LettuceConnectionFactory connectionFactory,
+                           RedisStoreProperties.ClientSideCaching properties) {
+        this.name = name;
+        this.connectionFactory = connectionFactory;
+        this.store = Caffeine.newBuilder()
+            .maximumSize(properties.getMaxEntries())
+            .expireAfterWrite(properties.getMaxAge())
+            .build();
+        
+        boolean enabled = properties.isEnabled();
+        if (enabled && connectionFactory.isClusterAware()) {
+            log.warn("Redis Cluster 不支持客户端缓存，已关闭: store={}", name);
+            enabled = false;
+        }
+        this.enabled = enabled;
+        
+        Tags tags = Tags.of("store", name);
+        this.hitCounter = Metrics.counter("redis.client.cache", tags.and("result", "hit"));
+        this.missCounter = Metrics.counter("redis.client.cache", tags.and("result", "miss"));
+        this.invalidationCounter = Metrics.counter("redis.client.cache.invalidations", tags);
+        if (enabled) {
+            Metrics.gauge("redis.client.cache.size", tags, store, Cache::estimatedSize);
+        }
+    }
+    
+    /**
+     * 是否启用客户端缓存
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * 读取 Key（本地未命中时从 Redis 读取并开始跟踪）
+     * @param key Redis Key
+     * @return 值，不存在时返回 null
+     */
+    public byte[] get(String key) {
+        try {
+            CacheFrontend<String, byte[]> current = frontend();
+            if (trackingLost) {
+                enableTracking();
+            }
+            return current.get(key);
+        } catch (RuntimeException e) {
+            DataAccessException translated = EXCEPTION_CONVERTER.convert(e);
+            throw translated != null ? translated : e;
+        }
+    }
+    
+    /**
+     * 移除本地副本（本实例修改 Key 后调用）
+     * @param key Redis Key
+     */
+    public void evict(String key) {
+        store.invalidate(key);
+    }
+    
+    /**
+     * 清空本地副本
+     */
+    public void clear() {
+        store.invalidateAll();
+    }
+    
+    @Override
+    public void destroy() {
+        if (frontend != null) {
+            frontend.close();
+        }
+        if (connection != null) {
+            connection.close();
+        }
+    }
+    
+    private CacheFrontend<String, byte[]> frontend() {
+        CacheFrontend<String, byte[]> current = frontend;
+        if (current == null) {
+            synchronized (this) {
+                current = frontend;
+                if (current == null) {
+                    current = connect();
+                    frontend = current;
+                }
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * 建立跟踪连接并开启 CLIENT TRACKING
+     */
+    private CacheFrontend<String, byte[]> connect() {
+        RedisClient client = (RedisClient) connectionFactory.getRequiredNativeClient();
+        StatefulRedisConnection<String, byte[]> tracked =
+            client.connect(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE));
+        
+        client.addListener(new RedisConnectionStateListener() {
+            @Override
+            public void onRedisDisconnected(RedisChannelHandler<?, ?> handler) {
+                if (handler == tracked) {
+                    // 断开期间的失效通知会丢失，本地副本不再可信
+                    store.invalidateAll();
+                    trackingLost = true;
+                    log.warn("客户端缓存跟踪连接断开，已清空本地缓存: store={}", name);
+                }
+            }
+        });
+        
+        CacheFrontend<String, byte[]> created = ClientSideCaching.enable(new CountingCacheAccessor(), tracked,
+            TrackingArgs.Builder.enabled());
+        connection = tracked;
+        log.info("Redis 客户端缓存已启用: store={}", name);
+        return created;
+    }
+    
+    /**
+     * 重连后重新开启跟踪（跟踪状态属于连接，重连后需要重新声明）
+     */
+    private synchronized void enableTracking() {
+        if (!trackingLost) {
+            return;
+        }
+        store.invalidateAll();
+        connection.sync().clientTracking(TrackingArgs.Builder.enabled());
+        trackingLost = false;
+        log.info("客户端缓存跟踪已恢复: store={}", name);
+    }
+    
+    /**
+     * 本地存储访问器（统计命中、未命中和失效次数）
+     */
+    private class CountingCacheAccessor implements CacheAccessor<String, byte[]> {
+        
+        @Override
+        public byte[] get(String key) {
+            byte[] value = store.getIfPresent(key);
+            (value != null ? hitCounter : missCounter).increment();
+            return value;
+        }
+        
+        @Override
+        public void put(String key, byte[] value) {
+            store.put(key, value);
+        }
+        
+        @Override
+        public void evict(String key) {
+            invalidationCounter.increment();
+            store.invalidate(key);
+        }
+    }
+}
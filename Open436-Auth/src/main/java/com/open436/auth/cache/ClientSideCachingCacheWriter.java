@@ -0,0 +1,95 @@
+package com.open436.auth.cache;
+
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 带客户端缓存的 RedisCacheWriter
+ * 读缓存经过 {@link ClientSideCache}，写入、删除委托给原 Writer 后移除本地副本
+ */
+public class ClientSideCachingCacheWriter implements RedisCacheWriter {
+    
+    private final RedisCacheWriter delegate;
+    private final ClientSideCache clientSideCache;
+    
+    public ClientSideCachingCacheWriter(RedisCacheWriter delegate, ClientSideCache clientSideCache) {
+        this.delegate = delegate;
+        this.clientSideCache = clientSideCache;
+    }
+    
+    @Override
+    public byte[] get(String name, byte[] key) {
+        return clientSideCache.get(toString(key));
+    }
+    
+    @Override
+    public byte[] get(String name, byte[] key, Duration ttl) {
+        // 读取时刷新过期时间（TTI）需要访问 Redis，不走本地缓存
+        return delegate.get(name, key, ttl);
+    }
+    
+    @Override
+    public boolean supportsAsyncRetrieve() {
+        return delegate.supportsAsyncRetrieve();
+    }
+    
+    @Override
+    public CompletableFuture<byte[]> retrieve(String name, byte[] key, Duration ttl) {
+        return delegate.retrieve(name, key, ttl);
+    }
+    
+    @Override
+    public void put(String name, byte[] key, byte[] value, Duration ttl) {
+        delegate.put(name, key, value, ttl);
+        clientSideCache.evict(toString(key));
+    }
+    
+    @Override
+    public CompletableFuture<Void> store(String name, byte[] key, byte[] value, Duration ttl) {
+        return delegate.store(name, key, value, ttl)
+            .whenComplete((result, e) -> clientSideCache.evict(toString(key)));
+    }
+    
+    @Override
+    public byte[] putIfAbsent(String name, byte[] key, byte[] value, Duration ttl) {
+        byte[] existing = delegate.putIfAbsent(name, key, value, ttl);
+        clientSideCache.evict(toString(key));
+        return existing;
+    }
+    
+    @Override
+    public void remove(String name, byte[] key) {
+        delegate.remove(name, key);
+        clientSideCache.evict(toString(key));
+    }
+    
+    @Override
+    public void clean(String name, byte[] pattern) {
+        delegate.clean(name, pattern);
+        clientSideCache.clear();
+    }
+    
+    @Override
+    public void clearStatistics(String name) {
+        delegate.clearStatistics(name);
+    }
+    
+    @Override
+    public RedisCacheWriter withStatisticsCollector(CacheStatisticsCollector cacheStatisticsCollector) {
+        return new ClientSideCachingCacheWriter(delegate.withStatisticsCollector(cacheStatisticsCollector), clientSideCache);
+    }
+    
+    @Override
+    public CacheStatistics getCacheStatistics(String cacheName) {
+        return delegate.getCacheStatistics(cacheName);
+    }
+    
+    private static String toString(byte[] key) {
+        return new String(key, StandardCharsets.UTF_8);
+    }
+}
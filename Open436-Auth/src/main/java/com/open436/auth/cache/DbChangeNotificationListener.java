@@ -0,0 +1,174 @@
+package com.open436.auth.cache;
+
+import com.open436.auth.cache.SecondLevelCacheInvalidator.Target;
+import com.open436.auth.config.DbNotifyProperties;
+import com.open436.auth.service.AuthzVersionService;
+import com.open436.auth.service.PermissionService;
+import com.open436.auth.service.RoleService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 数据库变更通知监听器
+ * 通过 PostgreSQL LISTEN 接收 roles / permissions / user_roles / role_permissions 上的触发器通知，
+ * 管理员或迁移脚本直接修改 SQL 时也能精确失效本实例的缓存：
+ * <ul>
+ *   <li>users:ID,... —— 授权版本已在数据库中递增，刷新在线 Session 中的版本，旧版本的角色/权限缓存不再命中</li>
+ *   <li>roles:ID / permissions:ID —— 清除实体二级缓存</li>
+ *   <li>role_permissions:ID —— 清除角色权限集合的二级缓存</li>
+ * </ul>
+ * 每个实例各自监听，只处理本地状态，不再广播；通知在事务提交后才投递，监听连接断开期间的通知会丢失，
+ * 重连后全量清除角色/权限缓存
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DbChangeNotificationListener {
+    
+    /**
+     * 通知频道（与 V6 迁移脚本一致）
+     */
+    public static final String CHANNEL = "auth_cache_invalidate";
+    
+    private final DataSourceProperties dataSourceProperties;
+    private final DbNotifyProperties properties;
+    private final AuthzVersionService authzVersionService;
+    private final SecondLevelCacheInvalidator secondLevelCacheInvalidator;
+    private final PermissionService permissionService;
+    private final RoleService roleService;
+    
+    private volatile boolean running;
+    private Thread listener;
+    
+    @PostConstruct
+    void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        listener = Thread.ofPlatform().daemon().name("db-notify-listener").start(this::listen);
+    }
+    
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+    
+    /**
+     * 监听循环：连接断开后按固定间隔重连
+     */
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                log.info("开始监听数据库变更通知: channel={}", CHANNEL);
+                if (reconnecting) {
+                    resync();
+                }
+                reconnecting = true;
+                
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                int timeoutMillis = (int) properties.getPollTimeout().toMillis();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(timeoutMillis);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("数据库变更通知连接断开，{} 后重连: {}", properties.getReconnectInterval(), e.getMessage());
+                try {
+                    Thread.sleep(properties.getReconnectInterval().toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+    
+    /**
+     * 处理一条通知
+     * @param payload 目标:ID[,ID...]
+     */
+    void handle(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator <= 0) {
+            log.warn("无法识别的数据库变更通知: {}", payload);
+            return;
+        }
+        
+        List<Long> ids;
+        try {
+            ids = parseIds(payload.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            log.warn("无法识别的数据库变更通知: {}", payload);
+            return;
+        }
+        
+        String target = payload.substring(0, separator);
+        switch (target) {
+            case "users" -> {
+                // 先清除用户角色集合的二级缓存再切换版本，新版本的缓存不会由旧集合加载
+                ids.forEach(id -> secondLevelCacheInvalidator.evictLocal(Target.USER_ROLES, id));
+                authzVersionService.refresh(ids);
+            }
+            case "roles" -> ids.forEach(id -> secondLevelCacheInvalidator.evictLocal(Target.ROLE, id));
+            case "permissions" -> ids.forEach(id -> secondLevelCacheInvalidator.evictLocal(Target.PERMISSION, id));
+            case "role_permissions" ->
+                ids.forEach(id -> secondLevelCacheInvalidator.evictLocal(Target.ROLE_PERMISSIONS, id));
+            default -> {
+                log.warn("无法识别的数据库变更通知: {}", payload);
+                return;
+            }
+        }
+        log.debug("处理数据库变更通知: target={}, count={}", target, ids.size());
+    }
+    
+    /**
+     * 断线期间的通知已丢失，无法确定受影响的用户，全量清除
+     */
+    private void resync() {
+        log.warn("数据库变更通知重连，全量清除角色/权限缓存");
+        try {
+            secondLevelCacheInvalidator.evictLocal(Target.ALL, null);
+            roleService.clearAllRolesCache();
+            permissionService.clearAllPermissionsCache();
+        } catch (RuntimeException e) {
+            log.warn("全量清除角色/权限缓存失败: {}", e.getMessage());
+        }
+    }
+    
+    private static List<Long> parseIds(String value) {
+        List<Long> ids = new ArrayList<>();
+        for (String id : value.split(",")) {
+            ids.add(Long.valueOf(id.trim()));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,118 @@
+package com.open436.auth.cache;
+
+import com.open436.auth.cache.SecondLevelCacheInvalidator.Target;
+import com.open436.auth.entity.Permission;
+import com.open436.auth.entity.Role;
+import com.open436.auth.entity.UserAuth;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * 二级缓存变更监听器
+ * 监听 Role / Permission 实体以及 Role.permissions、UserAuth.roles 集合的变更，
+ * 交给 {@link SecondLevelCacheInvalidator} 在事务提交后广播到其他实例
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheEventListener implements
+        PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        PostCollectionRecreateEventListener, PostCollectionUpdateEventListener,
+        PostCollectionRemoveEventListener {
+    
+    private static final String ROLE_PERMISSIONS_ROLE = Role.class.getName() + ".permissions";
+    private static final String USER_ROLES_ROLE = UserAuth.class.getName() + ".roles";
+    
+    private final EntityManagerFactory entityManagerFactory;
+    private final SecondLevelCacheInvalidator invalidator;
+    
+    /**
+     * 向 Hibernate 注册事件监听
+     */
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+        
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+    }
+    
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        onEntityChanged(event.getEntity(), event.getId());
+    }
+    
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        onEntityChanged(event.getEntity(), event.getId());
+    }
+    
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        onEntityChanged(event.getEntity(), event.getId());
+    }
+    
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        onCollectionChanged(event);
+    }
+    
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        onCollectionChanged(event);
+    }
+    
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        onCollectionChanged(event);
+    }
+    
+    /**
+     * 失效广播在事务提交后进行，无需 Hibernate 的提交后回调
+     */
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+    
+    private void onEntityChanged(Object entity, Object id) {
+        if (entity instanceof Role) {
+            invalidator.broadcastAfterCommit(Target.ROLE, id);
+        } else if (entity instanceof Permission) {
+            invalidator.broadcastAfterCommit(Target.PERMISSION, id);
+        }
+    }
+    
+    private void onCollectionChanged(AbstractCollectionEvent event) {
+        String role = event.getCollection().getRole();
+        if (ROLE_PERMISSIONS_ROLE.equals(role)) {
+            invalidator.broadcastAfterCommit(Target.ROLE_PERMISSIONS, event.getAffectedOwnerIdOrNull());
+        } else if (USER_ROLES_ROLE.equals(role)) {
+            invalidator.broadcastAfterCommit(Target.USER_ROLES, event.getAffectedOwnerIdOrNull());
+        }
+    }
+}
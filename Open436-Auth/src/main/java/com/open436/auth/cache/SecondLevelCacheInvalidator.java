@@ -0,0 +1,168 @@
+package com.open436.auth.cache;
+
+import com.open436.auth.entity.Permission;
+import com.open436.auth.entity.Role;
+import com.open436.auth.entity.UserAuth;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Hibernate 二级缓存跨实例失效器
+ * 二级缓存是进程内的 Caffeine 缓存，本实例的修改由 Hibernate 自动维护；
+ * 这里在事务提交后通过 Redis Pub/Sub 广播失效消息，其他实例收到后清除本地对应条目
+ */
+@Slf4j
+@Component
+public class SecondLevelCacheInvalidator implements MessageListener {
+    
+    /**
+     * 失效广播频道
+     */
+    public static final String CHANNEL = "open436:auth:l2-cache:invalidate";
+    
+    private static final String ROLE_PERMISSIONS_ROLE = Role.class.getName() + ".permissions";
+    private static final String USER_ROLES_ROLE = UserAuth.class.getName() + ".roles";
+    
+    /**
+     * 失效目标
+     */
+    public enum Target {
+        /** 角色实体 */
+        ROLE,
+        /** 权限实体 */
+        PERMISSION,
+        /** 角色的权限集合 */
+        ROLE_PERMISSIONS,
+        /** 用户的角色集合 */
+        USER_ROLES,
+        /** 全部区域 */
+        ALL
+    }
+    
+    /**
+     * 本实例标识，用于忽略自己发出的广播
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+    
+    private final StringRedisTemplate stringRedisTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final RedisMessageListenerContainer listenerContainer;
+    
+    public SecondLevelCacheInvalidator(StringRedisTemplate stringRedisTemplate,
+                                       EntityManagerFactory entityManagerFactory,
+                                       RedisMessageListenerContainer listenerContainer) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.listenerContainer = listenerContainer;
+    }
+    
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+    
+    /**
+     * 在当前事务提交后广播失效消息（无事务时立即广播）
+     * @param target 失效目标
+     * @param id 实体ID或集合所属实体ID，null 表示整个区域
+     */
+    public void broadcastAfterCommit(Target target, Object id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcast(target, id);
+                }
+            });
+        } else {
+            broadcast(target, id);
+        }
+    }
+    
+    /**
+     * 立即广播失效消息
+     * @param target 失效目标
+     * @param id 实体ID或集合所属实体ID，null 表示整个区域
+     */
+    public void broadcast(Target target, Object id) {
+        String payload = nodeId + "|" + target.name() + "|" + (id != null ? id : "");
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, payload);
+            log.debug("广播二级缓存失效: target={}, id={}", target, id);
+        } catch (Exception e) {
+            // 广播失败不影响业务，其他实例的条目最迟在区域过期时间后刷新
+            log.warn("广播二级缓存失效失败: target={}, id={}, error={}", target, id, e.getMessage());
+        }
+    }
+    
+    /**
+     * 接收其他实例的失效广播
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", -1);
+        if (parts.length != 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            Target target = Target.valueOf(parts[1]);
+            Long id = parts[2].isEmpty() ? null : Long.valueOf(parts[2]);
+            evictLocal(target, id);
+        } catch (IllegalArgumentException e) {
+            log.warn("无法识别的二级缓存失效消息: {}", String.join("|", parts));
+        }
+    }
+    
+    /**
+     * 清除本实例的二级缓存条目
+     * @param target 失效目标
+     * @param id 实体ID或集合所属实体ID，null 表示整个区域
+     */
+    public void evictLocal(Target target, Long id) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        switch (target) {
+            case ROLE -> {
+                if (id != null) {
+                    cache.evictEntityData(Role.class, id);
+                } else {
+                    cache.evictEntityData(Role.class);
+                }
+                // findByCode 的查询缓存依赖本地的表更新时间戳，远程修改需要显式清除
+                cache.evictDefaultQueryRegion();
+            }
+            case PERMISSION -> {
+                if (id != null) {
+                    cache.evictEntityData(Permission.class, id);
+                } else {
+                    cache.evictEntityData(Permission.class);
+                }
+            }
+            case ROLE_PERMISSIONS -> evictCollection(cache, ROLE_PERMISSIONS_ROLE, id);
+            case USER_ROLES -> evictCollection(cache, USER_ROLES_ROLE, id);
+            case ALL -> cache.evictAllRegions();
+        }
+        log.debug("清除本地二级缓存: target={}, id={}", target, id);
+    }
+    
+    private void evictCollection(Cache cache, String collectionRole, Long ownerId) {
+        if (ownerId != null) {
+            cache.evictCollectionData(collectionRole, ownerId);
+        } else {
+            cache.evictCollectionData(collectionRole);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.open436.auth.cache;
+
+import com.open436.auth.service.AuthzVersionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.cache.CacheKeyPrefix;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 用户缓存批量清理器
+ * 直接按 RedisCacheManager 的 Key 规则（cacheName::userId:授权版本）拼接 Key，
+ * 版本与读取时一致：在线用户取 Session 中的版本，同时清除数据库最新版本对应的 Key（Session 刷新后读取的 Key）；
+ * 每批以管道方式发送单 Key UNLINK，避免逐个 @CacheEvict 的往返开销；
+ * 单 Key 命令在 Redis Cluster 下按槽位路由到各节点，不受跨槽位限制
+ */
+@Slf4j
+@Component
+public class UserCacheEvictor {
+    
+    /**
+     * 用户角色缓存名称
+     */
+    public static final String USER_ROLES = "userRoles";
+    
+    /**
+     * 用户权限缓存名称
+     */
+    public static final String USER_PERMISSIONS = "userPermissions";
+    
+    /**
+     * 单次管道发送的最大 Key 数
+     */
+    private static final int DELETE_BATCH_SIZE = 500;
+    
+    private final StringRedisTemplate stringRedisTemplate;
+    private final AuthzVersionService authzVersionService;
+    
+    public UserCacheEvictor(@Qualifier("cacheStringRedisTemplate") StringRedisTemplate stringRedisTemplate,
+                            AuthzVersionService authzVersionService) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.authzVersionService = authzVersionService;
+    }
+    
+    /**
+     * 批量清除用户的角色和权限缓存
+     * @param userIds 用户ID集合
+     * @return 实际删除的 Key 数量
+     */
+    public long evictUsers(Collection<Long> userIds) {
+        long deleted = 0;
+        List<String> keys = new ArrayList<>(Math.min(userIds.size() * 2, DELETE_BATCH_SIZE));
+        Map<Long, Long> versions = authzVersionService.getVersions(userIds);
+        Map<Long, Long> sessionVersions = authzVersionService.getSessionVersions(userIds);
+        
+        for (Long userId : userIds) {
+            Set<Long> userVersions = new HashSet<>(2);
+            if (versions.containsKey(userId)) {
+                userVersions.add(versions.get(userId));
+            }
+            if (sessionVersions.containsKey(userId)) {
+                userVersions.add(sessionVersions.get(userId));
+            }
+            for (Long version : userVersions) {
+                keys.add(cacheKey(USER_ROLES, userId, version));
+                keys.add(cacheKey(USER_PERMISSIONS, userId, version));
+            }
+            if (keys.size() >= DELETE_BATCH_SIZE) {
+                deleted += delete(keys);
+                keys.clear();
+            }
+        }
+        if (!keys.isEmpty()) {
+            deleted += delete(keys);
+        }
+        
+        log.debug("批量清除用户缓存: users={}, deletedKeys={}", userIds.size(), deleted);
+        return deleted;
+    }
+    
+    private long delete(List<String> keys) {
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (String key : keys) {
+                stringConnection.unlink(key);
+            }
+            return null;
+        });
+        long count = 0;
+        for (Object result : results) {
+            if (result instanceof Long deleted) {
+                count += deleted;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * 计算缓存 Key（与 RedisCacheManager 默认前缀规则一致）
+     */
+    static String cacheKey(String cacheName, Long userId, long version) {
+        return CacheKeyPrefix.simple().compute(cacheName) + AuthzVersionKeyGenerator.key(userId, version);
+    }
+}
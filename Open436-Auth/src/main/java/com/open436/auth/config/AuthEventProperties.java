@@ -0,0 +1,47 @@
+package com.open436.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 认证变更事件配置属性类
+ * 从application.yml中读取auth-events配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "auth-events")
+public class AuthEventProperties {
+    
+    /**
+     * 是否发布发件箱中的事件（关闭后事件仍会写入发件箱，开启后补发）
+     */
+    private boolean enabled = true;
+    
+    /**
+     * 事件发布的 Redis Stream Key
+     */
+    private String streamKey = "auth:events";
+    
+    /**
+     * Stream 保留的大致条数（XADD MAXLEN ~），落后更多的消费者应清空本地缓存后从最新位置继续
+     */
+    private long streamMaxLength = 100_000L;
+    
+    /**
+     * 发件箱轮询间隔（本实例提交的事件会立即发布，轮询用于兜底和发布其他来源写入的事件）
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+    
+    /**
+     * 每批发布的最大事件数
+     */
+    private int batchSize = 500;
+    
+    /**
+     * 已发布事件在发件箱中的保留时长
+     */
+    private Duration retention = Duration.ofDays(1);
+}
@@ -0,0 +1,33 @@
+package com.open436.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 授权决策配置属性类
+ * 从application.yml中读取authorization配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "authorization")
+public class AuthorizationProperties {
+    
+    /**
+     * 决策缓存最多保存的条目数
+     */
+    private long decisionCacheSize = 100_000;
+    
+    /**
+     * 决策缓存条目的存活时间
+     * 权限变化后缓存键随之变化，旧条目不会再被命中，此处仅用于回收内存
+     */
+    private Duration decisionCacheTtl = Duration.ofMinutes(10);
+    
+    /**
+     * 内部服务凭证（X-Service-Token），携带后可查询任意用户的授权决策；为空时只接受用户 Token
+     */
+    private String serviceToken;
+}
@@ -1,11 +1,19 @@
 package com.open436.auth.config;
 
+import com.open436.auth.cache.CircuitBreakingCacheManager;
+import com.open436.auth.cache.ClientSideCache;
+import com.open436.auth.cache.ClientSideCachingCacheWriter;
+import com.open436.auth.resilience.RedisCircuitBreaker;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -14,7 +22,7 @@ import java.time.Duration;
 
 /**
  * 缓存配置
- * 配置 Redis 缓存管理器
+ * 配置 Redis 缓存管理器和 Redis 消息订阅容器
  */
 @Configuration
 @EnableCaching
@@ -22,11 +30,18 @@ public class CacheConfig {
     
     /**
      * 配置 Redis 缓存管理器
-     * @param connectionFactory Redis 连接工厂
-     * @return RedisCacheManager
+     * 外层包装熔断器，Redis 不可用时缓存降级为直接回源；启用客户端缓存时读缓存优先命中本地副本
+     * @param connectionFactory 缓存专用 Redis 连接工厂
+     * @param clientSideCache 缓存存储客户端缓存
+     * @param circuitBreaker Redis 熔断器
+     * @param dbNotifyProperties 数据库变更通知配置
+     * @return CacheManager
      */
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(@Qualifier("cacheRedisConnectionFactory") RedisConnectionFactory connectionFactory,
+                                     @Qualifier("cacheClientSideCache") ClientSideCache clientSideCache,
+                                     RedisCircuitBreaker circuitBreaker,
+                                     DbNotifyProperties dbNotifyProperties) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
             .entryTtl(Duration.ofMinutes(30))  // 缓存过期时间：30分钟
             .serializeKeysWith(
@@ -40,10 +55,35 @@ public class CacheConfig {
                 )
             );
         
-        return RedisCacheManager.builder(connectionFactory)
-            .cacheDefaults(config)
-            .build();
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory);
+        if (clientSideCache.isEnabled()) {
+            cacheWriter = new ClientSideCachingCacheWriter(cacheWriter, clientSideCache);
+        }
+        
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(cacheWriter)
+            .cacheDefaults(config);
+        if (dbNotifyProperties.isEnabled()) {
+            // 角色/权限的任何修改（包括直接修改 SQL）都会通过数据库通知失效，可以长期缓存
+            RedisCacheConfiguration userCacheConfig = config.entryTtl(dbNotifyProperties.getUserCacheTtl());
+            builder.withCacheConfiguration("userRoles", userCacheConfig)
+                .withCacheConfiguration("userPermissions", userCacheConfig);
+        }
+        
+        RedisCacheManager redisCacheManager = builder.build();
+        redisCacheManager.afterPropertiesSet();
+        return new CircuitBreakingCacheManager(redisCacheManager, circuitBreaker);
+    }
+    
+    /**
+     * Redis 消息订阅容器
+     * 用于接收跨实例的缓存失效广播
+     * @param connectionFactory Redis 连接工厂
+     * @return RedisMessageListenerContainer
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
     }
 }
-
-
@@ -0,0 +1,104 @@
+package com.open436.auth.config;
+
+import com.open436.auth.datasource.ReplicaLagMonitor;
+import com.open436.auth.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 读写分离数据源配置
+ * 读写事务使用主库；@Transactional(readOnly = true) 的事务路由到从库，
+ * 从库复制延迟超限或不可用时回退到主库
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "replica-datasource", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+    
+    /**
+     * 主库连接池（沿用 spring.datasource 配置）
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+    
+    /**
+     * 从库路由数据源
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties primaryProperties,
+                                                             ReplicaDataSourceProperties replicaProperties) {
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaProperties.getReplicas().size(); i++) {
+            ReplicaDataSourceProperties.Replica replica = replicaProperties.getReplicas().get(i);
+            String name = replica.getName() != null ? replica.getName() : "replica-" + (i + 1);
+            replicas.put(name, createReplicaPool(name, replica, primaryProperties));
+        }
+        log.info("启用读写分离: 从库={}, 最大延迟={}", replicas.keySet(), replicaProperties.getMaxLag());
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas);
+    }
+    
+    /**
+     * 从库延迟监控
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource replicaRoutingDataSource,
+                                               ReplicaDataSourceProperties replicaProperties) {
+        return new ReplicaLagMonitor(replicaRoutingDataSource,
+            replicaProperties.getMaxLag(), replicaProperties.getLagCheckInterval());
+    }
+    
+    /**
+     * 应用使用的数据源
+     * 延迟获取物理连接，等到第一条语句执行时事务的只读标记已确定，再决定走主库还是从库
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+        proxy.setReadOnlyDataSource(replicaRoutingDataSource);
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+    
+    private HikariDataSource createReplicaPool(String name,
+                                               ReplicaDataSourceProperties.Replica replica,
+                                               DataSourceProperties primaryProperties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(replica.getUrl());
+        dataSource.setUsername(replica.getUsername() != null
+            ? replica.getUsername() : primaryProperties.determineUsername());
+        dataSource.setPassword(replica.getPassword() != null
+            ? replica.getPassword() : primaryProperties.determinePassword());
+        dataSource.setDriverClassName(primaryProperties.determineDriverClassName());
+        dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+        dataSource.setReadOnly(true);
+        // 从库宕机时尽快失败，由延迟监控将其摘除
+        dataSource.setConnectionTimeout(2000);
+        // 不在启动时建立连接，从库不可用不影响服务启动
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+}
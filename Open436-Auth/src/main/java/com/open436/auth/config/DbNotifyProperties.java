@@ -0,0 +1,38 @@
+package com.open436.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 数据库变更通知配置属性类
+ * 从application.yml中读取db-notify配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "db-notify")
+public class DbNotifyProperties {
+    
+    /**
+     * 是否监听数据库触发器发出的缓存失效通知
+     */
+    private boolean enabled = true;
+    
+    /**
+     * 单次等待通知的最长时间，超时后检查是否需要退出并继续等待
+     */
+    private Duration pollTimeout = Duration.ofSeconds(10);
+    
+    /**
+     * 连接断开后的重连间隔
+     */
+    private Duration reconnectInterval = Duration.ofSeconds(5);
+    
+    /**
+     * 监听开启时 userRoles / userPermissions 缓存的过期时间
+     * （未开启时为 30 分钟，直接修改 SQL 后最多 30 分钟读到旧数据）
+     */
+    private Duration userCacheTtl = Duration.ofHours(12);
+}
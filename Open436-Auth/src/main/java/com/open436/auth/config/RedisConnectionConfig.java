@@ -0,0 +1,166 @@
+package com.open436.auth.config;
+
+import com.open436.auth.cache.ClientSideCache;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientConfigurationBuilderCustomizer;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.RedisConfiguration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisPassword;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Redis 连接配置
+ * 会话存储与缓存各自使用独立的 Lettuce 连接工厂：缓存的批量清理、大 Value 读写不会阻塞
+ * Token 验证所在的连接，两者也可以指向不同的 Redis 集群分别扩容。
+ * 会话存储为默认（@Primary）连接，Sa-Token、StringRedisTemplate 等自动配置均使用它。
+ * <p>
+ * 两个工厂都不使用连接池：每个工厂共享一条线程安全的 Lettuce 连接，命令在其上多路复用，
+ * "独立连接"指两个工厂各自的共享连接，而非两个连接池（依赖中没有 commons-pool2，
+ * spring.data.redis.lettuce.pool.* 不生效）。client-name（按存储加后缀）、connect-timeout、
+ * shutdown-timeout、ssl 与 LettuceClientConfigurationBuilderCustomizer 与自动配置一样生效
+ */
+@Slf4j
+@Configuration
+public class RedisConnectionConfig {
+    
+    /**
+     * Redis 默认命令超时时间（与 Lettuce 默认值一致）
+     */
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(60);
+    
+    /**
+     * 会话存储连接工厂
+     */
+    @Primary
+    @Bean
+    public LettuceConnectionFactory sessionRedisConnectionFactory(RedisProperties redisProperties,
+                                                                  RedisStoreProperties storeProperties,
+                                                                  ObjectProvider<LettuceClientConfigurationBuilderCustomizer> customizers) {
+        return createConnectionFactory(redisProperties, storeProperties.getSession(), "session", customizers);
+    }
+    
+    /**
+     * 缓存连接工厂
+     */
+    @Bean
+    public LettuceConnectionFactory cacheRedisConnectionFactory(RedisProperties redisProperties,
+                                                                RedisStoreProperties storeProperties,
+                                                                ObjectProvider<LettuceClientConfigurationBuilderCustomizer> customizers) {
+        return createConnectionFactory(redisProperties, storeProperties.getCache(), "cache", customizers);
+    }
+    
+    /**
+     * 会话存储 StringRedisTemplate（默认注入）
+     * 定义了缓存专用模板后自动配置不再生效，需要显式声明
+     */
+    @Primary
+    @Bean
+    public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory) {
+        return new StringRedisTemplate(connectionFactory);
+    }
+    
+    /**
+     * 缓存专用 StringRedisTemplate（直接操作缓存 Key 时使用）
+     */
+    @Bean
+    public StringRedisTemplate cacheStringRedisTemplate(
+            @Qualifier("cacheRedisConnectionFactory") RedisConnectionFactory connectionFactory) {
+        return new StringRedisTemplate(connectionFactory);
+    }
+    
+    /**
+     * 会话存储客户端缓存（Sa-Token 读 Token、Session）
+     */
+    @Bean
+    public ClientSideCache sessionClientSideCache(
+            @Qualifier("sessionRedisConnectionFactory") LettuceConnectionFactory connectionFactory,
+            RedisStoreProperties storeProperties) {
+        return new ClientSideCache("session", connectionFactory, storeProperties.getSession().getClientSideCaching());
+    }
+    
+    /**
+     * 缓存存储客户端缓存（RedisCacheManager 读缓存）
+     */
+    @Bean
+    public ClientSideCache cacheClientSideCache(
+            @Qualifier("cacheRedisConnectionFactory") LettuceConnectionFactory connectionFactory,
+            RedisStoreProperties storeProperties) {
+        return new ClientSideCache("cache", connectionFactory, storeProperties.getCache().getClientSideCaching());
+    }
+    
+    private LettuceConnectionFactory createConnectionFactory(RedisProperties redis, RedisStoreProperties.Store store,
+                                                             String name,
+                                                             ObjectProvider<LettuceClientConfigurationBuilderCustomizer> customizers) {
+        RedisProperties.Pool pool = redis.getLettuce().getPool();
+        if (Boolean.TRUE.equals(pool.getEnabled())) {
+            log.warn("Redis {} 存储使用共享连接，spring.data.redis.lettuce.pool.* 不生效", name);
+        }
+        
+        SocketOptions.Builder socket = SocketOptions.builder();
+        if (redis.getConnectTimeout() != null) {
+            socket.connectTimeout(redis.getConnectTimeout());
+        }
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder client = LettuceClientConfiguration.builder()
+            .commandTimeout(store.getCommandTimeout() != null ? store.getCommandTimeout()
+                : redis.getTimeout() != null ? redis.getTimeout() : DEFAULT_TIMEOUT)
+            .clientOptions(ClusterClientOptions.builder()
+                .socketOptions(socket.build())
+                .topologyRefreshOptions(ClusterTopologyRefreshOptions.builder()
+                    .enablePeriodicRefresh(store.getTopologyRefreshPeriod())
+                    .enableAllAdaptiveRefreshTriggers()
+                    .build())
+                .build());
+        if (redis.getClientName() != null) {
+            // 按存储区分，便于 CLIENT LIST 中识别连接来源
+            client.clientName(redis.getClientName() + "-" + name);
+        }
+        if (redis.getLettuce().getShutdownTimeout() != null) {
+            client.shutdownTimeout(redis.getLettuce().getShutdownTimeout());
+        }
+        if (redis.getSsl().isEnabled()) {
+            client.useSsl();
+        }
+        customizers.orderedStream().forEach(customizer -> customizer.customize(client));
+        return new LettuceConnectionFactory(createConfiguration(redis, store), client.build());
+    }
+    
+    /**
+     * 存储单独配置了集群节点时使用该集群，否则沿用 spring.data.redis（集群优先于单机）
+     */
+    private RedisConfiguration createConfiguration(RedisProperties redis, RedisStoreProperties.Store store) {
+        List<String> nodes = !store.getClusterNodes().isEmpty() ? store.getClusterNodes()
+            : redis.getCluster() != null ? redis.getCluster().getNodes() : null;
+        
+        if (nodes != null && !nodes.isEmpty()) {
+            RedisClusterConfiguration cluster = new RedisClusterConfiguration(nodes);
+            if (redis.getCluster() != null && redis.getCluster().getMaxRedirects() != null) {
+                cluster.setMaxRedirects(redis.getCluster().getMaxRedirects());
+            }
+            cluster.setUsername(redis.getUsername());
+            cluster.setPassword(RedisPassword.of(redis.getPassword()));
+            return cluster;
+        }
+        
+        RedisStandaloneConfiguration standalone = new RedisStandaloneConfiguration(redis.getHost(), redis.getPort());
+        standalone.setDatabase(redis.getDatabase());
+        standalone.setUsername(redis.getUsername());
+        standalone.setPassword(RedisPassword.of(redis.getPassword()));
+        return standalone;
+    }
+}
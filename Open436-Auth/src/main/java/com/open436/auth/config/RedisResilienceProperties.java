@@ -0,0 +1,37 @@
+package com.open436.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Redis 故障降级配置属性类
+ * 从application.yml中读取redis-resilience配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "redis-resilience")
+public class RedisResilienceProperties {
+    
+    /**
+     * 连续失败多少次后熔断
+     */
+    private int failureThreshold = 5;
+    
+    /**
+     * 熔断持续时间，到期后放行一次探测请求
+     */
+    private Duration openDuration = Duration.ofSeconds(10);
+    
+    /**
+     * Redis 不可用时，最近验证通过的 Token 最多可继续使用多久
+     */
+    private Duration maxStaleness = Duration.ofMinutes(5);
+    
+    /**
+     * 本地缓存最多保存的已验证 Token 数量
+     */
+    private long staleCacheSize = 100_000;
+}
@@ -0,0 +1,88 @@
+package com.open436.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Redis 存储配置属性类
+ * 从application.yml中读取redis-store配置。
+ * 会话存储（Sa-Token、Refresh Token）与缓存（RedisCacheManager）使用各自独立的连接，
+ * 未单独配置的项沿用 spring.data.redis
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "redis-store")
+public class RedisStoreProperties {
+    
+    /**
+     * 是否使用带 Hash Tag 的 Sa-Token Key 布局（Redis Cluster 部署时开启）
+     * 开启后同一用户的 Session 与 Token Key 落在同一个槽位；切换会使已有登录状态失效
+     */
+    private boolean hashTagKeys = false;
+    
+    /**
+     * 会话存储
+     */
+    private Store session = new Store();
+    
+    /**
+     * 缓存存储
+     */
+    private Store cache = new Store();
+    
+    /**
+     * 单个存储的连接配置
+     */
+    @Data
+    public static class Store {
+        
+        /**
+         * Redis Cluster 节点列表（host:port），为空时沿用 spring.data.redis 的单机或集群配置
+         */
+        private List<String> clusterNodes = new ArrayList<>();
+        
+        /**
+         * 命令超时时间，为空时沿用 spring.data.redis.timeout
+         */
+        private Duration commandTimeout;
+        
+        /**
+         * 集群拓扑定时刷新间隔（节点扩缩容、主从切换后自动感知）
+         */
+        private Duration topologyRefreshPeriod = Duration.ofSeconds(30);
+        
+        /**
+         * 客户端缓存（RESP3 CLIENT TRACKING）
+         */
+        private ClientSideCaching clientSideCaching = new ClientSideCaching();
+    }
+    
+    /**
+     * 客户端缓存配置
+     * 读取过的 Key 保存在本地，Key 被修改、删除或过期时由 Redis 推送失效通知；
+     * 只支持单机 Redis（集群模式下自动关闭）
+     */
+    @Data
+    public static class ClientSideCaching {
+        
+        /**
+         * 是否启用
+         */
+        private boolean enabled = false;
+        
+        /**
+         * 本地最多缓存的 Key 数量
+         */
+        private long maxEntries = 10_000;
+        
+        /**
+         * 本地缓存最长保留时间（失效通知丢失时的兜底）
+         */
+        private Duration maxAge = Duration.ofMinutes(5);
+    }
+}
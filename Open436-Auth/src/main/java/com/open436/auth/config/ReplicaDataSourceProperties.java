@@ -0,0 +1,71 @@
+package com.open436.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 读写分离配置属性类
+ * 从application.yml中读取replica-datasource配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "replica-datasource")
+public class ReplicaDataSourceProperties {
+    
+    /**
+     * 是否启用只读事务路由到从库
+     */
+    private boolean enabled = false;
+    
+    /**
+     * 允许的最大复制延迟，超过后该从库暂停使用
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+    
+    /**
+     * 复制延迟检测间隔
+     */
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+    
+    /**
+     * 从库列表
+     */
+    private List<Replica> replicas = new ArrayList<>();
+    
+    /**
+     * 从库连接配置
+     */
+    @Data
+    public static class Replica {
+        
+        /**
+         * 从库名称（连接池名称、日志使用）
+         */
+        private String name;
+        
+        /**
+         * JDBC 地址
+         */
+        private String url;
+        
+        /**
+         * 用户名（为空时使用主库用户名）
+         */
+        private String username;
+        
+        /**
+         * 密码（为空时使用主库密码）
+         */
+        private String password;
+        
+        /**
+         * 连接池最大连接数
+         */
+        private int maximumPoolSize = 10;
+    }
+}
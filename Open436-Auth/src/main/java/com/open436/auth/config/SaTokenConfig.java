@@ -2,9 +2,12 @@ package com.open436.auth.config;
 
 import cn.dev33.satoken.interceptor.SaInterceptor;
 import cn.dev33.satoken.stp.StpInterface;
+import cn.dev33.satoken.stp.StpLogic;
+import com.open436.auth.satoken.HashTagStpLogic;
 import com.open436.auth.service.PermissionService;
 import com.open436.auth.service.RoleService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
@@ -33,6 +36,7 @@ public class SaTokenConfig implements WebMvcConfigurer {
             .addPathPatterns("/**")
             .excludePathPatterns(
                 "/api/auth/login",      // 登录接口
+                "/api/auth/refresh",    // 刷新 Token 接口
                 "/error"                // 错误页面
             );
     }
@@ -63,6 +67,15 @@ public class SaTokenConfig implements WebMvcConfigurer {
             }
         };
     }
+    
+    /**
+     * Redis Cluster 部署时使用带 Hash Tag 的 Key 布局
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "redis-store", name = "hash-tag-keys", havingValue = "true")
+    public StpLogic stpLogic() {
+        return new HashTagStpLogic();
+    }
 }
 
 
@@ -0,0 +1,133 @@
+package com.open436.auth.config;
+
+import com.open436.auth.enums.LoadBalancingStrategy;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 服务间调用配置属性类
+ * 从application.yml中读取service-client配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "service-client")
+public class ServiceClientProperties {
+    
+    /**
+     * 服务发现配置
+     */
+    private Discovery discovery = new Discovery();
+    
+    /**
+     * HTTP 客户端配置
+     */
+    private Http http = new Http();
+    
+    /**
+     * 负载均衡配置
+     */
+    private LoadBalancer loadBalancer = new LoadBalancer();
+    
+    /**
+     * 负载均衡配置
+     */
+    @Data
+    public static class LoadBalancer {
+        
+        /**
+         * 默认策略
+         */
+        private LoadBalancingStrategy strategy = LoadBalancingStrategy.POWER_OF_TWO_CHOICES;
+        
+        /**
+         * 按服务名单独指定的策略
+         */
+        private Map<String, LoadBalancingStrategy> services = new HashMap<>();
+        
+        /**
+         * 异常实例摘除配置
+         */
+        private Outlier outlier = new Outlier();
+    }
+    
+    /**
+     * 异常实例摘除配置（被动检测：根据实际调用结果判断）
+     */
+    @Data
+    public static class Outlier {
+        
+        /**
+         * 连续失败多少次后摘除
+         */
+        private int consecutiveFailures = 5;
+        
+        /**
+         * 首次摘除时长，之后每次摘除按次数递增
+         */
+        private Duration baseEjectionTime = Duration.ofSeconds(30);
+        
+        /**
+         * 最长摘除时长
+         */
+        private Duration maxEjectionTime = Duration.ofMinutes(5);
+        
+        /**
+         * 同一服务最多摘除的实例比例（百分比），避免所有实例都被摘除
+         */
+        private int maxEjectionPercent = 50;
+    }
+    
+    /**
+     * HTTP 客户端配置
+     */
+    @Data
+    public static class Http {
+        
+        /**
+         * 建立连接超时时间
+         */
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        
+        /**
+         * 读取响应超时时间
+         */
+        private Duration readTimeout = Duration.ofSeconds(5);
+        
+        /**
+         * 是否尝试 HTTP/2（对端不支持时自动使用 HTTP/1.1）
+         */
+        private boolean http2 = true;
+        
+        /**
+         * 空闲连接保持时间
+         */
+        private Duration keepAlive = Duration.ofSeconds(30);
+    }
+    
+    /**
+     * 服务发现配置
+     */
+    @Data
+    public static class Discovery {
+        
+        /**
+         * Consul 阻塞查询的最长等待时间（服务列表无变化时，请求挂起到该时间后返回）
+         */
+        private Duration watchWait = Duration.ofSeconds(55);
+        
+        /**
+         * 两次查询之间的最小间隔（避免 Consul 索引频繁变化时形成热循环）
+         */
+        private Duration minInterval = Duration.ofSeconds(1);
+        
+        /**
+         * Consul 不可达时的最大重试间隔（从 1 秒开始指数退避）
+         */
+        private Duration maxBackoff = Duration.ofSeconds(30);
+    }
+}
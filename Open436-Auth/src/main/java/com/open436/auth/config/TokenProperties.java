@@ -19,9 +19,34 @@ public class TokenProperties {
     private String tokenName = "token";
     
     /**
-     * Token超时时间（秒）
+     * Access Token超时时间（秒），到期后使用 Refresh Token 换取新的 Access Token
      */
-    private Long timeout = 2592000L;
+    private Long timeout = 1800L;
+    
+    /**
+     * Refresh Token超时时间（秒），用于"记住我"登录，每次刷新后重新计时
+     */
+    private Long refreshTimeout = 2592000L;
+    
+    /**
+     * Refresh Token超时时间（秒），用于未勾选"记住我"的登录，每次刷新后重新计时
+     */
+    private Long shortRefreshTimeout = 43200L;
+    
+    /**
+     * Refresh Token 轮换后的宽限期（秒），期间再次提交上一个 Token 视为并发刷新而非泄露
+     */
+    private Long refreshGracePeriod = 10L;
+    
+    /**
+     * 网关缓存验证结果的最长时间（秒），即 Token 吊销后网关最多继续放行多久
+     */
+    private Long verifyCacheMaxAge = 5L;
+    
+    /**
+     * Token 吊销广播的 Redis 频道，网关收到后立即清除对应的验证缓存
+     */
+    private String revocationChannel = "auth:token:revoked";
     
     /**
      * Token风格
@@ -34,9 +59,9 @@ public class TokenProperties {
     private Boolean isConcurrent = true;
     
     /**
-     * 是否共享Token
+     * 是否共享Token（每次登录/刷新需要独立的 Access Token，以便按 Token 族注销）
      */
-    private Boolean isShare = true;
+    private Boolean isShare = false;
     
     /**
      * 是否自动续签
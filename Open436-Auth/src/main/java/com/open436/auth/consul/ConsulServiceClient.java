@@ -1,14 +1,13 @@
 package com.open436.auth.consul;
 
-import com.ecwid.consul.v1.ConsulClient;
-import com.ecwid.consul.v1.health.model.HealthService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.List;
-import java.util.Random;
 
 /**
  * Consul 服务发现客户端
@@ -19,38 +18,25 @@ import java.util.Random;
 @RequiredArgsConstructor
 public class ConsulServiceClient {
     
-    private final ConsulClient consulClient;
+    private final ServiceDiscoveryCache discoveryCache;
+    private final ServiceLoadBalancer loadBalancer;
     private final RestTemplate restTemplate;
-    private final Random random = new Random();
     
     /**
      * 发现服务实例
+     * 实例列表从本地缓存读取，由 {@link ServiceDiscoveryCache} 在后台与 Consul 保持同步
      * 
      * @param serviceName 服务名称
      * @return 服务URL
      */
     public String discoverService(String serviceName) {
-        List<HealthService> services = consulClient
-            .getHealthServices(serviceName, true, null)
-            .getValue();
-        
-        if (services.isEmpty()) {
-            throw new RuntimeException("Service not available: " + serviceName);
-        }
-        
-        // 随机负载均衡
-        HealthService service = services.get(random.nextInt(services.size()));
-        String address = service.getService().getAddress();
-        int port = service.getService().getPort();
-        
-        String serviceUrl = String.format("http://%s:%d", address, port);
-        log.debug("Discovered service {}: {}", serviceName, serviceUrl);
-        
-        return serviceUrl;
+        ServiceInstance service = chooseInstance(serviceName, getInstances(serviceName));
+        return service.url();
     }
     
     /**
      * 调用其他服务
+     * 连接失败、超时和 5xx 响应计为实例失败，连续失败的实例会被暂时摘除
      * 
      * @param serviceName 服务名称
      * @param path API路径
@@ -58,12 +44,38 @@ public class ConsulServiceClient {
      * @return 响应对象
      */
     public <T> T callService(String serviceName, String path, Class<T> responseType) {
-        String serviceUrl = discoverService(serviceName);
-        String fullUrl = serviceUrl + path;
+        List<ServiceInstance> services = getInstances(serviceName);
+        ServiceInstance service = chooseInstance(serviceName, services);
+        String fullUrl = service.url() + path;
         
         log.debug("Calling service: {}", fullUrl);
         
-        return restTemplate.getForObject(fullUrl, responseType);
+        long start = loadBalancer.onStart(service);
+        try {
+            T response = restTemplate.getForObject(fullUrl, responseType);
+            loadBalancer.onSuccess(service, start);
+            return response;
+        } catch (ResourceAccessException | HttpServerErrorException e) {
+            loadBalancer.onFailure(serviceName, service, services, start);
+            throw e;
+        } catch (RuntimeException e) {
+            // 4xx 等说明实例本身可用
+            loadBalancer.onSuccess(service, start);
+            throw e;
+        }
+    }
+    
+    private List<ServiceInstance> getInstances(String serviceName) {
+        List<ServiceInstance> services = discoveryCache.getInstances(serviceName);
+        if (services.isEmpty()) {
+            throw new RuntimeException("Service not available: " + serviceName);
+        }
+        return services;
+    }
+    
+    private ServiceInstance chooseInstance(String serviceName, List<ServiceInstance> services) {
+        ServiceInstance service = loadBalancer.choose(serviceName, services);
+        log.debug("Discovered service {}: {}", serviceName, service.url());
+        return service;
     }
 }
-
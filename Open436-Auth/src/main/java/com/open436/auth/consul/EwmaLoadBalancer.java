@@ -0,0 +1,19 @@
+package com.open436.auth.consul;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * EWMA 延迟负载均衡
+ * 二选一，代价 = EWMA 延迟 ×（进行中请求数 + 1）；尚无延迟样本的实例代价为 0，优先获得探测流量
+ */
+public class EwmaLoadBalancer implements LoadBalancer {
+    
+    @Override
+    public ServiceInstance choose(List<ServiceInstance> candidates, Function<ServiceInstance, InstanceStats> stats) {
+        return PowerOfTwoChoicesLoadBalancer.chooseByCost(candidates, instance -> {
+            InstanceStats instanceStats = stats.apply(instance);
+            return instanceStats.getEwmaNanos() * (instanceStats.getInflight() + 1);
+        });
+    }
+}
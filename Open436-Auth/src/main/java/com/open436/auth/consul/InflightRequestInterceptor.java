@@ -0,0 +1,40 @@
+package com.open436.auth.consul;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 服务间调用并发数统计
+ * 按目标（host:port）统计进行中的请求数，暴露为 http.client.inflight 指标，
+ * 反映各目标连接池的占用情况
+ */
+public class InflightRequestInterceptor implements ClientHttpRequestInterceptor {
+    
+    private final Map<String, AtomicInteger> inflight = new ConcurrentHashMap<>();
+    
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        AtomicInteger counter = counter(request.getURI().getHost() + ":" + request.getURI().getPort());
+        counter.incrementAndGet();
+        try {
+            return execution.execute(request, body);
+        } finally {
+            counter.decrementAndGet();
+        }
+    }
+    
+    private AtomicInteger counter(String target) {
+        return inflight.computeIfAbsent(target, key ->
+            Metrics.gauge("http.client.inflight", Tags.of("target", key), new AtomicInteger()));
+    }
+}
@@ -0,0 +1,88 @@
+package com.open436.auth.consul;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 实例调用统计
+ * 记录进行中请求数、按时间衰减的 EWMA 延迟，以及异常摘除状态
+ */
+public class InstanceStats {
+    
+    /**
+     * EWMA 衰减时间常数：约 10 秒前的样本权重降为 1/e
+     */
+    private static final double DECAY_NANOS = 10_000_000_000.0;
+    
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private double ewmaNanos;
+    private long lastSampleNanos;
+    private boolean sampled;
+    private volatile long ejectedUntilNanos;
+    private int ejections;
+    
+    /**
+     * 进行中请求数
+     */
+    public int getInflight() {
+        return inflight.get();
+    }
+    
+    /**
+     * EWMA 延迟（纳秒），尚无样本时为 0
+     */
+    public synchronized double getEwmaNanos() {
+        return ewmaNanos;
+    }
+    
+    /**
+     * 是否处于摘除期
+     */
+    public boolean isEjected(long nowNanos) {
+        return ejectedUntilNanos - nowNanos > 0;
+    }
+    
+    void onStart() {
+        inflight.incrementAndGet();
+    }
+    
+    void onSuccess(long latencyNanos, long nowNanos) {
+        inflight.decrementAndGet();
+        consecutiveFailures.set(0);
+        sample(latencyNanos, nowNanos);
+    }
+    
+    /**
+     * @return 当前连续失败次数
+     */
+    int onFailure(long latencyNanos, long nowNanos) {
+        inflight.decrementAndGet();
+        sample(latencyNanos, nowNanos);
+        return consecutiveFailures.incrementAndGet();
+    }
+    
+    /**
+     * 摘除实例
+     * @return 本次摘除的次序（从 1 开始）
+     */
+    synchronized int eject(long untilNanos) {
+        ejectedUntilNanos = untilNanos;
+        consecutiveFailures.set(0);
+        return ++ejections;
+    }
+    
+    synchronized int getEjections() {
+        return ejections;
+    }
+    
+    private synchronized void sample(long latencyNanos, long nowNanos) {
+        if (!sampled) {
+            ewmaNanos = latencyNanos;
+            sampled = true;
+        } else {
+            double weight = Math.exp(-(nowNanos - lastSampleNanos) / DECAY_NANOS);
+            ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+        }
+        lastSampleNanos = nowNanos;
+    }
+}
@@ -0,0 +1,19 @@
+package com.open436.auth.consul;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 负载均衡策略接口
+ * 每个服务持有一个实例，有状态的策略（如加权轮询）可以保存服务级别的状态
+ */
+public interface LoadBalancer {
+    
+    /**
+     * 从候选实例中选择一个
+     * @param candidates 候选实例（非空，已排除摘除中的实例）
+     * @param stats 实例调用统计
+     * @return 选中的实例
+     */
+    ServiceInstance choose(List<ServiceInstance> candidates, Function<ServiceInstance, InstanceStats> stats);
+}
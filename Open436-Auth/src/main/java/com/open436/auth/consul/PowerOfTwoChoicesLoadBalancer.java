@@ -0,0 +1,37 @@
+package com.open436.auth.consul;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 二选一负载均衡（Power of Two Choices）
+ * 随机选两个不同实例，取负载较小的一个；负载默认为进行中请求数
+ */
+public class PowerOfTwoChoicesLoadBalancer implements LoadBalancer {
+    
+    @Override
+    public ServiceInstance choose(List<ServiceInstance> candidates, Function<ServiceInstance, InstanceStats> stats) {
+        return chooseByCost(candidates, instance -> stats.apply(instance).getInflight());
+    }
+    
+    /**
+     * 随机选两个不同实例，返回代价较小的一个
+     */
+    static ServiceInstance chooseByCost(List<ServiceInstance> candidates, ToDoubleFunction<ServiceInstance> cost) {
+        int size = candidates.size();
+        if (size == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        return cost.applyAsDouble(a) <= cost.applyAsDouble(b) ? a : b;
+    }
+}
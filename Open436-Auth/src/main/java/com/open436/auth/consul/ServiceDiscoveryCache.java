@@ -0,0 +1,205 @@
+package com.open436.auth.consul;
+
+import com.ecwid.consul.v1.ConsulClient;
+import com.ecwid.consul.v1.QueryParams;
+import com.ecwid.consul.v1.Response;
+import com.ecwid.consul.v1.health.HealthServicesRequest;
+import com.ecwid.consul.v1.health.model.HealthService;
+import com.open436.auth.config.ServiceClientProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 服务发现缓存
+ * 每个服务首次使用时同步查询一次 Consul，之后由后台线程通过阻塞查询（index + wait）监听变化，
+ * 调用方始终从内存读取实例列表。Consul 不可达时保留最后一次成功获取的列表并指数退避重试。
+ * 首次查询在 Map 锁之外由第一个调用方执行，同一服务的并发调用方等待同一个 Future，不阻塞其他服务。
+ * 暴露指标：consul.discovery.staleness（距上次成功同步的秒数）、consul.discovery.instances、
+ * consul.discovery.errors
+ */
+@Slf4j
+@Component
+public class ServiceDiscoveryCache {
+    
+    private final ConsulClient consulClient;
+    private final ServiceClientProperties.Discovery properties;
+    private final boolean startWatchers;
+    private final Map<String, CompletableFuture<Entry>> entries = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+    
+    @Autowired
+    public ServiceDiscoveryCache(ConsulClient consulClient, ServiceClientProperties properties) {
+        this(consulClient, properties.getDiscovery(), true);
+    }
+    
+    ServiceDiscoveryCache(ConsulClient consulClient, ServiceClientProperties.Discovery properties, boolean startWatchers) {
+        this.consulClient = consulClient;
+        this.properties = properties;
+        this.startWatchers = startWatchers;
+    }
+    
+    /**
+     * 获取服务的健康实例列表
+     * @param serviceName 服务名称
+     * @return 实例列表（不可修改）
+     */
+    public List<ServiceInstance> getInstances(String serviceName) {
+        CompletableFuture<Entry> future = entries.get(serviceName);
+        if (future == null) {
+            CompletableFuture<Entry> created = new CompletableFuture<>();
+            future = entries.putIfAbsent(serviceName, created);
+            if (future == null) {
+                future = created;
+                load(serviceName, created);
+            }
+        }
+        try {
+            return future.join().instances;
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        entries.values().forEach(future -> {
+            Entry entry = loaded(future);
+            if (entry != null && entry.watcher != null) {
+                entry.watcher.interrupt();
+            }
+        });
+    }
+    
+    /**
+     * 在调用方线程中执行首次查询；失败时移除占位，下次调用重新查询
+     */
+    private void load(String serviceName, CompletableFuture<Entry> future) {
+        try {
+            future.complete(createEntry(serviceName));
+        } catch (RuntimeException e) {
+            entries.remove(serviceName, future);
+            future.completeExceptionally(e);
+        }
+    }
+    
+    /**
+     * 已成功加载的条目，加载中或失败时返回 null
+     */
+    private static Entry loaded(CompletableFuture<Entry> future) {
+        return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+    
+    /**
+     * 首次访问：同步查询一次，成功后启动监听线程
+     */
+    private Entry createEntry(String serviceName) {
+        Entry entry = new Entry(serviceName);
+        if (!refresh(entry, 0)) {
+            throw new RuntimeException("Service discovery failed: " + serviceName);
+        }
+        
+        Tags tags = Tags.of("service", serviceName);
+        Metrics.gauge("consul.discovery.staleness", tags, entry, e -> (System.nanoTime() - e.lastSuccessNanos) / 1e9);
+        Metrics.gauge("consul.discovery.instances", tags, entry, e -> e.instances.size());
+        
+        if (startWatchers) {
+            entry.watcher = Thread.ofVirtual().name("consul-watch-" + serviceName).start(() -> watch(entry));
+        }
+        return entry;
+    }
+    
+    /**
+     * 阻塞查询循环
+     */
+    private void watch(Entry entry) {
+        long backoffMillis = 1000;
+        while (running) {
+            long start = System.nanoTime();
+            boolean success = refresh(entry, properties.getWatchWait().toSeconds());
+            try {
+                if (success) {
+                    backoffMillis = 1000;
+                    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+                    long minInterval = properties.getMinInterval().toMillis();
+                    if (elapsedMillis < minInterval) {
+                        Thread.sleep(minInterval - elapsedMillis);
+                    }
+                } else {
+                    Thread.sleep(backoffMillis);
+                    backoffMillis = Math.min(backoffMillis * 2, properties.getMaxBackoff().toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    /**
+     * 立即查询一次 Consul 并更新缓存
+     * @param serviceName 服务名称
+     * @return 是否成功（服务尚未被访问过时返回 false）
+     */
+    boolean refresh(String serviceName) {
+        Entry entry = loaded(entries.get(serviceName));
+        return entry != null && refresh(entry, 0);
+    }
+    
+    /**
+     * 查询一次 Consul 并更新缓存
+     * @param waitSeconds 阻塞等待时间，0 表示立即返回
+     * @return 是否成功
+     */
+    private boolean refresh(Entry entry, long waitSeconds) {
+        try {
+            QueryParams queryParams = waitSeconds > 0 ? new QueryParams(waitSeconds, entry.index) : QueryParams.DEFAULT;
+            Response<List<HealthService>> response = consulClient.getHealthServices(entry.serviceName,
+                HealthServicesRequest.newBuilder()
+                    .setPassing(true)
+                    .setQueryParams(queryParams)
+                    .build());
+            
+            Long index = response.getConsulIndex();
+            // 索引回退（Consul 重建等）时从头开始
+            entry.index = index == null || index < entry.index ? 0 : index;
+            entry.instances = response.getValue().stream().map(ServiceInstance::from).toList();
+            entry.lastSuccessNanos = System.nanoTime();
+            return true;
+        } catch (RuntimeException e) {
+            entry.errorCounter.increment();
+            log.warn("Consul 服务发现失败，继续使用最后一次结果: service={}, instances={}, error={}",
+                entry.serviceName, entry.instances.size(), e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * 单个服务的缓存条目
+     */
+    private static class Entry {
+        
+        private final String serviceName;
+        private final Counter errorCounter;
+        private volatile List<ServiceInstance> instances = List.of();
+        private volatile long index;
+        private volatile long lastSuccessNanos = System.nanoTime();
+        private Thread watcher;
+        
+        Entry(String serviceName) {
+            this.serviceName = serviceName;
+            this.errorCounter = Metrics.counter("consul.discovery.errors", "service", serviceName);
+        }
+    }
+}
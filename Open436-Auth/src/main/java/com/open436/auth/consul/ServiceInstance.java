@@ -0,0 +1,56 @@
+package com.open436.auth.consul;
+
+import com.ecwid.consul.v1.health.model.HealthService;
+
+import java.util.Map;
+
+/**
+ * 服务实例
+ * @param id 实例ID
+ * @param address 地址
+ * @param port 端口
+ * @param meta 元数据
+ */
+public record ServiceInstance(String id, String address, int port, Map<String, String> meta) {
+    
+    /**
+     * 元数据中的权重键
+     */
+    private static final String META_WEIGHT = "weight";
+    
+    /**
+     * 从 Consul 健康检查结果转换
+     */
+    public static ServiceInstance from(HealthService healthService) {
+        HealthService.Service service = healthService.getService();
+        String address = service.getAddress();
+        if (address == null || address.isEmpty()) {
+            // 服务未单独注册地址时使用节点地址
+            address = healthService.getNode().getAddress();
+        }
+        return new ServiceInstance(service.getId(), address, service.getPort(),
+            service.getMeta() != null ? Map.copyOf(service.getMeta()) : Map.of());
+    }
+    
+    /**
+     * 负载均衡权重（元数据 weight，缺省或非法时为 1）
+     */
+    public int weight() {
+        String weight = meta.get(META_WEIGHT);
+        if (weight == null) {
+            return 1;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(weight));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+    
+    /**
+     * 实例 URL
+     */
+    public String url() {
+        return String.format("http://%s:%d", address, port);
+    }
+}
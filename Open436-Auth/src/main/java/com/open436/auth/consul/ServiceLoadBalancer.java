@@ -0,0 +1,133 @@
+package com.open436.auth.consul;
+
+import com.open436.auth.config.ServiceClientProperties;
+import com.open436.auth.enums.LoadBalancingStrategy;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 服务负载均衡器
+ * 按服务选择负载均衡策略，并根据调用结果被动摘除异常实例：
+ * 连续失败达到阈值的实例在摘除期内不参与选择，摘除时长随摘除次数递增；
+ * 同一服务被摘除的实例不超过配置比例，全部不可用时忽略摘除状态
+ */
+@Slf4j
+@Component
+public class ServiceLoadBalancer {
+    
+    private final ServiceClientProperties.LoadBalancer properties;
+    private final LongSupplier nanoClock;
+    private final Map<String, LoadBalancer> balancers = new ConcurrentHashMap<>();
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+    
+    @Autowired
+    public ServiceLoadBalancer(ServiceClientProperties properties) {
+        this(properties.getLoadBalancer(), System::nanoTime);
+    }
+    
+    ServiceLoadBalancer(ServiceClientProperties.LoadBalancer properties, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+    }
+    
+    /**
+     * 选择实例
+     * @param serviceName 服务名称
+     * @param instances 健康实例列表（非空）
+     * @return 选中的实例
+     */
+    public ServiceInstance choose(String serviceName, List<ServiceInstance> instances) {
+        LoadBalancer balancer = balancers.computeIfAbsent(serviceName, this::createBalancer);
+        return balancer.choose(available(instances), this::stats);
+    }
+    
+    /**
+     * 记录调用开始
+     * @return 开始时间，用于计算延迟
+     */
+    public long onStart(ServiceInstance instance) {
+        stats(instance).onStart();
+        return nanoClock.getAsLong();
+    }
+    
+    /**
+     * 记录调用成功
+     */
+    public void onSuccess(ServiceInstance instance, long startNanos) {
+        long now = nanoClock.getAsLong();
+        stats(instance).onSuccess(now - startNanos, now);
+    }
+    
+    /**
+     * 记录调用失败（连接失败、超时、5xx）
+     */
+    public void onFailure(String serviceName, ServiceInstance instance, List<ServiceInstance> instances, long startNanos) {
+        long now = nanoClock.getAsLong();
+        InstanceStats instanceStats = stats(instance);
+        int failures = instanceStats.onFailure(now - startNanos, now);
+        if (failures >= properties.getOutlier().getConsecutiveFailures() && canEject(instances, now)) {
+            eject(serviceName, instance, instanceStats, now);
+        }
+    }
+    
+    /**
+     * 获取实例调用统计
+     */
+    public InstanceStats stats(ServiceInstance instance) {
+        return stats.computeIfAbsent(instance.id(), id -> new InstanceStats());
+    }
+    
+    private LoadBalancer createBalancer(String serviceName) {
+        LoadBalancingStrategy strategy = properties.getServices().getOrDefault(serviceName, properties.getStrategy());
+        log.info("服务负载均衡策略: service={}, strategy={}", serviceName, strategy);
+        return switch (strategy) {
+            case POWER_OF_TWO_CHOICES -> new PowerOfTwoChoicesLoadBalancer();
+            case EWMA -> new EwmaLoadBalancer();
+            case WEIGHTED_ROUND_ROBIN -> new WeightedRoundRobinLoadBalancer();
+        };
+    }
+    
+    /**
+     * 排除摘除中的实例，全部被摘除时返回原列表
+     */
+    private List<ServiceInstance> available(List<ServiceInstance> instances) {
+        long now = nanoClock.getAsLong();
+        List<ServiceInstance> available = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            InstanceStats instanceStats = stats.get(instance.id());
+            if (instanceStats == null || !instanceStats.isEjected(now)) {
+                available.add(instance);
+            }
+        }
+        return available.isEmpty() ? instances : available;
+    }
+    
+    /**
+     * 摘除后被摘除实例比例不超过上限
+     */
+    private boolean canEject(List<ServiceInstance> instances, long now) {
+        long ejected = instances.stream()
+            .map(instance -> stats.get(instance.id()))
+            .filter(instanceStats -> instanceStats != null && instanceStats.isEjected(now))
+            .count();
+        return (ejected + 1) * 100 <= (long) instances.size() * properties.getOutlier().getMaxEjectionPercent();
+    }
+    
+    private void eject(String serviceName, ServiceInstance instance, InstanceStats instanceStats, long now) {
+        ServiceClientProperties.Outlier outlier = properties.getOutlier();
+        long duration = Math.min(outlier.getBaseEjectionTime().toNanos() * (instanceStats.getEjections() + 1),
+            outlier.getMaxEjectionTime().toNanos());
+        int ejections = instanceStats.eject(now + duration);
+        Metrics.counter("service.client.ejections", "service", serviceName).increment();
+        log.warn("摘除异常实例: service={}, instance={}, ejections={}, duration={}ms",
+            serviceName, instance.url(), ejections, duration / 1_000_000);
+    }
+}
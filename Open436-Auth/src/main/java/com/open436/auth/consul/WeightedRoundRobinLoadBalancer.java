@@ -0,0 +1,40 @@
+package com.open436.auth.consul;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 平滑加权轮询负载均衡（与 Nginx 算法一致）
+ * 每轮所有实例的当前权重加上各自权重，选中当前权重最大的实例并减去总权重，
+ * 权重 5:1:1 时选择序列为 a a b a c a a，而不是连续 5 次 a
+ */
+public class WeightedRoundRobinLoadBalancer implements LoadBalancer {
+    
+    private final Map<String, Long> currentWeights = new HashMap<>();
+    
+    @Override
+    public synchronized ServiceInstance choose(List<ServiceInstance> candidates,
+                                               Function<ServiceInstance, InstanceStats> stats) {
+        if (currentWeights.size() > candidates.size() * 2) {
+            // 实例列表变化后清理已下线实例的状态
+            currentWeights.keySet().retainAll(candidates.stream().map(ServiceInstance::id).toList());
+        }
+        
+        long totalWeight = 0;
+        ServiceInstance selected = null;
+        long selectedWeight = Long.MIN_VALUE;
+        for (ServiceInstance instance : candidates) {
+            int weight = instance.weight();
+            long current = currentWeights.merge(instance.id(), (long) weight, Long::sum);
+            totalWeight += weight;
+            if (current > selectedWeight) {
+                selected = instance;
+                selectedWeight = current;
+            }
+        }
+        currentWeights.merge(selected.id(), -totalWeight, Long::sum);
+        return selected;
+    }
+}
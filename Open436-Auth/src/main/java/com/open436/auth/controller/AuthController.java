@@ -2,16 +2,31 @@ package com.open436.auth.controller;
 
 import cn.dev33.satoken.annotation.SaCheckLogin;
 import cn.dev33.satoken.stp.StpUtil;
+import com.open436.auth.config.AuthorizationProperties;
+import com.open436.auth.config.TokenProperties;
 import com.open436.auth.dto.*;
+import com.open436.auth.enums.ErrorCode;
 import com.open436.auth.enums.TokenConstants;
+import com.open436.auth.exception.BusinessException;
 import com.open436.auth.service.AuthService;
-import com.open436.auth.service.RoleService;
+import com.open436.auth.service.AuthorizationService;
+import com.open436.auth.service.TokenVerificationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 /**
  * 认证控制器
  * 处理登录、登出等认证相关请求
@@ -23,7 +38,10 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
     
     private final AuthService authService;
-    private final RoleService roleService;
+    private final TokenVerificationService tokenVerificationService;
+    private final AuthorizationService authorizationService;
+    private final TokenProperties tokenProperties;
+    private final AuthorizationProperties authorizationProperties;
     
     /**
      * 用户登录
@@ -46,15 +64,37 @@ public class AuthController {
         );
     }
     
+    /**
+     * 刷新 Token
+     * 使用 Refresh Token 换取新的 Access Token，Refresh Token 同时轮换
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<LoginResponse>> refresh(
+            @Valid @RequestBody TokenRefreshRequest request) {
+        
+        LoginResponse response = authService.refresh(request);
+        
+        return ResponseEntity.ok(
+            ApiResponse.<LoginResponse>builder()
+                .code(200)
+                .message("刷新成功")
+                .data(response)
+                .timestamp(System.currentTimeMillis())
+                .build()
+        );
+    }
+    
     /**
      * 用户登出
+     * 请求体可携带 Refresh Token，一并作废
      */
     @PostMapping("/logout")
     @SaCheckLogin
-    public ResponseEntity<ApiResponse<Void>> logout() {
+    public ResponseEntity<ApiResponse<Void>> logout(
+            @RequestBody(required = false) TokenRefreshRequest request) {
         log.info("登出请求");
         
-        authService.logout();
+        authService.logout(request != null ? request.getRefreshToken() : null);
         
         return ResponseEntity.ok(
             ApiResponse.<Void>builder()
@@ -87,6 +127,7 @@ public class AuthController {
     
     /**
      * 验证 Token（供 Kong Gateway 调用）
+     * Redis 故障且超出降级窗口时返回 503，由网关区分"Token 无效"与"认证服务不可用"
      */
     @PostMapping("/verify")
     public ResponseEntity<ApiResponse<TokenVerifyResponse>> verifyToken(
@@ -94,48 +135,143 @@ public class AuthController {
         
         log.debug("Token 验证请求");
         
-        try {
-            // 验证 Token
-            Object loginId = StpUtil.getLoginIdByToken(request.getToken());
-            
-            if (loginId == null) {
-                return ResponseEntity.ok(
-                    ApiResponse.success(new TokenVerifyResponse(false, null))
-                );
-            }
-            
-            // 获取用户信息
-            Long userId = Long.parseLong(loginId.toString());
-            
-            // 切换到该用户的上下文来获取 Session
-            Object originalLoginId = StpUtil.getLoginIdDefaultNull();
-            try {
-                StpUtil.switchTo(userId);
-                String username = (String) StpUtil.getSession().get(TokenConstants.SESSION_KEY_USERNAME);
-                String role = roleService.getUserRoleCodes(userId).stream()
-                    .findFirst().orElse("user");
-                
-                UserTokenInfo userInfo = new UserTokenInfo(userId, username, role);
-                TokenVerifyResponse response = new TokenVerifyResponse(true, userInfo);
-                
-                log.debug("Token 验证成功: userId={}, username={}", userId, username);
-                
-                return ResponseEntity.ok(ApiResponse.success(response));
-            } finally {
-                // 恢复原来的登录状态
-                if (originalLoginId != null) {
-                    StpUtil.switchTo(originalLoginId);
-                } else {
-                    StpUtil.logout();
-                }
-            }
-        } catch (Exception e) {
-            log.warn("Token 验证失败: {}", e.getMessage());
+        UserTokenInfo userInfo = tokenVerificationService.verify(request.getToken());
+        if (userInfo == null) {
             return ResponseEntity.ok(
                 ApiResponse.success(new TokenVerifyResponse(false, null))
             );
         }
+        
+        log.debug("Token 验证成功: userId={}, username={}", userInfo.getUserId(), userInfo.getUsername());
+        
+        return ResponseEntity.ok(ApiResponse.success(new TokenVerifyResponse(true, userInfo)));
+    }
+    
+    /**
+     * 批量验证 Token（供客户端库合并缓存未命中的 Token）
+     * 结果与请求中的 Token 一一对应。仅限携带内部服务凭证（X-Service-Token）的调用方，
+     * 否则可借此批量探测 Token；网关不对外暴露该路径
+     */
+    @PostMapping("/verify/batch")
+    public ResponseEntity<ApiResponse<List<TokenVerifyResponse>>> verifyTokens(
+            @RequestHeader(value = TokenConstants.HEADER_SERVICE_TOKEN, required = false) String serviceToken,
+            @Valid @RequestBody BatchTokenVerifyRequest request) {
+        
+        if (serviceToken == null || serviceToken.isBlank()) {
+            throw new BusinessException(ErrorCode.SERVICE_TOKEN_REQUIRED);
+        }
+        if (!isTrustedService(serviceToken)) {
+            throw new BusinessException(ErrorCode.INVALID_SERVICE_TOKEN);
+        }
+        
+        log.debug("批量 Token 验证请求: count={}", request.getTokens().size());
+        
+        List<TokenVerifyResponse> results = new ArrayList<>(request.getTokens().size());
+        for (String token : request.getTokens()) {
+            UserTokenInfo userInfo = tokenVerificationService.verify(token);
+            results.add(new TokenVerifyResponse(userInfo != null, userInfo));
+        }
+        return ResponseEntity.ok(ApiResponse.success(results));
+    }
+    
+    /**
+     * 验证 Token（auth_request 风格，供网关调用）
+     * Token 从 Authorization 请求头读取，有效返回 204 并通过响应头返回用户信息，无效返回 401；
+     * 两种结果都携带 Cache-Control，网关可按 Token 缓存，无需编解码 JSON。
+     * 用户名可能包含中文等非 ASCII 字符，X-Username 为 UTF-8 百分号编码
+     */
+    @GetMapping("/verify")
+    public ResponseEntity<Void> verifyTokenHeader(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        
+        UserTokenInfo userInfo = tokenVerificationService.verify(extractToken(authorization));
+        CacheControl cacheControl = CacheControl
+            .maxAge(tokenProperties.getVerifyCacheMaxAge(), TimeUnit.SECONDS)
+            .cachePrivate();
+        
+        if (userInfo == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.AUTHORIZATION)
+                .build();
+        }
+        
+        ResponseEntity.HeadersBuilder<?> builder = ResponseEntity.noContent()
+            .cacheControl(cacheControl)
+            .varyBy(HttpHeaders.AUTHORIZATION)
+            .header(TokenConstants.HEADER_USER_ID, String.valueOf(userInfo.getUserId()))
+            .header(TokenConstants.HEADER_USER_ROLE, userInfo.getRole());
+        if (userInfo.getUsername() != null) {
+            builder.header(TokenConstants.HEADER_USERNAME, encodeHeaderValue(userInfo.getUsername()));
+        }
+        return builder.build();
+    }
+    
+    /**
+     * 授权决策
+     * 判断主体能否对资源执行操作，下游服务不再依据 X-User-Role 自行判断。
+     * 携带内部服务凭证（X-Service-Token）时可查询任意主体；否则需要登录，
+     * 主体默认为当前用户，查询其他用户需要管理员角色（该接口经 Kong 对外可达）
+     */
+    @PostMapping("/authorize")
+    public ResponseEntity<ApiResponse<AuthorizeResponse>> authorize(
+            @RequestHeader(value = TokenConstants.HEADER_SERVICE_TOKEN, required = false) String serviceToken,
+            @Valid @RequestBody AuthorizeRequest request) {
+        
+        Long subject = request.getSubject();
+        if (isTrustedService(serviceToken)) {
+            if (subject == null) {
+                throw new BusinessException(ErrorCode.INVALID_PARAMETER, "主体不能为空");
+            }
+        } else {
+            Long currentUserId = StpUtil.getLoginIdAsLong();
+            if (subject == null) {
+                subject = currentUserId;
+            } else if (!subject.equals(currentUserId)) {
+                StpUtil.checkRole("admin");
+            }
+        }
+        
+        boolean allowed = authorizationService.isAllowed(subject, request.getResource(), request.getAction());
+        
+        return ResponseEntity.ok(ApiResponse.success(AuthorizeResponse.builder()
+            .allowed(allowed)
+            .subject(subject)
+            .resource(request.getResource())
+            .action(request.getAction())
+            .build()));
+    }
+    
+    /**
+     * 校验内部服务凭证（常量时间比较）
+     */
+    private boolean isTrustedService(String serviceToken) {
+        String expected = authorizationProperties.getServiceToken();
+        if (expected == null || expected.isBlank() || serviceToken == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8),
+            serviceToken.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * 按 UTF-8 百分号编码响应头的值（响应头按 ISO-8859-1 输出，非 ASCII 字符会乱码），空格编码为 %20
+     */
+    private static String encodeHeaderValue(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+    
+    /**
+     * 从 Authorization 请求头中取出 Token，兼容带 Bearer 前缀与不带前缀两种写法
+     */
+    private String extractToken(String authorization) {
+        if (authorization == null) {
+            return null;
+        }
+        String token = authorization.strip();
+        if (token.regionMatches(true, 0, TokenConstants.BEARER_PREFIX, 0, TokenConstants.BEARER_PREFIX.length())) {
+            token = token.substring(TokenConstants.BEARER_PREFIX.length()).strip();
+        }
+        return token;
     }
 }
-
-
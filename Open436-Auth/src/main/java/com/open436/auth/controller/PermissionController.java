@@ -1,15 +1,20 @@
 package com.open436.auth.controller;
 
 import cn.dev33.satoken.annotation.SaCheckLogin;
+import cn.dev33.satoken.annotation.SaCheckRole;
 import cn.dev33.satoken.stp.StpUtil;
 import com.open436.auth.dto.ApiResponse;
+import com.open436.auth.dto.BatchPermissionCheckRequest;
+import com.open436.auth.dto.BatchPermissionCheckResponse;
 import com.open436.auth.entity.Permission;
 import com.open436.auth.service.PermissionService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -84,6 +89,46 @@ public class PermissionController {
             ApiResponse.success("检查成功", result)
         );
     }
+    
+    /**
+     * 检查当前用户是否拥有一组权限
+     * 例如 GET /api/auth/permissions/check/batch?codes=post:create,post:delete
+     */
+    @GetMapping("/check/batch")
+    @SaCheckLogin
+    public ResponseEntity<ApiResponse<Map<String, Boolean>>> checkPermissions(
+            @RequestParam List<String> codes) {
+        
+        Long userId = StpUtil.getLoginIdAsLong();
+        log.debug("批量检查用户权限: userId={}, count={}", userId, codes.size());
+        
+        return ResponseEntity.ok(
+            ApiResponse.success("检查成功", permissionService.checkPermissions(userId, codes))
+        );
+    }
+    
+    /**
+     * 批量检查（用户ID, 权限代码）对，结果以位图返回
+     */
+    @PostMapping("/check/batch")
+    @SaCheckRole("admin")
+    public ResponseEntity<ApiResponse<BatchPermissionCheckResponse>> checkPermissionPairs(
+            @Valid @RequestBody BatchPermissionCheckRequest request) {
+        
+        int total = request.getChecks().size();
+        log.debug("批量检查权限: count={}", total);
+        
+        BitSet granted = permissionService.checkPermissions(request.getChecks());
+        StringBuilder bitmap = new StringBuilder(total);
+        for (int i = 0; i < total; i++) {
+            bitmap.append(granted.get(i) ? '1' : '0');
+        }
+        
+        return ResponseEntity.ok(
+            ApiResponse.success("检查成功", BatchPermissionCheckResponse.builder()
+                .granted(bitmap.toString())
+                .total(total)
+                .build())
+        );
+    }
 }
-
-
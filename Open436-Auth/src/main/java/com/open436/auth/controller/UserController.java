@@ -2,14 +2,23 @@ package com.open436.auth.controller;
 
 import cn.dev33.satoken.annotation.SaCheckLogin;
 import cn.dev33.satoken.annotation.SaCheckRole;
+import cn.dev33.satoken.stp.StpUtil;
 import com.open436.auth.dto.*;
+import com.open436.auth.enums.ExportFormat;
+import com.open436.auth.service.UserBatchService;
+import com.open436.auth.service.UserExportService;
 import com.open436.auth.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.time.Duration;
 
 /**
  * 用户管理控制器
@@ -21,7 +30,14 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class UserController {
     
+    /**
+     * 用户导出的异步请求超时
+     */
+    private static final Duration EXPORT_TIMEOUT = Duration.ofMinutes(30);
+    
     private final UserService userService;
+    private final UserExportService userExportService;
+    private final UserBatchService userBatchService;
     
     /**
      * 创建用户（管理员功能）
@@ -67,6 +83,39 @@ public class UserController {
         );
     }
     
+    /**
+     * 批量启用/禁用用户（管理员功能）
+     * 按用户ID列表或角色代码批量变更状态，缓存清理与踢出在后台执行
+     */
+    @PostMapping("/batch/status")
+    @SaCheckRole("admin")
+    public ResponseEntity<ApiResponse<BatchJobResponse>> batchUpdateUserStatus(
+            @Valid @RequestBody BatchUpdateUserStatusRequest request) {
+        
+        log.info("批量更新用户状态请求: roleCode={}, status={}", request.getRoleCode(), request.getStatus());
+        
+        BatchJobResponse response = userBatchService.batchUpdateUserStatus(StpUtil.getLoginIdAsLong(), request);
+        
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .body(ApiResponse.<BatchJobResponse>builder()
+                .code(202)
+                .message("批量状态变更已提交")
+                .data(response)
+                .timestamp(System.currentTimeMillis())
+                .build());
+    }
+    
+    /**
+     * 查询批量任务进度（管理员功能）
+     */
+    @GetMapping("/batch/jobs/{jobId}")
+    @SaCheckRole("admin")
+    public ResponseEntity<ApiResponse<BatchJobResponse>> getBatchJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(
+            ApiResponse.success("获取成功", userBatchService.getJob(jobId))
+        );
+    }
+    
     /**
      * 修改密码（用户自己）
      */
@@ -109,6 +158,28 @@ public class UserController {
                 .build()
         );
     }
+    
+    /**
+     * 流式导出全部用户（管理员功能）
+     * 支持 ndjson / csv 两种格式，结果直接写入响应流
+     */
+    @GetMapping("/export")
+    @SaCheckRole("admin")
+    public WebAsyncTask<Void> exportUsers(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response) {
+        
+        ExportFormat exportFormat = ExportFormat.fromCode(format);
+        log.info("导出用户请求: format={}", exportFormat.getCode());
+        
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=users." + exportFormat.getFileExtension());
+        
+        // 导出可能持续较长时间，只为该接口放宽异步请求超时，其余接口沿用默认值
+        return new WebAsyncTask<>(EXPORT_TIMEOUT.toMillis(), () -> {
+            userExportService.exportUsers(exportFormat, response.getOutputStream());
+            return null;
+        });
+    }
 }
-
-
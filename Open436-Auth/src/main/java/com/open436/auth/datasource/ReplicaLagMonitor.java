@@ -0,0 +1,128 @@
+package com.open436.auth.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 从库复制延迟监控
+ * 定期查询各从库的回放延迟，超过阈值、无法估算或无法连接的从库暂停使用
+ */
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+    
+    /**
+     * 主库当前的 WAL 写入位置
+     */
+    private static final String PRIMARY_LSN_SQL = "SELECT pg_current_wal_lsn()::text";
+    
+    /**
+     * 复制延迟（毫秒）
+     * 已回放到检测开始时主库的 WAL 位置视为无延迟，避免主库空闲时 pg_last_xact_replay_timestamp 过旧导致误判；
+     * 不能只比较从库自身的接收与回放位置，WAL 接收进程断开后两者相等，从库会一直显示为无延迟。
+     * 从未回放过事务时无法估算延迟，返回 NULL
+     */
+    private static final String LAG_SQL =
+        "SELECT CASE " +
+        "WHEN NOT pg_is_in_recovery() THEN 0 " +
+        "WHEN pg_last_wal_replay_lsn() >= CAST(? AS pg_lsn) THEN 0 " +
+        "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END";
+    
+    private static final int QUERY_TIMEOUT_SECONDS = 2;
+    
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private ScheduledExecutorService scheduler;
+    
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource, Duration maxLag, Duration checkInterval) {
+        this.routingDataSource = routingDataSource;
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+    }
+    
+    /**
+     * 启动监控（立即执行一次检测）
+     */
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkAll, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * 检测所有从库
+     */
+    void checkAll() {
+        String primaryLsn;
+        try {
+            primaryLsn = queryPrimaryLsn();
+        } catch (SQLException | RuntimeException e) {
+            // 无法确认从库是否追上主库时保持上一次的检测结果
+            log.warn("读取主库 WAL 位置失败，跳过本轮从库延迟检测: error={}", e.getMessage());
+            return;
+        }
+        
+        for (Map.Entry<String, HikariDataSource> entry : routingDataSource.getReplicas().entrySet()) {
+            String name = entry.getKey();
+            try {
+                long lagMillis = queryLag(entry.getValue(), primaryLsn);
+                routingDataSource.updateHealth(name, lagMillis >= 0 && lagMillis <= maxLag.toMillis(), lagMillis);
+            } catch (SQLException e) {
+                log.warn("从库延迟检测失败: name={}, error={}", name, e.getMessage());
+                routingDataSource.updateHealth(name, false, -1);
+            } catch (RuntimeException e) {
+                // 避免异常终止定时任务
+                log.error("从库延迟检测异常: name={}", name, e);
+                routingDataSource.updateHealth(name, false, -1);
+            }
+        }
+    }
+    
+    private String queryPrimaryLsn() throws SQLException {
+        try (Connection connection = routingDataSource.getPrimary().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+            try (ResultSet rs = statement.executeQuery(PRIMARY_LSN_SQL)) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }
+    }
+    
+    /**
+     * @return 复制延迟（毫秒），无法估算时返回 -1
+     */
+    private long queryLag(HikariDataSource dataSource, String primaryLsn) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(LAG_SQL)) {
+            statement.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+            statement.setString(1, primaryLsn);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                long lagMillis = rs.getLong(1);
+                return rs.wasNull() ? -1 : lagMillis;
+            }
+        }
+    }
+    
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
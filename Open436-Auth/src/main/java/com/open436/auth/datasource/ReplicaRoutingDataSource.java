@@ -0,0 +1,108 @@
+package com.open436.auth.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 从库路由数据源
+ * 在健康（复制延迟未超限）的从库之间轮询；没有可用从库时回退到主库
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    
+    static final String PRIMARY = "primary";
+    
+    private final DataSource primary;
+    private final Map<String, HikariDataSource> replicas;
+    private final Set<String> healthyReplicas = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger counter = new AtomicInteger();
+    
+    /**
+     * 健康从库快照（按配置顺序），在健康状态变化时重建
+     */
+    private volatile List<String> candidates = Collections.emptyList();
+    
+    /**
+     * @param primary 主库数据源（回退目标）
+     * @param replicas 从库数据源（名称 -> 连接池）
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, HikariDataSource> replicas) {
+        this.primary = primary;
+        this.replicas = new LinkedHashMap<>(replicas);
+        
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        List<String> current = candidates;
+        if (current.isEmpty()) {
+            return PRIMARY;
+        }
+        return current.get(Math.floorMod(counter.getAndIncrement(), current.size()));
+    }
+    
+    /**
+     * 更新从库健康状态
+     * @param name 从库名称
+     * @param healthy 是否可用
+     * @param lagMillis 复制延迟（毫秒），-1 表示检测失败
+     */
+    public void updateHealth(String name, boolean healthy, long lagMillis) {
+        boolean changed = healthy ? healthyReplicas.add(name) : healthyReplicas.remove(name);
+        if (!changed) {
+            return;
+        }
+        
+        List<String> rebuilt = new ArrayList<>();
+        for (String replica : replicas.keySet()) {
+            if (healthyReplicas.contains(replica)) {
+                rebuilt.add(replica);
+            }
+        }
+        candidates = List.copyOf(rebuilt);
+        
+        if (healthy) {
+            log.info("从库恢复可用: name={}, lag={}ms", name, lagMillis);
+        } else {
+            log.warn("从库暂停使用: name={}, lag={}ms, 可用从库={}", name, lagMillis, rebuilt);
+        }
+    }
+    
+    /**
+     * @return 主库数据源
+     */
+    public DataSource getPrimary() {
+        return primary;
+    }
+    
+    /**
+     * @return 从库数据源（名称 -> 连接池）
+     */
+    public Map<String, HikariDataSource> getReplicas() {
+        return Collections.unmodifiableMap(replicas);
+    }
+    
+    /**
+     * 关闭从库连接池（主库连接池由容器管理）
+     */
+    @Override
+    public void close() {
+        replicas.values().forEach(HikariDataSource::close);
+    }
+}
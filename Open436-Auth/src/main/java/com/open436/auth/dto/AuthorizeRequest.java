@@ -0,0 +1,32 @@
+package com.open436.auth.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 授权决策请求 DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorizeRequest {
+    
+    /**
+     * 主体（用户ID），为空时为当前登录用户；指定其他用户需要管理员角色或内部服务凭证
+     */
+    private Long subject;
+    
+    /**
+     * 资源类型（如：post, user, section）
+     */
+    @NotBlank(message = "资源不能为空")
+    private String resource;
+    
+    /**
+     * 操作类型（如：create, read, update, delete, manage）
+     */
+    @NotBlank(message = "操作不能为空")
+    private String action;
+}
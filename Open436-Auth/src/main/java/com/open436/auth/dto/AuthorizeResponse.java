@@ -0,0 +1,36 @@
+package com.open436.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 授权决策响应 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorizeResponse {
+    
+    /**
+     * 是否允许
+     */
+    private Boolean allowed;
+    
+    /**
+     * 主体（用户ID）
+     */
+    private Long subject;
+    
+    /**
+     * 资源类型
+     */
+    private String resource;
+    
+    /**
+     * 操作类型
+     */
+    private String action;
+}
@@ -0,0 +1,68 @@
+package com.open436.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 批量任务进度响应 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchJobResponse {
+    
+    /**
+     * 任务ID
+     */
+    private String jobId;
+    
+    /**
+     * 任务状态（running/completed/failed）
+     */
+    private String state;
+    
+    /**
+     * 目标状态（active/disabled）
+     */
+    private String targetStatus;
+    
+    /**
+     * 状态实际发生变化的用户数
+     */
+    private Long total;
+    
+    /**
+     * 已完成缓存清理与踢出的用户数
+     */
+    private Long processed;
+    
+    /**
+     * 已踢出的用户数
+     */
+    private Long kickedOut;
+    
+    /**
+     * 处理失败的用户数
+     */
+    private Long failed;
+    
+    /**
+     * 开始时间
+     */
+    private LocalDateTime startedAt;
+    
+    /**
+     * 结束时间
+     */
+    private LocalDateTime finishedAt;
+    
+    /**
+     * 失败原因
+     */
+    private String error;
+}
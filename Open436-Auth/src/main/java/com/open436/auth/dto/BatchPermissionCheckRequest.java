@@ -0,0 +1,27 @@
+package com.open436.auth.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量权限检查请求 DTO
+ * 检查项可以涉及多个用户，每个用户的权限集合只读取一次
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPermissionCheckRequest {
+    
+    /**
+     * 检查项列表（单次最多 1000 个）
+     */
+    @NotEmpty(message = "检查项不能为空")
+    @Size(max = 1000, message = "单次最多检查1000项")
+    private List<@Valid PermissionCheck> checks;
+}
@@ -0,0 +1,26 @@
+package com.open436.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量权限检查响应 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPermissionCheckResponse {
+    
+    /**
+     * 检查结果位图：与请求中的检查项一一对应，'1' 表示拥有权限，'0' 表示没有
+     */
+    private String granted;
+    
+    /**
+     * 检查项总数
+     */
+    private Integer total;
+}
@@ -0,0 +1,25 @@
+package com.open436.auth.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量 Token 验证请求 DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTokenVerifyRequest {
+    
+    /**
+     * Token 列表（单次最多 1000 个）
+     */
+    @NotEmpty(message = "Token列表不能为空")
+    @Size(max = 1000, message = "单次最多验证1000个Token")
+    private List<String> tokens;
+}
@@ -0,0 +1,38 @@
+package com.open436.auth.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量更新用户状态请求 DTO
+ * userIds 与 roleCode 二选一
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchUpdateUserStatusRequest {
+    
+    /**
+     * 目标用户ID列表（单次最多 10000 个）
+     */
+    @Size(max = 10000, message = "单次最多更新10000个用户")
+    private List<Long> userIds;
+    
+    /**
+     * 目标角色代码（对拥有该角色的全部用户生效）
+     */
+    private String roleCode;
+    
+    /**
+     * 状态（active/disabled）
+     */
+    @NotBlank(message = "状态不能为空")
+    @Pattern(regexp = "^(active|disabled)$", message = "状态只能是 active 或 disabled")
+    private String status;
+}
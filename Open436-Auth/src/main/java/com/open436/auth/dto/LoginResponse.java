@@ -15,15 +15,25 @@ import lombok.NoArgsConstructor;
 public class LoginResponse {
     
     /**
-     * Token（自动续签）
+     * Access Token（短期有效）
      */
     private String token;
     
     /**
-     * Token 过期时间（秒）
+     * Access Token 过期时间（秒）
      */
     private Long expiresIn;
     
+    /**
+     * Refresh Token（用于换取新的 Access Token，每次使用后轮换）
+     */
+    private String refreshToken;
+    
+    /**
+     * Refresh Token 过期时间（秒）
+     */
+    private Long refreshExpiresIn;
+    
     /**
      * 用户信息
      */
@@ -0,0 +1,28 @@
+package com.open436.auth.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 单个权限检查项 DTO（用户ID + 权限代码）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PermissionCheck {
+    
+    /**
+     * 用户ID
+     */
+    @NotNull(message = "用户ID不能为空")
+    private Long userId;
+    
+    /**
+     * 权限代码
+     */
+    @NotBlank(message = "权限代码不能为空")
+    private String code;
+}
@@ -0,0 +1,21 @@
+package com.open436.auth.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 刷新 Token 请求 DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRefreshRequest {
+    
+    /**
+     * Refresh Token
+     */
+    @NotBlank(message = "Refresh Token 不能为空")
+    private String refreshToken;
+}
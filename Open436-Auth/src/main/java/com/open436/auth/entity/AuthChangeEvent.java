@@ -0,0 +1,59 @@
+package com.open436.auth.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * 认证变更事件发件箱
+ * 与业务修改在同一事务中写入，由 {@link com.open436.auth.event.AuthChangeRelay} 发布到 Redis Stream
+ */
+@Entity
+@Table(name = "auth_change_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class AuthChangeEvent {
+    
+    /**
+     * 事件ID（单调递增）
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    /**
+     * 事件类型代码，见 {@link com.open436.auth.enums.AuthChangeType}
+     */
+    @Column(name = "event_type", nullable = false, length = 32)
+    private String eventType;
+    
+    /**
+     * 受影响的用户ID
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    /**
+     * 事件发生时用户的授权版本
+     */
+    @Column(name = "authz_version", nullable = false)
+    private Long authzVersion;
+    
+    /**
+     * 创建时间（数据库默认值）
+     */
+    @Column(name = "created_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    /**
+     * 发布时间（NULL 表示待发布）
+     */
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+}
@@ -6,6 +6,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -54,6 +56,12 @@ public class UserAuth {
     @Column(nullable = false, length = 20)
     private String status = "active";
     
+    /**
+     * 授权版本（角色或角色权限变化时由数据库触发器递增，应用只读）
+     */
+    @Column(name = "authz_version", nullable = false, insertable = false, updatable = false)
+    private Long authzVersion;
+    
     /**
      * 最后登录时间
      */
@@ -77,8 +85,10 @@ public class UserAuth {
     /**
      * 用户角色（多对多关系）
      * 改为LAZY加载，避免N+1查询问题
+     * 集合启用二级缓存（region: user-roles），元素为已缓存的 Role 实体
      */
     @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-roles")
     @JoinTable(
         name = "user_roles",
         joinColumns = @JoinColumn(name = "user_id"),
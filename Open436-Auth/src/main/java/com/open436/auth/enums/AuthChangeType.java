@@ -0,0 +1,39 @@
+package com.open436.auth.enums;
+
+import lombok.Getter;
+
+/**
+ * 认证变更事件类型枚举
+ * 通过 Redis Stream 广播给网关与下游服务，用于精确失效本地缓存
+ */
+@Getter
+public enum AuthChangeType {
+    
+    /**
+     * 用户被禁用（同时吊销该用户的全部会话）
+     */
+    USER_DISABLED("user_disabled", "用户禁用"),
+    
+    /**
+     * 用户的全部会话被吊销（修改/重置密码等）
+     */
+    SESSIONS_REVOKED("sessions_revoked", "会话吊销"),
+    
+    /**
+     * 用户角色变化（由数据库触发器写入）
+     */
+    ROLES_CHANGED("roles_changed", "角色变化"),
+    
+    /**
+     * 用户所属角色的权限变化（由数据库触发器写入）
+     */
+    PERMISSIONS_CHANGED("permissions_changed", "权限变化");
+    
+    private final String code;
+    private final String description;
+    
+    AuthChangeType(String code, String description) {
+        this.code = code;
+        this.description = description;
+    }
+}
@@ -21,22 +21,29 @@ public enum ErrorCode {
     INVALID_CREDENTIALS(40101001, HttpStatus.UNAUTHORIZED, "用户名或密码错误"),
     NOT_LOGGED_IN(40101002, HttpStatus.UNAUTHORIZED, "未登录，请先登录"),
     WRONG_OLD_PASSWORD(40101004, HttpStatus.UNAUTHORIZED, "原密码错误"),
+    INVALID_REFRESH_TOKEN(40101005, HttpStatus.UNAUTHORIZED, "Refresh Token 无效或已过期，请重新登录"),
+    REFRESH_TOKEN_REUSED(40101006, HttpStatus.UNAUTHORIZED, "Refresh Token 已失效，请重新登录"),
+    SERVICE_TOKEN_REQUIRED(40101007, HttpStatus.UNAUTHORIZED, "缺少内部服务凭证"),
     
     // 403 权限错误
     ACCOUNT_DISABLED(40301001, HttpStatus.FORBIDDEN, "账号已被禁用，请联系管理员"),
     INSUFFICIENT_PERMISSION(40301002, HttpStatus.FORBIDDEN, "权限不足"),
     INSUFFICIENT_ROLE(40301003, HttpStatus.FORBIDDEN, "需要管理员权限"),
+    INVALID_SERVICE_TOKEN(40301004, HttpStatus.FORBIDDEN, "内部服务凭证无效"),
     
     // 404 资源不存在
     RESOURCE_NOT_FOUND(40400000, HttpStatus.NOT_FOUND, "请求的资源不存在"),
     USER_NOT_FOUND(40401001, HttpStatus.NOT_FOUND, "用户不存在"),
     ROLE_NOT_FOUND(40401002, HttpStatus.NOT_FOUND, "角色不存在"),
+    BATCH_JOB_NOT_FOUND(40401003, HttpStatus.NOT_FOUND, "批量任务不存在"),
     
     // 409 冲突
     USERNAME_EXISTS(40901001, HttpStatus.CONFLICT, "用户名已存在"),
+    LAST_ACTIVE_ADMIN(40901002, HttpStatus.CONFLICT, "至少需要保留一个启用的管理员"),
     
     // ========== 5xx 服务器错误 ==========
-    INTERNAL_SERVER_ERROR(50000000, HttpStatus.INTERNAL_SERVER_ERROR, "服务器内部错误");
+    INTERNAL_SERVER_ERROR(50000000, HttpStatus.INTERNAL_SERVER_ERROR, "服务器内部错误"),
+    SERVICE_UNAVAILABLE(50301001, HttpStatus.SERVICE_UNAVAILABLE, "认证服务暂时不可用，请稍后重试");
     
     private final int code;
     private final HttpStatus httpStatus;
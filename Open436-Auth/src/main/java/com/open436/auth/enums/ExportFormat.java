@@ -0,0 +1,45 @@
+package com.open436.auth.enums;
+
+import com.open436.auth.exception.BusinessException;
+import lombok.Getter;
+
+/**
+ * 导出格式枚举
+ */
+@Getter
+public enum ExportFormat {
+    
+    /**
+     * 每行一个 JSON 对象
+     */
+    NDJSON("ndjson", "application/x-ndjson", "ndjson"),
+    
+    /**
+     * 逗号分隔值
+     */
+    CSV("csv", "text/csv;charset=UTF-8", "csv");
+    
+    private final String code;
+    private final String contentType;
+    private final String fileExtension;
+    
+    ExportFormat(String code, String contentType, String fileExtension) {
+        this.code = code;
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+    
+    /**
+     * 根据代码获取枚举
+     * @param code 格式代码
+     * @return ExportFormat枚举
+     */
+    public static ExportFormat fromCode(String code) {
+        for (ExportFormat format : values()) {
+            if (format.code.equalsIgnoreCase(code)) {
+                return format;
+            }
+        }
+        throw new BusinessException(ErrorCode.INVALID_PARAMETER, "不支持的导出格式: " + code);
+    }
+}
@@ -0,0 +1,22 @@
+package com.open436.auth.enums;
+
+/**
+ * 负载均衡策略枚举
+ */
+public enum LoadBalancingStrategy {
+    
+    /**
+     * 随机选两个实例，取进行中请求数较少的一个
+     */
+    POWER_OF_TWO_CHOICES,
+    
+    /**
+     * 随机选两个实例，取 EWMA 延迟 ×（进行中请求数 + 1）较小的一个
+     */
+    EWMA,
+    
+    /**
+     * 平滑加权轮询（权重取自 Consul 服务元数据 weight，默认 1）
+     */
+    WEIGHTED_ROUND_ROBIN
+}
@@ -25,6 +25,11 @@ public final class TokenConstants {
      */
     public static final String SESSION_KEY_ROLE = "role";
     
+    /**
+     * Session键名 - 授权版本
+     */
+    public static final String SESSION_KEY_AUTHZ_VERSION = "authzVersion";
+    
     /**
      * 设备类型 - Web
      */
@@ -34,5 +39,34 @@ public final class TokenConstants {
      * 默认角色
      */
     public static final String DEFAULT_ROLE = "user";
+    
+    /**
+     * Token 前缀（Authorization 请求头）
+     */
+    public static final String BEARER_PREFIX = "Bearer ";
+    
+    /**
+     * 网关注入的用户信息请求头 - 用户ID
+     */
+    public static final String HEADER_USER_ID = "X-User-Id";
+    
+    /**
+     * 网关注入的用户信息请求头 - 用户名（UTF-8 百分号编码，下游服务需解码）
+     */
+    public static final String HEADER_USERNAME = "X-Username";
+    
+    /**
+     * 网关注入的用户信息请求头 - 角色
+     */
+    public static final String HEADER_USER_ROLE = "X-User-Role";
+    
+    /**
+     * 网关注入的用户信息请求头 - 授权版本
+     */
+    public static final String HEADER_AUTHZ_VERSION = "X-Authz-Version";
+    
+    /**
+     * 内部服务调用凭证请求头（授权决策接口查询任意用户时使用）
+     */
+    public static final String HEADER_SERVICE_TOKEN = "X-Service-Token";
 }
-
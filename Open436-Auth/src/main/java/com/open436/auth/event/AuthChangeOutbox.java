@@ -0,0 +1,64 @@
+package com.open436.auth.event;
+
+import com.open436.auth.enums.AuthChangeType;
+import com.open436.auth.repository.AuthChangeEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 认证变更事件发件箱
+ * 事件与业务修改在同一事务中写入，事务回滚时事件一并丢弃，提交后由 {@link AuthChangeRelay} 立即发布；
+ * 角色/权限变化由数据库触发器直接写入发件箱，无需在这里记录
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthChangeOutbox {
+    
+    /**
+     * 单条 INSERT 的最大用户数，避免超出 JDBC 参数个数限制
+     */
+    private static final int INSERT_BATCH_SIZE = 1000;
+    
+    private final AuthChangeEventRepository authChangeEventRepository;
+    private final AuthChangeRelay authChangeRelay;
+    
+    /**
+     * 记录单个用户的变更事件（必须在事务内调用）
+     * @param type 事件类型
+     * @param userId 用户ID
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(AuthChangeType type, Long userId) {
+        record(type, List.of(userId));
+    }
+    
+    /**
+     * 批量记录变更事件（必须在事务内调用）
+     * @param type 事件类型
+     * @param userIds 用户ID集合
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(AuthChangeType type, Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        
+        List<Long> ids = new ArrayList<>(userIds);
+        int recorded = 0;
+        for (int from = 0; from < ids.size(); from += INSERT_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + INSERT_BATCH_SIZE, ids.size()));
+            recorded += authChangeEventRepository.enqueue(type.getCode(), batch);
+        }
+        
+        authChangeRelay.publishAfterCommit();
+        log.debug("记录认证变更事件: type={}, count={}", type.getCode(), recorded);
+    }
+}
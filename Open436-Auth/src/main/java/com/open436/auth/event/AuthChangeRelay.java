@@ -0,0 +1,214 @@
+package com.open436.auth.event;
+
+import com.open436.auth.config.AuthEventProperties;
+import com.open436.auth.entity.AuthChangeEvent;
+import com.open436.auth.enums.AuthChangeType;
+import com.open436.auth.repository.AuthChangeEventRepository;
+import com.open436.auth.resilience.RedisCircuitBreaker;
+import com.open436.auth.service.AuthzVersionService;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 认证变更事件发布器
+ * 从发件箱按ID顺序领取待发布事件，XADD 到 Redis Stream 后标记为已发布。
+ * 投递语义为至少一次：Redis 写入成功但标记失败时事件会被重发，
+ * 消费者按事件ID或授权版本去重（重复失效本地缓存本身也是无害的）。
+ * <p>
+ * Stream 消息字段：id、type、userId、authzVersion、occurredAt（毫秒时间戳）
+ * <p>
+ * 角色/权限变化事件发布后刷新在线用户 Session 中的授权版本，本服务随后以新版本读取角色/权限缓存
+ * （数据库变更通知关闭时也能生效）
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthChangeRelay {
+    
+    /**
+     * 已发布事件的清理间隔
+     */
+    private static final long PURGE_INTERVAL_MINUTES = 60;
+    
+    private final AuthChangeEventRepository authChangeEventRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final AuthEventProperties properties;
+    private final PlatformTransactionManager transactionManager;
+    private final AuthzVersionService authzVersionService;
+    
+    /**
+     * 是否已有待执行的立即发布任务（合并同一时刻的多次提交）
+     */
+    private final AtomicBoolean triggered = new AtomicBoolean();
+    
+    private TransactionTemplate transactionTemplate;
+    private ScheduledExecutorService scheduler;
+    
+    @PostConstruct
+    void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        if (!properties.isEnabled()) {
+            log.info("认证变更事件发布已关闭，事件仅写入发件箱");
+            return;
+        }
+        
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "auth-change-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long pollMillis = properties.getPollInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::publishPending, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::purgePublished,
+            PURGE_INTERVAL_MINUTES, PURGE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+    
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+    
+    /**
+     * 在当前事务提交后立即发布（无事务时立即发布）
+     */
+    public void publishAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    trigger();
+                }
+            });
+        } else {
+            trigger();
+        }
+    }
+    
+    private void trigger() {
+        if (scheduler != null && triggered.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                triggered.set(false);
+                publishPending();
+            });
+        }
+    }
+    
+    /**
+     * 发布全部待发布事件
+     */
+    void publishPending() {
+        try {
+            int published;
+            do {
+                published = transactionTemplate.execute(tx -> publishBatch());
+            } while (published >= properties.getBatchSize());
+        } catch (RuntimeException e) {
+            // 避免异常终止定时任务，事务回滚后事件留在发件箱中，下次轮询重试
+            log.warn("发布认证变更事件失败，稍后重试: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * 领取并发布一批事件（需在事务内调用，行锁持续到事务结束）
+     * @return 本批发布的事件数
+     */
+    int publishBatch() {
+        List<AuthChangeEvent> events = authChangeEventRepository.lockUnpublished(properties.getBatchSize());
+        if (events.isEmpty()) {
+            return 0;
+        }
+        
+        XAddOptions options = XAddOptions.maxlen(properties.getStreamMaxLength()).approximateTrimming(true);
+        circuitBreaker.run(() -> {
+            for (AuthChangeEvent event : events) {
+                stringRedisTemplate.opsForStream().add(
+                    StreamRecords.newRecord().in(properties.getStreamKey()).ofMap(fields(event)), options);
+            }
+        });
+        
+        authChangeEventRepository.markPublished(
+            events.stream().map(AuthChangeEvent::getId).toList(), LocalDateTime.now());
+        Metrics.counter("auth.events.published").increment(events.size());
+        log.debug("发布认证变更事件: count={}, lastId={}", events.size(), events.get(events.size() - 1).getId());
+        
+        refreshAuthzVersions(events);
+        return events.size();
+    }
+    
+    /**
+     * 刷新角色/权限变化用户的 Session 授权版本
+     * 失败不影响事件发布（Session 中的旧版本只会导致读取旧缓存，直到下次变化或重新登录）
+     */
+    private void refreshAuthzVersions(List<AuthChangeEvent> events) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (AuthChangeEvent event : events) {
+            if (AuthChangeType.ROLES_CHANGED.getCode().equals(event.getEventType())
+                    || AuthChangeType.PERMISSIONS_CHANGED.getCode().equals(event.getEventType())) {
+                userIds.add(event.getUserId());
+            }
+        }
+        if (userIds.isEmpty()) {
+            return;
+        }
+        try {
+            authzVersionService.refresh(userIds);
+        } catch (RuntimeException e) {
+            log.warn("刷新 Session 授权版本失败: users={}, error={}", userIds.size(), e.getMessage());
+        }
+    }
+    
+    /**
+     * 清理超过保留时长的已发布事件
+     */
+    void purgePublished() {
+        try {
+            Integer deleted = transactionTemplate.execute(tx -> authChangeEventRepository.deletePublishedBefore(
+                LocalDateTime.now().minus(properties.getRetention())));
+            if (deleted != null && deleted > 0) {
+                log.info("清理已发布的认证变更事件: count={}", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.warn("清理认证变更事件失败: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Stream 消息字段
+     */
+    static Map<String, String> fields(AuthChangeEvent event) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("id", String.valueOf(event.getId()));
+        fields.put("type", event.getEventType());
+        fields.put("userId", String.valueOf(event.getUserId()));
+        fields.put("authzVersion", String.valueOf(event.getAuthzVersion()));
+        fields.put("occurredAt", String.valueOf(
+            event.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+        return fields;
+    }
+}
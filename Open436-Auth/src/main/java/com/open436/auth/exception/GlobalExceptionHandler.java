@@ -7,6 +7,8 @@ import com.open436.auth.dto.ApiResponse;
 import com.open436.auth.enums.ErrorCode;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -24,6 +26,11 @@ import java.util.stream.Collectors;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
     
+    /**
+     * 服务不可用时建议客户端的重试间隔（秒）
+     */
+    private static final String RETRY_AFTER_SECONDS = "5";
+    
     /**
      * Sa-Token 未登录异常
      */
@@ -79,7 +86,11 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ApiResponse<Void>> handleBusinessException(BusinessException e) {
         log.warn("业务异常: code={}, message={}", e.getCode(), e.getMessage());
         
-        return ResponseEntity.status(e.getHttpStatus())
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(e.getHttpStatus());
+        if (e.getHttpStatus() == HttpStatus.SERVICE_UNAVAILABLE) {
+            builder.header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        }
+        return builder
             .body(ApiResponse.<Void>builder()
                 .code(e.getCode())
                 .message(e.getMessage())
@@ -87,6 +98,23 @@ public class GlobalExceptionHandler {
                 .build());
     }
     
+    /**
+     * Redis 不可用（连接失败或熔断中）
+     */
+    @ExceptionHandler(RedisConnectionFailureException.class)
+    public ResponseEntity<ApiResponse<Void>> handleRedisConnectionFailureException(RedisConnectionFailureException e) {
+        log.warn("Redis 不可用: {}", e.getMessage());
+        ErrorCode errorCode = ErrorCode.SERVICE_UNAVAILABLE;
+        
+        return ResponseEntity.status(errorCode.getHttpStatus())
+            .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+            .body(ApiResponse.<Void>builder()
+                .code(errorCode.getCode())
+                .message(errorCode.getMessage())
+                .timestamp(System.currentTimeMillis())
+                .build());
+    }
+    
     /**
      * 参数验证异常
      */
@@ -0,0 +1,170 @@
+package com.open436.auth.permission;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 编译后的权限匹配器
+ * 权限代码格式 {resource}:{action}，支持：
+ * <ul>
+ *   <li>通配符：post:*（post 的所有操作）、*:read（所有资源的 read）、*（全部权限）</li>
+ *   <li>隐含操作：manage 包含 create/read/update/delete</li>
+ *   <li>层级资源：资源以 '.' 分段，父资源的授权覆盖子资源，如 section:update 覆盖 section.42:update，
+ *       分段也可以是通配符，如 section.*.post:delete</li>
+ * </ul>
+ * 用户的授权编译为按资源分段的前缀树，每个节点保存操作位掩码；
+ * 判断耗时只与被检查资源的层级深度有关，与用户拥有的权限数量无关。
+ * 编译后不可变，可在线程间共享
+ */
+public final class PermissionMatcher {
+    
+    private static final String WILDCARD = "*";
+    private static final char ACTION_SEPARATOR = ':';
+    private static final String RESOURCE_SEPARATOR_REGEX = "\\.";
+    
+    private static final long READ = 1L;
+    private static final long CREATE = 1L << 1;
+    private static final long UPDATE = 1L << 2;
+    private static final long DELETE = 1L << 3;
+    private static final long MANAGE = 1L << 4;
+    private static final long ALL = -1L;
+    
+    /**
+     * 已知操作的位掩码（授权方向：拥有该操作即拥有的全部操作）
+     */
+    private static final Map<String, Long> GRANT_MASKS = Map.of(
+        "read", READ,
+        "create", CREATE,
+        "update", UPDATE,
+        "delete", DELETE,
+        "manage", MANAGE | CREATE | READ | UPDATE | DELETE,
+        WILDCARD, ALL);
+    
+    /**
+     * 已知操作的位（检查方向）
+     */
+    private static final Map<String, Long> CHECK_BITS = Map.of(
+        "read", READ,
+        "create", CREATE,
+        "update", UPDATE,
+        "delete", DELETE,
+        "manage", MANAGE);
+    
+    private static final PermissionMatcher EMPTY = new PermissionMatcher(new Node(), 0L);
+    
+    private final Node root;
+    private final long version;
+    
+    private PermissionMatcher(Node root, long version) {
+        this.root = root;
+        this.version = version;
+    }
+    
+    /**
+     * 编译权限代码集合
+     * @param codes 用户拥有的权限代码
+     * @param version 权限集合的版本，用于判断编译结果是否过期
+     */
+    public static PermissionMatcher compile(Collection<String> codes, long version) {
+        if (codes.isEmpty()) {
+            return version == 0L ? EMPTY : new PermissionMatcher(new Node(), version);
+        }
+        Node root = new Node();
+        for (String code : codes) {
+            grant(root, code);
+        }
+        return new PermissionMatcher(root, version);
+    }
+    
+    private static void grant(Node root, String code) {
+        int separator = code.lastIndexOf(ACTION_SEPARATOR);
+        if (separator < 0) {
+            // 不带操作的代码只有 "*" 有意义：全部权限
+            if (WILDCARD.equals(code)) {
+                root.actionMask = ALL;
+            }
+            return;
+        }
+        
+        Node node = root;
+        for (String segment : code.substring(0, separator).split(RESOURCE_SEPARATOR_REGEX)) {
+            node = node.child(segment);
+        }
+        
+        String action = code.substring(separator + 1);
+        Long mask = GRANT_MASKS.get(action);
+        if (mask != null) {
+            node.actionMask |= mask;
+        } else {
+            node.otherActions.add(action);
+        }
+    }
+    
+    /**
+     * 判断是否拥有权限代码
+     */
+    public boolean matches(String code) {
+        int separator = code.lastIndexOf(ACTION_SEPARATOR);
+        if (separator < 0) {
+            return false;
+        }
+        return matches(code.substring(0, separator), code.substring(separator + 1));
+    }
+    
+    /**
+     * 判断能否对资源执行操作
+     */
+    public boolean matches(String resource, String action) {
+        Long bit = CHECK_BITS.get(action);
+        return matches(root, resource.split(RESOURCE_SEPARATOR_REGEX), 0, bit != null ? bit : 0L, action);
+    }
+    
+    private boolean matches(Node node, String[] segments, int depth, long bit, String action) {
+        if (node.grants(bit, action)) {
+            return true;
+        }
+        if (depth == segments.length) {
+            return false;
+        }
+        Node child = node.children.get(segments[depth]);
+        if (child != null && matches(child, segments, depth + 1, bit, action)) {
+            return true;
+        }
+        return node.wildcard != null && matches(node.wildcard, segments, depth + 1, bit, action);
+    }
+    
+    /**
+     * 编译时的权限集合版本
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    private static final class Node {
+        
+        private final Map<String, Node> children = new HashMap<>();
+        private final Set<String> otherActions = new HashSet<>();
+        private Node wildcard;
+        private long actionMask;
+        
+        private Node child(String segment) {
+            if (WILDCARD.equals(segment)) {
+                if (wildcard == null) {
+                    wildcard = new Node();
+                }
+                return wildcard;
+            }
+            return children.computeIfAbsent(segment, s -> new Node());
+        }
+        
+        private boolean grants(long bit, String action) {
+            if (actionMask == ALL) {
+                return true;
+            }
+            return bit != 0L ? (actionMask & bit) != 0L : otherActions.contains(action);
+        }
+    }
+}
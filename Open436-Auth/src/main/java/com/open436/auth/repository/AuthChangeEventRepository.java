@@ -0,0 +1,62 @@
+package com.open436.auth.repository;
+
+import com.open436.auth.entity.AuthChangeEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 认证变更事件发件箱 Repository
+ */
+@Repository
+public interface AuthChangeEventRepository extends JpaRepository<AuthChangeEvent, Long> {
+    
+    /**
+     * 为指定用户写入变更事件（单条 INSERT ... SELECT，同时记录当前授权版本）
+     * 必须在业务事务内调用
+     * @param eventType 事件类型代码
+     * @param userIds 用户ID集合
+     * @return 写入的事件数
+     */
+    @Modifying
+    @Query(value = "INSERT INTO auth_change_outbox (event_type, user_id, authz_version) " +
+           "SELECT :eventType, u.id, u.authz_version FROM users_auth u WHERE u.id IN (:userIds)",
+           nativeQuery = true)
+    int enqueue(@Param("eventType") String eventType, @Param("userIds") Collection<Long> userIds);
+    
+    /**
+     * 锁定一批待发布事件（按ID顺序）
+     * SKIP LOCKED 使多个实例可以同时发布而不重复领取，锁在事务结束时释放
+     * @param limit 最大条数
+     * @return 待发布事件
+     */
+    @Query(value = "SELECT * FROM auth_change_outbox WHERE published_at IS NULL " +
+           "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<AuthChangeEvent> lockUnpublished(@Param("limit") int limit);
+    
+    /**
+     * 标记事件已发布
+     * @param ids 事件ID集合
+     * @param publishedAt 发布时间
+     * @return 更新的行数
+     */
+    @Modifying
+    @Query("UPDATE AuthChangeEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+    
+    /**
+     * 删除早于指定时间发布的事件
+     * @param before 截止时间
+     * @return 删除的行数
+     */
+    @Modifying
+    @Query("DELETE FROM AuthChangeEvent e WHERE e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
@@ -50,6 +50,19 @@ public interface PermissionRepository extends JpaRepository<Permission, Long> {
            nativeQuery = true)
     List<Permission> findByUserId(@Param("userId") Long userId);
     
+    /**
+     * 根据用户ID从有效权限读模型查询该用户的所有权限
+     * user_effective_permissions 由数据库触发器维护（见 V3 迁移脚本），
+     * 只需一次主键查询，结果与 {@link #findByUserId(Long)} 一致
+     * @param userId 用户ID
+     * @return 权限列表
+     */
+    @Query(value = "SELECT p.* FROM user_effective_permissions uep " +
+           "INNER JOIN permissions p ON p.id = ANY(uep.permission_ids) " +
+           "WHERE uep.user_id = :userId", 
+           nativeQuery = true)
+    List<Permission> findEffectiveByUserId(@Param("userId") Long userId);
+    
     /**
      * 根据角色ID查询该角色的所有权限
      * @param roleId 角色ID
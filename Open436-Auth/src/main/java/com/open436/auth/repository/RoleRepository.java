@@ -1,8 +1,11 @@
 package com.open436.auth.repository;
 
 import com.open436.auth.entity.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -18,9 +21,11 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
     
     /**
      * 根据角色代码查询角色
+     * 启用查询缓存（每次创建用户都会调用），结果实体来自二级缓存
      * @param code 角色代码（如：user, admin）
      * @return 角色实体（Optional）
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Role> findByCode(String code);
     
     /**
@@ -47,5 +52,16 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
            "WHERE ur.user_id = :userId", 
            nativeQuery = true)
     List<Role> findByUserId(@Param("userId") Long userId);
+    
+    /**
+     * 根据用户ID查询该用户的角色代码
+     * 直接查询 user_roles，不经过 UserAuth.roles 的二级缓存（集合缓存在变更通知到达前可能仍是旧数据）
+     * @param userId 用户ID
+     * @return 角色代码列表（按角色ID排序）
+     */
+    @Query(value = "SELECT r.code FROM roles r " +
+           "INNER JOIN user_roles ur ON r.id = ur.role_id " +
+           "WHERE ur.user_id = :userId ORDER BY r.id", 
+           nativeQuery = true)
+    List<String> findCodesByUserId(@Param("userId") Long userId);
 }
-
@@ -1,12 +1,21 @@
 package com.open436.auth.repository;
 
 import com.open436.auth.entity.UserAuth;
+import com.open436.auth.repository.projection.UserAuthzVersion;
+import com.open436.auth.repository.projection.UserExportRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 用户认证 Repository
@@ -18,12 +27,32 @@ public interface UserAuthRepository extends JpaRepository<UserAuth, Long> {
     /**
      * 根据用户名查询用户（带角色信息）
      * 使用@EntityGraph避免N+1查询问题
+     * 登录时使用：调用方在读写事务中执行（走主库），不声明只读事务，
+     * 否则实体以只读方式加载，开启 open-in-view 时对最后登录时间的修改不会被刷新
      * @param username 用户名
      * @return 用户实体（Optional）
      */
     @EntityGraph(attributePaths = {"roles"})
     Optional<UserAuth> findByUsername(String username);
     
+    /**
+     * 查询用户的授权版本
+     * 调用方在读写事务中执行（走主库）：变更刚提交时从库可能仍是旧版本，写入 Session 后会长期命中旧缓存
+     * @param id 用户ID
+     * @return 授权版本（Optional）
+     */
+    @Query("SELECT u.authzVersion FROM UserAuth u WHERE u.id = :id")
+    Optional<Long> findAuthzVersionById(@Param("id") Long id);
+    
+    /**
+     * 批量查询用户的授权版本
+     * 调用方在读写事务中执行（走主库），原因同上
+     * @param ids 用户ID集合
+     * @return 用户ID与授权版本
+     */
+    @Query("SELECT u.id AS id, u.authzVersion AS authzVersion FROM UserAuth u WHERE u.id IN :ids")
+    List<UserAuthzVersion> findAuthzVersions(@Param("ids") Collection<Long> ids);
+    
     /**
      * 检查用户名是否存在
      * @param username 用户名
@@ -38,5 +67,66 @@ public interface UserAuthRepository extends JpaRepository<UserAuth, Long> {
      */
     @EntityGraph(attributePaths = {"roles"})
     List<UserAuth> findByStatus(String status);
+    
+    /**
+     * 流式读取全部用户（导出用）
+     * 使用只读游标按主键顺序逐批拉取，角色通过关联子查询聚合，
+     * 调用方必须在事务内消费并关闭 Stream
+     * @return 用户导出行流
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = "SELECT u.id AS id, u.username AS username, u.status AS status, " +
+           "u.last_login_at AS \"lastLoginAt\", " +
+           "(SELECT string_agg(r.code, ',' ORDER BY r.code) FROM user_roles ur " +
+           "INNER JOIN roles r ON r.id = ur.role_id WHERE ur.user_id = u.id) AS roles " +
+           "FROM users_auth u ORDER BY u.id",
+           nativeQuery = true)
+    Stream<UserExportRow> streamAllForExport();
+    
+    /**
+     * 批量更新指定用户的状态（单条 UPDATE）
+     * 只更新状态确实发生变化的行，并返回这些用户的ID；操作人自己不在更新范围内
+     * @param ids 用户ID集合
+     * @param status 新状态
+     * @param operatorId 操作人ID
+     * @return 状态发生变化的用户ID列表
+     */
+    @Query(value = "UPDATE users_auth SET status = :status, updated_at = CURRENT_TIMESTAMP " +
+           "WHERE id IN (:ids) AND status <> :status AND id <> :operatorId " +
+           "RETURNING CAST(id AS BIGINT)",
+           nativeQuery = true)
+    List<Long> updateStatusByIds(@Param("ids") Collection<Long> ids, @Param("status") String status,
+                                 @Param("operatorId") Long operatorId);
+    
+    /**
+     * 批量更新拥有指定角色的全部用户的状态（单条 UPDATE）
+     * 操作人自己不在更新范围内
+     * @param roleCode 角色代码
+     * @param status 新状态
+     * @param operatorId 操作人ID
+     * @return 状态发生变化的用户ID列表
+     */
+    @Query(value = "UPDATE users_auth u SET status = :status, updated_at = CURRENT_TIMESTAMP " +
+           "FROM user_roles ur INNER JOIN roles r ON r.id = ur.role_id " +
+           "WHERE ur.user_id = u.id AND r.code = :roleCode AND u.status <> :status AND u.id <> :operatorId " +
+           "RETURNING CAST(u.id AS BIGINT)",
+           nativeQuery = true)
+    List<Long> updateStatusByRoleCode(@Param("roleCode") String roleCode, @Param("status") String status,
+                                      @Param("operatorId") Long operatorId);
+    
+    /**
+     * 统计拥有指定角色且处于指定状态的用户数
+     * @param roleCode 角色代码
+     * @param status 用户状态
+     * @return 用户数
+     */
+    @Query(value = "SELECT COUNT(DISTINCT u.id) FROM users_auth u " +
+           "INNER JOIN user_roles ur ON ur.user_id = u.id " +
+           "INNER JOIN roles r ON r.id = ur.role_id " +
+           "WHERE r.code = :roleCode AND u.status = :status",
+           nativeQuery = true)
+    long countByRoleCodeAndStatus(@Param("roleCode") String roleCode, @Param("status") String status);
 }
-
@@ -0,0 +1,17 @@
+package com.open436.auth.repository.projection;
+
+/**
+ * 用户授权版本投影
+ */
+public interface UserAuthzVersion {
+    
+    /**
+     * 用户ID
+     */
+    Long getId();
+    
+    /**
+     * 授权版本
+     */
+    Long getAuthzVersion();
+}
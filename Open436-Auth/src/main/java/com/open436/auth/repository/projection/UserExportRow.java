@@ -0,0 +1,35 @@
+package com.open436.auth.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户导出行投影
+ * 仅包含导出所需的列，不进入持久化上下文，适合游标流式读取
+ */
+public interface UserExportRow {
+    
+    /**
+     * 用户ID
+     */
+    Long getId();
+    
+    /**
+     * 用户名
+     */
+    String getUsername();
+    
+    /**
+     * 账号状态
+     */
+    String getStatus();
+    
+    /**
+     * 角色代码（逗号分隔，可能为 null）
+     */
+    String getRoles();
+    
+    /**
+     * 最后登录时间
+     */
+    LocalDateTime getLastLoginAt();
+}
@@ -0,0 +1,151 @@
+package com.open436.auth.resilience;
+
+import com.open436.auth.config.RedisResilienceProperties;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Redis 熔断器
+ * 连续失败达到阈值后熔断，熔断期间直接抛出 {@link RedisConnectionFailureException}，
+ * 不再等待连接或命令超时；熔断到期后只放行一个探测请求，成功则恢复，失败则继续熔断。
+ * 只有连接失败、超时等基础设施异常计入失败次数，序列化等编程错误不计入
+ */
+@Slf4j
+@Component
+public class RedisCircuitBreaker {
+    
+    /**
+     * 熔断器状态
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+    
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier nanoClock;
+    
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private volatile long openedAt;
+    private volatile boolean open;
+    
+    public RedisCircuitBreaker(RedisResilienceProperties properties) {
+        this(properties, System::nanoTime);
+    }
+    
+    RedisCircuitBreaker(RedisResilienceProperties properties, LongSupplier nanoClock) {
+        this.failureThreshold = properties.getFailureThreshold();
+        this.openDurationNanos = properties.getOpenDuration().toNanos();
+        this.nanoClock = nanoClock;
+        Metrics.gauge("auth.redis.circuit.open", this, breaker -> breaker.getState() == State.CLOSED ? 0 : 1);
+    }
+    
+    /**
+     * 在熔断器保护下执行 Redis 调用
+     * @param call Redis 调用
+     * @return 调用结果
+     * @throws RedisConnectionFailureException 熔断期间直接抛出
+     */
+    public <T> T execute(Supplier<T> call) {
+        boolean probe = acquirePermission();
+        try {
+            T result = call.get();
+            onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            if (isInfrastructureFailure(e)) {
+                onFailure(e);
+            } else if (probe) {
+                // 非基础设施异常说明 Redis 可达，探测同样视为成功
+                onSuccess();
+            }
+            throw e;
+        } finally {
+            if (probe) {
+                probing.set(false);
+            }
+        }
+    }
+    
+    /**
+     * 在熔断器保护下执行无返回值的 Redis 调用
+     * @param call Redis 调用
+     */
+    public void run(Runnable call) {
+        execute(() -> {
+            call.run();
+            return null;
+        });
+    }
+    
+    /**
+     * 当前是否允许访问 Redis（不占用探测名额）
+     */
+    public boolean isCallPermitted() {
+        State state = getState();
+        return state == State.CLOSED || (state == State.HALF_OPEN && !probing.get());
+    }
+    
+    /**
+     * 获取熔断器状态
+     */
+    public State getState() {
+        if (!open) {
+            return State.CLOSED;
+        }
+        return nanoClock.getAsLong() - openedAt >= openDurationNanos ? State.HALF_OPEN : State.OPEN;
+    }
+    
+    /**
+     * 判断是否为 Redis 基础设施异常（连接失败、命令超时等）
+     */
+    public static boolean isInfrastructureFailure(Throwable e) {
+        return e instanceof DataAccessResourceFailureException || e instanceof TransientDataAccessException;
+    }
+    
+    /**
+     * 获取调用许可
+     * @return 本次调用是否为半开状态下的探测请求
+     */
+    private boolean acquirePermission() {
+        State state = getState();
+        if (state == State.CLOSED) {
+            return false;
+        }
+        if (state == State.HALF_OPEN && probing.compareAndSet(false, true)) {
+            return true;
+        }
+        throw new RedisConnectionFailureException("Redis 熔断中，暂停访问");
+    }
+    
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        if (open) {
+            open = false;
+            log.info("Redis 熔断恢复");
+        }
+    }
+    
+    private void onFailure(RuntimeException e) {
+        if (open) {
+            // 探测失败，重新计时
+            openedAt = nanoClock.getAsLong();
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt = nanoClock.getAsLong();
+            open = true;
+            log.warn("Redis 连续失败 {} 次，熔断 {} ms: {}", failureThreshold, openDurationNanos / 1_000_000, e.getMessage());
+        }
+    }
+}
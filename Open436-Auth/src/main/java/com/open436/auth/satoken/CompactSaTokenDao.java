@@ -0,0 +1,219 @@
+package com.open436.auth.satoken;
+
+import cn.dev33.satoken.dao.SaTokenDao;
+import cn.dev33.satoken.dao.SaTokenDaoRedisJackson;
+import cn.dev33.satoken.session.SaSession;
+import cn.dev33.satoken.util.SaFoxUtil;
+import com.open436.auth.cache.ClientSideCache;
+import com.open436.auth.resilience.RedisCircuitBreaker;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 紧凑编码的 Sa-Token 持久层
+ * Token -> LoginId 等字符串值保持原样；SaSession 使用 {@link SaSessionCodec} 二进制编码，
+ * 体积约为 Jackson JSON 的三分之一。
+ * 更新值使用 SET ... KEEPTTL XX、永不过期使用 PERSIST，均为单次往返（需要 Redis 6.0+）；
+ * searchData 使用 SCAN 代替 KEYS，避免大量会话时阻塞 Redis（Redis Cluster 下逐个主节点扫描）。
+ * 读取到旧的 Jackson 格式时交给 {@link SaTokenDaoRedisJackson} 解析，升级时无需清空会话。
+ * 所有 Redis 访问经过 {@link RedisCircuitBreaker}，Redis 故障时快速失败。
+ * 启用客户端缓存时，读取经过 {@link ClientSideCache}，写入后移除本地副本
+ */
+@Primary
+@Component
+public class CompactSaTokenDao implements SaTokenDao {
+    
+    private static final int SCAN_COUNT = 1000;
+    
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisTemplate<String, byte[]> binaryRedisTemplate;
+    private final SaTokenDaoRedisJackson legacyDao;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final ClientSideCache clientSideCache;
+    private final SaSessionCodec codec = new SaSessionCodec();
+    
+    public CompactSaTokenDao(RedisConnectionFactory connectionFactory,
+                             StringRedisTemplate stringRedisTemplate,
+                             SaTokenDaoRedisJackson legacyDao,
+                             RedisCircuitBreaker circuitBreaker,
+                             @Qualifier("sessionClientSideCache") ClientSideCache clientSideCache) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.legacyDao = legacyDao;
+        this.circuitBreaker = circuitBreaker;
+        this.clientSideCache = clientSideCache;
+        
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+        this.binaryRedisTemplate = template;
+    }
+    
+    // ------------------------ 字符串读写
+    
+    @Override
+    public String get(String key) {
+        if (clientSideCache.isEnabled()) {
+            byte[] bytes = circuitBreaker.execute(() -> clientSideCache.get(key));
+            return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+        }
+        return circuitBreaker.execute(() -> stringRedisTemplate.opsForValue().get(key));
+    }
+    
+    @Override
+    public void set(String key, String value, long timeout) {
+        write(key, value.getBytes(StandardCharsets.UTF_8), timeout);
+    }
+    
+    @Override
+    public void update(String key, String value) {
+        writeKeepTtl(key, value.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    @Override
+    public void delete(String key) {
+        circuitBreaker.run(() -> stringRedisTemplate.delete(key));
+        clientSideCache.evict(key);
+    }
+    
+    @Override
+    public long getTimeout(String key) {
+        Long expire = circuitBreaker.execute(() -> stringRedisTemplate.getExpire(key));
+        return expire != null ? expire : NOT_VALUE_EXPIRE;
+    }
+    
+    @Override
+    public void updateTimeout(String key, long timeout) {
+        if (timeout == NEVER_EXPIRE) {
+            circuitBreaker.run(() -> stringRedisTemplate.persist(key));
+        } else {
+            circuitBreaker.run(() -> stringRedisTemplate.expire(key, timeout, TimeUnit.SECONDS));
+        }
+    }
+    
+    // ------------------------ 对象读写
+    
+    @Override
+    public Object getObject(String key) {
+        byte[] bytes = circuitBreaker.execute(() -> clientSideCache.isEnabled()
+            ? clientSideCache.get(key) : binaryRedisTemplate.opsForValue().get(key));
+        if (bytes == null) {
+            return null;
+        }
+        if (SaSessionCodec.isCompact(bytes)) {
+            return codec.decode(bytes);
+        }
+        // 旧的 Jackson 格式或非 Session 对象
+        return circuitBreaker.execute(() -> legacyDao.getObject(key));
+    }
+    
+    @Override
+    public void setObject(String key, Object object, long timeout) {
+        if (object instanceof SaSession session) {
+            write(key, codec.encode(session), timeout);
+        } else {
+            circuitBreaker.run(() -> legacyDao.setObject(key, object, timeout));
+            clientSideCache.evict(key);
+        }
+    }
+    
+    @Override
+    public void updateObject(String key, Object object) {
+        if (object instanceof SaSession session) {
+            writeKeepTtl(key, codec.encode(session));
+        } else {
+            circuitBreaker.run(() -> legacyDao.updateObject(key, object));
+            clientSideCache.evict(key);
+        }
+    }
+    
+    @Override
+    public void deleteObject(String key) {
+        delete(key);
+    }
+    
+    @Override
+    public long getObjectTimeout(String key) {
+        return getTimeout(key);
+    }
+    
+    @Override
+    public void updateObjectTimeout(String key, long timeout) {
+        updateTimeout(key, timeout);
+    }
+    
+    // ------------------------ 会话管理
+    
+    @Override
+    public List<String> searchData(String prefix, String keyword, int start, int size, boolean sortType) {
+        ScanOptions options = ScanOptions.scanOptions()
+            .match(prefix + "*" + keyword + "*")
+            .count(SCAN_COUNT)
+            .build();
+        List<String> keys = new ArrayList<>();
+        circuitBreaker.run(() -> binaryRedisTemplate.execute((RedisCallback<Void>) connection -> {
+            if (connection instanceof RedisClusterConnection cluster) {
+                // 集群模式下 SCAN 只能逐个主节点执行
+                for (RedisClusterNode node : cluster.clusterGetNodes()) {
+                    if (node.isMaster()) {
+                        scan(cluster.scan(node, options), keys);
+                    }
+                }
+            } else {
+                scan(connection.keyCommands().scan(options), keys);
+            }
+            return null;
+        }));
+        return SaFoxUtil.searchList(keys, start, size, sortType);
+    }
+    
+    private void scan(Cursor<byte[]> cursor, List<String> keys) {
+        try (cursor) {
+            cursor.forEachRemaining(key -> keys.add(new String(key, StandardCharsets.UTF_8)));
+        }
+    }
+    
+    /**
+     * 写入值并设置过期时间
+     * timeout 为 0 或小于 -1 时不写入（与 Sa-Token 官方实现一致）
+     */
+    private void write(String key, byte[] value, long timeout) {
+        if (timeout == 0 || timeout <= NOT_VALUE_EXPIRE) {
+            return;
+        }
+        if (timeout == NEVER_EXPIRE) {
+            circuitBreaker.run(() -> binaryRedisTemplate.opsForValue().set(key, value));
+        } else {
+            circuitBreaker.run(() -> binaryRedisTemplate.opsForValue().set(key, value, timeout, TimeUnit.SECONDS));
+        }
+        clientSideCache.evict(key);
+    }
+    
+    /**
+     * 仅在键存在时更新值并保留剩余过期时间（SET key value KEEPTTL XX）
+     */
+    private void writeKeepTtl(String key, byte[] value) {
+        byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+        circuitBreaker.run(() -> binaryRedisTemplate.execute((RedisCallback<Boolean>) connection ->
+            connection.stringCommands().set(rawKey, value, Expiration.keepTtl(), SetOption.ifPresent())));
+        clientSideCache.evict(key);
+    }
+}
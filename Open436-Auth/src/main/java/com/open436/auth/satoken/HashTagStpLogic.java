@@ -0,0 +1,109 @@
+package com.open436.auth.satoken;
+
+import cn.dev33.satoken.stp.StpLogic;
+import cn.dev33.satoken.stp.StpUtil;
+
+import java.util.Map;
+
+/**
+ * 带 Hash Tag 的 Sa-Token 登录逻辑（Redis Cluster 部署使用）
+ * 根据 LoginId 计算 4 位十六进制标签，作为 Token 前缀（标签.原Token）；
+ * Session、Token、Token-Session 等 Key 都以 {标签} 作为 Hash Tag，
+ * 同一用户的所有会话 Key 落在同一个槽位，多 Key 操作无需跨节点。
+ * 不带标签的旧 Token 仍使用原 Key 规则
+ */
+public class HashTagStpLogic extends StpLogic {
+    
+    /**
+     * 标签长度（十六进制位数，共 65536 个标签，均匀分布到 16384 个槽位）
+     */
+    static final int TAG_LENGTH = 4;
+    
+    private static final char TAG_SEPARATOR = '.';
+    
+    public HashTagStpLogic() {
+        super(StpUtil.TYPE);
+    }
+    
+    /**
+     * 计算 LoginId 对应的标签
+     */
+    static String tagOf(Object loginId) {
+        int hash = loginId.toString().hashCode();
+        // 混合高低位，避免连续 ID 只改变低位
+        hash ^= (hash >>> 16);
+        hash *= 0x45d9f3b;
+        hash ^= (hash >>> 16);
+        return String.format("%04x", hash & 0xffff);
+    }
+    
+    /**
+     * 从 Token 中提取标签，旧格式 Token 返回 null
+     */
+    static String tagOfToken(String tokenValue) {
+        if (tokenValue == null || tokenValue.length() <= TAG_LENGTH + 1
+                || tokenValue.charAt(TAG_LENGTH) != TAG_SEPARATOR) {
+            return null;
+        }
+        for (int i = 0; i < TAG_LENGTH; i++) {
+            if (Character.digit(tokenValue.charAt(i), 16) < 0) {
+                return null;
+            }
+        }
+        return tokenValue.substring(0, TAG_LENGTH);
+    }
+    
+    @Override
+    public String createTokenValue(Object loginId, String device, long timeout, Map<String, Object> extraData) {
+        return tagOf(loginId) + TAG_SEPARATOR + super.createTokenValue(loginId, device, timeout, extraData);
+    }
+    
+    @Override
+    public String splicingKeyTokenValue(String tokenValue) {
+        return tagTokenKey(super.splicingKeyTokenValue(tokenValue), tokenValue);
+    }
+    
+    @Override
+    public String splicingKeyTokenSession(String tokenValue) {
+        return tagTokenKey(super.splicingKeyTokenSession(tokenValue), tokenValue);
+    }
+    
+    @Override
+    public String splicingKeyLastActiveTime(String tokenValue) {
+        return tagTokenKey(super.splicingKeyLastActiveTime(tokenValue), tokenValue);
+    }
+    
+    @Override
+    public String splicingKeySafe(String tokenValue, String service) {
+        return tagTokenKey(super.splicingKeySafe(tokenValue, service), tokenValue);
+    }
+    
+    @Override
+    public String splicingKeySession(Object loginId) {
+        return tagKey(super.splicingKeySession(loginId), loginId.toString(), tagOf(loginId));
+    }
+    
+    @Override
+    public String splicingKeyDisable(Object loginId, String service) {
+        return tagKey(super.splicingKeyDisable(loginId, service), loginId.toString(), tagOf(loginId));
+    }
+    
+    /**
+     * 在 Token 相关 Key 中插入 Hash Tag，旧格式 Token 保持原 Key
+     */
+    private String tagTokenKey(String key, String tokenValue) {
+        String tag = tagOfToken(tokenValue);
+        return tag == null ? key : tagKey(key, tokenValue, tag);
+    }
+    
+    /**
+     * 在 Key 末尾的标识前插入 Hash Tag：前缀:{标签}:标识
+     */
+    private String tagKey(String key, String suffix, String tag) {
+        if (!key.endsWith(suffix)) {
+            return key;
+        }
+        int index = key.length() - suffix.length();
+        return key.substring(0, index) + "{" + tag + "}:" + suffix;
+    }
+}
@@ -0,0 +1,223 @@
+package com.open436.auth.satoken;
+
+import cn.dev33.satoken.session.SaSession;
+import cn.dev33.satoken.session.TokenSign;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SaSession 紧凑二进制编码
+ * 格式：魔数(1) + 版本(1) + id + type + loginType + loginId + token + createTime
+ *      + TokenSign 列表 + 数据表
+ * 字符串为 变长长度 + UTF-8，常见值类型（字符串、整数、布尔）直接编码，其余类型内嵌 JSON
+ */
+public class SaSessionCodec {
+    
+    /**
+     * 魔数，与 Jackson JSON（以 '{' 或 '[' 开头）区分
+     */
+    static final byte MAGIC = (byte) 0xA5;
+    static final byte VERSION = 1;
+    
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_INT = 3;
+    private static final byte TYPE_BOOLEAN = 4;
+    private static final byte TYPE_DOUBLE = 5;
+    private static final byte TYPE_JSON = 6;
+    
+    private final RedisSerializer<Object> jsonSerializer = new GenericJackson2JsonRedisSerializer();
+    
+    /**
+     * 判断是否为本编码格式
+     * @param bytes Redis 中的原始值
+     * @return 是否为紧凑编码
+     */
+    public static boolean isCompact(byte[] bytes) {
+        return bytes != null && bytes.length >= 2 && bytes[0] == MAGIC;
+    }
+    
+    /**
+     * 编码 SaSession
+     * @param session 会话
+     * @return 二进制值
+     */
+    public byte[] encode(SaSession session) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeByte(MAGIC);
+            out.writeByte(VERSION);
+            writeString(out, session.getId());
+            writeString(out, session.getType());
+            writeString(out, session.getLoginType());
+            writeValue(out, session.getLoginId());
+            writeString(out, session.getToken());
+            writeVarLong(out, session.getCreateTime());
+            
+            List<TokenSign> tokenSigns = session.getTokenSignList();
+            writeVarLong(out, tokenSigns.size());
+            for (TokenSign tokenSign : tokenSigns) {
+                writeString(out, tokenSign.getValue());
+                writeString(out, tokenSign.getDevice());
+                writeValue(out, tokenSign.getTag());
+            }
+            
+            Map<String, Object> dataMap = session.getDataMap();
+            writeVarLong(out, dataMap.size());
+            for (Map.Entry<String, Object> entry : dataMap.entrySet()) {
+                writeString(out, entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+    
+    /**
+     * 解码 SaSession
+     * 使用无参构造，避免触发 Sa-Token 的 Session 创建事件
+     * @param bytes 二进制值
+     * @return 会话
+     */
+    public SaSession decode(byte[] bytes) {
+        if (!isCompact(bytes) || bytes[1] != VERSION) {
+            throw new IllegalArgumentException("不支持的 SaSession 编码格式");
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 2, bytes.length - 2))) {
+            SaSession session = new SaSession();
+            session.setId(readString(in));
+            session.setType(readString(in));
+            session.setLoginType(readString(in));
+            session.setLoginId(readValue(in));
+            session.setToken(readString(in));
+            session.setCreateTime(readVarLong(in));
+            
+            int tokenSignCount = (int) readVarLong(in);
+            List<TokenSign> tokenSigns = new ArrayList<>(tokenSignCount);
+            for (int i = 0; i < tokenSignCount; i++) {
+                tokenSigns.add(new TokenSign(readString(in), readString(in), readValue(in)));
+            }
+            session.setTokenSignList(tokenSigns);
+            
+            int dataCount = (int) readVarLong(in);
+            Map<String, Object> dataMap = session.getDataMap();
+            for (int i = 0; i < dataCount; i++) {
+                String key = readString(in);
+                Object value = readValue(in);
+                if (value != null) {
+                    dataMap.put(key, value);
+                }
+            }
+            return session;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof String s) {
+            out.writeByte(TYPE_STRING);
+            writeString(out, s);
+        } else if (value instanceof Long l) {
+            out.writeByte(TYPE_LONG);
+            writeVarLong(out, l);
+        } else if (value instanceof Integer i) {
+            out.writeByte(TYPE_INT);
+            writeVarLong(out, i);
+        } else if (value instanceof Boolean b) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean(b);
+        } else if (value instanceof Double d) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble(d);
+        } else {
+            byte[] json = jsonSerializer.serialize(value);
+            out.writeByte(TYPE_JSON);
+            writeVarLong(out, json.length);
+            out.write(json);
+        }
+    }
+    
+    private Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        return switch (type) {
+            case TYPE_NULL -> null;
+            case TYPE_STRING -> readString(in);
+            case TYPE_LONG -> readVarLong(in);
+            case TYPE_INT -> (int) readVarLong(in);
+            case TYPE_BOOLEAN -> in.readBoolean();
+            case TYPE_DOUBLE -> in.readDouble();
+            case TYPE_JSON -> {
+                byte[] json = new byte[(int) readVarLong(in)];
+                in.readFully(json);
+                yield jsonSerializer.deserialize(json);
+            }
+            default -> throw new IOException("未知的值类型: " + type);
+        };
+    }
+    
+    /**
+     * 字符串：长度 + 1（0 表示 null）+ UTF-8 字节
+     */
+    private void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+    
+    private String readString(DataInputStream in) throws IOException {
+        long length = readVarLong(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[(int) (length - 1)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * ZigZag + 变长整数编码，小数值只占 1~2 字节
+     */
+    private void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long zigZag = (value << 1) ^ (value >> 63);
+        while ((zigZag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigZag & 0x7F) | 0x80));
+            zigZag >>>= 7;
+        }
+        out.writeByte((int) zigZag);
+    }
+    
+    private long readVarLong(DataInputStream in) throws IOException {
+        long zigZag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift >= 64) {
+                throw new IOException("变长整数格式错误");
+            }
+            b = in.readByte();
+            zigZag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+}
@@ -0,0 +1,69 @@
+package com.open436.auth.satoken;
+
+import cn.dev33.satoken.listener.SaTokenListenerForSimple;
+import com.open436.auth.config.TokenProperties;
+import com.open436.auth.resilience.RedisCircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Token 吊销广播
+ * 登出、踢下线、被顶下线时向 Redis 频道发布 Token 的 SHA-256，
+ * 网关（satoken-auth 插件）订阅后立即清除该 Token 的验证缓存。
+ * 发布失败不影响登出本身，网关缓存最迟在 max-age 后过期
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationPublisher extends SaTokenListenerForSimple {
+    
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final TokenProperties tokenProperties;
+    
+    @Override
+    public void doLogout(String loginType, Object loginId, String tokenValue) {
+        publish(tokenValue);
+    }
+    
+    @Override
+    public void doKickout(String loginType, Object loginId, String tokenValue) {
+        publish(tokenValue);
+    }
+    
+    @Override
+    public void doReplaced(String loginType, Object loginId, String tokenValue) {
+        publish(tokenValue);
+    }
+    
+    private void publish(String tokenValue) {
+        if (tokenValue == null || tokenValue.isEmpty()) {
+            return;
+        }
+        try {
+            circuitBreaker.run(() -> stringRedisTemplate.convertAndSend(
+                tokenProperties.getRevocationChannel(), hash(tokenValue)));
+        } catch (RuntimeException e) {
+            log.warn("Token 吊销广播失败，网关缓存将在过期后失效: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Token 的 SHA-256（十六进制），与网关的缓存键一致，避免在频道中传播明文 Token
+     */
+    static String hash(String tokenValue) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(tokenValue.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.open436.auth.service;
 
 import com.open436.auth.dto.LoginRequest;
 import com.open436.auth.dto.LoginResponse;
+import com.open436.auth.dto.TokenRefreshRequest;
 import com.open436.auth.dto.UserInfoResponse;
 
 /**
@@ -16,10 +17,19 @@ public interface AuthService {
      */
     LoginResponse login(LoginRequest request);
     
+    /**
+     * 刷新 Token
+     * 轮换 Refresh Token 并签发新的 Access Token
+     * @param request 刷新请求
+     * @return 登录响应（包含新的 Access Token、Refresh Token 和用户信息）
+     */
+    LoginResponse refresh(TokenRefreshRequest request);
+    
     /**
      * 用户登出
+     * @param refreshToken Refresh Token（可选，提供时一并作废）
      */
-    void logout();
+    void logout(String refreshToken);
     
     /**
      * 获取当前登录用户信息
@@ -0,0 +1,23 @@
+package com.open436.auth.service;
+
+/**
+ * 授权决策服务接口
+ * 集中判断"主体能否对资源执行操作"，下游服务无需各自查询角色与权限
+ */
+public interface AuthorizationService {
+    
+    /**
+     * 判断用户能否对资源执行操作
+     * @param userId 用户ID
+     * @param resource 资源类型
+     * @param action 操作类型
+     * @return 是否允许
+     */
+    boolean isAllowed(Long userId, String resource, String action);
+    
+    /**
+     * 决策缓存命中率（0~1）
+     * @return 命中率
+     */
+    double getDecisionCacheHitRatio();
+}
@@ -0,0 +1,49 @@
+package com.open436.auth.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 授权版本服务接口
+ * 每个用户一个单调递增的授权版本（users_auth.authz_version，由数据库触发器在角色或角色权限变化时递增），
+ * 登录时写入账号 Session；角色/权限缓存以 (userId, 版本) 为 Key，版本变化后旧缓存自然失效
+ */
+public interface AuthzVersionService {
+    
+    /**
+     * 获取用户当前的授权版本
+     * 优先读取账号 Session，用户未登录时查询数据库（结果在本地短暂缓存，变更通知到达时清除）
+     * @param userId 用户ID
+     * @return 授权版本
+     */
+    long getVersion(Long userId);
+    
+    /**
+     * 批量获取用户当前的授权版本（来源与 {@link #getVersion(Long)} 相同）
+     * 未登录且未命中本地缓存的用户合并为一次数据库查询
+     * @param userIds 用户ID集合
+     * @return 用户ID -> 授权版本（包含全部请求的用户）
+     */
+    Map<Long, Long> getCurrentVersions(Collection<Long> userIds);
+    
+    /**
+     * 批量查询用户的授权版本（数据库）
+     * @param userIds 用户ID集合
+     * @return 用户ID -> 授权版本
+     */
+    Map<Long, Long> getVersions(Collection<Long> userIds);
+    
+    /**
+     * 批量读取在线用户 Session 中的授权版本（即缓存 Key 当前使用的版本）
+     * @param userIds 用户ID集合
+     * @return 用户ID -> 授权版本（未登录或 Session 中没有版本的用户不包含在内）
+     */
+    Map<Long, Long> getSessionVersions(Collection<Long> userIds);
+    
+    /**
+     * 从数据库重新读取授权版本并写入在线用户的 Session
+     * 数据库中的角色或权限变化后调用（变更事件发布、数据库变更通知），使在线用户立即使用新版本
+     * @param userIds 用户ID集合
+     */
+    void refresh(Collection<Long> userIds);
+}
@@ -1,8 +1,13 @@
 package com.open436.auth.service;
 
+import com.open436.auth.dto.PermissionCheck;
 import com.open436.auth.entity.Permission;
+import com.open436.auth.permission.PermissionMatcher;
 
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 权限服务接口
@@ -24,13 +29,35 @@ public interface PermissionService {
     List<String> getUserPermissionCodes(Long userId);
     
     /**
-     * 检查用户是否拥有指定权限
+     * 检查用户是否拥有指定权限（支持通配符、隐含操作与层级资源，见 {@link PermissionMatcher}）
      * @param userId 用户ID
      * @param permissionCode 权限代码
      * @return 是否拥有权限
      */
     boolean hasPermission(Long userId, String permissionCode);
     
+    /**
+     * 检查用户是否拥有一组权限（只读取一次权限集合）
+     * @param userId 用户ID
+     * @param permissionCodes 权限代码列表
+     * @return 权限代码 -> 是否拥有，按请求顺序
+     */
+    Map<String, Boolean> checkPermissions(Long userId, Collection<String> permissionCodes);
+    
+    /**
+     * 批量检查（用户ID, 权限代码）对，每个用户的权限集合只读取一次
+     * @param checks 检查项列表
+     * @return 结果位图，第 i 位对应第 i 个检查项
+     */
+    BitSet checkPermissions(List<PermissionCheck> checks);
+    
+    /**
+     * 获取用户的权限匹配器（已编译，支持通配符、隐含操作与层级资源）
+     * @param userId 用户ID
+     * @return 权限匹配器
+     */
+    PermissionMatcher getPermissionMatcher(Long userId);
+    
     /**
      * 清除用户权限缓存
      * @param userId 用户ID
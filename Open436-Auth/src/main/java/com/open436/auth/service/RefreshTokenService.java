@@ -0,0 +1,63 @@
+package com.open436.auth.service;
+
+/**
+ * Refresh Token 服务接口
+ * 同一次登录签发的 Refresh Token 属于同一个 Token 族，每次刷新轮换为新 Token；
+ * 已被轮换的旧 Token 在宽限期后再次使用视为泄露，整族作废
+ */
+public interface RefreshTokenService {
+    
+    /**
+     * 签发 Refresh Token（开启新的 Token 族）
+     * @param userId 用户ID
+     * @param rememberMe 是否记住我（决定有效期）
+     * @param accessToken 同时签发的 Access Token
+     * @return Refresh Token
+     */
+    String issue(Long userId, boolean rememberMe, String accessToken);
+    
+    /**
+     * 轮换 Refresh Token
+     * @param refreshToken 当前 Refresh Token
+     * @return 轮换结果
+     */
+    Rotation rotate(String refreshToken);
+    
+    /**
+     * 记录 Token 族当前的 Access Token（检测到重用时一并注销）
+     * @param familyId Token 族ID
+     * @param accessToken Access Token
+     */
+    void bindAccessToken(String familyId, String accessToken);
+    
+    /**
+     * 作废 Refresh Token 所在的 Token 族
+     * 只有族属于该用户且 Token 为当前或上一个有效 Token 时才作废，否则忽略
+     * @param userId Token 所属用户ID（如当前登录用户）
+     * @param refreshToken Refresh Token
+     */
+    void revoke(Long userId, String refreshToken);
+    
+    /**
+     * 作废用户的全部 Token 族（修改/重置密码、禁用、踢下线时调用）
+     * @param userId 用户ID
+     */
+    void revokeAll(Long userId);
+    
+    /**
+     * 获取 Refresh Token 有效期
+     * @param rememberMe 是否记住我
+     * @return 有效期（秒）
+     */
+    long getTimeout(boolean rememberMe);
+    
+    /**
+     * 轮换结果
+     * @param userId 用户ID
+     * @param rememberMe 是否记住我
+     * @param familyId Token 族ID
+     * @param refreshToken 新的 Refresh Token
+     */
+    record Rotation(Long userId, boolean rememberMe, String familyId, String refreshToken) {
+    }
+}
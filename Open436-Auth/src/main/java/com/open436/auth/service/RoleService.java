@@ -19,5 +19,10 @@ public interface RoleService {
      * @param userId 用户ID
      */
     void clearUserRolesCache(Long userId);
+    
+    /**
+     * 清除所有用户角色缓存
+     */
+    void clearAllRolesCache();
 }
 
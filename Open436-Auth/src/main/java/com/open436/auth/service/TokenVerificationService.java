@@ -0,0 +1,19 @@
+package com.open436.auth.service;
+
+import com.open436.auth.dto.UserTokenInfo;
+
+/**
+ * Token 验证服务接口
+ * 供网关验证 Access Token，Redis 故障时按配置降级
+ */
+public interface TokenVerificationService {
+    
+    /**
+     * 验证 Token
+     * Redis 不可用时，最近验证通过的 Token 在最大陈旧时间内仍视为有效；
+     * 超出该时间或从未验证过的 Token 抛出服务不可用异常，而不是判定为无效
+     * @param token Access Token
+     * @return Token 对应的用户信息，Token 无效时返回 null
+     */
+    UserTokenInfo verify(String token);
+}
@@ -0,0 +1,27 @@
+package com.open436.auth.service;
+
+import com.open436.auth.dto.BatchJobResponse;
+import com.open436.auth.dto.BatchUpdateUserStatusRequest;
+
+/**
+ * 用户批量操作服务接口
+ */
+public interface UserBatchService {
+    
+    /**
+     * 批量启用/禁用用户（管理员功能）
+     * 状态变更以单条 UPDATE 同步提交，缓存清理与踢出在后台分批执行
+     * 操作人自己不受影响；禁用后没有启用的管理员时拒绝变更
+     * @param operatorId 操作人（当前登录用户）ID
+     * @param request 批量更新请求（userIds 与 roleCode 二选一）
+     * @return 任务进度
+     */
+    BatchJobResponse batchUpdateUserStatus(Long operatorId, BatchUpdateUserStatusRequest request);
+    
+    /**
+     * 查询批量任务进度
+     * @param jobId 任务ID
+     * @return 任务进度
+     */
+    BatchJobResponse getJob(String jobId);
+}
@@ -0,0 +1,22 @@
+package com.open436.auth.service;
+
+import com.open436.auth.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 用户导出服务接口
+ */
+public interface UserExportService {
+    
+    /**
+     * 流式导出全部用户（管理员功能）
+     * 结果逐行写入输出流，不在内存中缓冲整个结果集
+     * @param format 导出格式
+     * @param outputStream 输出流（由调用方负责关闭）
+     * @return 导出的行数
+     * @throws IOException 写出失败（通常是客户端断开连接）
+     */
+    long exportUsers(ExportFormat format, OutputStream outputStream) throws IOException;
+}
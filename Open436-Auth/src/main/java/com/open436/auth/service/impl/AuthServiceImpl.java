@@ -5,6 +5,7 @@ import cn.dev33.satoken.stp.StpUtil;
 import com.open436.auth.config.TokenProperties;
 import com.open436.auth.dto.LoginRequest;
 import com.open436.auth.dto.LoginResponse;
+import com.open436.auth.dto.TokenRefreshRequest;
 import com.open436.auth.dto.UserInfoResponse;
 import com.open436.auth.entity.UserAuth;
 import com.open436.auth.enums.ErrorCode;
@@ -13,12 +14,16 @@ import com.open436.auth.enums.UserStatus;
 import com.open436.auth.exception.BusinessException;
 import com.open436.auth.repository.UserAuthRepository;
 import com.open436.auth.service.AuthService;
+import com.open436.auth.service.RefreshTokenService;
 import com.open436.auth.service.RoleService;
+import io.micrometer.core.instrument.Metrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -35,6 +40,8 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final RoleService roleService;
     private final TokenProperties tokenProperties;
+    private final RefreshTokenService refreshTokenService;
+    private final PlatformTransactionManager transactionManager;
     
     /**
      * 用户登录
@@ -43,12 +50,16 @@ public class AuthServiceImpl implements AuthService {
     public LoginResponse login(LoginRequest request) {
         log.info("用户登录请求: username={}", request.getUsername());
         
-        // 1. 认证用户（数据库操作，在事务中）
-        UserAuth user = authenticateUser(request);
+        // 1. 认证用户（数据库操作，在主库读写事务中：状态与密码不能读到从库的旧数据，且需要写入最后登录时间）
+        UserAuth user = new TransactionTemplate(transactionManager).execute(tx -> authenticateUser(request));
         String role = user.getPrimaryRoleCode();
         
         // 2. 创建会话（外部状态操作，不在事务中）
-        String token = createSession(user.getId(), user.getUsername(), role);
+        // Access Token 统一短期有效；勾选"记住我"只决定 Refresh Token 的有效期
+        boolean rememberMe = Boolean.TRUE.equals(request.getRememberMe());
+        String token = createSession(user, role, rememberMe);
+        String refreshToken = refreshTokenService.issue(user.getId(), rememberMe, token);
+        Metrics.counter("auth.login", "remember_me", String.valueOf(rememberMe)).increment();
         
         log.info("登录成功: username={}, userId={}", request.getUsername(), user.getId());
         
@@ -56,16 +67,53 @@ public class AuthServiceImpl implements AuthService {
         return LoginResponse.builder()
             .token(token)
             .expiresIn(tokenProperties.getTimeout())
+            .refreshToken(refreshToken)
+            .refreshExpiresIn(refreshTokenService.getTimeout(rememberMe))
             .user(UserInfoResponse.from(user, role))
             .build();
     }
     
     /**
-     * 认证用户（数据库操作）
+     * 刷新 Token
+     */
+    @Override
+    public LoginResponse refresh(TokenRefreshRequest request) {
+        // 1. 轮换 Refresh Token（无效或重用时抛出异常）
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        Long userId = rotation.userId();
+        
+        // 2. 检查账号状态，已删除或禁用的账号不再签发 Access Token
+        // 在主库读写事务中读取，避免从库延迟期间刚被禁用的账号仍能刷新、Session 记录旧的授权版本
+        UserAuth user = new TransactionTemplate(transactionManager)
+            .execute(tx -> userAuthRepository.findById(userId).orElse(null));
+        if (user == null || UserStatus.DISABLED.getCode().equals(user.getStatus())) {
+            refreshTokenService.revoke(userId, rotation.refreshToken());
+            log.warn("刷新失败: 账号不存在或已被禁用 - userId={}", userId);
+            throw new BusinessException(user == null ? ErrorCode.INVALID_REFRESH_TOKEN : ErrorCode.ACCOUNT_DISABLED);
+        }
+        
+        // 3. 签发新的 Access Token
+        List<String> roles = roleService.getUserRoleCodes(userId);
+        String role = roles.isEmpty() ? TokenConstants.DEFAULT_ROLE : roles.get(0);
+        String token = createSession(user, role, rotation.rememberMe());
+        refreshTokenService.bindAccessToken(rotation.familyId(), token);
+        
+        log.debug("刷新成功: userId={}", userId);
+        
+        return LoginResponse.builder()
+            .token(token)
+            .expiresIn(tokenProperties.getTimeout())
+            .refreshToken(rotation.refreshToken())
+            .refreshExpiresIn(refreshTokenService.getTimeout(rotation.rememberMe()))
+            .user(UserInfoResponse.from(user, role))
+            .build();
+    }
+    
+    /**
+     * 认证用户（数据库操作，由调用方开启读写事务）
      * @param request 登录请求
      * @return 用户实体
      */
-    @Transactional
     private UserAuth authenticateUser(LoginRequest request) {
         // 1. 查询用户
         UserAuth user = userAuthRepository
@@ -98,24 +146,31 @@ public class AuthServiceImpl implements AuthService {
     
     /**
      * 创建用户会话（Sa-Token操作）
-     * @param userId 用户ID
-     * @param username 用户名
+     * @param user 用户实体
      * @param role 角色代码
-     * @return Token值
+     * @param rememberMe 是否记住我（决定是否使用持久 Cookie）
+     * @return Access Token值
      */
-    private String createSession(Long userId, String username, String role) {
-        // 1. 使用 Sa-Token 登录（自动生成 Token 并开启自动续签）
+    private String createSession(UserAuth user, String role, boolean rememberMe) {
+        Long userId = user.getId();
+        String username = user.getUsername();
+        
+        // 1. 使用 Sa-Token 登录（自动生成 Access Token，不续签，到期后通过 Refresh Token 换取）
         StpUtil.login(userId, new SaLoginModel()
             .setDevice(TokenConstants.DEVICE_WEB)
-            .setIsLastingCookie(true)
+            .setIsLastingCookie(rememberMe)
             .setTimeout(tokenProperties.getTimeout())
         );
         
         // 2. 设置 Session 信息（存储在 Redis）
         // 注：角色信息不再存储在Session中，改为从数据库查询（通过RoleService）
         StpUtil.getSession().set(TokenConstants.SESSION_KEY_USERNAME, username);
+        if (user.getAuthzVersion() != null) {
+            // 授权版本与 Session 一起保存，角色/权限缓存据此判断是否过期
+            StpUtil.getSession().set(TokenConstants.SESSION_KEY_AUTHZ_VERSION, user.getAuthzVersion());
+        }
         
-        log.debug("Session 信息已设置: userId={}, username={}, role={}", userId, username, role);
+        log.debug("Session 信息已设置: userId={}, username={}, role={}, rememberMe={}", userId, username, role, rememberMe);
         
         // 3. 获取并返回 Token 值
         return StpUtil.getTokenValue();
@@ -125,13 +180,18 @@ public class AuthServiceImpl implements AuthService {
      * 用户登出
      */
     @Override
-    public void logout() {
+    public void logout(String refreshToken) {
         Long userId = StpUtil.getLoginIdAsLong();
         log.info("用户登出: userId={}", userId);
         
         // Sa-Token 登出（自动清除 Session 和 Token）
         StpUtil.logout();
         
+        // 作废 Refresh Token，避免登出后仍能换取 Access Token（只作废当前用户自己的 Token 族）
+        if (refreshToken != null && !refreshToken.isEmpty()) {
+            refreshTokenService.revoke(userId, refreshToken);
+        }
+        
         log.info("登出成功: userId={}", userId);
     }
     
@@ -139,6 +199,7 @@ public class AuthServiceImpl implements AuthService {
      * 获取当前登录用户信息
      */
     @Override
+    @Transactional(readOnly = true)
     public UserInfoResponse getCurrentUser() {
         // 检查是否登录
         if (!StpUtil.isLogin()) {
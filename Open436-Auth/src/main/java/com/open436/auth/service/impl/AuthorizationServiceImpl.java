@@ -0,0 +1,59 @@
+package com.open436.auth.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.open436.auth.config.AuthorizationProperties;
+import com.open436.auth.permission.PermissionMatcher;
+import com.open436.auth.service.AuthorizationService;
+import com.open436.auth.service.PermissionService;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * 授权决策服务实现类
+ * 按 Permission 的 resource/action 模型判断（通配符、隐含操作与层级资源见 {@link PermissionMatcher}）；
+ * 决策结果缓存在本地有界缓存中，缓存键包含用户权限集合的版本，权限变化后自动使用新键，无需主动清除
+ */
+@Slf4j
+@Service
+public class AuthorizationServiceImpl implements AuthorizationService {
+    
+    private final PermissionService permissionService;
+    private final Cache<DecisionKey, Boolean> decisionCache;
+    
+    public AuthorizationServiceImpl(PermissionService permissionService, AuthorizationProperties properties) {
+        this.permissionService = permissionService;
+        this.decisionCache = Caffeine.newBuilder()
+            .maximumSize(properties.getDecisionCacheSize())
+            .expireAfterWrite(properties.getDecisionCacheTtl())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(Metrics.globalRegistry, decisionCache, "authorizationDecisions");
+        Metrics.gauge("auth.authorize.cache.hit.ratio", this, AuthorizationServiceImpl::getDecisionCacheHitRatio);
+    }
+    
+    @Override
+    public boolean isAllowed(Long userId, String resource, String action) {
+        PermissionMatcher matcher = permissionService.getPermissionMatcher(userId);
+        DecisionKey key = new DecisionKey(userId, matcher.getVersion(), resource, action);
+        
+        return decisionCache.get(key, k -> {
+            boolean allowed = matcher.matches(resource, action);
+            log.debug("授权决策: userId={}, resource={}, action={}, allowed={}", userId, resource, action, allowed);
+            return allowed;
+        });
+    }
+    
+    @Override
+    public double getDecisionCacheHitRatio() {
+        return decisionCache.stats().hitRate();
+    }
+    
+    /**
+     * 决策缓存键
+     */
+    private record DecisionKey(Long userId, long version, String resource, String action) {
+    }
+}
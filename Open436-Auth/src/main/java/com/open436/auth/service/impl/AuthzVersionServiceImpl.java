@@ -0,0 +1,164 @@
+package com.open436.auth.service.impl;
+
+import cn.dev33.satoken.session.SaSession;
+import cn.dev33.satoken.stp.StpUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.open436.auth.enums.TokenConstants;
+import com.open436.auth.repository.UserAuthRepository;
+import com.open436.auth.repository.projection.UserAuthzVersion;
+import com.open436.auth.service.AuthzVersionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 授权版本服务实现类
+ * 数据库中的版本总是在独立的读写事务中从主库读取：调用方可能处于只读事务（路由到从库），
+ * 而变更刚提交时从库的旧版本一旦写入 Session，就会在缓存有效期内持续命中旧的角色/权限缓存
+ * <p>
+ * 未登录用户（如服务间授权查询的主体）没有 Session，版本在本地短暂缓存，避免每次检查都访问主库；
+ * {@link #refresh(Collection)} 时清除，未开启变更通知的实例最多延迟一个缓存周期
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuthzVersionServiceImpl implements AuthzVersionService {
+    
+    /**
+     * 数据库中不存在该用户时使用的版本
+     */
+    private static final long UNKNOWN_VERSION = 0L;
+    
+    private static final long SESSIONLESS_CACHE_SIZE = 100_000;
+    private static final Duration SESSIONLESS_CACHE_TTL = Duration.ofSeconds(5);
+    
+    private final UserAuthRepository userAuthRepository;
+    private final PlatformTransactionManager transactionManager;
+    
+    /**
+     * 未登录用户的授权版本
+     */
+    private final Cache<Long, Long> sessionlessVersions = Caffeine.newBuilder()
+        .maximumSize(SESSIONLESS_CACHE_SIZE)
+        .expireAfterWrite(SESSIONLESS_CACHE_TTL)
+        .build();
+    
+    @Override
+    public long getVersion(Long userId) {
+        SaSession session = StpUtil.getSessionByLoginId(userId, false);
+        if (session != null && session.get(TokenConstants.SESSION_KEY_AUTHZ_VERSION) instanceof Number version) {
+            return version.longValue();
+        }
+        if (session == null) {
+            Long cached = sessionlessVersions.getIfPresent(userId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        
+        long version = primaryTransaction().execute(tx -> userAuthRepository.findAuthzVersionById(userId))
+            .orElse(UNKNOWN_VERSION);
+        remember(userId, session, version);
+        return version;
+    }
+    
+    @Override
+    public Map<Long, Long> getCurrentVersions(Collection<Long> userIds) {
+        Map<Long, Long> versions = new HashMap<>();
+        Map<Long, SaSession> sessions = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long userId : new LinkedHashSet<>(userIds)) {
+            SaSession session = StpUtil.getSessionByLoginId(userId, false);
+            if (session != null && session.get(TokenConstants.SESSION_KEY_AUTHZ_VERSION) instanceof Number version) {
+                versions.put(userId, version.longValue());
+                continue;
+            }
+            Long cached = session == null ? sessionlessVersions.getIfPresent(userId) : null;
+            if (cached != null) {
+                versions.put(userId, cached);
+                continue;
+            }
+            sessions.put(userId, session);
+            missing.add(userId);
+        }
+        
+        if (!missing.isEmpty()) {
+            Map<Long, Long> loaded = getVersions(missing);
+            for (Long userId : missing) {
+                long version = loaded.getOrDefault(userId, UNKNOWN_VERSION);
+                remember(userId, sessions.get(userId), version);
+                versions.put(userId, version);
+            }
+        }
+        return versions;
+    }
+    
+    @Override
+    public Map<Long, Long> getVersions(Collection<Long> userIds) {
+        Map<Long, Long> versions = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return versions;
+        }
+        List<UserAuthzVersion> rows = primaryTransaction().execute(tx -> userAuthRepository.findAuthzVersions(userIds));
+        for (UserAuthzVersion row : rows) {
+            versions.put(row.getId(), row.getAuthzVersion());
+        }
+        return versions;
+    }
+    
+    @Override
+    public Map<Long, Long> getSessionVersions(Collection<Long> userIds) {
+        Map<Long, Long> versions = new HashMap<>();
+        for (Long userId : userIds) {
+            SaSession session = StpUtil.getSessionByLoginId(userId, false);
+            if (session != null && session.get(TokenConstants.SESSION_KEY_AUTHZ_VERSION) instanceof Number version) {
+                versions.put(userId, version.longValue());
+            }
+        }
+        return versions;
+    }
+    
+    @Override
+    public void refresh(Collection<Long> userIds) {
+        sessionlessVersions.invalidateAll(userIds);
+        getVersions(userIds).forEach((userId, version) -> {
+            SaSession session = StpUtil.getSessionByLoginId(userId, false);
+            if (session != null) {
+                session.set(TokenConstants.SESSION_KEY_AUTHZ_VERSION, version);
+                log.debug("刷新 Session 授权版本: userId={}, version={}", userId, version);
+            }
+        });
+    }
+    
+    /**
+     * 记录从数据库读取的版本：有 Session 时补写（升级前创建的 Session 没有版本），否则写入本地缓存
+     */
+    private void remember(Long userId, SaSession session, long version) {
+        if (session != null) {
+            session.set(TokenConstants.SESSION_KEY_AUTHZ_VERSION, version);
+        } else {
+            sessionlessVersions.put(userId, version);
+        }
+    }
+    
+    /**
+     * 独立的读写事务（走主库），不加入调用方可能存在的只读事务
+     */
+    private TransactionTemplate primaryTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+}
@@ -1,37 +1,78 @@
 package com.open436.auth.service.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.open436.auth.cache.AuthzVersionKeyGenerator;
+import com.open436.auth.dto.PermissionCheck;
 import com.open436.auth.entity.Permission;
+import com.open436.auth.permission.PermissionMatcher;
 import com.open436.auth.repository.PermissionRepository;
+import com.open436.auth.service.AuthzVersionService;
 import com.open436.auth.service.PermissionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
  * 权限服务实现类
+ * 权限判断使用编译后的 {@link PermissionMatcher}（支持通配符、隐含操作与层级资源），
+ * 编译结果按用户缓存在本地，用户授权版本变化时重新编译
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PermissionServiceImpl implements PermissionService {
     
+    private static final long MATCHER_CACHE_SIZE = 100_000;
+    
+    /**
+     * 匹配器的存活时间：版本变化的匹配器会被替换，此处只用于回收不再访问的用户（过期后从 userPermissions 缓存重新编译）
+     */
+    private static final Duration MATCHER_CACHE_TTL = Duration.ofMinutes(30);
+    
     private final PermissionRepository permissionRepository;
+    private final AuthzVersionService authzVersionService;
+    
+    private final Cache<Long, PermissionMatcher> matchers = Caffeine.newBuilder()
+        .maximumSize(MATCHER_CACHE_SIZE)
+        .expireAfterWrite(MATCHER_CACHE_TTL)
+        .build();
+    
+    /**
+     * 自身代理：内部调用 getUserPermissions 需要经过代理才能命中缓存
+     */
+    @Lazy
+    @Autowired
+    private PermissionService self;
     
     /**
      * 获取用户的所有权限（带缓存）
-     * 缓存 Key: userPermissions::userId
-     * TTL: 30分钟（在 Redis 配置中设置）
+     * 缓存 Key: userPermissions::userId:授权版本，权限变化后版本递增，旧缓存不再命中
+     * TTL: 开启数据库变更通知时为 db-notify.user-cache-ttl（默认 12 小时），否则为 30 分钟（见 CacheConfig）
+     * 缓存未命中时在独立的读写事务中查询主库的 user_effective_permissions 读模型
+     * （从库可能仍是旧权限，写入新版本的 Key 后要到下次变化才会被替换）
      */
     @Override
-    @Cacheable(value = "userPermissions", key = "#userId")
+    @Cacheable(value = "userPermissions", keyGenerator = AuthzVersionKeyGenerator.BEAN_NAME)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public List<Permission> getUserPermissions(Long userId) {
         log.debug("查询用户权限: userId={}", userId);
-        return permissionRepository.findByUserId(userId);
+        return permissionRepository.findEffectiveByUserId(userId);
     }
     
     /**
@@ -39,7 +80,7 @@ public class PermissionServiceImpl implements PermissionService {
      */
     @Override
     public List<String> getUserPermissionCodes(Long userId) {
-        return getUserPermissions(userId).stream()
+        return cachedPermissions(userId).stream()
             .map(Permission::getCode)
             .collect(Collectors.toList());
     }
@@ -49,28 +90,87 @@ public class PermissionServiceImpl implements PermissionService {
      */
     @Override
     public boolean hasPermission(Long userId, String permissionCode) {
-        List<Permission> permissions = getUserPermissions(userId);
-        return permissions.stream()
-            .anyMatch(p -> p.getCode().equals(permissionCode));
+        return getPermissionMatcher(userId).matches(permissionCode);
+    }
+    
+    /**
+     * 检查用户是否拥有一组权限
+     */
+    @Override
+    public Map<String, Boolean> checkPermissions(Long userId, Collection<String> permissionCodes) {
+        PermissionMatcher matcher = getPermissionMatcher(userId);
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        for (String code : permissionCodes) {
+            result.put(code, matcher.matches(code));
+        }
+        return result;
+    }
+    
+    /**
+     * 批量检查（用户ID, 权限代码）对
+     */
+    @Override
+    public BitSet checkPermissions(List<PermissionCheck> checks) {
+        // 一次取齐全部用户的授权版本（未登录用户合并为一次数据库查询）
+        Map<Long, Long> versions = authzVersionService.getCurrentVersions(
+            checks.stream().map(PermissionCheck::getUserId).toList());
+        Map<Long, PermissionMatcher> matcherByUser = new HashMap<>();
+        BitSet result = new BitSet(checks.size());
+        for (int i = 0; i < checks.size(); i++) {
+            PermissionCheck check = checks.get(i);
+            PermissionMatcher matcher = matcherByUser.computeIfAbsent(check.getUserId(),
+                userId -> getPermissionMatcher(userId, versions.get(userId)));
+            if (matcher.matches(check.getCode())) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 获取用户的权限匹配器
+     * 授权版本未变化时直接复用已编译的匹配器，无需读取权限缓存
+     */
+    @Override
+    public PermissionMatcher getPermissionMatcher(Long userId) {
+        return getPermissionMatcher(userId, authzVersionService.getVersion(userId));
+    }
+    
+    private PermissionMatcher getPermissionMatcher(Long userId, long version) {
+        PermissionMatcher matcher = matchers.getIfPresent(userId);
+        if (matcher == null || matcher.getVersion() != version) {
+            matcher = PermissionMatcher.compile(
+                cachedPermissions(userId).stream().map(Permission::getCode).toList(), version);
+            matchers.put(userId, matcher);
+        }
+        return matcher;
     }
     
     /**
      * 清除用户权限缓存
      */
     @Override
-    @CacheEvict(value = "userPermissions", key = "#userId")
+    @CacheEvict(value = "userPermissions", keyGenerator = AuthzVersionKeyGenerator.BEAN_NAME)
     public void clearUserPermissionsCache(Long userId) {
         log.info("清除用户权限缓存: userId={}", userId);
+        matchers.invalidate(userId);
     }
     
     /**
      * 清除所有用户权限缓存
+     * 权限变化会递增受影响用户的授权版本，通常无需全量清除；仅用于无法确定受影响用户的场景（如变更通知丢失、修复缓存数据）
      */
     @Override
     @CacheEvict(value = "userPermissions", allEntries = true)
     public void clearAllPermissionsCache() {
         log.info("清除所有用户权限缓存");
+        matchers.invalidateAll();
+    }
+    
+    /**
+     * 经代理读取用户权限（命中 userPermissions 缓存）；未由 Spring 创建时直接查询
+     */
+    private List<Permission> cachedPermissions(Long userId) {
+        return self != null ? self.getUserPermissions(userId) : getUserPermissions(userId);
     }
 }
-
-
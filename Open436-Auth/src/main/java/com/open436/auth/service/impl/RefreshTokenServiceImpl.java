@@ -0,0 +1,261 @@
+package com.open436.auth.service.impl;
+
+import cn.dev33.satoken.stp.StpUtil;
+import com.open436.auth.config.TokenProperties;
+import com.open436.auth.enums.ErrorCode;
+import com.open436.auth.exception.BusinessException;
+import com.open436.auth.service.RefreshTokenService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refresh Token 服务实现类
+ * Token 格式：族ID.随机串；Redis 中每个族一个 Hash（auth:refresh:{族ID}），
+ * 只保存当前有效 Token 的 SHA-256，轮换与重用检测由 Lua 脚本原子完成；
+ * 每个用户另有一个 Set（auth:refresh:user:{用户ID}）记录其 Token 族，修改密码、禁用等场景据此作废全部族。
+ * 轮换后的短暂宽限期内，上一个 Token 再次提交视为并发刷新（如多个标签页同时刷新）而非泄露：
+ * 新 Token 以上一个 Token 派生的密钥加密暂存，只有持有上一个 Token 的请求能取回同一个新 Token
+ */
+@Slf4j
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+    
+    private static final String KEY_PREFIX = "auth:refresh:";
+    private static final String USER_KEY_PREFIX = "auth:refresh:user:";
+    private static final String FIELD_CURRENT = "current";
+    private static final String FIELD_USER_ID = "userId";
+    private static final String FIELD_REMEMBER_ME = "rememberMe";
+    private static final String FIELD_ACCESS = "access";
+    private static final int SECRET_BYTES = 32;
+    private static final int GCM_IV_BYTES = 12;
+    private static final int GCM_TAG_BITS = 128;
+    
+    /**
+     * 轮换脚本
+     * ARGV：旧 Token 哈希、新 Token 哈希、记住我有效期、普通有效期、加密的新 Token、当前时间（毫秒）、宽限期（毫秒）
+     * 返回 {0}：族不存在（过期或已作废）
+     * 返回 {-1, access}：Token 已被轮换过（重用），族已删除
+     * 返回 {1, userId, rememberMe}：轮换成功
+     * 返回 {2, userId, rememberMe, sealed}：宽限期内的并发刷新，返回上次轮换加密暂存的新 Token
+     */
+    private static final RedisScript<List> ROTATE_SCRIPT = new DefaultRedisScript<>(
+        "local f = redis.call('HMGET', KEYS[1], 'current', 'previous', 'rotatedAt', 'next', 'userId', 'rememberMe', 'access') " +
+        "if not f[1] then return {0} end " +
+        "if f[1] == ARGV[1] then " +
+        "  redis.call('HSET', KEYS[1], 'current', ARGV[2], 'previous', ARGV[1], 'rotatedAt', ARGV[6], 'next', ARGV[5]) " +
+        "  redis.call('EXPIRE', KEYS[1], f[6] == '1' and ARGV[3] or ARGV[4]) " +
+        "  return {1, f[5], f[6]} " +
+        "end " +
+        "if f[2] == ARGV[1] and tonumber(ARGV[6]) - tonumber(f[3]) <= tonumber(ARGV[7]) then " +
+        "  return {2, f[5], f[6], f[4]} " +
+        "end " +
+        "redis.call('DEL', KEYS[1]) " +
+        "return {-1, f[7] or ''}",
+        List.class);
+    
+    /**
+     * 作废脚本：族属于指定用户且 Token 为当前或上一个（宽限期内仍可能在客户端）时删除
+     * ARGV：Token 哈希、用户ID
+     * 返回 1：已删除；0：族不存在或 Token 不匹配
+     */
+    private static final RedisScript<Long> REVOKE_SCRIPT = new DefaultRedisScript<>(
+        "local f = redis.call('HMGET', KEYS[1], 'current', 'previous', 'userId') " +
+        "if not f[1] or f[3] ~= ARGV[2] then return 0 end " +
+        "if f[1] ~= ARGV[1] and f[2] ~= ARGV[1] then return 0 end " +
+        "redis.call('DEL', KEYS[1]) " +
+        "return 1",
+        Long.class);
+    
+    private final StringRedisTemplate stringRedisTemplate;
+    private final TokenProperties tokenProperties;
+    private final SecureRandom secureRandom = new SecureRandom();
+    
+    public RefreshTokenServiceImpl(StringRedisTemplate stringRedisTemplate, TokenProperties tokenProperties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.tokenProperties = tokenProperties;
+    }
+    
+    @Override
+    public String issue(Long userId, boolean rememberMe, String accessToken) {
+        String familyId = UUID.randomUUID().toString().replace("-", "");
+        String secret = newSecret();
+        String key = KEY_PREFIX + familyId;
+        
+        stringRedisTemplate.opsForHash().putAll(key, Map.of(
+            FIELD_CURRENT, hash(secret),
+            FIELD_USER_ID, String.valueOf(userId),
+            FIELD_REMEMBER_ME, rememberMe ? "1" : "0",
+            FIELD_ACCESS, accessToken
+        ));
+        stringRedisTemplate.expire(key, getTimeout(rememberMe), TimeUnit.SECONDS);
+        
+        // 用户的族索引保留到最长有效期，作废全部族时使用
+        String userKey = USER_KEY_PREFIX + userId;
+        stringRedisTemplate.opsForSet().add(userKey, familyId);
+        stringRedisTemplate.expire(userKey,
+            Math.max(tokenProperties.getRefreshTimeout(), tokenProperties.getShortRefreshTimeout()), TimeUnit.SECONDS);
+        
+        log.debug("签发 Refresh Token: userId={}, familyId={}, rememberMe={}", userId, familyId, rememberMe);
+        return familyId + "." + secret;
+    }
+    
+    @Override
+    public Rotation rotate(String refreshToken) {
+        String[] parts = parse(refreshToken);
+        String familyId = parts[0];
+        String newSecret = newSecret();
+        
+        List<?> result = stringRedisTemplate.execute(ROTATE_SCRIPT,
+            List.of(KEY_PREFIX + familyId),
+            hash(parts[1]),
+            hash(newSecret),
+            String.valueOf(tokenProperties.getRefreshTimeout()),
+            String.valueOf(tokenProperties.getShortRefreshTimeout()),
+            seal(parts[1], newSecret),
+            String.valueOf(System.currentTimeMillis()),
+            String.valueOf(tokenProperties.getRefreshGracePeriod() * 1000));
+        
+        long status = result == null || result.isEmpty() ? 0 : ((Number) result.get(0)).longValue();
+        if (status == 0) {
+            throw new BusinessException(ErrorCode.INVALID_REFRESH_TOKEN);
+        }
+        if (status < 0) {
+            // 旧 Token 被再次使用，说明 Token 可能已泄露：整族作废并注销当前 Access Token
+            String accessToken = result.size() > 1 ? String.valueOf(result.get(1)) : "";
+            if (!accessToken.isEmpty()) {
+                StpUtil.logoutByTokenValue(accessToken);
+            }
+            log.warn("检测到 Refresh Token 重用，已作废 Token 族: familyId={}", familyId);
+            throw new BusinessException(ErrorCode.REFRESH_TOKEN_REUSED);
+        }
+        
+        Long userId = Long.valueOf(String.valueOf(result.get(1)));
+        boolean rememberMe = "1".equals(String.valueOf(result.get(2)));
+        if (status == 2) {
+            // 宽限期内的并发刷新：返回上次轮换得到的同一个新 Token，不再轮换
+            log.debug("宽限期内的并发刷新: familyId={}", familyId);
+            newSecret = unseal(parts[1], String.valueOf(result.get(3)));
+        }
+        return new Rotation(userId, rememberMe, familyId, familyId + "." + newSecret);
+    }
+    
+    @Override
+    public void bindAccessToken(String familyId, String accessToken) {
+        stringRedisTemplate.opsForHash().put(KEY_PREFIX + familyId, FIELD_ACCESS, accessToken);
+    }
+    
+    @Override
+    public void revoke(Long userId, String refreshToken) {
+        String[] parts = parse(refreshToken);
+        Long revoked = stringRedisTemplate.execute(REVOKE_SCRIPT,
+            List.of(KEY_PREFIX + parts[0]),
+            hash(parts[1]),
+            String.valueOf(userId));
+        if (revoked == null || revoked == 0) {
+            // 不属于该用户或已失效的 Token 直接忽略，不能借此作废他人的 Token 族
+            log.debug("忽略不匹配的 Refresh Token: userId={}, familyId={}", userId, parts[0]);
+            return;
+        }
+        stringRedisTemplate.opsForSet().remove(USER_KEY_PREFIX + userId, parts[0]);
+        log.debug("作废 Refresh Token 族: userId={}, familyId={}", userId, parts[0]);
+    }
+    
+    @Override
+    public void revokeAll(Long userId) {
+        String userKey = USER_KEY_PREFIX + userId;
+        Set<String> familyIds = stringRedisTemplate.opsForSet().members(userKey);
+        List<String> keys = new ArrayList<>();
+        if (familyIds != null) {
+            familyIds.forEach(familyId -> keys.add(KEY_PREFIX + familyId));
+        }
+        keys.add(userKey);
+        stringRedisTemplate.delete(keys);
+        log.info("作废用户全部 Refresh Token 族: userId={}, families={}", userId, keys.size() - 1);
+    }
+    
+    @Override
+    public long getTimeout(boolean rememberMe) {
+        return rememberMe ? tokenProperties.getRefreshTimeout() : tokenProperties.getShortRefreshTimeout();
+    }
+    
+    /**
+     * 拆分 Refresh Token 为 {族ID, 随机串}
+     */
+    private String[] parse(String refreshToken) {
+        int dot = refreshToken == null ? -1 : refreshToken.indexOf('.');
+        if (dot <= 0 || dot == refreshToken.length() - 1) {
+            throw new BusinessException(ErrorCode.INVALID_REFRESH_TOKEN);
+        }
+        return new String[]{refreshToken.substring(0, dot), refreshToken.substring(dot + 1)};
+    }
+    
+    private String newSecret() {
+        byte[] bytes = new byte[SECRET_BYTES];
+        secureRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+    
+    /**
+     * 以旧 Token 派生的密钥加密新 Token（AES-GCM），Redis 中不出现可直接使用的 Token
+     */
+    private String seal(String oldSecret, String newSecret) {
+        try {
+            byte[] iv = new byte[GCM_IV_BYTES];
+            secureRandom.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, sealKey(oldSecret), new GCMParameterSpec(GCM_TAG_BITS, iv));
+            byte[] encrypted = cipher.doFinal(newSecret.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                ByteBuffer.allocate(iv.length + encrypted.length).put(iv).put(encrypted).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private String unseal(String oldSecret, String sealed) {
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(sealed);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, sealKey(oldSecret), new GCMParameterSpec(GCM_TAG_BITS, bytes, 0, GCM_IV_BYTES));
+            return new String(cipher.doFinal(bytes, GCM_IV_BYTES, bytes.length - GCM_IV_BYTES), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new BusinessException(ErrorCode.INVALID_REFRESH_TOKEN);
+        }
+    }
+    
+    private SecretKeySpec sealKey(String oldSecret) throws NoSuchAlgorithmException {
+        // 与 hash() 使用不同的输入，Redis 中保存的哈希无法推出该密钥
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return new SecretKeySpec(digest.digest(("seal:" + oldSecret).getBytes(StandardCharsets.UTF_8)), "AES");
+    }
+    
+    private String hash(String secret) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(secret.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
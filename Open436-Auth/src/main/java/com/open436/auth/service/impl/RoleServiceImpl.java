@@ -1,9 +1,9 @@
 package com.open436.auth.service.impl;
 
-import com.open436.auth.entity.Role;
-import com.open436.auth.entity.UserAuth;
+import com.open436.auth.cache.AuthzVersionKeyGenerator;
 import com.open436.auth.enums.ErrorCode;
 import com.open436.auth.exception.BusinessException;
+import com.open436.auth.repository.RoleRepository;
 import com.open436.auth.repository.UserAuthRepository;
 import com.open436.auth.service.RoleService;
 import lombok.RequiredArgsConstructor;
@@ -11,9 +11,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * 角色服务实现类
@@ -24,32 +25,44 @@ import java.util.stream.Collectors;
 public class RoleServiceImpl implements RoleService {
     
     private final UserAuthRepository userAuthRepository;
+    private final RoleRepository roleRepository;
     
     /**
      * 获取用户的角色代码列表（带缓存）
-     * 缓存 Key: userRoles::userId
-     * TTL: 30分钟（在 Redis 配置中设置）
+     * 缓存 Key: userRoles::userId:授权版本，角色变化后版本递增，旧缓存不再命中
+     * TTL: 开启数据库变更通知时为 db-notify.user-cache-ttl（默认 12 小时），否则为 30 分钟（见 CacheConfig）
+     * 缓存未命中时在独立的读写事务中查询主库，且不读取二级缓存中的用户角色集合：
+     * 版本刚递增时从库或集合缓存中可能仍是旧角色，写入新版本的 Key 后要到下次变化才会被替换
      */
     @Override
-    @Cacheable(value = "userRoles", key = "#userId")
+    @Cacheable(value = "userRoles", keyGenerator = AuthzVersionKeyGenerator.BEAN_NAME)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public List<String> getUserRoleCodes(Long userId) {
         log.debug("查询用户角色: userId={}", userId);
         
-        UserAuth user = userAuthRepository.findById(userId)
-            .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
-        
-        return user.getRoles().stream()
-            .map(Role::getCode)
-            .collect(Collectors.toList());
+        if (!userAuthRepository.existsById(userId)) {
+            throw new BusinessException(ErrorCode.USER_NOT_FOUND);
+        }
+        return roleRepository.findCodesByUserId(userId);
     }
     
     /**
      * 清除用户角色缓存
      */
     @Override
-    @CacheEvict(value = "userRoles", key = "#userId")
+    @CacheEvict(value = "userRoles", keyGenerator = AuthzVersionKeyGenerator.BEAN_NAME)
     public void clearUserRolesCache(Long userId) {
         log.info("清除用户角色缓存: userId={}", userId);
     }
+    
+    /**
+     * 清除所有用户角色缓存
+     * 角色变化会递增受影响用户的授权版本，通常无需全量清除；仅用于无法确定受影响用户的场景（如变更通知丢失）
+     */
+    @Override
+    @CacheEvict(value = "userRoles", allEntries = true)
+    public void clearAllRolesCache() {
+        log.info("清除所有用户角色缓存");
+    }
 }
 
@@ -0,0 +1,105 @@
+package com.open436.auth.service.impl;
+
+import cn.dev33.satoken.session.SaSession;
+import cn.dev33.satoken.stp.StpUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.open436.auth.config.RedisResilienceProperties;
+import com.open436.auth.dto.UserTokenInfo;
+import com.open436.auth.enums.ErrorCode;
+import com.open436.auth.enums.TokenConstants;
+import com.open436.auth.exception.BusinessException;
+import com.open436.auth.resilience.RedisCircuitBreaker;
+import com.open436.auth.service.RoleService;
+import com.open436.auth.service.TokenVerificationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Token 验证服务实现类
+ * 验证通过的 Token 写入本地缓存（按最大陈旧时间过期），仅在 Redis 不可用时读取；
+ * Redis 正常时每次都以 Redis 为准，Token 失效后立即从本地缓存移除
+ */
+@Slf4j
+@Service
+public class TokenVerificationServiceImpl implements TokenVerificationService {
+    
+    private final RoleService roleService;
+    private final Cache<String, UserTokenInfo> staleCache;
+    private final Counter staleCounter = Metrics.counter("auth.verify.degraded", "result", "stale");
+    private final Counter unavailableCounter = Metrics.counter("auth.verify.degraded", "result", "unavailable");
+    
+    public TokenVerificationServiceImpl(RoleService roleService, RedisResilienceProperties properties) {
+        this.roleService = roleService;
+        this.staleCache = Caffeine.newBuilder()
+            .maximumSize(properties.getStaleCacheSize())
+            .expireAfterWrite(properties.getMaxStaleness())
+            .build();
+    }
+    
+    @Override
+    public UserTokenInfo verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        
+        UserTokenInfo userInfo;
+        try {
+            userInfo = lookup(token);
+        } catch (RuntimeException e) {
+            if (!RedisCircuitBreaker.isInfrastructureFailure(e)) {
+                throw e;
+            }
+            return serveStale(token, e);
+        }
+        
+        if (userInfo == null) {
+            staleCache.invalidate(token);
+        } else {
+            staleCache.put(token, userInfo);
+        }
+        return userInfo;
+    }
+    
+    /**
+     * 从 Sa-Token 查询 Token 对应的用户信息
+     */
+    private UserTokenInfo lookup(String token) {
+        Object loginId = StpUtil.getLoginIdByToken(token);
+        if (loginId == null) {
+            return null;
+        }
+        
+        Long userId;
+        try {
+            userId = Long.parseLong(loginId.toString());
+        } catch (NumberFormatException e) {
+            log.warn("Token 对应的登录ID格式错误: {}", loginId);
+            return null;
+        }
+        
+        SaSession session = StpUtil.getSessionByLoginId(userId, false);
+        String username = session != null ? (String) session.get(TokenConstants.SESSION_KEY_USERNAME) : null;
+        String role = roleService.getUserRoleCodes(userId).stream()
+            .findFirst().orElse(TokenConstants.DEFAULT_ROLE);
+        
+        return new UserTokenInfo(userId, username, role);
+    }
+    
+    /**
+     * Redis 不可用时使用最近一次验证结果
+     */
+    private UserTokenInfo serveStale(String token, RuntimeException cause) {
+        UserTokenInfo userInfo = staleCache.getIfPresent(token);
+        if (userInfo == null) {
+            unavailableCounter.increment();
+            log.warn("Redis 不可用且无可用的验证结果，拒绝服务: {}", cause.getMessage());
+            throw new BusinessException(ErrorCode.SERVICE_UNAVAILABLE);
+        }
+        staleCounter.increment();
+        log.debug("Redis 不可用，使用本地验证结果: userId={}", userInfo.getUserId());
+        return userInfo;
+    }
+}
@@ -0,0 +1,233 @@
+package com.open436.auth.service.impl;
+
+import cn.dev33.satoken.stp.StpUtil;
+import com.open436.auth.cache.UserCacheEvictor;
+import com.open436.auth.dto.BatchJobResponse;
+import com.open436.auth.dto.BatchUpdateUserStatusRequest;
+import com.open436.auth.enums.AuthChangeType;
+import com.open436.auth.enums.ErrorCode;
+import com.open436.auth.enums.UserStatus;
+import com.open436.auth.event.AuthChangeOutbox;
+import com.open436.auth.exception.BusinessException;
+import com.open436.auth.repository.RoleRepository;
+import com.open436.auth.repository.UserAuthRepository;
+import com.open436.auth.service.RefreshTokenService;
+import com.open436.auth.service.UserBatchService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 用户批量操作服务实现类
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserBatchServiceImpl implements UserBatchService {
+    
+    /**
+     * 每批处理的用户数（缓存清理与踢出）
+     */
+    private static final int BATCH_SIZE = 500;
+    
+    /**
+     * 已结束任务的保留时长
+     */
+    private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(1);
+    
+    /**
+     * 管理员角色代码（批量禁用后至少保留一个启用的管理员）
+     */
+    private static final String ADMIN_ROLE = "admin";
+    
+    private final UserAuthRepository userAuthRepository;
+    private final RoleRepository roleRepository;
+    private final UserCacheEvictor userCacheEvictor;
+    private final PlatformTransactionManager transactionManager;
+    private final AuthChangeOutbox authChangeOutbox;
+    private final RefreshTokenService refreshTokenService;
+    
+    private final Map<String, BatchJob> jobs = new ConcurrentHashMap<>();
+    
+    /**
+     * 后台批量任务线程池
+     * 不注册为 Bean，避免替换 Spring Boot 默认的 applicationTaskExecutor；
+     * 线程数刻意保持较小，防止大批量踢出挤占 Redis 连接
+     */
+    private ThreadPoolTaskExecutor executor;
+    
+    @PostConstruct
+    void initExecutor() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(20);
+        executor.setThreadNamePrefix("user-batch-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        // 状态已提交，队列满时由调用线程执行，保证缓存清理与踢出不会丢失
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+    }
+    
+    @PreDestroy
+    void shutdownExecutor() {
+        executor.shutdown();
+    }
+    
+    /**
+     * 批量启用/禁用用户
+     */
+    @Override
+    public BatchJobResponse batchUpdateUserStatus(Long operatorId, BatchUpdateUserStatusRequest request) {
+        boolean byIds = request.getUserIds() != null && !request.getUserIds().isEmpty();
+        boolean byRole = request.getRoleCode() != null && !request.getRoleCode().isBlank();
+        if (byIds == byRole) {
+            throw new BusinessException(ErrorCode.INVALID_PARAMETER, "userIds 与 roleCode 必须且只能指定一个");
+        }
+        if (byRole && !roleRepository.existsByCode(request.getRoleCode())) {
+            throw new BusinessException(ErrorCode.ROLE_NOT_FOUND);
+        }
+        
+        String status = request.getStatus();
+        log.info("批量更新用户状态: userIds={}, roleCode={}, status={}",
+                 byIds ? request.getUserIds().size() : null, request.getRoleCode(), status);
+        
+        // 1. 单条 UPDATE 提交状态变更（只返回状态确实变化的用户，跳过操作人自己），禁用事件写入同一事务
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<Long> changedIds = transactionTemplate.execute(tx -> {
+            List<Long> ids = byIds
+                ? userAuthRepository.updateStatusByIds(request.getUserIds(), status, operatorId)
+                : userAuthRepository.updateStatusByRoleCode(request.getRoleCode(), status, operatorId);
+            if (UserStatus.DISABLED.getCode().equals(status)) {
+                // 不允许禁用全部管理员（异常使事务回滚）
+                if (userAuthRepository.countByRoleCodeAndStatus(ADMIN_ROLE, UserStatus.ACTIVE.getCode()) == 0) {
+                    throw new BusinessException(ErrorCode.LAST_ACTIVE_ADMIN);
+                }
+                authChangeOutbox.record(AuthChangeType.USER_DISABLED, ids);
+            }
+            return ids;
+        });
+        
+        // 2. 缓存清理与踢出放到后台分批执行（必须在提交之后，避免被踢用户立即重新登录成功）
+        pruneFinishedJobs();
+        BatchJob job = new BatchJob(UUID.randomUUID().toString(), status, changedIds.size());
+        jobs.put(job.id, job);
+        executor.execute(() -> runSideEffects(job, changedIds));
+        
+        log.info("批量状态变更已提交: jobId={}, changed={}", job.id, changedIds.size());
+        return job.toResponse();
+    }
+    
+    /**
+     * 查询批量任务进度
+     */
+    @Override
+    public BatchJobResponse getJob(String jobId) {
+        BatchJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new BusinessException(ErrorCode.BATCH_JOB_NOT_FOUND);
+        }
+        return job.toResponse();
+    }
+    
+    /**
+     * 分批清理缓存并踢出用户
+     */
+    private void runSideEffects(BatchJob job, List<Long> userIds) {
+        boolean kickout = UserStatus.DISABLED.getCode().equals(job.targetStatus);
+        try {
+            for (int from = 0; from < userIds.size(); from += BATCH_SIZE) {
+                List<Long> batch = userIds.subList(from, Math.min(from + BATCH_SIZE, userIds.size()));
+                
+                userCacheEvictor.evictUsers(batch);
+                
+                if (kickout) {
+                    for (Long userId : batch) {
+                        try {
+                            StpUtil.kickout(userId);
+                            refreshTokenService.revokeAll(userId);
+                            job.kickedOut.incrementAndGet();
+                        } catch (Exception e) {
+                            job.failed.incrementAndGet();
+                            log.warn("踢出用户失败: userId={}, error={}", userId, e.getMessage());
+                        }
+                    }
+                }
+                
+                job.processed.addAndGet(batch.size());
+                log.info("批量任务进度: jobId={}, processed={}/{}", job.id, job.processed.get(), job.total);
+            }
+            job.finish("completed", null);
+        } catch (Exception e) {
+            log.error("批量任务失败: jobId={}", job.id, e);
+            job.finish("failed", e.getMessage());
+        }
+    }
+    
+    /**
+     * 清理过期的已结束任务
+     */
+    private void pruneFinishedJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minus(FINISHED_JOB_RETENTION);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(threshold));
+    }
+    
+    /**
+     * 批量任务运行状态
+     */
+    private static final class BatchJob {
+        
+        private final String id;
+        private final String targetStatus;
+        private final long total;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong kickedOut = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private volatile String state = "running";
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+        
+        private BatchJob(String id, String targetStatus, long total) {
+            this.id = id;
+            this.targetStatus = targetStatus;
+            this.total = total;
+        }
+        
+        private void finish(String state, String error) {
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.state = state;
+        }
+        
+        private BatchJobResponse toResponse() {
+            return BatchJobResponse.builder()
+                .jobId(id)
+                .state(state)
+                .targetStatus(targetStatus)
+                .total(total)
+                .processed(processed.get())
+                .kickedOut(kickedOut.get())
+                .failed(failed.get())
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .error(error)
+                .build();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.open436.auth.service.impl;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.open436.auth.enums.ExportFormat;
+import com.open436.auth.repository.UserAuthRepository;
+import com.open436.auth.repository.projection.UserExportRow;
+import com.open436.auth.service.UserExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 用户导出服务实现类
+ * 通过只读游标逐行读取并直接写入响应流，堆内存占用与用户总数无关
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserExportServiceImpl implements UserExportService {
+    
+    /**
+     * CSV 表头
+     */
+    private static final String CSV_HEADER = "id,username,status,roles,last_login_at";
+    
+    /**
+     * 表格软件会当作公式解析的首字符
+     */
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+    
+    /**
+     * 每写出多少行记录一次进度日志
+     */
+    private static final int LOG_INTERVAL = 100_000;
+    
+    private final UserAuthRepository userAuthRepository;
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * 流式导出全部用户
+     * 必须在事务内执行，PostgreSQL 只有在关闭自动提交时才会按 fetchSize 使用服务端游标
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportUsers(ExportFormat format, OutputStream outputStream) throws IOException {
+        log.info("开始导出用户: format={}", format.getCode());
+        
+        long count;
+        try (Stream<UserExportRow> rows = userAuthRepository.streamAllForExport()) {
+            count = switch (format) {
+                case NDJSON -> writeNdjson(rows.iterator(), outputStream);
+                case CSV -> writeCsv(rows.iterator(), outputStream);
+            };
+        }
+        
+        log.info("用户导出完成: format={}, rows={}", format.getCode(), count);
+        return count;
+    }
+    
+    /**
+     * 写出 NDJSON（每行一个 JSON 对象）
+     */
+    private long writeNdjson(Iterator<UserExportRow> rows, OutputStream outputStream) throws IOException {
+        long count = 0;
+        JsonGenerator generator = objectMapper.getFactory()
+            .createGenerator(outputStream, JsonEncoding.UTF8)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        
+        while (rows.hasNext()) {
+            UserExportRow row = rows.next();
+            generator.writeStartObject();
+            generator.writeNumberField("id", row.getId());
+            generator.writeStringField("username", row.getUsername());
+            generator.writeStringField("status", row.getStatus());
+            generator.writeArrayFieldStart("roles");
+            if (row.getRoles() != null) {
+                for (String role : row.getRoles().split(",")) {
+                    generator.writeString(role);
+                }
+            }
+            generator.writeEndArray();
+            generator.writeStringField("lastLoginAt", formatTime(row));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            
+            logProgress(++count);
+        }
+        
+        generator.flush();
+        return count;
+    }
+    
+    /**
+     * 写出 CSV（RFC 4180 转义）
+     */
+    private long writeCsv(Iterator<UserExportRow> rows, OutputStream outputStream) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        
+        while (rows.hasNext()) {
+            UserExportRow row = rows.next();
+            writer.write(String.valueOf(row.getId()));
+            writer.write(',');
+            writer.write(escapeCsv(row.getUsername()));
+            writer.write(',');
+            writer.write(escapeCsv(row.getStatus()));
+            writer.write(',');
+            writer.write(escapeCsv(row.getRoles()));
+            writer.write(',');
+            writer.write(escapeCsv(formatTime(row)));
+            writer.write("\r\n");
+            
+            logProgress(++count);
+        }
+        
+        writer.flush();
+        return count;
+    }
+    
+    /**
+     * 格式化最后登录时间（ISO-8601，未登录过则为 null）
+     */
+    private String formatTime(UserExportRow row) {
+        return row.getLastLoginAt() != null
+            ? row.getLastLoginAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+            : null;
+    }
+    
+    /**
+     * CSV 字段转义：包含逗号、引号或换行时整体加引号，内部引号加倍；
+     * 以 = + - @ 或制表符、回车开头的字段前加单引号，防止在表格软件中被当作公式执行（用户名由用户填写）
+     */
+    private String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+    
+    private void logProgress(long count) {
+        if (count % LOG_INTERVAL == 0) {
+            log.info("用户导出进度: rows={}", count);
+        }
+    }
+}
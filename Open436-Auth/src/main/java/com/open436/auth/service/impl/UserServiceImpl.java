@@ -6,12 +6,15 @@ import com.open436.auth.dto.UpdatePasswordRequest;
 import com.open436.auth.dto.UserInfoResponse;
 import com.open436.auth.entity.Role;
 import com.open436.auth.entity.UserAuth;
+import com.open436.auth.enums.AuthChangeType;
 import com.open436.auth.enums.ErrorCode;
 import com.open436.auth.enums.UserStatus;
+import com.open436.auth.event.AuthChangeOutbox;
 import com.open436.auth.exception.BusinessException;
 import com.open436.auth.repository.RoleRepository;
 import com.open436.auth.repository.UserAuthRepository;
 import com.open436.auth.service.PermissionService;
+import com.open436.auth.service.RefreshTokenService;
 import com.open436.auth.service.RoleService;
 import com.open436.auth.service.UserService;
 import lombok.RequiredArgsConstructor;
@@ -33,6 +36,8 @@ public class UserServiceImpl implements UserService {
     private final PasswordEncoder passwordEncoder;
     private final PermissionService permissionService;
     private final RoleService roleService;
+    private final AuthChangeOutbox authChangeOutbox;
+    private final RefreshTokenService refreshTokenService;
     
     /**
      * 创建用户（管理员功能）
@@ -96,9 +101,11 @@ public class UserServiceImpl implements UserService {
         permissionService.clearUserPermissionsCache(userId);
         roleService.clearUserRolesCache(userId);
         
-        // 4. 如果是禁用操作，踢出该用户
+        // 4. 如果是禁用操作，踢出该用户并通知下游服务
         if (UserStatus.DISABLED.getCode().equals(status)) {
+            authChangeOutbox.record(AuthChangeType.USER_DISABLED, userId);
             StpUtil.kickout(userId);
+            refreshTokenService.revokeAll(userId);
             log.info("用户已被踢出: userId={}", userId);
         }
         
@@ -145,8 +152,10 @@ public class UserServiceImpl implements UserService {
         user.setPasswordHash(newPasswordHash);
         userAuthRepository.save(user);
         
-        // 6. 清除所有 Token（强制重新登录）
+        // 6. 清除所有 Token（强制重新登录）并通知下游服务
+        authChangeOutbox.record(AuthChangeType.SESSIONS_REVOKED, userId);
         StpUtil.kickout(userId);
+        refreshTokenService.revokeAll(userId);
         
         log.info("密码修改成功: userId={}", userId);
     }
@@ -168,8 +177,10 @@ public class UserServiceImpl implements UserService {
         user.setPasswordHash(newPasswordHash);
         userAuthRepository.save(user);
         
-        // 3. 清除该用户的所有 Token
+        // 3. 清除该用户的所有 Token 并通知下游服务
+        authChangeOutbox.record(AuthChangeType.SESSIONS_REVOKED, userId);
         StpUtil.kickout(userId);
+        refreshTokenService.revokeAll(userId);
         
         log.info("密码重置成功: userId={}", userId);
     }
@@ -0,0 +1,149 @@
+-- M1 认证授权服务 - 用户有效权限读模型
+-- 版本: v1.1
+-- 数据库: PostgreSQL 14+
+--
+-- 将 用户 -> 角色 -> 权限 的三表关联结果物化为 user_id -> 权限ID数组，
+-- 权限缓存未命中时只需一次主键查询。
+-- 由 user_roles / role_permissions 上的语句级触发器增量维护。
+
+-- ============================================
+-- 1. 创建用户有效权限表
+-- ============================================
+CREATE TABLE user_effective_permissions (
+    user_id INTEGER PRIMARY KEY,
+    permission_ids INTEGER[] NOT NULL DEFAULT '{}',
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    
+    CONSTRAINT fk_user FOREIGN KEY (user_id) 
+        REFERENCES users_auth(id) ON DELETE CASCADE
+);
+
+COMMENT ON TABLE user_effective_permissions IS '用户有效权限读模型（由触发器维护）';
+COMMENT ON COLUMN user_effective_permissions.user_id IS '用户ID（主键）';
+COMMENT ON COLUMN user_effective_permissions.permission_ids IS '用户所有角色的权限ID（去重、升序）';
+COMMENT ON COLUMN user_effective_permissions.updated_at IS '最后刷新时间';
+
+-- ============================================
+-- 2. 刷新函数
+-- ============================================
+-- 重新计算指定用户的有效权限；没有任何权限的用户删除对应行
+CREATE OR REPLACE FUNCTION refresh_user_effective_permissions(p_user_ids INTEGER[])
+RETURNS VOID AS $$
+BEGIN
+    IF p_user_ids IS NULL OR cardinality(p_user_ids) = 0 THEN
+        RETURN;
+    END IF;
+    
+    INSERT INTO user_effective_permissions (user_id, permission_ids, updated_at)
+    SELECT ur.user_id,
+           array_agg(DISTINCT rp.permission_id ORDER BY rp.permission_id),
+           CURRENT_TIMESTAMP
+    FROM user_roles ur
+    INNER JOIN role_permissions rp ON rp.role_id = ur.role_id
+    WHERE ur.user_id = ANY(p_user_ids)
+    GROUP BY ur.user_id
+    ON CONFLICT (user_id) DO UPDATE
+        SET permission_ids = EXCLUDED.permission_ids,
+            updated_at = EXCLUDED.updated_at
+        WHERE user_effective_permissions.permission_ids IS DISTINCT FROM EXCLUDED.permission_ids;
+    
+    DELETE FROM user_effective_permissions uep
+    WHERE uep.user_id = ANY(p_user_ids)
+      AND NOT EXISTS (
+          SELECT 1 FROM user_roles ur
+          INNER JOIN role_permissions rp ON rp.role_id = ur.role_id
+          WHERE ur.user_id = uep.user_id
+      );
+END;
+$$ LANGUAGE plpgsql;
+
+-- ============================================
+-- 3. 触发器函数
+-- ============================================
+-- user_roles 变更：刷新受影响的用户
+CREATE OR REPLACE FUNCTION trg_user_roles_refresh_effective_permissions()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_user_ids INTEGER[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(DISTINCT user_id) INTO v_user_ids FROM new_rows;
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT array_agg(DISTINCT user_id) INTO v_user_ids FROM old_rows;
+    ELSE
+        SELECT array_agg(DISTINCT user_id) INTO v_user_ids
+        FROM (SELECT user_id FROM new_rows UNION SELECT user_id FROM old_rows) changed;
+    END IF;
+    
+    PERFORM refresh_user_effective_permissions(v_user_ids);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- role_permissions 变更：刷新拥有受影响角色的所有用户
+CREATE OR REPLACE FUNCTION trg_role_permissions_refresh_effective_permissions()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_user_ids INTEGER[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(DISTINCT ur.user_id) INTO v_user_ids
+        FROM user_roles ur
+        WHERE ur.role_id IN (SELECT role_id FROM new_rows);
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT array_agg(DISTINCT ur.user_id) INTO v_user_ids
+        FROM user_roles ur
+        WHERE ur.role_id IN (SELECT role_id FROM old_rows);
+    ELSE
+        SELECT array_agg(DISTINCT ur.user_id) INTO v_user_ids
+        FROM user_roles ur
+        WHERE ur.role_id IN (SELECT role_id FROM new_rows UNION SELECT role_id FROM old_rows);
+    END IF;
+    
+    PERFORM refresh_user_effective_permissions(v_user_ids);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- ============================================
+-- 4. 创建触发器（语句级，使用过渡表批量刷新）
+-- ============================================
+CREATE TRIGGER trg_user_roles_ins
+    AFTER INSERT ON user_roles
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION trg_user_roles_refresh_effective_permissions();
+
+CREATE TRIGGER trg_user_roles_upd
+    AFTER UPDATE ON user_roles
+    REFERENCING NEW TABLE AS new_rows OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION trg_user_roles_refresh_effective_permissions();
+
+CREATE TRIGGER trg_user_roles_del
+    AFTER DELETE ON user_roles
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION trg_user_roles_refresh_effective_permissions();
+
+CREATE TRIGGER trg_role_permissions_ins
+    AFTER INSERT ON role_permissions
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION trg_role_permissions_refresh_effective_permissions();
+
+CREATE TRIGGER trg_role_permissions_upd
+    AFTER UPDATE ON role_permissions
+    REFERENCING NEW TABLE AS new_rows OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION trg_role_permissions_refresh_effective_permissions();
+
+CREATE TRIGGER trg_role_permissions_del
+    AFTER DELETE ON role_permissions
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION trg_role_permissions_refresh_effective_permissions();
+
+-- ============================================
+-- 5. 回填现有数据
+-- ============================================
+INSERT INTO user_effective_permissions (user_id, permission_ids)
+SELECT ur.user_id,
+       array_agg(DISTINCT rp.permission_id ORDER BY rp.permission_id)
+FROM user_roles ur
+INNER JOIN role_permissions rp ON rp.role_id = ur.role_id
+GROUP BY ur.user_id;
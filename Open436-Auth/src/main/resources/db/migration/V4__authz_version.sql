@@ -0,0 +1,81 @@
+-- M1 认证授权服务 - 用户授权版本
+-- 版本: v1.2
+-- 数据库: PostgreSQL 14+
+--
+-- 每个用户一个单调递增的授权版本号，用户角色或其角色的权限发生变化时加一。
+-- 角色/权限缓存的 Key 包含版本号，版本变化后旧缓存不再命中，无需全量清除；
+-- 下游服务也可以用一次整数比较判断本地缓存是否过期。
+-- 在 V3 的 user_roles / role_permissions 触发器中维护。
+
+-- ============================================
+-- 1. 添加授权版本列
+-- ============================================
+ALTER TABLE users_auth ADD COLUMN authz_version BIGINT NOT NULL DEFAULT 1;
+
+COMMENT ON COLUMN users_auth.authz_version IS '授权版本（角色或角色权限变化时递增）';
+
+-- ============================================
+-- 2. 递增函数
+-- ============================================
+CREATE OR REPLACE FUNCTION bump_authz_version(p_user_ids INTEGER[])
+RETURNS VOID AS $$
+BEGIN
+    IF p_user_ids IS NULL OR cardinality(p_user_ids) = 0 THEN
+        RETURN;
+    END IF;
+    
+    UPDATE users_auth
+    SET authz_version = authz_version + 1
+    WHERE id = ANY(p_user_ids);
+END;
+$$ LANGUAGE plpgsql;
+
+-- ============================================
+-- 3. 触发器函数（在 V3 基础上增加版本递增）
+-- ============================================
+-- user_roles 变更：刷新受影响用户的有效权限并递增版本
+CREATE OR REPLACE FUNCTION trg_user_roles_refresh_effective_permissions()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_user_ids INTEGER[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(DISTINCT user_id) INTO v_user_ids FROM new_rows;
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT array_agg(DISTINCT user_id) INTO v_user_ids FROM old_rows;
+    ELSE
+        SELECT array_agg(DISTINCT user_id) INTO v_user_ids
+        FROM (SELECT user_id FROM new_rows UNION SELECT user_id FROM old_rows) changed;
+    END IF;
+    
+    PERFORM refresh_user_effective_permissions(v_user_ids);
+    PERFORM bump_authz_version(v_user_ids);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- role_permissions 变更：刷新拥有受影响角色的所有用户并递增版本
+CREATE OR REPLACE FUNCTION trg_role_permissions_refresh_effective_permissions()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_user_ids INTEGER[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(DISTINCT ur.user_id) INTO v_user_ids
+        FROM user_roles ur
+        WHERE ur.role_id IN (SELECT role_id FROM new_rows);
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT array_agg(DISTINCT ur.user_id) INTO v_user_ids
+        FROM user_roles ur
+        WHERE ur.role_id IN (SELECT role_id FROM old_rows);
+    ELSE
+        SELECT array_agg(DISTINCT ur.user_id) INTO v_user_ids
+        FROM user_roles ur
+        WHERE ur.role_id IN (SELECT role_id FROM new_rows UNION SELECT role_id FROM old_rows);
+    END IF;
+    
+    PERFORM refresh_user_effective_permissions(v_user_ids);
+    PERFORM bump_authz_version(v_user_ids);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
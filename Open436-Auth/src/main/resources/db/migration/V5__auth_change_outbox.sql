@@ -0,0 +1,101 @@
+-- M1 认证授权服务 - 认证变更事件发件箱
+-- 版本: v1.3
+-- 数据库: PostgreSQL 14+
+--
+-- 用户禁用、会话吊销、角色变化、权限变化等事件与业务修改在同一事务中写入发件箱，
+-- 由认证服务异步发布到 Redis Stream，网关与下游服务据此精确失效本地缓存。
+-- 角色/权限变化由 user_roles / role_permissions 触发器写入，直接修改 SQL 也不会漏发。
+
+-- ============================================
+-- 1. 创建发件箱表
+-- ============================================
+CREATE TABLE auth_change_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(32) NOT NULL,
+    user_id INTEGER NOT NULL,
+    authz_version BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP
+);
+
+-- 待发布事件（发布器按主键顺序拉取）
+CREATE INDEX idx_auth_change_outbox_unpublished ON auth_change_outbox(id) WHERE published_at IS NULL;
+-- 已发布事件的清理
+CREATE INDEX idx_auth_change_outbox_published_at ON auth_change_outbox(published_at) WHERE published_at IS NOT NULL;
+
+COMMENT ON TABLE auth_change_outbox IS '认证变更事件发件箱（发布到 Redis Stream）';
+COMMENT ON COLUMN auth_change_outbox.id IS '事件ID（单调递增）';
+COMMENT ON COLUMN auth_change_outbox.event_type IS '事件类型：user_disabled, sessions_revoked, roles_changed, permissions_changed';
+COMMENT ON COLUMN auth_change_outbox.user_id IS '受影响的用户ID';
+COMMENT ON COLUMN auth_change_outbox.authz_version IS '事件发生时用户的授权版本';
+COMMENT ON COLUMN auth_change_outbox.created_at IS '创建时间';
+COMMENT ON COLUMN auth_change_outbox.published_at IS '发布时间（NULL 表示待发布）';
+
+-- ============================================
+-- 2. 写入函数
+-- ============================================
+CREATE OR REPLACE FUNCTION enqueue_auth_change(p_event_type VARCHAR, p_user_ids INTEGER[])
+RETURNS VOID AS $$
+BEGIN
+    IF p_user_ids IS NULL OR cardinality(p_user_ids) = 0 THEN
+        RETURN;
+    END IF;
+    
+    INSERT INTO auth_change_outbox (event_type, user_id, authz_version)
+    SELECT p_event_type, u.id, u.authz_version
+    FROM users_auth u
+    WHERE u.id = ANY(p_user_ids);
+END;
+$$ LANGUAGE plpgsql;
+
+-- ============================================
+-- 3. 触发器函数（在 V4 基础上写入变更事件）
+-- ============================================
+-- user_roles 变更：刷新有效权限、递增版本并记录 roles_changed
+CREATE OR REPLACE FUNCTION trg_user_roles_refresh_effective_permissions()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_user_ids INTEGER[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(DISTINCT user_id) INTO v_user_ids FROM new_rows;
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT array_agg(DISTINCT user_id) INTO v_user_ids FROM old_rows;
+    ELSE
+        SELECT array_agg(DISTINCT user_id) INTO v_user_ids
+        FROM (SELECT user_id FROM new_rows UNION SELECT user_id FROM old_rows) changed;
+    END IF;
+    
+    PERFORM refresh_user_effective_permissions(v_user_ids);
+    PERFORM bump_authz_version(v_user_ids);
+    PERFORM enqueue_auth_change('roles_changed', v_user_ids);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- role_permissions 变更：刷新拥有受影响角色的所有用户、递增版本并记录 permissions_changed
+CREATE OR REPLACE FUNCTION trg_role_permissions_refresh_effective_permissions()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_user_ids INTEGER[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(DISTINCT ur.user_id) INTO v_user_ids
+        FROM user_roles ur
+        WHERE ur.role_id IN (SELECT role_id FROM new_rows);
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT array_agg(DISTINCT ur.user_id) INTO v_user_ids
+        FROM user_roles ur
+        WHERE ur.role_id IN (SELECT role_id FROM old_rows);
+    ELSE
+        SELECT array_agg(DISTINCT ur.user_id) INTO v_user_ids
+        FROM user_roles ur
+        WHERE ur.role_id IN (SELECT role_id FROM new_rows UNION SELECT role_id FROM old_rows);
+    END IF;
+    
+    PERFORM refresh_user_effective_permissions(v_user_ids);
+    PERFORM bump_authz_version(v_user_ids);
+    PERFORM enqueue_auth_change('permissions_changed', v_user_ids);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
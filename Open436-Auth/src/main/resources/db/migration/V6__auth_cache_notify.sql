@@ -0,0 +1,128 @@
+-- M1 认证授权服务 - 缓存失效通知
+-- 版本: v1.4
+-- 数据库: PostgreSQL 14+
+--
+-- roles / permissions / user_roles / role_permissions 变更时通过 NOTIFY 通知认证服务，
+-- 管理员或迁移脚本直接修改 SQL 时也能精确失效缓存（通知在事务提交后才投递）。
+-- 频道 auth_cache_invalidate，负载格式为 目标:ID[,ID...]：
+--   users            授权版本已递增的用户
+--   roles            角色实体
+--   permissions      权限实体
+--   role_permissions 权限集合发生变化的角色
+
+-- ============================================
+-- 1. 通知函数
+-- ============================================
+-- 按 500 个 ID 分片发送（NOTIFY 负载上限 8000 字节）
+CREATE OR REPLACE FUNCTION notify_auth_cache(p_target VARCHAR, p_ids INTEGER[])
+RETURNS VOID AS $$
+DECLARE
+    v_chunk_size CONSTANT INTEGER := 500;
+    v_offset INTEGER := 1;
+BEGIN
+    IF p_ids IS NULL OR cardinality(p_ids) = 0 THEN
+        RETURN;
+    END IF;
+    
+    WHILE v_offset <= cardinality(p_ids) LOOP
+        PERFORM pg_notify('auth_cache_invalidate',
+            p_target || ':' || array_to_string(p_ids[v_offset:v_offset + v_chunk_size - 1], ','));
+        v_offset := v_offset + v_chunk_size;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- ============================================
+-- 2. 递增授权版本时通知受影响用户（在 V4 基础上增加通知）
+-- ============================================
+CREATE OR REPLACE FUNCTION bump_authz_version(p_user_ids INTEGER[])
+RETURNS VOID AS $$
+BEGIN
+    IF p_user_ids IS NULL OR cardinality(p_user_ids) = 0 THEN
+        RETURN;
+    END IF;
+    
+    UPDATE users_auth
+    SET authz_version = authz_version + 1
+    WHERE id = ANY(p_user_ids);
+    
+    PERFORM notify_auth_cache('users', p_user_ids);
+END;
+$$ LANGUAGE plpgsql;
+
+-- ============================================
+-- 3. 实体与集合变更通知（行级，同一事务内相同负载只投递一次）
+-- ============================================
+-- TG_ARGV[0]: 通知目标，TG_ARGV[1]: ID 列
+CREATE OR REPLACE FUNCTION trg_notify_auth_cache()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM pg_notify('auth_cache_invalidate', TG_ARGV[0] || ':' || (to_jsonb(OLD) ->> TG_ARGV[1]));
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM pg_notify('auth_cache_invalidate', TG_ARGV[0] || ':' || (to_jsonb(NEW) ->> TG_ARGV[1]));
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_roles_notify
+    AFTER INSERT OR UPDATE OR DELETE ON roles
+    FOR EACH ROW EXECUTE FUNCTION trg_notify_auth_cache('roles', 'id');
+
+CREATE TRIGGER trg_permissions_notify
+    AFTER INSERT OR UPDATE OR DELETE ON permissions
+    FOR EACH ROW EXECUTE FUNCTION trg_notify_auth_cache('permissions', 'id');
+
+CREATE TRIGGER trg_role_permissions_notify
+    AFTER INSERT OR UPDATE OR DELETE ON role_permissions
+    FOR EACH ROW EXECUTE FUNCTION trg_notify_auth_cache('role_permissions', 'role_id');
+
+-- user_roles 的变更已由 bump_authz_version 以 users 目标通知
+
+-- ============================================
+-- 4. 角色/权限代码变化时递增受影响用户的授权版本
+-- ============================================
+-- 删除角色/权限会级联删除关联行，由关联表触发器处理；这里只处理代码的修改
+CREATE OR REPLACE FUNCTION trg_roles_code_bump_authz_version()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_user_ids INTEGER[];
+BEGIN
+    SELECT array_agg(DISTINCT user_id) INTO v_user_ids
+    FROM user_roles
+    WHERE role_id = NEW.id;
+    
+    PERFORM bump_authz_version(v_user_ids);
+    PERFORM enqueue_auth_change('roles_changed', v_user_ids);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION trg_permissions_code_bump_authz_version()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_user_ids INTEGER[];
+BEGIN
+    SELECT array_agg(user_id) INTO v_user_ids
+    FROM user_effective_permissions
+    WHERE NEW.id = ANY(permission_ids);
+    
+    PERFORM bump_authz_version(v_user_ids);
+    PERFORM enqueue_auth_change('permissions_changed', v_user_ids);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_roles_code_upd
+    AFTER UPDATE OF code ON roles
+    FOR EACH ROW
+    WHEN (OLD.code IS DISTINCT FROM NEW.code)
+    EXECUTE FUNCTION trg_roles_code_bump_authz_version();
+
+CREATE TRIGGER trg_permissions_code_upd
+    AFTER UPDATE OF code ON permissions
+    FOR EACH ROW
+    WHEN (OLD.code IS DISTINCT FROM NEW.code)
+    EXECUTE FUNCTION trg_permissions_code_bump_authz_version();
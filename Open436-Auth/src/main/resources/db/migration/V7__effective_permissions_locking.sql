@@ -0,0 +1,99 @@
+-- M1 认证授权服务 - 有效权限刷新的并发控制
+-- 版本: v1.5
+-- 数据库: PostgreSQL 14+
+--
+-- 语句级触发器在 READ COMMITTED 快照下重新计算用户的有效权限。两个并发事务修改同一用户的角色、
+-- 同一角色的权限，或一个修改角色权限、另一个给用户分配该角色时，双方都看不到对方未提交的修改，
+-- 后提交的一方会写入缺少对方变更的结果，读模型可能长期保留已撤销的权限。
+--
+-- 这里在重新计算前先加锁，使涉及同一用户或同一角色的刷新串行执行，后执行的一方以新快照看到先提交的修改：
+--   角色    role_permissions 变更加 FOR NO KEY UPDATE，user_roles 变更加 FOR SHARE
+--   用户    users_auth 加 FOR NO KEY UPDATE（与 bump_authz_version 的更新同级）
+-- 统一按 角色 -> 用户、ID 升序加锁，避免死锁；不使用 FOR UPDATE，以免与外键检查持有的 KEY SHARE 锁互相等待。
+
+-- ============================================
+-- 1. 加锁函数
+-- ============================================
+CREATE OR REPLACE FUNCTION lock_users_for_refresh(p_user_ids INTEGER[])
+RETURNS VOID AS $$
+BEGIN
+    IF p_user_ids IS NULL OR cardinality(p_user_ids) = 0 THEN
+        RETURN;
+    END IF;
+    
+    PERFORM 1 FROM users_auth
+    WHERE id = ANY(p_user_ids)
+    ORDER BY id
+    FOR NO KEY UPDATE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- ============================================
+-- 2. 触发器函数（在 V5 基础上先加锁再计算）
+-- ============================================
+-- user_roles 变更：锁定涉及的角色（共享）与用户后刷新、递增版本并记录 roles_changed
+CREATE OR REPLACE FUNCTION trg_user_roles_refresh_effective_permissions()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_user_ids INTEGER[];
+    v_role_ids INTEGER[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(DISTINCT user_id), array_agg(DISTINCT role_id)
+        INTO v_user_ids, v_role_ids FROM new_rows;
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT array_agg(DISTINCT user_id), array_agg(DISTINCT role_id)
+        INTO v_user_ids, v_role_ids FROM old_rows;
+    ELSE
+        SELECT array_agg(DISTINCT user_id), array_agg(DISTINCT role_id)
+        INTO v_user_ids, v_role_ids
+        FROM (SELECT user_id, role_id FROM new_rows UNION SELECT user_id, role_id FROM old_rows) changed;
+    END IF;
+    
+    -- 等待修改这些角色权限的事务提交
+    PERFORM 1 FROM roles
+    WHERE id = ANY(v_role_ids)
+    ORDER BY id
+    FOR SHARE;
+    PERFORM lock_users_for_refresh(v_user_ids);
+    
+    PERFORM refresh_user_effective_permissions(v_user_ids);
+    PERFORM bump_authz_version(v_user_ids);
+    PERFORM enqueue_auth_change('roles_changed', v_user_ids);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- role_permissions 变更：锁定角色后再查找拥有该角色的用户，锁定用户后刷新、递增版本并记录 permissions_changed
+CREATE OR REPLACE FUNCTION trg_role_permissions_refresh_effective_permissions()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_user_ids INTEGER[];
+    v_role_ids INTEGER[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(DISTINCT role_id) INTO v_role_ids FROM new_rows;
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT array_agg(DISTINCT role_id) INTO v_role_ids FROM old_rows;
+    ELSE
+        SELECT array_agg(DISTINCT role_id) INTO v_role_ids
+        FROM (SELECT role_id FROM new_rows UNION SELECT role_id FROM old_rows) changed;
+    END IF;
+    
+    -- 与并发的角色分配互斥；加锁后的查询使用新快照，能看到已提交的分配
+    PERFORM 1 FROM roles
+    WHERE id = ANY(v_role_ids)
+    ORDER BY id
+    FOR NO KEY UPDATE;
+    
+    SELECT array_agg(DISTINCT ur.user_id) INTO v_user_ids
+    FROM user_roles ur
+    WHERE ur.role_id = ANY(v_role_ids);
+    PERFORM lock_users_for_refresh(v_user_ids);
+    
+    PERFORM refresh_user_effective_permissions(v_user_ids);
+    PERFORM bump_authz_version(v_user_ids);
+    PERFORM enqueue_auth_change('permissions_changed', v_user_ids);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
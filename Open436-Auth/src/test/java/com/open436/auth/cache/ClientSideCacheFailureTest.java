@@ -0,0 +1,78 @@
+package com.open436.auth.cache;
+
+import com.open436.auth.base.BaseUnitTest;
+import com.open436.auth.config.RedisStoreProperties;
+import com.open436.auth.resilience.RedisCircuitBreaker;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisCommandTimeoutException;
+import io.lettuce.core.RedisConnectionException;
+import io.lettuce.core.codec.RedisCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * ClientSideCache 异常转换测试
+ * 不需要 Redis：跟踪连接的 Lettuce 异常应转换为熔断器识别的 DataAccessException
+ */
+class ClientSideCacheFailureTest extends BaseUnitTest {
+    
+    @Mock
+    private LettuceConnectionFactory connectionFactory;
+    
+    @Mock
+    private RedisClient redisClient;
+    
+    @Mock
+    private RedisCacheWriter delegate;
+    
+    private ClientSideCache clientSideCache;
+    
+    @BeforeEach
+    void setUp() {
+        RedisStoreProperties.ClientSideCaching properties = new RedisStoreProperties.ClientSideCaching();
+        properties.setEnabled(true);
+        when(connectionFactory.isClusterAware()).thenReturn(false);
+        when(connectionFactory.getRequiredNativeClient()).thenReturn(redisClient);
+        clientSideCache = new ClientSideCache("test", connectionFactory, properties);
+    }
+    
+    @Test
+    void testGet_ConnectionRefused_TranslatedToConnectionFailure() {
+        // Given: Redis 不可达
+        when(redisClient.connect(any(RedisCodec.class))).thenThrow(new RedisConnectionException("connection refused"));
+        
+        // When: 读取
+        Throwable thrown = catchThrowable(() -> clientSideCache.get("auth:token:1"));
+        
+        // Then: 转换为连接失败，熔断器计为基础设施故障
+        assertThat(thrown).isInstanceOf(RedisConnectionFailureException.class);
+        assertThat(RedisCircuitBreaker.isInfrastructureFailure(thrown)).isTrue();
+    }
+    
+    @Test
+    void testCacheWriterGet_CommandTimeout_TranslatedToQueryTimeout() {
+        // Given: 建立跟踪连接时命令超时
+        when(redisClient.connect(any(RedisCodec.class))).thenThrow(new RedisCommandTimeoutException("timed out"));
+        ClientSideCachingCacheWriter writer = new ClientSideCachingCacheWriter(delegate, clientSideCache);
+        
+        // When: 通过缓存 Writer 读取
+        Throwable thrown = catchThrowable(() -> writer.get("users", "users::1".getBytes(StandardCharsets.UTF_8)));
+        
+        // Then: 转换为查询超时，熔断器计为基础设施故障
+        assertThat(thrown).isInstanceOf(QueryTimeoutException.class);
+        assertThat(RedisCircuitBreaker.isInfrastructureFailure(thrown)).isTrue();
+        verifyNoInteractions(delegate);
+    }
+}
@@ -0,0 +1,107 @@
+package com.open436.auth.cache;
+
+import com.open436.auth.config.RedisStoreProperties;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * ClientSideCache 测试
+ * 需要本地 Redis 6.0+（deploy/dev），不可用时跳过
+ */
+class ClientSideCacheTest {
+    
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate stringRedisTemplate;
+    private static ClientSideCache clientSideCache;
+    private static final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @BeforeAll
+    static void setUp() {
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", 6379));
+        connectionFactory.afterPropertiesSet();
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+        
+        boolean available;
+        try {
+            available = "PONG".equals(stringRedisTemplate.execute(connection -> connection.ping(), true));
+        } catch (Exception e) {
+            available = false;
+        }
+        assumeTrue(available, "Redis 不可用，跳过客户端缓存测试");
+        
+        Metrics.addRegistry(meterRegistry);
+        RedisStoreProperties.ClientSideCaching properties = new RedisStoreProperties.ClientSideCaching();
+        properties.setEnabled(true);
+        clientSideCache = new ClientSideCache("test", connectionFactory, properties);
+    }
+    
+    @AfterAll
+    static void tearDown() {
+        if (clientSideCache != null) {
+            clientSideCache.destroy();
+        }
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+        Metrics.removeRegistry(meterRegistry);
+    }
+    
+    @Test
+    void testRepeatedReadServedLocally() {
+        // Given
+        String key = "test:csc:" + UUID.randomUUID();
+        stringRedisTemplate.opsForValue().set(key, "v1");
+        double hitsBefore = count("hit");
+        
+        // When: 连续读取
+        for (int i = 0; i < 10; i++) {
+            assertThat(read(key)).isEqualTo("v1");
+        }
+        
+        // Then: 只有第一次访问 Redis
+        assertThat(count("hit") - hitsBefore).isEqualTo(9);
+        
+        stringRedisTemplate.delete(key);
+    }
+    
+    @Test
+    void testExternalWriteInvalidatesLocalCopy() throws Exception {
+        // Given: 已缓存
+        String key = "test:csc:" + UUID.randomUUID();
+        stringRedisTemplate.opsForValue().set(key, "v1");
+        assertThat(read(key)).isEqualTo("v1");
+        
+        // When: 其他连接修改 Key
+        stringRedisTemplate.opsForValue().set(key, "v2");
+        
+        // Then: 收到失效通知后读到新值
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!"v2".equals(read(key)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(read(key)).isEqualTo("v2");
+        
+        stringRedisTemplate.delete(key);
+    }
+    
+    private double count(String result) {
+        return meterRegistry.counter("redis.client.cache", "store", "test", "result", result).count();
+    }
+    
+    private String read(String key) {
+        byte[] value = clientSideCache.get(key);
+        return value != null ? new String(value, StandardCharsets.UTF_8) : null;
+    }
+}
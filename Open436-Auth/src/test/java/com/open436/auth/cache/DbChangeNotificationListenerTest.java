@@ -0,0 +1,82 @@
+package com.open436.auth.cache;
+
+import com.open436.auth.base.BaseUnitTest;
+import com.open436.auth.cache.SecondLevelCacheInvalidator.Target;
+import com.open436.auth.config.DbNotifyProperties;
+import com.open436.auth.service.AuthzVersionService;
+import com.open436.auth.service.PermissionService;
+import com.open436.auth.service.RoleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * DbChangeNotificationListener 单元测试
+ * 测试数据库变更通知的解析与本地缓存失效
+ */
+class DbChangeNotificationListenerTest extends BaseUnitTest {
+    
+    @Mock
+    private AuthzVersionService authzVersionService;
+    
+    @Mock
+    private SecondLevelCacheInvalidator secondLevelCacheInvalidator;
+    
+    @Mock
+    private PermissionService permissionService;
+    
+    @Mock
+    private RoleService roleService;
+    
+    private DbChangeNotificationListener listener;
+    
+    @BeforeEach
+    void setUp() {
+        listener = new DbChangeNotificationListener(new DataSourceProperties(), new DbNotifyProperties(),
+            authzVersionService, secondLevelCacheInvalidator, permissionService, roleService);
+    }
+    
+    @Test
+    void testHandle_Users_RefreshesVersions() {
+        // When: 收到用户授权版本变化通知
+        listener.handle("users:1,2");
+        
+        // Then: 先清除用户角色集合缓存，再刷新 Session 中的版本
+        InOrder inOrder = inOrder(secondLevelCacheInvalidator, authzVersionService);
+        inOrder.verify(secondLevelCacheInvalidator).evictLocal(Target.USER_ROLES, 1L);
+        inOrder.verify(secondLevelCacheInvalidator).evictLocal(Target.USER_ROLES, 2L);
+        inOrder.verify(authzVersionService).refresh(List.of(1L, 2L));
+        verifyNoInteractions(permissionService, roleService);
+    }
+    
+    @Test
+    void testHandle_EntityChanges() {
+        // When: 收到角色、权限与角色权限变化通知
+        listener.handle("roles:3");
+        listener.handle("permissions:7");
+        listener.handle("role_permissions:3");
+        
+        // Then: 只清除对应的二级缓存条目
+        verify(secondLevelCacheInvalidator).evictLocal(Target.ROLE, 3L);
+        verify(secondLevelCacheInvalidator).evictLocal(Target.PERMISSION, 7L);
+        verify(secondLevelCacheInvalidator).evictLocal(Target.ROLE_PERMISSIONS, 3L);
+        verifyNoInteractions(authzVersionService);
+    }
+    
+    @Test
+    void testHandle_MalformedPayload_Ignored() {
+        // When: 收到无法识别的通知
+        listener.handle("users");
+        listener.handle("users:abc");
+        listener.handle("groups:1");
+        
+        // Then: 忽略
+        verifyNoInteractions(authzVersionService, secondLevelCacheInvalidator);
+    }
+}
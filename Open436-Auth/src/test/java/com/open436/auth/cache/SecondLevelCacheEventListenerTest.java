@@ -0,0 +1,70 @@
+package com.open436.auth.cache;
+
+import com.open436.auth.base.BaseUnitTest;
+import com.open436.auth.cache.SecondLevelCacheInvalidator.Target;
+import com.open436.auth.entity.Permission;
+import com.open436.auth.entity.Role;
+import com.open436.auth.entity.UserAuth;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * SecondLevelCacheEventListener 单元测试
+ * 测试实体与集合变更到失效广播的映射
+ */
+class SecondLevelCacheEventListenerTest extends BaseUnitTest {
+    
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Mock
+    private SecondLevelCacheInvalidator invalidator;
+    
+    private SecondLevelCacheEventListener listener;
+    
+    @BeforeEach
+    void setUp() {
+        listener = new SecondLevelCacheEventListener(entityManagerFactory, invalidator);
+    }
+    
+    @Test
+    void testEntityChanges_BroadcastAfterCommit() {
+        // When: 角色新增、权限修改、用户修改
+        listener.onPostInsert(new PostInsertEvent(new Role(), 3L, null, null, null));
+        listener.onPostUpdate(new PostUpdateEvent(new Permission(), 7L, null, null, null, null, null));
+        listener.onPostUpdate(new PostUpdateEvent(new UserAuth(), 1L, null, null, null, null, null));
+        
+        // Then: 只广播角色与权限
+        verify(invalidator).broadcastAfterCommit(Target.ROLE, 3L);
+        verify(invalidator).broadcastAfterCommit(Target.PERMISSION, 7L);
+        verifyNoMoreInteractions(invalidator);
+    }
+    
+    @Test
+    void testCollectionChanges_BroadcastOwner() {
+        // When: 角色的权限集合与用户的角色集合变更
+        listener.onPostUpdateCollection(collectionEvent(Role.class.getName() + ".permissions", 3L));
+        listener.onPostUpdateCollection(collectionEvent(UserAuth.class.getName() + ".roles", 5L));
+        
+        // Then: 按集合所属实体广播
+        verify(invalidator).broadcastAfterCommit(Target.ROLE_PERMISSIONS, 3L);
+        verify(invalidator).broadcastAfterCommit(Target.USER_ROLES, 5L);
+    }
+    
+    private PostCollectionUpdateEvent collectionEvent(String role, Long ownerId) {
+        PersistentCollection<?> collection = mock(PersistentCollection.class);
+        when(collection.getRole()).thenReturn(role);
+        PostCollectionUpdateEvent event = mock(PostCollectionUpdateEvent.class);
+        doReturn(collection).when(event).getCollection();
+        when(event.getAffectedOwnerIdOrNull()).thenReturn(ownerId);
+        return event;
+    }
+}
@@ -0,0 +1,128 @@
+package com.open436.auth.cache;
+
+import com.open436.auth.base.BaseUnitTest;
+import com.open436.auth.cache.SecondLevelCacheInvalidator.Target;
+import com.open436.auth.entity.Role;
+import com.open436.auth.entity.UserAuth;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * SecondLevelCacheInvalidator 单元测试
+ * 测试提交后广播与收到广播时清除本地二级缓存
+ */
+class SecondLevelCacheInvalidatorTest extends BaseUnitTest {
+    
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+    
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+    
+    @Mock
+    private SessionFactory sessionFactory;
+    
+    @Mock
+    private Cache cache;
+    
+    private SecondLevelCacheInvalidator invalidator;
+    
+    @BeforeEach
+    void setUp() {
+        invalidator = new SecondLevelCacheInvalidator(stringRedisTemplate, entityManagerFactory, listenerContainer);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    @Test
+    void testBroadcastAfterCommit_PublishesOnlyAfterCommit() {
+        // Given: 事务进行中
+        TransactionSynchronizationManager.initSynchronization();
+        
+        // When: 角色变更
+        invalidator.broadcastAfterCommit(Target.ROLE, 3L);
+        
+        // Then: 提交前不广播，提交后广播
+        verifyNoInteractions(stringRedisTemplate);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(stringRedisTemplate).convertAndSend(eq(SecondLevelCacheInvalidator.CHANNEL), payload.capture());
+        assertThat(payload.getValue()).endsWith("|ROLE|3");
+    }
+    
+    @Test
+    void testBroadcastAfterCommit_RolledBack_NotPublished() {
+        // Given: 事务进行中
+        TransactionSynchronizationManager.initSynchronization();
+        
+        // When: 变更后事务回滚
+        invalidator.broadcastAfterCommit(Target.PERMISSION, 7L);
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        
+        // Then: 不广播
+        verifyNoInteractions(stringRedisTemplate);
+    }
+    
+    @Test
+    void testOnMessage_FromOtherNode_EvictsLocalEntries() {
+        // Given
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(cache);
+        
+        // When: 收到其他实例的角色与用户角色集合失效广播
+        invalidator.onMessage(message("other-node|ROLE|3"), null);
+        invalidator.onMessage(message("other-node|USER_ROLES|5"), null);
+        
+        // Then: 清除对应实体、查询缓存与集合
+        verify(cache).evictEntityData(Role.class, 3L);
+        verify(cache).evictDefaultQueryRegion();
+        verify(cache).evictCollectionData(UserAuth.class.getName() + ".roles", 5L);
+    }
+    
+    @Test
+    void testOnMessage_OwnBroadcast_Ignored() {
+        // Given: 本实例发出的广播
+        invalidator.broadcast(Target.ALL, null);
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(stringRedisTemplate).convertAndSend(eq(SecondLevelCacheInvalidator.CHANNEL), payload.capture());
+        
+        // When: 收到自己的广播以及格式错误的消息
+        invalidator.onMessage(message(payload.getValue()), null);
+        invalidator.onMessage(message("other-node|UNKNOWN|1"), null);
+        
+        // Then: 不清除本地缓存
+        verifyNoInteractions(entityManagerFactory);
+    }
+    
+    private DefaultMessage message(String body) {
+        return new DefaultMessage(SecondLevelCacheInvalidator.CHANNEL.getBytes(StandardCharsets.UTF_8),
+            body.getBytes(StandardCharsets.UTF_8));
+    }
+}
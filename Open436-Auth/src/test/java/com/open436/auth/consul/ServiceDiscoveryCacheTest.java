@@ -0,0 +1,149 @@
+package com.open436.auth.consul;
+
+import com.ecwid.consul.transport.TransportException;
+import com.ecwid.consul.v1.ConsulClient;
+import com.ecwid.consul.v1.Response;
+import com.ecwid.consul.v1.health.HealthServicesRequest;
+import com.ecwid.consul.v1.health.model.HealthService;
+import com.open436.auth.base.BaseUnitTest;
+import com.open436.auth.config.ServiceClientProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * ServiceDiscoveryCache 单元测试
+ * 测试内存读取、并发首次查询与 Consul 不可达时的回退
+ */
+class ServiceDiscoveryCacheTest extends BaseUnitTest {
+    
+    private static final String SERVICE = "file-service";
+    
+    @Mock
+    private ConsulClient consulClient;
+    
+    private ServiceDiscoveryCache discoveryCache;
+    
+    @BeforeEach
+    void setUp() {
+        discoveryCache = new ServiceDiscoveryCache(consulClient, new ServiceClientProperties.Discovery(), false);
+    }
+    
+    private Response<List<HealthService>> response(long index, String... addresses) {
+        List<HealthService> services = new ArrayList<>();
+        for (int i = 0; i < addresses.length; i++) {
+            HealthService.Service service = new HealthService.Service();
+            service.setId(SERVICE + "-" + i);
+            service.setAddress(addresses[i]);
+            service.setPort(8080);
+            HealthService healthService = new HealthService();
+            healthService.setService(service);
+            services.add(healthService);
+        }
+        return new Response<>(services, index, true, 0L);
+    }
+    
+    @Test
+    void testInstancesServedFromMemory() {
+        // Given
+        when(consulClient.getHealthServices(eq(SERVICE), any(HealthServicesRequest.class)))
+            .thenReturn(response(1, "10.0.0.1", "10.0.0.2"));
+        
+        // When: 多次读取
+        for (int i = 0; i < 10; i++) {
+            assertThat(discoveryCache.getInstances(SERVICE)).hasSize(2);
+        }
+        
+        // Then: 只查询一次 Consul
+        verify(consulClient, times(1)).getHealthServices(eq(SERVICE), any(HealthServicesRequest.class));
+        assertThat(discoveryCache.getInstances(SERVICE).get(0).url()).isEqualTo("http://10.0.0.1:8080");
+    }
+    
+    @Test
+    void testRefreshUpdatesInstances() {
+        // Given
+        when(consulClient.getHealthServices(eq(SERVICE), any(HealthServicesRequest.class)))
+            .thenReturn(response(1, "10.0.0.1"))
+            .thenReturn(response(2, "10.0.0.1", "10.0.0.3"));
+        discoveryCache.getInstances(SERVICE);
+        
+        // When
+        boolean refreshed = discoveryCache.refresh(SERVICE);
+        
+        // Then
+        assertThat(refreshed).isTrue();
+        assertThat(discoveryCache.getInstances(SERVICE)).extracting(ServiceInstance::address)
+            .containsExactly("10.0.0.1", "10.0.0.3");
+    }
+    
+    @Test
+    void testConsulUnreachable_KeepsLastKnownGoodList() {
+        // Given
+        when(consulClient.getHealthServices(eq(SERVICE), any(HealthServicesRequest.class)))
+            .thenReturn(response(1, "10.0.0.1", "10.0.0.2"))
+            .thenThrow(new TransportException(new ConnectException("Connection refused")));
+        discoveryCache.getInstances(SERVICE);
+        
+        // When
+        boolean refreshed = discoveryCache.refresh(SERVICE);
+        
+        // Then
+        assertThat(refreshed).isFalse();
+        assertThat(discoveryCache.getInstances(SERVICE)).hasSize(2);
+    }
+    
+    @Test
+    void testConsulUnreachableOnFirstUse_Throws() {
+        // Given
+        when(consulClient.getHealthServices(eq(SERVICE), any(HealthServicesRequest.class)))
+            .thenThrow(new TransportException(new ConnectException("Connection refused")));
+        
+        // When & Then
+        assertThatThrownBy(() -> discoveryCache.getInstances(SERVICE))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining(SERVICE);
+        
+        // 失败不会被缓存，下次调用重新查询
+        assertThatThrownBy(() -> discoveryCache.getInstances(SERVICE))
+            .isInstanceOf(RuntimeException.class);
+        verify(consulClient, times(2)).getHealthServices(eq(SERVICE), any(HealthServicesRequest.class));
+    }
+    
+    @Test
+    void testConcurrentFirstUse_QueriesOnceWithoutBlockingOtherServices() throws Exception {
+        // Given: 首次查询 file-service 时 Consul 响应缓慢
+        CountDownLatch slow = new CountDownLatch(1);
+        when(consulClient.getHealthServices(eq(SERVICE), any(HealthServicesRequest.class)))
+            .thenAnswer(invocation -> {
+                slow.await(5, TimeUnit.SECONDS);
+                return response(1, "10.0.0.1");
+            });
+        when(consulClient.getHealthServices(eq("user-service"), any(HealthServicesRequest.class)))
+            .thenReturn(response(1, "10.0.0.9"));
+        
+        // When: 两个调用方同时首次访问 file-service，期间访问另一个服务
+        CompletableFuture<List<ServiceInstance>> first = CompletableFuture.supplyAsync(() -> discoveryCache.getInstances(SERVICE));
+        CompletableFuture<List<ServiceInstance>> second = CompletableFuture.supplyAsync(() -> discoveryCache.getInstances(SERVICE));
+        List<ServiceInstance> other = discoveryCache.getInstances("user-service");
+        slow.countDown();
+        
+        // Then: 其他服务不受阻塞，file-service 只查询一次
+        assertThat(other).hasSize(1);
+        assertThat(first.get(5, TimeUnit.SECONDS)).hasSize(1);
+        assertThat(second.get(5, TimeUnit.SECONDS)).hasSize(1);
+        verify(consulClient, times(1)).getHealthServices(eq(SERVICE), any(HealthServicesRequest.class));
+    }
+}
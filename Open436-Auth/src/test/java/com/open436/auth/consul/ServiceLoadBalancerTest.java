@@ -0,0 +1,138 @@
+package com.open436.auth.consul;
+
+import com.open436.auth.config.ServiceClientProperties;
+import com.open436.auth.enums.LoadBalancingStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ServiceLoadBalancer 单元测试
+ * 测试负载均衡策略与异常实例摘除
+ */
+class ServiceLoadBalancerTest {
+    
+    private static final String SERVICE = "file-service";
+    
+    private final AtomicLong clock = new AtomicLong(1);
+    private ServiceClientProperties.LoadBalancer properties;
+    private ServiceLoadBalancer loadBalancer;
+    
+    private final ServiceInstance a = instance("a", 1);
+    private final ServiceInstance b = instance("b", 1);
+    private final ServiceInstance c = instance("c", 1);
+    
+    @BeforeEach
+    void setUp() {
+        properties = new ServiceClientProperties.LoadBalancer();
+        properties.getOutlier().setConsecutiveFailures(3);
+        properties.getOutlier().setBaseEjectionTime(Duration.ofSeconds(30));
+        loadBalancer = new ServiceLoadBalancer(properties, clock::get);
+    }
+    
+    private static ServiceInstance instance(String id, int weight) {
+        return new ServiceInstance(id, id + ".svc", 8080, Map.of("weight", String.valueOf(weight)));
+    }
+    
+    @Test
+    void testPowerOfTwoChoices_PrefersLessInflight() {
+        // Given: a 有大量进行中请求
+        List<ServiceInstance> instances = List.of(a, b);
+        for (int i = 0; i < 10; i++) {
+            loadBalancer.onStart(a);
+        }
+        
+        // When & Then: 两个候选时总是选择 b
+        for (int i = 0; i < 100; i++) {
+            assertThat(loadBalancer.choose(SERVICE, instances)).isEqualTo(b);
+        }
+    }
+    
+    @Test
+    void testEwma_PrefersFasterInstance() {
+        // Given
+        properties.getServices().put(SERVICE, LoadBalancingStrategy.EWMA);
+        List<ServiceInstance> instances = List.of(a, b);
+        record(a, Duration.ofMillis(200));
+        record(b, Duration.ofMillis(20));
+        
+        // When & Then
+        for (int i = 0; i < 100; i++) {
+            assertThat(loadBalancer.choose(SERVICE, instances)).isEqualTo(b);
+        }
+    }
+    
+    @Test
+    void testWeightedRoundRobin_FollowsWeights() {
+        // Given
+        properties.setStrategy(LoadBalancingStrategy.WEIGHTED_ROUND_ROBIN);
+        ServiceInstance heavy = instance("heavy", 5);
+        List<ServiceInstance> instances = List.of(heavy, b, c);
+        
+        // When
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 70; i++) {
+            counts.merge(loadBalancer.choose(SERVICE, instances).id(), 1, Integer::sum);
+        }
+        
+        // Then
+        assertThat(counts).containsEntry("heavy", 50).containsEntry("b", 10).containsEntry("c", 10);
+    }
+    
+    @Test
+    void testOutlierEjectedAndRestored() {
+        // Given
+        List<ServiceInstance> instances = List.of(a, b, c);
+        
+        // When: a 连续失败 3 次
+        for (int i = 0; i < 3; i++) {
+            loadBalancer.onFailure(SERVICE, a, instances, loadBalancer.onStart(a));
+        }
+        
+        // Then: 摘除期内不再选择 a
+        for (int i = 0; i < 100; i++) {
+            assertThat(loadBalancer.choose(SERVICE, instances)).isNotEqualTo(a);
+        }
+        
+        // When: 摘除期结束
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        
+        // Then: a 重新参与选择
+        boolean chosen = false;
+        for (int i = 0; i < 100 && !chosen; i++) {
+            chosen = loadBalancer.choose(SERVICE, instances).equals(a);
+        }
+        assertThat(chosen).isTrue();
+    }
+    
+    @Test
+    void testMaxEjectionPercent() {
+        // Given: 两个实例，最多摘除 50%
+        List<ServiceInstance> instances = List.of(a, b);
+        
+        // When: 两个实例都连续失败
+        for (ServiceInstance instance : instances) {
+            for (int i = 0; i < 3; i++) {
+                loadBalancer.onFailure(SERVICE, instance, instances, loadBalancer.onStart(instance));
+            }
+        }
+        
+        // Then: 只摘除一个
+        long now = clock.get();
+        assertThat(loadBalancer.stats(a).isEjected(now)).isTrue();
+        assertThat(loadBalancer.stats(b).isEjected(now)).isFalse();
+    }
+    
+    private void record(ServiceInstance instance, Duration latency) {
+        long start = loadBalancer.onStart(instance);
+        clock.addAndGet(latency.toNanos());
+        loadBalancer.onSuccess(instance, start);
+    }
+}
@@ -2,7 +2,9 @@ package com.open436.auth.controller;
 
 import cn.dev33.satoken.stp.StpUtil;
 import com.open436.auth.base.BaseApiTest;
+import com.open436.auth.dto.AuthorizeRequest;
 import com.open436.auth.dto.LoginRequest;
+import com.open436.auth.enums.TokenConstants;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
@@ -176,6 +178,100 @@ class AuthControllerTest extends BaseApiTest {
             .andExpect(jsonPath("$.message").value("未登录，请先登录"));
     }
     
+    @Test
+    void testVerifyHeader_ValidToken_Returns204WithUserHeaders() throws Exception {
+        // Given: 用户已登录
+        String token = loginAsTestUser();
+        
+        // When & Then: GET /api/auth/verify 返回204，用户信息在响应头中
+        mockMvc.perform(get("/api/auth/verify")
+                .header("Authorization", "Bearer " + token))
+            .andExpect(status().isNoContent())
+            .andExpect(header().exists("X-User-Id"))
+            .andExpect(header().string("X-Username", "test_user"))
+            .andExpect(header().string("X-User-Role", "user"))
+            .andExpect(header().string("Cache-Control", "max-age=5, private"));
+    }
+    
+    @Test
+    void testVerifyHeader_NonAsciiUsername_PercentEncoded() throws Exception {
+        // Given: 用户名包含中文与空格
+        String token = loginAsTestUser();
+        StpUtil.getSessionByLoginId(StpUtil.getLoginIdByToken(token))
+            .set(TokenConstants.SESSION_KEY_USERNAME, "张三 li");
+        
+        // When & Then: X-Username 为 UTF-8 百分号编码
+        mockMvc.perform(get("/api/auth/verify")
+                .header("Authorization", "Bearer " + token))
+            .andExpect(status().isNoContent())
+            .andExpect(header().string("X-Username", "%E5%BC%A0%E4%B8%89%20li"));
+    }
+    
+    @Test
+    void testVerifyHeader_InvalidToken_Returns401() throws Exception {
+        // Given: 不存在的Token
+        
+        // When & Then: GET /api/auth/verify 返回401且不带用户信息
+        mockMvc.perform(get("/api/auth/verify")
+                .header("Authorization", "Bearer invalid-token"))
+            .andExpect(status().isUnauthorized())
+            .andExpect(header().doesNotExist("X-User-Id"))
+            .andExpect(header().exists("Cache-Control"));
+    }
+    
+    @Test
+    void testVerifyBatch_WithoutServiceToken_Returns401() throws Exception {
+        // Given: 未携带内部服务凭证
+        
+        // When & Then: POST /api/auth/verify/batch 应该返回401
+        mockMvc.perform(post("/api/auth/verify/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"tokens\":[\"a\",\"b\"]}"))
+            .andExpect(status().isUnauthorized())
+            .andExpect(jsonPath("$.code").value(40101007));
+    }
+    
+    @Test
+    void testVerifyBatch_InvalidServiceToken_Returns403() throws Exception {
+        // Given: 内部服务凭证错误
+        
+        // When & Then: POST /api/auth/verify/batch 应该返回403
+        mockMvc.perform(post("/api/auth/verify/batch")
+                .header("X-Service-Token", "wrong-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"tokens\":[\"a\",\"b\"]}"))
+            .andExpect(status().isForbidden())
+            .andExpect(jsonPath("$.code").value(40301004));
+    }
+    
+    @Test
+    void testAuthorize_NotLogin_Returns401() throws Exception {
+        // Given: 未登录
+        AuthorizeRequest request = new AuthorizeRequest(1L, "post", "delete");
+        
+        // When & Then: POST /api/auth/authorize 应该返回401
+        mockMvc.perform(post("/api/auth/authorize")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(toJson(request)))
+            .andExpect(status().isUnauthorized())
+            .andExpect(jsonPath("$.code").value(40101002));
+    }
+    
+    @Test
+    void testAuthorize_OtherSubjectWithoutAdmin_Returns403() throws Exception {
+        // Given: 普通用户查询其他用户的授权决策
+        String token = loginAsTestUser();
+        AuthorizeRequest request = new AuthorizeRequest(Long.MAX_VALUE, "post", "delete");
+        
+        // When & Then: 需要管理员角色
+        mockMvc.perform(post("/api/auth/authorize")
+                .header("token", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(toJson(request)))
+            .andExpect(status().isForbidden())
+            .andExpect(jsonPath("$.code").value(40301003));
+    }
+    
     /**
      * 辅助方法：以test_user身份登录并返回token
      */
@@ -0,0 +1,100 @@
+package com.open436.auth.datasource;
+
+import com.open436.auth.base.BaseUnitTest;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * ReplicaLagMonitor 单元测试
+ * 测试以主库 WAL 位置为基准的延迟判定
+ */
+class ReplicaLagMonitorTest extends BaseUnitTest {
+    
+    @Mock
+    private DataSource primary;
+    
+    @Mock
+    private HikariDataSource replica1;
+    
+    @Mock
+    private HikariDataSource replica2;
+    
+    private ReplicaRoutingDataSource routingDataSource;
+    private ReplicaLagMonitor monitor;
+    
+    @BeforeEach
+    void setUp() {
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replica1);
+        replicas.put("replica-2", replica2);
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas);
+        routingDataSource.afterPropertiesSet();
+        monitor = new ReplicaLagMonitor(routingDataSource, Duration.ofSeconds(5), Duration.ofSeconds(1));
+    }
+    
+    @Test
+    void testCheckAll_ComparesWithPrimaryLsn() throws Exception {
+        // Given: 主库 WAL 位置；从库 1 已追上，从库 2 落后且无法估算延迟（如 WAL 接收进程已断开且从未回放过事务）
+        Connection primaryConnection = mock(Connection.class);
+        Statement primaryStatement = mock(Statement.class);
+        ResultSet primaryResult = mock(ResultSet.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(primaryConnection.createStatement()).thenReturn(primaryStatement);
+        when(primaryStatement.executeQuery(anyString())).thenReturn(primaryResult);
+        when(primaryResult.getString(1)).thenReturn("0/3000060");
+        
+        PreparedStatement lag1 = mockLag(replica1, 0L, false);
+        PreparedStatement lag2 = mockLag(replica2, 0L, true);
+        
+        // When: 检测
+        monitor.checkAll();
+        
+        // Then: 以主库位置为基准，只有从库 1 可用
+        verify(lag1).setString(1, "0/3000060");
+        verify(lag2).setString(1, "0/3000060");
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo("replica-1");
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo("replica-1");
+    }
+    
+    @Test
+    void testCheckAll_PrimaryUnavailable_KeepsPreviousState() throws Exception {
+        // Given: 从库 1 之前可用，主库无法连接
+        routingDataSource.updateHealth("replica-1", true, 0);
+        when(primary.getConnection()).thenThrow(new SQLException("connection refused"));
+        
+        // When: 检测
+        monitor.checkAll();
+        
+        // Then: 不查询从库，保持原有状态
+        verifyNoInteractions(replica1, replica2);
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo("replica-1");
+    }
+    
+    private PreparedStatement mockLag(HikariDataSource replica, long lagMillis, boolean unknown) throws SQLException {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.getLong(1)).thenReturn(lagMillis);
+        when(resultSet.wasNull()).thenReturn(unknown);
+        return statement;
+    }
+}
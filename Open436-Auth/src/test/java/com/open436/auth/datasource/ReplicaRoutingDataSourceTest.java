@@ -0,0 +1,92 @@
+package com.open436.auth.datasource;
+
+import com.open436.auth.base.BaseUnitTest;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * ReplicaRoutingDataSource 单元测试
+ * 测试从库选择与主库回退
+ */
+class ReplicaRoutingDataSourceTest extends BaseUnitTest {
+    
+    @Mock
+    private DataSource primary;
+    
+    @Mock
+    private HikariDataSource replica1;
+    
+    @Mock
+    private HikariDataSource replica2;
+    
+    private ReplicaRoutingDataSource routingDataSource;
+    
+    @BeforeEach
+    void setUp() {
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replica1);
+        replicas.put("replica-2", replica2);
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas);
+        routingDataSource.afterPropertiesSet();
+    }
+    
+    @Test
+    void testNoHealthyReplica_FallsBackToPrimary() throws Exception {
+        // Given: 从库尚未通过延迟检测
+        Connection connection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(connection);
+        
+        // When: 获取连接
+        Connection result = routingDataSource.getConnection();
+        
+        // Then: 应该使用主库
+        assertThat(result).isSameAs(connection);
+        verifyNoInteractions(replica1, replica2);
+    }
+    
+    @Test
+    void testHealthyReplicas_RoundRobin() throws Exception {
+        // Given: 两个从库都可用
+        routingDataSource.updateHealth("replica-1", true, 0);
+        routingDataSource.updateHealth("replica-2", true, 0);
+        when(replica1.getConnection()).thenReturn(mock(Connection.class));
+        when(replica2.getConnection()).thenReturn(mock(Connection.class));
+        
+        // When: 连续获取 4 次连接
+        for (int i = 0; i < 4; i++) {
+            routingDataSource.getConnection();
+        }
+        
+        // Then: 两个从库轮流使用，不使用主库
+        verify(replica1, times(2)).getConnection();
+        verify(replica2, times(2)).getConnection();
+        verify(primary, never()).getConnection();
+    }
+    
+    @Test
+    void testLaggingReplica_Skipped() throws Exception {
+        // Given: replica-2 延迟超限被摘除
+        routingDataSource.updateHealth("replica-1", true, 0);
+        routingDataSource.updateHealth("replica-2", true, 0);
+        routingDataSource.updateHealth("replica-2", false, 30000);
+        when(replica1.getConnection()).thenReturn(mock(Connection.class));
+        
+        // When: 获取连接
+        routingDataSource.getConnection();
+        routingDataSource.getConnection();
+        
+        // Then: 只使用 replica-1
+        verify(replica1, times(2)).getConnection();
+        verify(replica2, never()).getConnection();
+    }
+}
@@ -0,0 +1,129 @@
+package com.open436.auth.event;
+
+import com.open436.auth.base.BaseUnitTest;
+import com.open436.auth.config.AuthEventProperties;
+import com.open436.auth.config.RedisResilienceProperties;
+import com.open436.auth.entity.AuthChangeEvent;
+import com.open436.auth.repository.AuthChangeEventRepository;
+import com.open436.auth.resilience.RedisCircuitBreaker;
+import com.open436.auth.service.AuthzVersionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * AuthChangeRelay 单元测试
+ * 测试发件箱事件发布到 Redis Stream
+ */
+class AuthChangeRelayTest extends BaseUnitTest {
+    
+    @Mock
+    private AuthChangeEventRepository authChangeEventRepository;
+    
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+    
+    @Mock
+    private StreamOperations<String, Object, Object> streamOperations;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @Mock
+    private AuthzVersionService authzVersionService;
+    
+    private AuthEventProperties properties;
+    private AuthChangeRelay relay;
+    
+    @BeforeEach
+    void setUp() {
+        properties = new AuthEventProperties();
+        relay = new AuthChangeRelay(authChangeEventRepository, stringRedisTemplate,
+            new RedisCircuitBreaker(new RedisResilienceProperties()), properties, transactionManager,
+            authzVersionService);
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Test
+    void testPublishBatch_AddsToStreamAndMarksPublished() {
+        // Given: 发件箱中有两条待发布事件
+        when(authChangeEventRepository.lockUnpublished(properties.getBatchSize()))
+            .thenReturn(List.of(event(1L, "user_disabled"), event(2L, "roles_changed")));
+        doReturn(streamOperations).when(stringRedisTemplate).opsForStream();
+        
+        // When
+        int published = relay.publishBatch();
+        
+        // Then: 按顺序写入 Stream 并标记已发布
+        assertThat(published).isEqualTo(2);
+        ArgumentCaptor<MapRecord<String, String, String>> captor = ArgumentCaptor.forClass(MapRecord.class);
+        verify(streamOperations, times(2)).add(captor.capture(), any(XAddOptions.class));
+        assertThat(captor.getAllValues().get(0).getStream()).isEqualTo("auth:events");
+        assertThat(captor.getAllValues().get(0).getValue())
+            .containsEntry("id", "1")
+            .containsEntry("type", "user_disabled")
+            .containsEntry("userId", "100")
+            .containsEntry("authzVersion", "3");
+        verify(authChangeEventRepository).markPublished(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        
+        // 角色变化的用户刷新 Session 授权版本
+        verify(authzVersionService).refresh(Set.of(100L));
+    }
+    
+    @Test
+    void testPublishBatch_Empty() {
+        // Given: 没有待发布事件
+        when(authChangeEventRepository.lockUnpublished(properties.getBatchSize())).thenReturn(List.of());
+        
+        // When
+        int published = relay.publishBatch();
+        
+        // Then: 不访问 Redis
+        assertThat(published).isZero();
+        verifyNoInteractions(stringRedisTemplate);
+        verify(authChangeEventRepository, never()).markPublished(anyList(), any());
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Test
+    void testPublishBatch_RedisFailure_KeepsEventsPending() {
+        // Given: Redis 不可用
+        when(authChangeEventRepository.lockUnpublished(properties.getBatchSize()))
+            .thenReturn(List.of(event(1L, "sessions_revoked")));
+        doReturn(streamOperations).when(stringRedisTemplate).opsForStream();
+        when(streamOperations.add(any(MapRecord.class), any(XAddOptions.class)))
+            .thenThrow(new RedisConnectionFailureException("down"));
+        
+        // When & Then: 异常向上抛出使事务回滚，事件保持待发布
+        assertThatThrownBy(() -> relay.publishBatch()).isInstanceOf(RedisConnectionFailureException.class);
+        verify(authChangeEventRepository, never()).markPublished(anyList(), any());
+    }
+    
+    private AuthChangeEvent event(Long id, String type) {
+        AuthChangeEvent event = new AuthChangeEvent();
+        event.setId(id);
+        event.setEventType(type);
+        event.setUserId(100L);
+        event.setAuthzVersion(3L);
+        event.setCreatedAt(LocalDateTime.now());
+        return event;
+    }
+}
@@ -0,0 +1,102 @@
+package com.open436.auth.permission;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
+
+/**
+ * PermissionMatcher 基准测试：编译后的前缀树匹配与逐条模式扫描对比
+ * 用户拥有数千条权限代码（含通配符与层级资源），随机检查命中与未命中的代码。
+ * 
+ * 不随常规测试运行（类名不匹配 *Test）：
+ *   mvn test -Dtest=PermissionMatcherBenchmark -Dbenchmark.codes=5000
+ */
+@Tag("benchmark")
+class PermissionMatcherBenchmark {
+    
+    private static final int CODES = Integer.getInteger("benchmark.codes", 5_000);
+    private static final int CHECKS = Integer.getInteger("benchmark.checks", 2_000_000);
+    private static final String[] ACTIONS = {"read", "create", "update", "delete", "manage"};
+    
+    @Test
+    void compareNaiveAndCompiled() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<String> grants = new ArrayList<>(CODES);
+        for (int i = 0; i < CODES; i++) {
+            String resource = "res" + i;
+            switch (i % 10) {
+                case 0 -> grants.add(resource + ":*");
+                case 1 -> grants.add(resource + ".*.item:delete");
+                default -> grants.add(resource + ":" + ACTIONS[i % ACTIONS.length]);
+            }
+        }
+        String[] checks = new String[1024];
+        for (int i = 0; i < checks.length; i++) {
+            int resource = random.nextInt(CODES * 2);
+            String suffix = random.nextBoolean() ? "" : "." + random.nextInt(100) + ".item";
+            checks[i] = "res" + resource + suffix + ":" + ACTIONS[random.nextInt(ACTIONS.length)];
+        }
+        
+        long compileStart = System.nanoTime();
+        PermissionMatcher matcher = PermissionMatcher.compile(grants, 1L);
+        long compileNanos = System.nanoTime() - compileStart;
+        
+        // 预热
+        run(checks, code -> naiveMatches(grants, code), CHECKS / 100);
+        run(checks, matcher::matches, CHECKS);
+        
+        long naiveChecks = Math.max(CHECKS / 100, 1);
+        double naiveNanos = run(checks, code -> naiveMatches(grants, code), naiveChecks);
+        double compiledNanos = run(checks, matcher::matches, CHECKS);
+        
+        System.out.printf("权限代码数: %d, 编译耗时: %.2f ms%n", CODES, compileNanos / 1e6);
+        System.out.printf("逐条扫描: %.1f ns/次%n", naiveNanos);
+        System.out.printf("编译匹配: %.1f ns/次 (%.0fx)%n", compiledNanos, naiveNanos / compiledNanos);
+    }
+    
+    private double run(String[] checks, Predicate<String> predicate, long iterations) {
+        int granted = 0;
+        long start = System.nanoTime();
+        for (long i = 0; i < iterations; i++) {
+            if (predicate.test(checks[(int) (i & (checks.length - 1))])) {
+                granted++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (granted < 0) {
+            throw new IllegalStateException();
+        }
+        return (double) elapsed / iterations;
+    }
+    
+    /**
+     * 逐条扫描：对每条授权模式做通配符、隐含操作与层级资源匹配
+     */
+    private static boolean naiveMatches(List<String> grants, String code) {
+        int separator = code.lastIndexOf(':');
+        String[] resource = code.substring(0, separator).split("\\.");
+        String action = code.substring(separator + 1);
+        for (String grant : grants) {
+            int grantSeparator = grant.lastIndexOf(':');
+            String[] grantResource = grant.substring(0, grantSeparator).split("\\.");
+            String grantAction = grant.substring(grantSeparator + 1);
+            if (grantResource.length > resource.length) {
+                continue;
+            }
+            boolean resourceMatches = true;
+            for (int i = 0; i < grantResource.length && resourceMatches; i++) {
+                resourceMatches = grantResource[i].equals("*") || grantResource[i].equals(resource[i]);
+            }
+            boolean actionMatches = grantAction.equals("*") || grantAction.equals(action)
+                || (grantAction.equals("manage") && !action.equals("manage") && List.of(ACTIONS).contains(action));
+            if (resourceMatches && actionMatches) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,75 @@
+package com.open436.auth.permission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * PermissionMatcher 单元测试
+ * 测试通配符、隐含操作与层级资源
+ */
+class PermissionMatcherTest {
+    
+    @Test
+    void testMatches_ExactCode() {
+        // Given: 只有 post:create
+        PermissionMatcher matcher = PermissionMatcher.compile(List.of("post:create"), 1L);
+        
+        // When & Then: 精确匹配
+        assertThat(matcher.matches("post:create")).isTrue();
+        assertThat(matcher.matches("post:delete")).isFalse();
+        assertThat(matcher.matches("user:create")).isFalse();
+        assertThat(matcher.matches("post")).isFalse();
+    }
+    
+    @Test
+    void testMatches_ManageImpliesCrud() {
+        // Given: user:manage
+        PermissionMatcher matcher = PermissionMatcher.compile(List.of("user:manage"), 1L);
+        
+        // When & Then: manage 包含 CRUD，但不包含自定义操作
+        assertThat(matcher.matches("user:create")).isTrue();
+        assertThat(matcher.matches("user:read")).isTrue();
+        assertThat(matcher.matches("user:update")).isTrue();
+        assertThat(matcher.matches("user:delete")).isTrue();
+        assertThat(matcher.matches("user:manage")).isTrue();
+        assertThat(matcher.matches("user:export")).isFalse();
+        
+        // And: read 不包含 manage
+        PermissionMatcher readOnly = PermissionMatcher.compile(List.of("user:read"), 2L);
+        assertThat(readOnly.matches("user:manage")).isFalse();
+    }
+    
+    @Test
+    void testMatches_Wildcards() {
+        // Given: post 的所有操作、所有资源的 read
+        PermissionMatcher matcher = PermissionMatcher.compile(List.of("post:*", "*:read"), 1L);
+        
+        // When & Then
+        assertThat(matcher.matches("post:delete")).isTrue();
+        assertThat(matcher.matches("post:pin")).isTrue();
+        assertThat(matcher.matches("section:read")).isTrue();
+        assertThat(matcher.matches("section:update")).isFalse();
+        
+        // And: "*" 拥有全部权限
+        assertThat(PermissionMatcher.compile(List.of("*"), 2L).matches("system:manage")).isTrue();
+    }
+    
+    @Test
+    void testMatches_HierarchicalResources() {
+        // Given: section 的 update、任意板块下帖子的 delete
+        PermissionMatcher matcher = PermissionMatcher.compile(
+            List.of("section:update", "section.*.post:delete", "file.42:export"), 1L);
+        
+        // When & Then: 父资源覆盖子资源，通配分段匹配任意一段
+        assertThat(matcher.matches("section.42:update")).isTrue();
+        assertThat(matcher.matches("section.42.post:delete")).isTrue();
+        assertThat(matcher.matches("section.42.post.7:delete")).isTrue();
+        assertThat(matcher.matches("section.42:delete")).isFalse();
+        assertThat(matcher.matches("file.42:export")).isTrue();
+        assertThat(matcher.matches("file:export")).isFalse();
+        assertThat(matcher.matches("file.43:export")).isFalse();
+    }
+}
@@ -103,6 +103,21 @@ class PermissionRepositoryTest extends BaseIntegrationTest {
         assertThat(permissions).isEmpty();
     }
     
+    @Test
+    void testFindEffectiveByUserId_MatchesJoinQuery() {
+        // Given: 读模型由触发器维护
+        Long userId = 1L;
+        
+        // When: 分别通过读模型和三表关联查询
+        List<Permission> effective = permissionRepository.findEffectiveByUserId(userId);
+        List<Permission> joined = permissionRepository.findByUserId(userId);
+        
+        // Then: 两种方式的结果应该一致
+        assertThat(effective)
+            .extracting(Permission::getCode)
+            .containsExactlyInAnyOrderElementsOf(joined.stream().map(Permission::getCode).toList());
+    }
+    
     @Test
     void testFindByRoleId() {
         // Given: admin角色（ID 1）拥有权限
@@ -0,0 +1,104 @@
+package com.open436.auth.resilience;
+
+import com.open436.auth.config.RedisResilienceProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * RedisCircuitBreaker 单元测试
+ * 测试熔断、快速失败与半开探测
+ */
+class RedisCircuitBreakerTest {
+    
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private RedisCircuitBreaker circuitBreaker;
+    
+    @BeforeEach
+    void setUp() {
+        RedisResilienceProperties properties = new RedisResilienceProperties();
+        properties.setFailureThreshold(3);
+        properties.setOpenDuration(Duration.ofSeconds(10));
+        circuitBreaker = new RedisCircuitBreaker(properties, clock::get);
+    }
+    
+    private String failingCall() {
+        calls.incrementAndGet();
+        throw new RedisConnectionFailureException("connection refused");
+    }
+    
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThatThrownBy(() -> circuitBreaker.execute(this::failingCall))
+                .isInstanceOf(RedisConnectionFailureException.class);
+        }
+    }
+    
+    @Test
+    void testOpensAfterConsecutiveFailures_AndFailsFast() {
+        // When: 连续失败达到阈值
+        fail(3);
+        
+        // Then: 熔断后不再调用 Redis
+        assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+        fail(5);
+        assertThat(calls.get()).isEqualTo(3);
+    }
+    
+    @Test
+    void testSuccessResetsFailureCount() {
+        // Given
+        fail(2);
+        circuitBreaker.execute(() -> "ok");
+        
+        // When
+        fail(2);
+        
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+    }
+    
+    @Test
+    void testHalfOpenProbe() {
+        // Given: 熔断
+        fail(3);
+        
+        // When: 熔断到期后探测失败
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.HALF_OPEN);
+        fail(1);
+        
+        // Then: 重新熔断
+        assertThat(calls.get()).isEqualTo(4);
+        assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+        
+        // When: 再次到期后探测成功
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThat(circuitBreaker.execute(() -> "ok")).isEqualTo("ok");
+        
+        // Then: 恢复
+        assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+    }
+    
+    @Test
+    void testNonInfrastructureFailureNotCounted() {
+        // When: 序列化异常不代表 Redis 故障
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> circuitBreaker.execute(() -> {
+                throw new SerializationException("bad payload");
+            })).isInstanceOf(SerializationException.class);
+        }
+        
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+    }
+}
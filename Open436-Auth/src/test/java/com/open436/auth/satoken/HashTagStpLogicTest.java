@@ -0,0 +1,57 @@
+package com.open436.auth.satoken;
+
+import io.lettuce.core.cluster.SlotHash;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * HashTagStpLogic 单元测试
+ * 测试同一用户的 Session 与 Token Key 落在同一槽位
+ */
+class HashTagStpLogicTest {
+    
+    private final HashTagStpLogic stpLogic = new HashTagStpLogic();
+    
+    @Test
+    void testTokenAndSessionKeysShareSlot() {
+        // Given
+        Long userId = 42L;
+        String token = stpLogic.createTokenValue(userId, "web", 1800, null);
+        
+        // When
+        int sessionSlot = SlotHash.getSlot(stpLogic.splicingKeySession(userId));
+        
+        // Then
+        assertThat(HashTagStpLogic.tagOfToken(token)).isEqualTo(HashTagStpLogic.tagOf(userId));
+        assertThat(SlotHash.getSlot(stpLogic.splicingKeyTokenValue(token))).isEqualTo(sessionSlot);
+        assertThat(SlotHash.getSlot(stpLogic.splicingKeyTokenSession(token))).isEqualTo(sessionSlot);
+        assertThat(SlotHash.getSlot(stpLogic.splicingKeyLastActiveTime(token))).isEqualTo(sessionSlot);
+        assertThat(SlotHash.getSlot(stpLogic.splicingKeyDisable(userId, "login"))).isEqualTo(sessionSlot);
+    }
+    
+    @Test
+    void testLegacyTokenKeepsOriginalKey() {
+        // Given: 开启 Hash Tag 之前签发的 Token
+        String token = "0f1e2d3c-4b5a-6978-8796-a5b4c3d2e1f0";
+        
+        // When & Then
+        assertThat(HashTagStpLogic.tagOfToken(token)).isNull();
+        assertThat(stpLogic.splicingKeyTokenValue(token)).endsWith(":token:" + token);
+    }
+    
+    @Test
+    void testConsecutiveUserIdsSpreadAcrossSlots() {
+        // When: 连续用户ID
+        Set<Integer> slots = new HashSet<>();
+        for (long userId = 1; userId <= 1000; userId++) {
+            slots.add(SlotHash.getSlot(stpLogic.splicingKeySession(userId)));
+        }
+        
+        // Then: 分布到大量不同槽位
+        assertThat(slots.size()).isGreaterThan(900);
+    }
+}
@@ -0,0 +1,100 @@
+package com.open436.auth.satoken;
+
+import cn.dev33.satoken.session.SaSession;
+import cn.dev33.satoken.session.TokenSign;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * SaSessionCodec 单元测试
+ * 测试紧凑编码的往返一致性与体积
+ */
+class SaSessionCodecTest {
+    
+    private SaSessionCodec codec;
+    private SaSession session;
+    
+    @BeforeEach
+    void setUp() {
+        codec = new SaSessionCodec();
+        
+        // 与 AuthServiceImpl.createSession 登录后的 Account-Session 一致
+        // 注：不使用 SaSession#set / addTokenSign，它们会调用全局 SaTokenDao 持久化
+        session = new SaSession();
+        session.setId("satoken:login:session:10001");
+        session.setType("Account-Session");
+        session.setLoginType("login");
+        session.setLoginId(10001L);
+        session.setCreateTime(1760000000000L);
+        session.setTokenSignList(new ArrayList<>(List.of(
+            new TokenSign("6f1c2e8a-3b4d-4c5e-9f60-7a8b9c0d1e2f", "web", null))));
+        session.getDataMap().put("username", "testuser");
+    }
+    
+    @Test
+    void testEncodeDecode_RoundTrip() {
+        // When: 编码后再解码
+        SaSession decoded = codec.decode(codec.encode(session));
+        
+        // Then: 所有字段保持一致
+        assertThat(decoded.getId()).isEqualTo(session.getId());
+        assertThat(decoded.getType()).isEqualTo("Account-Session");
+        assertThat(decoded.getLoginType()).isEqualTo("login");
+        assertThat(decoded.getLoginId()).isEqualTo(10001L);
+        assertThat(decoded.getToken()).isNull();
+        assertThat(decoded.getCreateTime()).isEqualTo(1760000000000L);
+        assertThat(decoded.getTokenSignList()).hasSize(1);
+        assertThat(decoded.getTokenSignList().get(0).getValue()).isEqualTo("6f1c2e8a-3b4d-4c5e-9f60-7a8b9c0d1e2f");
+        assertThat(decoded.getTokenSignList().get(0).getDevice()).isEqualTo("web");
+        assertThat(decoded.getTokenSignList().get(0).getTag()).isNull();
+        assertThat(decoded.getDataMap()).containsExactly(Map.entry("username", "testuser"));
+    }
+    
+    @Test
+    void testEncodeDecode_MixedValueTypes() {
+        // Given: Session 中保存多种类型的值
+        session.getDataMap().put("count", 3);
+        session.getDataMap().put("enabled", true);
+        session.getDataMap().put("score", 1.5D);
+        session.getDataMap().put("roles", new ArrayList<>(List.of("admin", "user")));
+        
+        // When: 编码后再解码
+        SaSession decoded = codec.decode(codec.encode(session));
+        
+        // Then: 值与类型保持一致（其他类型通过内嵌 JSON 保存）
+        assertThat(decoded.getDataMap().get("count")).isEqualTo(3);
+        assertThat(decoded.getDataMap().get("enabled")).isEqualTo(true);
+        assertThat(decoded.getDataMap().get("score")).isEqualTo(1.5D);
+        assertThat(decoded.getDataMap().get("roles")).isEqualTo(List.of("admin", "user"));
+    }
+    
+    @Test
+    void testEncode_SmallerThanJackson() {
+        // When: 分别使用紧凑编码和 Jackson 编码
+        byte[] compact = codec.encode(session);
+        byte[] jackson = new GenericJackson2JsonRedisSerializer().serialize(session);
+        
+        // Then: 紧凑编码不到 Jackson 的一半
+        assertThat(compact.length).isLessThan(jackson.length / 2);
+    }
+    
+    @Test
+    void testIsCompact_JacksonValueNotMatched() {
+        // Given: 旧的 Jackson 格式
+        byte[] jackson = new GenericJackson2JsonRedisSerializer().serialize(session);
+        
+        // Then: 不应该被识别为紧凑编码
+        assertThat(SaSessionCodec.isCompact(jackson)).isFalse();
+        assertThat(SaSessionCodec.isCompact(codec.encode(session))).isTrue();
+        assertThatThrownBy(() -> codec.decode(jackson))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
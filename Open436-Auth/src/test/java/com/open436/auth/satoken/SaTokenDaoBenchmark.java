@@ -0,0 +1,169 @@
+package com.open436.auth.satoken;
+
+import cn.dev33.satoken.dao.SaTokenDao;
+import cn.dev33.satoken.dao.SaTokenDaoRedisJackson;
+import cn.dev33.satoken.session.SaSession;
+import cn.dev33.satoken.session.TokenSign;
+import com.open436.auth.cache.ClientSideCache;
+import com.open436.auth.config.RedisResilienceProperties;
+import com.open436.auth.config.RedisStoreProperties;
+import com.open436.auth.resilience.RedisCircuitBreaker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * SaTokenDao 基准测试：Jackson DAO 与紧凑编码 DAO 对比
+ * 模拟登录（写 Session + Token 映射）、校验（读 Token 映射 + Session）、登出（删除两者），
+ * 统计每个会话占用的 Redis 内存与各操作吞吐量。
+ * 
+ * 不随常规测试运行（类名不匹配 *Test），需要本地 Redis（deploy/dev）且使用空库：
+ *   mvn test -Dtest=SaTokenDaoBenchmark -Dbenchmark.sessions=1000000
+ */
+@Tag("benchmark")
+class SaTokenDaoBenchmark {
+    
+    private static final int SESSIONS = Integer.getInteger("benchmark.sessions", 1_000_000);
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 32);
+    private static final long TIMEOUT = 2592000L;
+    
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate stringRedisTemplate;
+    
+    @BeforeAll
+    static void setUp() {
+        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(
+            System.getProperty("benchmark.redis.host", "localhost"),
+            Integer.getInteger("benchmark.redis.port", 6379));
+        connectionFactory = new LettuceConnectionFactory(config);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+        
+        boolean available;
+        try {
+            available = "PONG".equals(stringRedisTemplate.execute(connection -> connection.ping(), true));
+        } catch (Exception e) {
+            available = false;
+        }
+        assumeTrue(available, "Redis 不可用，跳过基准测试");
+    }
+    
+    @AfterAll
+    static void tearDown() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+    
+    @Test
+    void compareJacksonAndCompact() throws Exception {
+        SaTokenDaoRedisJackson jacksonDao = new SaTokenDaoRedisJackson();
+        jacksonDao.init(connectionFactory);
+        CompactSaTokenDao compactDao = new CompactSaTokenDao(connectionFactory, stringRedisTemplate, jacksonDao,
+            new RedisCircuitBreaker(new RedisResilienceProperties()),
+            new ClientSideCache("session", connectionFactory, new RedisStoreProperties.ClientSideCaching()));
+        
+        Result jackson = run("jackson", jacksonDao);
+        Result compact = run("compact", compactDao);
+        
+        System.out.printf("%n会话数: %,d  并发线程: %d%n", SESSIONS, THREADS);
+        System.out.printf("%-8s %14s %14s %14s %14s%n", "DAO", "内存/会话(B)", "登录 ops/s", "校验 ops/s", "登出 ops/s");
+        for (Result r : List.of(jackson, compact)) {
+            System.out.printf("%-8s %14d %14.0f %14.0f %14.0f%n",
+                r.name, r.bytesPerSession, r.loginOps, r.verifyOps, r.logoutOps);
+        }
+    }
+    
+    private Result run(String name, SaTokenDao dao) throws Exception {
+        String prefix = "bench:" + name + ":";
+        String[] tokens = new String[SESSIONS];
+        for (int i = 0; i < SESSIONS; i++) {
+            tokens[i] = UUID.randomUUID().toString();
+        }
+        
+        long memoryBefore = usedMemory();
+        
+        double loginOps = measure(i -> {
+            String sessionKey = prefix + "session:" + i;
+            dao.setObject(sessionKey, newSession(sessionKey, i, tokens[i]), TIMEOUT);
+            dao.set(prefix + "token:" + tokens[i], String.valueOf(i), TIMEOUT);
+        });
+        
+        long bytesPerSession = (usedMemory() - memoryBefore) / SESSIONS;
+        
+        double verifyOps = measure(i -> {
+            String loginId = dao.get(prefix + "token:" + tokens[i]);
+            if (loginId == null || dao.getObject(prefix + "session:" + loginId) == null) {
+                throw new IllegalStateException("会话丢失: " + i);
+            }
+        });
+        
+        double logoutOps = measure(i -> {
+            dao.delete(prefix + "token:" + tokens[i]);
+            dao.deleteObject(prefix + "session:" + i);
+        });
+        
+        return new Result(name, bytesPerSession, loginOps, verifyOps, logoutOps);
+    }
+    
+    /**
+     * 多线程执行 SESSIONS 次操作，返回每秒操作数
+     */
+    private double measure(IntConsumer operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>(THREADS);
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = offset; i < SESSIONS; i += THREADS) {
+                        operation.accept(i);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return SESSIONS / ((System.nanoTime() - start) / 1_000_000_000.0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private long usedMemory() {
+        Properties info = stringRedisTemplate.execute(connection -> connection.serverCommands().info("memory"), true);
+        return Long.parseLong(info.getProperty("used_memory"));
+    }
+    
+    private SaSession newSession(String sessionKey, int userId, String token) {
+        SaSession session = new SaSession();
+        session.setId(sessionKey);
+        session.setType("Account-Session");
+        session.setLoginType("login");
+        session.setLoginId((long) userId);
+        session.setCreateTime(System.currentTimeMillis());
+        session.setTokenSignList(new ArrayList<>(List.of(new TokenSign(token, "web", null))));
+        session.getDataMap().put("username", "user" + userId);
+        return session;
+    }
+    
+    private record Result(String name, long bytesPerSession, double loginOps, double verifyOps, double logoutOps) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.open436.auth.satoken;
+
+import com.open436.auth.base.BaseUnitTest;
+import com.open436.auth.config.RedisResilienceProperties;
+import com.open436.auth.config.TokenProperties;
+import com.open436.auth.resilience.RedisCircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * TokenRevocationPublisher 单元测试
+ * 测试吊销广播的消息内容与失败处理
+ */
+class TokenRevocationPublisherTest extends BaseUnitTest {
+    
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+    
+    private TokenRevocationPublisher publisher;
+    
+    @BeforeEach
+    void setUp() {
+        publisher = new TokenRevocationPublisher(stringRedisTemplate,
+            new RedisCircuitBreaker(new RedisResilienceProperties()), new TokenProperties());
+    }
+    
+    @Test
+    void testDoLogout_PublishesTokenHash() {
+        // When: 登出
+        publisher.doLogout("login", 1L, "abc");
+        
+        // Then: 广播 Token 的 SHA-256，而不是明文 Token
+        verify(stringRedisTemplate).convertAndSend("auth:token:revoked",
+            "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+    }
+    
+    @Test
+    void testDoKickout_RedisUnavailable_DoesNotThrow() {
+        // Given: Redis 不可用
+        when(stringRedisTemplate.convertAndSend(anyString(), anyString()))
+            .thenThrow(new RedisConnectionFailureException("connection refused"));
+        
+        // When & Then: 踢下线不受广播失败影响
+        assertThatCode(() -> publisher.doKickout("login", 1L, "abc")).doesNotThrowAnyException();
+    }
+    
+    @Test
+    void testDoReplaced_EmptyToken_Skipped() {
+        // When: Token 为空
+        publisher.doReplaced("login", 1L, null);
+        
+        // Then: 不发布
+        verifyNoInteractions(stringRedisTemplate);
+        assertThat(TokenRevocationPublisher.hash("abc")).hasSize(64);
+    }
+}
@@ -13,10 +13,13 @@ import com.open436.auth.repository.UserAuthRepository;
 import com.open436.auth.service.impl.AuthServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -41,6 +44,9 @@ class AuthServiceTest extends BaseUnitTest {
     @Mock
     private PasswordEncoder passwordEncoder;
     
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
     @InjectMocks
     private AuthServiceImpl authService;
     
@@ -116,6 +122,25 @@ class AuthServiceTest extends BaseUnitTest {
         verify(passwordEncoder, never()).matches(anyString(), anyString());
     }
     
+    @Test
+    void testLogin_AuthenticatesInReadWriteTransaction() {
+        // Given: 用户不存在
+        LoginRequest request = new LoginRequest();
+        request.setUsername("nonexistent");
+        request.setPassword("password123");
+        
+        when(userAuthRepository.findByUsername("nonexistent")).thenReturn(Optional.empty());
+        
+        // When: 登录失败
+        assertThatThrownBy(() -> authService.login(request)).isInstanceOf(BusinessException.class);
+        
+        // Then: 认证在读写事务中执行（启用读写分离时走主库），失败时回滚
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertThat(definition.getValue().isReadOnly()).isFalse();
+        verify(transactionManager).rollback(any());
+    }
+    
     @Test
     void testLogin_WrongPassword() {
         // Given: 密码错误
@@ -162,7 +187,7 @@ class AuthServiceTest extends BaseUnitTest {
             stpUtilMock.when(() -> StpUtil.getLoginIdAsLong()).thenReturn(1L);
             
             // When: 登出
-            authService.logout();
+            authService.logout(null);
             
             // Then: 应该调用StpUtil.logout()
             stpUtilMock.verify(() -> StpUtil.logout());
@@ -0,0 +1,74 @@
+package com.open436.auth.service;
+
+import com.open436.auth.base.BaseUnitTest;
+import com.open436.auth.config.AuthorizationProperties;
+import com.open436.auth.permission.PermissionMatcher;
+import com.open436.auth.service.impl.AuthorizationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * AuthorizationService 单元测试
+ * 测试授权决策与决策缓存
+ */
+class AuthorizationServiceTest extends BaseUnitTest {
+    
+    private static final Long USER_ID = 1L;
+    
+    @Mock
+    private PermissionService permissionService;
+    
+    private AuthorizationServiceImpl authorizationService;
+    
+    @BeforeEach
+    void setUp() {
+        authorizationService = new AuthorizationServiceImpl(permissionService, new AuthorizationProperties());
+    }
+    
+    @Test
+    void testIsAllowed_MatchesResourceAndAction() {
+        // Given: 用户拥有 post:create
+        when(permissionService.getPermissionMatcher(USER_ID))
+            .thenReturn(PermissionMatcher.compile(List.of("post:create"), 1L));
+        
+        // When & Then: 资源与操作都匹配才允许
+        assertThat(authorizationService.isAllowed(USER_ID, "post", "create")).isTrue();
+        assertThat(authorizationService.isAllowed(USER_ID, "post", "delete")).isFalse();
+        assertThat(authorizationService.isAllowed(USER_ID, "section", "create")).isFalse();
+    }
+    
+    @Test
+    void testIsAllowed_RepeatedDecision_HitsCache() {
+        // Given: 用户权限不变
+        when(permissionService.getPermissionMatcher(USER_ID))
+            .thenReturn(PermissionMatcher.compile(List.of("post:create"), 1L));
+        
+        // When: 相同的决策请求两次
+        authorizationService.isAllowed(USER_ID, "post", "create");
+        authorizationService.isAllowed(USER_ID, "post", "create");
+        
+        // Then: 第二次命中缓存
+        assertThat(authorizationService.getDecisionCacheHitRatio()).isEqualTo(0.5);
+    }
+    
+    @Test
+    void testIsAllowed_PermissionsChanged_NewDecision() {
+        // Given: 首次决策时用户没有 post:delete
+        when(permissionService.getPermissionMatcher(USER_ID))
+            .thenReturn(PermissionMatcher.compile(List.of("post:create"), 1L));
+        assertThat(authorizationService.isAllowed(USER_ID, "post", "delete")).isFalse();
+        
+        // When: 用户获得 post:delete
+        when(permissionService.getPermissionMatcher(USER_ID))
+            .thenReturn(PermissionMatcher.compile(List.of("post:create", "post:delete"), 2L));
+        
+        // Then: 权限版本变化，不使用旧的决策结果
+        assertThat(authorizationService.isAllowed(USER_ID, "post", "delete")).isTrue();
+    }
+}
@@ -0,0 +1,139 @@
+package com.open436.auth.service;
+
+import cn.dev33.satoken.session.SaSession;
+import cn.dev33.satoken.stp.StpUtil;
+import com.open436.auth.base.BaseUnitTest;
+import com.open436.auth.enums.TokenConstants;
+import com.open436.auth.repository.UserAuthRepository;
+import com.open436.auth.repository.projection.UserAuthzVersion;
+import com.open436.auth.service.impl.AuthzVersionServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * AuthzVersionService 单元测试
+ * 测试授权版本的读取、回填与刷新
+ */
+class AuthzVersionServiceTest extends BaseUnitTest {
+    
+    @Mock
+    private UserAuthRepository userAuthRepository;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @Mock
+    private SaSession session;
+    
+    @InjectMocks
+    private AuthzVersionServiceImpl authzVersionService;
+    
+    @Test
+    void testGetVersion_FromSession() {
+        // Given: Session 中已保存授权版本
+        when(session.get(TokenConstants.SESSION_KEY_AUTHZ_VERSION)).thenReturn(7L);
+        
+        try (MockedStatic<StpUtil> stpUtil = mockStatic(StpUtil.class)) {
+            stpUtil.when(() -> StpUtil.getSessionByLoginId(1L, false)).thenReturn(session);
+            
+            // When
+            long version = authzVersionService.getVersion(1L);
+            
+            // Then: 直接使用 Session 中的版本，不查询数据库
+            assertThat(version).isEqualTo(7L);
+            verifyNoInteractions(userAuthRepository);
+        }
+    }
+    
+    @Test
+    void testGetVersion_BackfillSession() {
+        // Given: Session 中没有授权版本
+        when(userAuthRepository.findAuthzVersionById(1L)).thenReturn(Optional.of(3L));
+        
+        try (MockedStatic<StpUtil> stpUtil = mockStatic(StpUtil.class)) {
+            stpUtil.when(() -> StpUtil.getSessionByLoginId(1L, false)).thenReturn(session);
+            
+            // When
+            long version = authzVersionService.getVersion(1L);
+            
+            // Then: 在独立的读写事务中从主库读取，并回填 Session
+            assertThat(version).isEqualTo(3L);
+            verify(transactionManager).getTransaction(argThat(definition -> !definition.isReadOnly()
+                && definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+            verify(session).set(TokenConstants.SESSION_KEY_AUTHZ_VERSION, 3L);
+        }
+    }
+    
+    @Test
+    void testRefresh() {
+        // Given: 数据库中的版本已递增，只有用户 1 在线
+        UserAuthzVersion row = mock(UserAuthzVersion.class);
+        when(row.getId()).thenReturn(1L);
+        when(row.getAuthzVersion()).thenReturn(8L);
+        when(userAuthRepository.findAuthzVersions(List.of(1L, 2L))).thenReturn(List.of(row));
+        
+        try (MockedStatic<StpUtil> stpUtil = mockStatic(StpUtil.class)) {
+            stpUtil.when(() -> StpUtil.getSessionByLoginId(1L, false)).thenReturn(session);
+            
+            // When
+            authzVersionService.refresh(List.of(1L, 2L));
+            
+            // Then: 在线 Session 写入最新版本
+            verify(session).set(TokenConstants.SESSION_KEY_AUTHZ_VERSION, 8L);
+        }
+    }
+    
+    @Test
+    void testGetVersion_WithoutSession_CachedUntilRefresh() {
+        // Given: 用户未登录
+        when(userAuthRepository.findAuthzVersionById(1L)).thenReturn(Optional.of(3L));
+        
+        try (MockedStatic<StpUtil> stpUtil = mockStatic(StpUtil.class)) {
+            stpUtil.when(() -> StpUtil.getSessionByLoginId(1L, false)).thenReturn(null);
+            
+            // When: 连续读取两次，刷新后再读取
+            long first = authzVersionService.getVersion(1L);
+            long second = authzVersionService.getVersion(1L);
+            authzVersionService.refresh(List.of(1L));
+            authzVersionService.getVersion(1L);
+            
+            // Then: 刷新前命中本地缓存，刷新后重新查询
+            assertThat(first).isEqualTo(3L);
+            assertThat(second).isEqualTo(3L);
+            verify(userAuthRepository, times(2)).findAuthzVersionById(1L);
+        }
+    }
+    
+    @Test
+    void testGetCurrentVersions_BatchesDatabaseLookups() {
+        // Given: 用户 1 在线，用户 2、3 未登录
+        when(session.get(TokenConstants.SESSION_KEY_AUTHZ_VERSION)).thenReturn(7L);
+        UserAuthzVersion row = mock(UserAuthzVersion.class);
+        when(row.getId()).thenReturn(2L);
+        when(row.getAuthzVersion()).thenReturn(4L);
+        when(userAuthRepository.findAuthzVersions(List.of(2L, 3L))).thenReturn(List.of(row));
+        
+        try (MockedStatic<StpUtil> stpUtil = mockStatic(StpUtil.class)) {
+            stpUtil.when(() -> StpUtil.getSessionByLoginId(1L, false)).thenReturn(session);
+            
+            // When
+            Map<Long, Long> versions = authzVersionService.getCurrentVersions(List.of(1L, 2L, 3L, 2L));
+            
+            // Then: 在线用户使用 Session 版本，其余用户合并为一次查询（不存在的用户为 0）
+            assertThat(versions).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 7L, 2L, 4L, 3L, 0L));
+            verify(userAuthRepository).findAuthzVersions(List.of(2L, 3L));
+            verify(userAuthRepository, never()).findAuthzVersionById(anyLong());
+        }
+    }
+}
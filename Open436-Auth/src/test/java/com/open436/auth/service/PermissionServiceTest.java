@@ -1,6 +1,7 @@
 package com.open436.auth.service;
 
 import com.open436.auth.base.BaseUnitTest;
+import com.open436.auth.dto.PermissionCheck;
 import com.open436.auth.entity.Permission;
 import com.open436.auth.repository.PermissionRepository;
 import com.open436.auth.service.impl.PermissionServiceImpl;
@@ -10,7 +11,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -24,6 +27,9 @@ class PermissionServiceTest extends BaseUnitTest {
     @Mock
     private PermissionRepository permissionRepository;
     
+    @Mock
+    private AuthzVersionService authzVersionService;
+    
     @InjectMocks
     private PermissionServiceImpl permissionService;
     
@@ -59,7 +65,7 @@ class PermissionServiceTest extends BaseUnitTest {
     void testGetUserPermissions() {
         // Given: 用户拥有多个权限
         Long userId = 1L;
-        when(permissionRepository.findByUserId(userId)).thenReturn(mockPermissions);
+        when(permissionRepository.findEffectiveByUserId(userId)).thenReturn(mockPermissions);
         
         // When: 获取用户权限
         List<Permission> result = permissionService.getUserPermissions(userId);
@@ -69,14 +75,14 @@ class PermissionServiceTest extends BaseUnitTest {
         assertThat(result).hasSize(3);
         assertThat(result).containsAll(mockPermissions);
         
-        verify(permissionRepository).findByUserId(userId);
+        verify(permissionRepository).findEffectiveByUserId(userId);
     }
     
     @Test
     void testGetUserPermissions_Empty() {
         // Given: 用户没有权限
         Long userId = 999L;
-        when(permissionRepository.findByUserId(userId)).thenReturn(Arrays.asList());
+        when(permissionRepository.findEffectiveByUserId(userId)).thenReturn(Arrays.asList());
         
         // When: 获取用户权限
         List<Permission> result = permissionService.getUserPermissions(userId);
@@ -85,14 +91,14 @@ class PermissionServiceTest extends BaseUnitTest {
         assertThat(result).isNotNull();
         assertThat(result).isEmpty();
         
-        verify(permissionRepository).findByUserId(userId);
+        verify(permissionRepository).findEffectiveByUserId(userId);
     }
     
     @Test
     void testGetUserPermissionCodes() {
         // Given: 用户拥有权限
         Long userId = 1L;
-        when(permissionRepository.findByUserId(userId)).thenReturn(mockPermissions);
+        when(permissionRepository.findEffectiveByUserId(userId)).thenReturn(mockPermissions);
         
         // When: 获取权限代码列表
         List<String> codes = permissionService.getUserPermissionCodes(userId);
@@ -102,14 +108,14 @@ class PermissionServiceTest extends BaseUnitTest {
         assertThat(codes).hasSize(3);
         assertThat(codes).containsExactlyInAnyOrder("post:create", "post:read", "user:manage");
         
-        verify(permissionRepository).findByUserId(userId);
+        verify(permissionRepository).findEffectiveByUserId(userId);
     }
     
     @Test
     void testGetUserPermissionCodes_Empty() {
         // Given: 用户没有权限
         Long userId = 999L;
-        when(permissionRepository.findByUserId(userId)).thenReturn(Arrays.asList());
+        when(permissionRepository.findEffectiveByUserId(userId)).thenReturn(Arrays.asList());
         
         // When: 获取权限代码列表
         List<String> codes = permissionService.getUserPermissionCodes(userId);
@@ -123,7 +129,7 @@ class PermissionServiceTest extends BaseUnitTest {
         // Given: 用户拥有指定权限
         Long userId = 1L;
         String permissionCode = "post:create";
-        when(permissionRepository.findByUserId(userId)).thenReturn(mockPermissions);
+        when(permissionRepository.findEffectiveByUserId(userId)).thenReturn(mockPermissions);
         
         // When: 检查权限
         boolean hasPermission = permissionService.hasPermission(userId, permissionCode);
@@ -131,7 +137,7 @@ class PermissionServiceTest extends BaseUnitTest {
         // Then: 应该返回true
         assertThat(hasPermission).isTrue();
         
-        verify(permissionRepository).findByUserId(userId);
+        verify(permissionRepository).findEffectiveByUserId(userId);
     }
     
     @Test
@@ -139,7 +145,7 @@ class PermissionServiceTest extends BaseUnitTest {
         // Given: 用户没有指定权限
         Long userId = 1L;
         String permissionCode = "admin:manage";
-        when(permissionRepository.findByUserId(userId)).thenReturn(mockPermissions);
+        when(permissionRepository.findEffectiveByUserId(userId)).thenReturn(mockPermissions);
         
         // When: 检查权限
         boolean hasPermission = permissionService.hasPermission(userId, permissionCode);
@@ -147,14 +153,14 @@ class PermissionServiceTest extends BaseUnitTest {
         // Then: 应该返回false
         assertThat(hasPermission).isFalse();
         
-        verify(permissionRepository).findByUserId(userId);
+        verify(permissionRepository).findEffectiveByUserId(userId);
     }
     
     @Test
     void testHasPermission_NoPermissions() {
         // Given: 用户没有任何权限
         Long userId = 999L;
-        when(permissionRepository.findByUserId(userId)).thenReturn(Arrays.asList());
+        when(permissionRepository.findEffectiveByUserId(userId)).thenReturn(Arrays.asList());
         
         // When: 检查权限
         boolean hasPermission = permissionService.hasPermission(userId, "post:create");
@@ -163,6 +169,69 @@ class PermissionServiceTest extends BaseUnitTest {
         assertThat(hasPermission).isFalse();
     }
     
+    @Test
+    void testHasPermission_RoleRevoked_NextCheckDenied() {
+        // Given: 用户拥有 user:manage，已编译匹配器
+        Long userId = 1L;
+        when(authzVersionService.getVersion(userId)).thenReturn(1L);
+        when(permissionRepository.findEffectiveByUserId(userId)).thenReturn(mockPermissions);
+        assertThat(permissionService.hasPermission(userId, "user:manage")).isTrue();
+        
+        // When: 撤销角色后授权版本递增，读模型不再包含该权限
+        when(authzVersionService.getVersion(userId)).thenReturn(2L);
+        when(permissionRepository.findEffectiveByUserId(userId)).thenReturn(mockPermissions.subList(0, 2));
+        
+        // Then: 下一次检查按新版本重新加载并拒绝
+        assertThat(permissionService.hasPermission(userId, "user:manage")).isFalse();
+        verify(permissionRepository, times(2)).findEffectiveByUserId(userId);
+    }
+    
+    @Test
+    void testCheckPermissions_MultipleCodes_SingleLookup() {
+        // Given: 用户拥有多个权限
+        Long userId = 1L;
+        when(permissionRepository.findEffectiveByUserId(userId)).thenReturn(mockPermissions);
+        
+        // When: 一次检查多个权限
+        Map<String, Boolean> result = permissionService.checkPermissions(userId,
+            List.of("post:create", "post:delete", "user:manage"));
+        
+        // Then: 按请求顺序返回结果，权限集合只查询一次
+        assertThat(result).containsExactly(
+            Map.entry("post:create", true),
+            Map.entry("post:delete", false),
+            Map.entry("user:manage", true));
+        verify(permissionRepository, times(1)).findEffectiveByUserId(userId);
+    }
+    
+    @Test
+    void testCheckPermissions_Pairs_GroupedByUser() {
+        // Given: 用户1拥有多个权限，用户2没有权限
+        when(permissionRepository.findEffectiveByUserId(1L)).thenReturn(mockPermissions);
+        when(permissionRepository.findEffectiveByUserId(2L)).thenReturn(Arrays.asList());
+        List<PermissionCheck> checks = List.of(
+            new PermissionCheck(1L, "post:read"),
+            new PermissionCheck(2L, "post:read"),
+            new PermissionCheck(1L, "post:delete"),
+            new PermissionCheck(1L, "user:manage"));
+        when(authzVersionService.getCurrentVersions(anyCollection())).thenReturn(Map.of(1L, 3L, 2L, 5L));
+        
+        // When: 批量检查
+        BitSet result = permissionService.checkPermissions(checks);
+        
+        // Then: 位图与检查项一一对应，每个用户只查询一次
+        assertThat(result.get(0)).isTrue();
+        assertThat(result.get(1)).isFalse();
+        assertThat(result.get(2)).isFalse();
+        assertThat(result.get(3)).isTrue();
+        verify(permissionRepository, times(1)).findEffectiveByUserId(1L);
+        verify(permissionRepository, times(1)).findEffectiveByUserId(2L);
+        
+        // 授权版本一次批量获取，不逐个用户查询
+        verify(authzVersionService).getCurrentVersions(List.of(1L, 2L, 1L, 1L));
+        verify(authzVersionService, never()).getVersion(anyLong());
+    }
+    
     @Test
     void testClearUserPermissionsCache() {
         // Given: 用户权限缓存存在
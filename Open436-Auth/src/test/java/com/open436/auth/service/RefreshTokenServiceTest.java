@@ -0,0 +1,179 @@
+package com.open436.auth.service;
+
+import cn.dev33.satoken.stp.StpUtil;
+import com.open436.auth.base.BaseUnitTest;
+import com.open436.auth.config.TokenProperties;
+import com.open436.auth.enums.ErrorCode;
+import com.open436.auth.exception.BusinessException;
+import com.open436.auth.service.impl.RefreshTokenServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * RefreshTokenService 单元测试
+ * 测试 Refresh Token 轮换、重用检测与按用户作废
+ */
+class RefreshTokenServiceTest extends BaseUnitTest {
+    
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+    
+    @Mock
+    private SetOperations<String, String> setOperations;
+    
+    private RefreshTokenServiceImpl refreshTokenService;
+    
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenServiceImpl(stringRedisTemplate, new TokenProperties());
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void mockRotateResult(List<?> result) {
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any(), any(), any(), any(), any()))
+            .thenReturn(result);
+    }
+    
+    @Test
+    void testRotate_InvalidFormat() {
+        // When & Then
+        assertThatThrownBy(() -> refreshTokenService.rotate("no-separator"))
+            .isInstanceOf(BusinessException.class)
+            .hasMessage(ErrorCode.INVALID_REFRESH_TOKEN.getMessage());
+        
+        verifyNoInteractions(stringRedisTemplate);
+    }
+    
+    @Test
+    void testRotate_Success() {
+        // Given
+        mockRotateResult(List.of(1L, "1", "1"));
+        
+        // When
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("family.secret");
+        
+        // Then
+        assertThat(rotation.userId()).isEqualTo(1L);
+        assertThat(rotation.rememberMe()).isTrue();
+        assertThat(rotation.familyId()).isEqualTo("family");
+        assertThat(rotation.refreshToken()).startsWith("family.").isNotEqualTo("family.secret");
+    }
+    
+    @Test
+    void testRotate_FamilyExpired() {
+        // Given
+        mockRotateResult(List.of(0L));
+        
+        // When & Then
+        assertThatThrownBy(() -> refreshTokenService.rotate("family.secret"))
+            .isInstanceOf(BusinessException.class)
+            .hasMessage(ErrorCode.INVALID_REFRESH_TOKEN.getMessage());
+    }
+    
+    @Test
+    void testRotate_ReuseRevokesAccessToken() {
+        // Given
+        mockRotateResult(List.of(-1L, "access-token"));
+        
+        try (MockedStatic<StpUtil> stpUtil = mockStatic(StpUtil.class)) {
+            // When & Then
+            assertThatThrownBy(() -> refreshTokenService.rotate("family.old-secret"))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage(ErrorCode.REFRESH_TOKEN_REUSED.getMessage());
+            
+            stpUtil.verify(() -> StpUtil.logoutByTokenValue("access-token"));
+        }
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRotate_ConcurrentRefreshWithinGracePeriod() {
+        // Given: 第一次刷新成功，记录加密暂存的新 Token
+        mockRotateResult(List.of(1L, "1", "1"));
+        RefreshTokenService.Rotation first = refreshTokenService.rotate("family.old-secret");
+        ArgumentCaptor<Object> sealed = ArgumentCaptor.forClass(Object.class);
+        verify(stringRedisTemplate).execute(any(RedisScript.class), anyList(),
+            any(), any(), any(), any(), sealed.capture(), any(), any());
+        
+        // When: 宽限期内另一个请求提交同一个旧 Token
+        mockRotateResult(List.of(2L, "1", "1", sealed.getValue()));
+        RefreshTokenService.Rotation second = refreshTokenService.rotate("family.old-secret");
+        
+        // Then: 取回同一个新 Token，不视为重用
+        assertThat(second.refreshToken()).isEqualTo(first.refreshToken());
+        assertThat(second.userId()).isEqualTo(1L);
+    }
+    
+    @Test
+    void testRotate_GracePeriodRequiresPreviousSecret() {
+        // Given: 暂存的新 Token 不是用提交的 Token 加密的
+        mockRotateResult(List.of(2L, "1", "1", "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA"));
+        
+        // When & Then
+        assertThatThrownBy(() -> refreshTokenService.rotate("family.other-secret"))
+            .isInstanceOf(BusinessException.class)
+            .hasMessage(ErrorCode.INVALID_REFRESH_TOKEN.getMessage());
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRevokeAll_DeletesEveryFamilyOfUser() {
+        // Given: 用户有两个 Token 族
+        when(stringRedisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.members("auth:refresh:user:1")).thenReturn(Set.of("f1", "f2"));
+        
+        // When
+        refreshTokenService.revokeAll(1L);
+        
+        // Then: 删除全部族与族索引
+        ArgumentCaptor<Collection<String>> keys = ArgumentCaptor.forClass(Collection.class);
+        verify(stringRedisTemplate).delete(keys.capture());
+        assertThat(keys.getValue()).containsExactlyInAnyOrder(
+            "auth:refresh:f1", "auth:refresh:f2", "auth:refresh:user:1");
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRevoke_OwnToken_DeletesFamily() {
+        // Given: 族属于用户 1 且 Token 匹配
+        when(stringRedisTemplate.execute(any(RedisScript.class), eq(List.of("auth:refresh:family")), any(), eq("1")))
+            .thenReturn(1L);
+        when(stringRedisTemplate.opsForSet()).thenReturn(setOperations);
+        
+        // When
+        refreshTokenService.revoke(1L, "family.secret");
+        
+        // Then: 从用户的族索引中移除
+        verify(setOperations).remove("auth:refresh:user:1", "family");
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRevoke_OtherUsersToken_Ignored() {
+        // Given: 族不属于用户 2（或 Token 不匹配），脚本不删除
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(), eq("2"))).thenReturn(0L);
+        
+        // When
+        refreshTokenService.revoke(2L, "family.secret");
+        
+        // Then: 不修改任何族索引
+        verify(stringRedisTemplate, never()).opsForSet();
+    }
+}
@@ -0,0 +1,174 @@
+package com.open436.auth.service;
+
+import cn.dev33.satoken.SaManager;
+import cn.dev33.satoken.dao.SaTokenDao;
+import cn.dev33.satoken.dao.SaTokenDaoDefaultImpl;
+import cn.dev33.satoken.session.SaSession;
+import cn.dev33.satoken.stp.StpUtil;
+import com.open436.auth.base.BaseUnitTest;
+import com.open436.auth.config.RedisResilienceProperties;
+import com.open436.auth.dto.UserTokenInfo;
+import com.open436.auth.enums.ErrorCode;
+import com.open436.auth.enums.TokenConstants;
+import com.open436.auth.exception.BusinessException;
+import com.open436.auth.resilience.RedisCircuitBreaker;
+import com.open436.auth.service.impl.TokenVerificationServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+/**
+ * TokenVerificationService 单元测试
+ * 使用可注入故障的内存 Sa-Token 持久层模拟 Redis，测试故障降级
+ */
+class TokenVerificationServiceTest extends BaseUnitTest {
+    
+    private static final String TOKEN = "test-token";
+    private static final long USER_ID = 1L;
+    
+    @Mock
+    private RoleService roleService;
+    
+    private SaTokenDao originalDao;
+    private FaultInjectingSaTokenDao redis;
+    private RedisResilienceProperties properties;
+    
+    @BeforeEach
+    void setUp() {
+        properties = new RedisResilienceProperties();
+        originalDao = SaManager.getSaTokenDao();
+        redis = new FaultInjectingSaTokenDao(new RedisCircuitBreaker(properties));
+        SaManager.setSaTokenDao(redis);
+        
+        // 模拟一次登录：Token -> LoginId，以及账号 Session
+        redis.set(StpUtil.stpLogic.splicingKeyTokenValue(TOKEN), String.valueOf(USER_ID), 1800);
+        SaSession session = new SaSession();
+        session.setId(StpUtil.stpLogic.splicingKeySession(USER_ID));
+        session.getDataMap().put(TokenConstants.SESSION_KEY_USERNAME, "admin");
+        redis.setObject(session.getId(), session, 1800);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        SaManager.setSaTokenDao(originalDao);
+    }
+    
+    @Test
+    void testVerify_Healthy() {
+        // Given
+        when(roleService.getUserRoleCodes(USER_ID)).thenReturn(List.of("admin"));
+        TokenVerificationService service = new TokenVerificationServiceImpl(roleService, properties);
+        
+        // When
+        UserTokenInfo userInfo = service.verify(TOKEN);
+        
+        // Then
+        assertThat(userInfo.getUserId()).isEqualTo(USER_ID);
+        assertThat(userInfo.getUsername()).isEqualTo("admin");
+        assertThat(userInfo.getRole()).isEqualTo("admin");
+        assertThat(service.verify("unknown-token")).isNull();
+    }
+    
+    @Test
+    void testVerify_RedisDown_ServesRecentlyVerifiedToken() {
+        // Given: Redis 正常时验证过一次
+        when(roleService.getUserRoleCodes(USER_ID)).thenReturn(List.of("admin"));
+        TokenVerificationService service = new TokenVerificationServiceImpl(roleService, properties);
+        service.verify(TOKEN);
+        
+        // When: Redis 故障
+        redis.down = true;
+        
+        // Then: 已验证的 Token 仍然有效，未验证过的 Token 返回服务不可用而不是无效
+        for (int i = 0; i < 10; i++) {
+            assertThat(service.verify(TOKEN).getUserId()).isEqualTo(USER_ID);
+        }
+        assertThatThrownBy(() -> service.verify("unknown-token"))
+            .isInstanceOf(BusinessException.class)
+            .hasMessage(ErrorCode.SERVICE_UNAVAILABLE.getMessage());
+        
+        // 熔断后不再访问 Redis
+        assertThat(redis.failedCalls).isEqualTo(properties.getFailureThreshold());
+    }
+    
+    @Test
+    void testVerify_RedisDown_StaleWindowExceeded() {
+        // Given: 不允许使用陈旧结果
+        properties.setMaxStaleness(Duration.ZERO);
+        when(roleService.getUserRoleCodes(USER_ID)).thenReturn(List.of("admin"));
+        TokenVerificationService service = new TokenVerificationServiceImpl(roleService, properties);
+        service.verify(TOKEN);
+        
+        // When
+        redis.down = true;
+        
+        // Then
+        assertThatThrownBy(() -> service.verify(TOKEN))
+            .isInstanceOf(BusinessException.class)
+            .hasMessage(ErrorCode.SERVICE_UNAVAILABLE.getMessage());
+    }
+    
+    @Test
+    void testVerify_LoggedOutTokenNotServedStale() {
+        // Given: 验证通过后 Token 被注销，并在 Redis 正常时再次验证
+        when(roleService.getUserRoleCodes(USER_ID)).thenReturn(List.of("admin"));
+        TokenVerificationService service = new TokenVerificationServiceImpl(roleService, properties);
+        service.verify(TOKEN);
+        redis.delete(StpUtil.stpLogic.splicingKeyTokenValue(TOKEN));
+        assertThat(service.verify(TOKEN)).isNull();
+        
+        // When
+        redis.down = true;
+        
+        // Then
+        assertThatThrownBy(() -> service.verify(TOKEN))
+            .isInstanceOf(BusinessException.class);
+    }
+    
+    /**
+     * 可注入故障的 Redis 替身
+     * 读操作经过熔断器，down 为 true 时模拟连接失败
+     */
+    private static class FaultInjectingSaTokenDao extends SaTokenDaoDefaultImpl {
+        
+        private final RedisCircuitBreaker circuitBreaker;
+        private volatile boolean down;
+        private int failedCalls;
+        
+        FaultInjectingSaTokenDao(RedisCircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+        }
+        
+        @Override
+        public String get(String key) {
+            return circuitBreaker.execute(() -> {
+                checkAvailable();
+                return super.get(key);
+            });
+        }
+        
+        @Override
+        public Object getObject(String key) {
+            return circuitBreaker.execute(() -> {
+                checkAvailable();
+                return super.getObject(key);
+            });
+        }
+        
+        private void checkAvailable() {
+            if (down) {
+                failedCalls++;
+                throw new RedisConnectionFailureException("Unable to connect to Redis");
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.open436.auth.service;
+
+import com.open436.auth.base.BaseUnitTest;
+import com.open436.auth.cache.UserCacheEvictor;
+import com.open436.auth.dto.BatchJobResponse;
+import com.open436.auth.dto.BatchUpdateUserStatusRequest;
+import com.open436.auth.enums.AuthChangeType;
+import com.open436.auth.enums.ErrorCode;
+import com.open436.auth.event.AuthChangeOutbox;
+import com.open436.auth.exception.BusinessException;
+import com.open436.auth.repository.RoleRepository;
+import com.open436.auth.repository.UserAuthRepository;
+import com.open436.auth.service.impl.UserBatchServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * UserBatchService 单元测试
+ * 测试批量状态变更与后台踢出
+ */
+class UserBatchServiceTest extends BaseUnitTest {
+    
+    @Mock
+    private UserAuthRepository userAuthRepository;
+    
+    @Mock
+    private RoleRepository roleRepository;
+    
+    @Mock
+    private UserCacheEvictor userCacheEvictor;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @Mock
+    private AuthChangeOutbox authChangeOutbox;
+    
+    @Mock
+    private RefreshTokenService refreshTokenService;
+    
+    private static final Long OPERATOR_ID = 99L;
+    
+    private UserBatchServiceImpl userBatchService;
+    
+    @BeforeEach
+    void setUp() {
+        userBatchService = new UserBatchServiceImpl(
+            userAuthRepository, roleRepository, userCacheEvictor, transactionManager, authChangeOutbox,
+            refreshTokenService);
+        ReflectionTestUtils.invokeMethod(userBatchService, "initExecutor");
+    }
+    
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(userBatchService, "shutdownExecutor");
+    }
+    
+    @Test
+    void testBatchUpdate_RequiresExactlyOneTarget() {
+        // Given: 同时指定了 userIds 和 roleCode
+        BatchUpdateUserStatusRequest request = new BatchUpdateUserStatusRequest(List.of(1L), "user", "disabled");
+        
+        // When & Then: 应该抛出参数异常
+        assertThatThrownBy(() -> userBatchService.batchUpdateUserStatus(OPERATOR_ID, request))
+            .isInstanceOf(BusinessException.class);
+        
+        verifyNoInteractions(userAuthRepository);
+    }
+    
+    @Test
+    void testBatchUpdate_RoleNotFound() {
+        // Given: 角色不存在
+        BatchUpdateUserStatusRequest request = new BatchUpdateUserStatusRequest(null, "ghost", "disabled");
+        when(roleRepository.existsByCode("ghost")).thenReturn(false);
+        
+        // When & Then: 应该抛出异常
+        assertThatThrownBy(() -> userBatchService.batchUpdateUserStatus(OPERATOR_ID, request))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("角色不存在");
+    }
+    
+    @Test
+    void testBatchDisable_EvictsAndKicksOutChangedUsers() throws Exception {
+        // Given: 三个用户中只有两个状态发生变化
+        BatchUpdateUserStatusRequest request = new BatchUpdateUserStatusRequest(List.of(1L, 2L, 3L), null, "disabled");
+        when(userAuthRepository.updateStatusByIds(request.getUserIds(), "disabled", OPERATOR_ID)).thenReturn(List.of(1L, 3L));
+        when(userAuthRepository.countByRoleCodeAndStatus("admin", "active")).thenReturn(1L);
+        
+        // When: 批量禁用（踢出在后台线程执行，使用 Sa-Token 默认内存存储）
+        BatchJobResponse submitted = userBatchService.batchUpdateUserStatus(OPERATOR_ID, request);
+        BatchJobResponse finished = awaitFinished(submitted.getJobId());
+        
+        // Then: 只处理状态变化的用户
+        assertThat(submitted.getTotal()).isEqualTo(2);
+        assertThat(finished.getState()).isEqualTo("completed");
+        assertThat(finished.getProcessed()).isEqualTo(2);
+        assertThat(finished.getKickedOut()).isEqualTo(2);
+        assertThat(finished.getFailed()).isZero();
+        
+        verify(userCacheEvictor).evictUsers(List.of(1L, 3L));
+        verify(authChangeOutbox).record(AuthChangeType.USER_DISABLED, List.of(1L, 3L));
+    }
+    
+    @Test
+    void testBatchEnable_ShouldNotKickout() throws Exception {
+        // Given: 按角色批量启用
+        BatchUpdateUserStatusRequest request = new BatchUpdateUserStatusRequest(null, "user", "active");
+        when(roleRepository.existsByCode("user")).thenReturn(true);
+        when(userAuthRepository.updateStatusByRoleCode("user", "active", OPERATOR_ID)).thenReturn(List.of(5L));
+        
+        // When: 批量启用
+        BatchJobResponse finished = awaitFinished(
+            userBatchService.batchUpdateUserStatus(OPERATOR_ID, request).getJobId());
+        
+        // Then: 清理缓存但不踢出
+        assertThat(finished.getState()).isEqualTo("completed");
+        assertThat(finished.getProcessed()).isEqualTo(1);
+        assertThat(finished.getKickedOut()).isZero();
+        verify(userCacheEvictor).evictUsers(anyCollection());
+    }
+    
+    @Test
+    void testBatchDisableAdmins_ExcludesOperatorAndKeepsLastAdmin() {
+        // Given: 按 admin 角色批量禁用，操作人之外的管理员被更新后已没有启用的管理员
+        BatchUpdateUserStatusRequest request = new BatchUpdateUserStatusRequest(null, "admin", "disabled");
+        when(roleRepository.existsByCode("admin")).thenReturn(true);
+        when(userAuthRepository.updateStatusByRoleCode("admin", "disabled", OPERATOR_ID)).thenReturn(List.of(1L, 2L));
+        when(userAuthRepository.countByRoleCodeAndStatus("admin", "active")).thenReturn(0L);
+        
+        // When & Then: 拒绝变更（事务回滚），不写事件、不踢出
+        assertThatThrownBy(() -> userBatchService.batchUpdateUserStatus(OPERATOR_ID, request))
+            .isInstanceOf(BusinessException.class)
+            .hasMessage(ErrorCode.LAST_ACTIVE_ADMIN.getMessage());
+        verify(userAuthRepository).updateStatusByRoleCode("admin", "disabled", OPERATOR_ID);
+        verifyNoInteractions(authChangeOutbox, userCacheEvictor, refreshTokenService);
+    }
+    
+    private BatchJobResponse awaitFinished(String jobId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            BatchJobResponse job = userBatchService.getJob(jobId);
+            if (!"running".equals(job.getState())) {
+                return job;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("批量任务未在预期时间内结束: " + jobId);
+    }
+}
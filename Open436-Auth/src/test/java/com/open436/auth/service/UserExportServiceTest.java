@@ -0,0 +1,148 @@
+package com.open436.auth.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.open436.auth.base.BaseUnitTest;
+import com.open436.auth.enums.ExportFormat;
+import com.open436.auth.repository.UserAuthRepository;
+import com.open436.auth.repository.projection.UserExportRow;
+import com.open436.auth.service.impl.UserExportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * UserExportService 单元测试
+ * 测试用户流式导出的格式与转义
+ */
+class UserExportServiceTest extends BaseUnitTest {
+    
+    @Mock
+    private UserAuthRepository userAuthRepository;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private UserExportServiceImpl userExportService;
+    
+    @BeforeEach
+    void setUp() {
+        userExportService = new UserExportServiceImpl(userAuthRepository, objectMapper);
+    }
+    
+    @Test
+    void testExportNdjson() throws Exception {
+        // Given: 两个用户，其中一个没有角色且从未登录
+        when(userAuthRepository.streamAllForExport()).thenReturn(Stream.of(
+            row(1L, "admin", "active", "admin,user", LocalDateTime.of(2025, 1, 2, 3, 4, 5)),
+            row(2L, "guest", "disabled", null, null)
+        ));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        // When: 导出 NDJSON
+        long count = userExportService.exportUsers(ExportFormat.NDJSON, out);
+        
+        // Then: 每行一个 JSON 对象
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("id").asLong()).isEqualTo(1L);
+        assertThat(first.get("roles")).hasSize(2);
+        assertThat(first.get("lastLoginAt").asText()).isEqualTo("2025-01-02T03:04:05");
+        
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertThat(second.get("status").asText()).isEqualTo("disabled");
+        assertThat(second.get("roles")).isEmpty();
+        assertThat(second.get("lastLoginAt").isNull()).isTrue();
+    }
+    
+    @Test
+    void testExportCsv_EscapesFields() throws Exception {
+        // Given: 用户名包含需要转义的字符
+        when(userAuthRepository.streamAllForExport()).thenReturn(Stream.of(
+            row(1L, "a\"b", "active", "admin,user", null)
+        ));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        // When: 导出 CSV
+        long count = userExportService.exportUsers(ExportFormat.CSV, out);
+        
+        // Then: 表头 + 一行数据，字段按 RFC 4180 转义
+        assertThat(count).isEqualTo(1);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+            "id,username,status,roles,last_login_at\r\n" +
+            "1,\"a\"\"b\",active,\"admin,user\",\r\n");
+    }
+    
+    @Test
+    void testExportCsv_NeutralizesFormulas() throws Exception {
+        // Given: 用户名以公式字符开头
+        when(userAuthRepository.streamAllForExport()).thenReturn(Stream.of(
+            row(1L, "=HYPERLINK(\"http://evil\")", "active", "user", null),
+            row(2L, "@SUM(A1)", "active", "user", null)
+        ));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        // When: 导出 CSV
+        userExportService.exportUsers(ExportFormat.CSV, out);
+        
+        // Then: 字段前加单引号，不会被表格软件当作公式执行
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+            "id,username,status,roles,last_login_at\r\n" +
+            "1,\"'=HYPERLINK(\"\"http://evil\"\")\",active,user,\r\n" +
+            "2,'@SUM(A1),active,user,\r\n");
+    }
+    
+    @Test
+    void testExport_ClosesStream() throws Exception {
+        // Given: 空结果集
+        Stream<UserExportRow> rows = Stream.<UserExportRow>empty();
+        Runnable onClose = mock(Runnable.class);
+        when(userAuthRepository.streamAllForExport()).thenReturn(rows.onClose(onClose));
+        
+        // When: 导出
+        long count = userExportService.exportUsers(ExportFormat.CSV, new ByteArrayOutputStream());
+        
+        // Then: 游标应该被关闭
+        assertThat(count).isZero();
+        verify(onClose).run();
+    }
+    
+    private UserExportRow row(Long id, String username, String status, String roles, LocalDateTime lastLoginAt) {
+        return new UserExportRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+            
+            @Override
+            public String getUsername() {
+                return username;
+            }
+            
+            @Override
+            public String getStatus() {
+                return status;
+            }
+            
+            @Override
+            public String getRoles() {
+                return roles;
+            }
+            
+            @Override
+            public LocalDateTime getLastLoginAt() {
+                return lastLoginAt;
+            }
+        };
+    }
+}
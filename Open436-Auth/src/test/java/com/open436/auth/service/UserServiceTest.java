@@ -7,6 +7,8 @@ import com.open436.auth.dto.UpdatePasswordRequest;
 import com.open436.auth.dto.UserInfoResponse;
 import com.open436.auth.entity.Role;
 import com.open436.auth.entity.UserAuth;
+import com.open436.auth.enums.AuthChangeType;
+import com.open436.auth.event.AuthChangeOutbox;
 import com.open436.auth.exception.BusinessException;
 import com.open436.auth.repository.RoleRepository;
 import com.open436.auth.repository.UserAuthRepository;
@@ -43,6 +45,12 @@ class UserServiceTest extends BaseUnitTest {
     @Mock
     private PasswordEncoder passwordEncoder;
     
+    @Mock
+    private AuthChangeOutbox authChangeOutbox;
+    
+    @Mock
+    private RefreshTokenService refreshTokenService;
+    
     @InjectMocks
     private UserServiceImpl userService;
     
@@ -163,8 +171,10 @@ class UserServiceTest extends BaseUnitTest {
             assertThat(response).isNotNull();
             assertThat(mockUser.getStatus()).isEqualTo("disabled");
             
-            // 验证调用了kickout
+            // 验证调用了kickout，并记录了禁用事件
             stpUtilMock.verify(() -> StpUtil.kickout(userId));
+            verify(refreshTokenService).revokeAll(userId);
+            verify(authChangeOutbox).record(AuthChangeType.USER_DISABLED, userId);
             
             verify(userAuthRepository).findById(userId);
             verify(userAuthRepository).save(mockUser);
@@ -200,8 +210,9 @@ class UserServiceTest extends BaseUnitTest {
             // When: 更新状态为active
             userService.updateUserStatus(userId, newStatus);
             
-            // Then: 不应该调用kickout
+            // Then: 不应该调用kickout，也不记录变更事件
             stpUtilMock.verify(() -> StpUtil.kickout(userId), never());
+            verifyNoInteractions(authChangeOutbox);
         }
     }
     
@@ -225,11 +236,12 @@ class UserServiceTest extends BaseUnitTest {
             // When: 修改密码
             userService.updatePassword(request);
             
-            // Then: 应该修改成功并踢出用户
+            // Then: 应该修改成功，踢出用户并作废全部 Refresh Token
             verify(passwordEncoder, atLeastOnce()).matches(anyString(), anyString());
             verify(passwordEncoder).encode("newpass123");
             verify(userAuthRepository).save(mockUser);
             stpUtilMock.verify(() -> StpUtil.kickout(1L));
+            verify(refreshTokenService).revokeAll(1L);
         }
     }
     
@@ -312,10 +324,11 @@ class UserServiceTest extends BaseUnitTest {
             // When: 重置密码
             userService.resetPassword(userId, newPassword);
             
-            // Then: 应该重置成功并踢出用户
+            // Then: 应该重置成功，踢出用户并作废全部 Refresh Token
             verify(passwordEncoder).encode(newPassword);
             verify(userAuthRepository).save(mockUser);
             stpUtilMock.verify(() -> StpUtil.kickout(userId));
+            verify(refreshTokenService).revokeAll(userId);
         }
     }
     
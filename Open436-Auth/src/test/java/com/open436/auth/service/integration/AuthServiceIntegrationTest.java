@@ -101,7 +101,7 @@ class AuthServiceIntegrationTest extends BaseIntegrationTest {
         assertThat(StpUtil.isLogin()).isTrue();
         
         // When: 登出
-        authService.logout();
+        authService.logout(null);
         
         // Then: Session应该被清除
         assertThat(StpUtil.isLogin()).isFalse();
@@ -2,6 +2,7 @@
 Custom middleware for extracting user info from headers
 """
 import logging
+from urllib.parse import unquote
 
 logger = logging.getLogger(__name__)
 
@@ -12,7 +13,7 @@ class UserInfoMiddleware:
     
     Kong会在headers中注入以下信息：
     - X-User-Id: 用户ID
-    - X-Username: 用户名
+    - X-Username: 用户名（UTF-8 百分号编码）
     - X-User-Role: 用户角色
     """
     
@@ -23,6 +24,8 @@ class UserInfoMiddleware:
         # 从headers提取用户信息
         user_id = request.META.get('HTTP_X_USER_ID')
         username = request.META.get('HTTP_X_USERNAME')
+        if username:
+            username = unquote(username)
         user_role = request.META.get('HTTP_X_USER_ROLE', 'user')
         
         # 附加到request对象
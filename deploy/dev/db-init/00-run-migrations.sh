@@ -1,5 +1,6 @@
 #!/bin/bash
 # 初始化数据库：首启时导入 M1 与 M7 的基础表结构与数据
+# 注意：只在数据卷为空时由 postgres 镜像执行，已有数据库需手动应用新增的迁移（见 QUICK-START-DEV.md）
 
 set -euo pipefail
 
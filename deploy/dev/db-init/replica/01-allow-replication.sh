@@ -0,0 +1,8 @@
+#!/bin/bash
+# 主库初始化：允许开发网络内的流复制连接
+
+set -euo pipefail
+
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
+
+echo "[db-init] Replication access enabled"
@@ -0,0 +1,23 @@
+#!/bin/sh
+# 从库启动脚本：数据目录为空时从主库做基础备份（-R 生成 standby.signal 与 primary_conninfo）
+
+set -eu
+
+PGDATA=/var/lib/postgresql/data
+
+if [ ! -s "$PGDATA/PG_VERSION" ]; then
+  echo "[replica] Waiting for primary ${PRIMARY_HOST}:${PRIMARY_PORT}"
+  until pg_isready -h "$PRIMARY_HOST" -p "$PRIMARY_PORT" -U "$PRIMARY_USER" >/dev/null 2>&1; do
+    sleep 1
+  done
+  # 主库首次初始化期间会短暂重启，备份失败时重试
+  until pg_basebackup -h "$PRIMARY_HOST" -p "$PRIMARY_PORT" -U "$PRIMARY_USER" -D "$PGDATA" -X stream -R; do
+    echo "[replica] Base backup failed, retrying"
+    rm -rf "${PGDATA:?}"/*
+    sleep 2
+  done
+  chmod 700 "$PGDATA"
+  echo "[replica] Base backup finished"
+fi
+
+exec postgres -D "$PGDATA" -c hot_standby=on
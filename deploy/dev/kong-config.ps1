@@ -39,6 +39,7 @@ Write-Host ""
 # 删除已存在的配置（如果有）
 Write-Host "Cleaning up existing configurations..." -ForegroundColor Yellow
 try {
+    Invoke-RestMethod -Uri "$KONG_ADMIN/routes/auth-internal" -Method Delete -ErrorAction SilentlyContinue
     Invoke-RestMethod -Uri "$KONG_ADMIN/services/auth-service" -Method Delete -ErrorAction SilentlyContinue
     Invoke-RestMethod -Uri "$KONG_ADMIN/services/file-service" -Method Delete -ErrorAction SilentlyContinue
 } catch {
@@ -61,6 +62,13 @@ try {
     $authRouteBody = @{ paths = @("/api/auth"); strip_path = $false } | ConvertTo-Json
     $authRoute = Invoke-RestMethod -Uri "$KONG_ADMIN/services/auth-service/routes" -Method Post -ContentType 'application/json' -Body $authRouteBody
     Write-Host "✓ auth-service route created" -ForegroundColor Green
+
+    # 内部接口（仅限携带 X-Service-Token 的服务直接调用）不经网关暴露：更长的前缀优先匹配，直接返回 404
+    $internalRouteBody = @{ name = "auth-internal"; paths = @("/api/auth/verify/batch"); strip_path = $false } | ConvertTo-Json
+    $internalRoute = Invoke-RestMethod -Uri "$KONG_ADMIN/services/auth-service/routes" -Method Post -ContentType 'application/json' -Body $internalRouteBody
+    $terminationBody = @{ name = "request-termination"; config = @{ status_code = 404; message = "Not Found" } } | ConvertTo-Json -Depth 5
+    $termination = Invoke-RestMethod -Uri "$KONG_ADMIN/routes/auth-internal/plugins" -Method Post -ContentType 'application/json' -Body $terminationBody
+    Write-Host "✓ auth-service internal routes blocked" -ForegroundColor Green
 } catch {
     Write-Host "ERROR creating auth-service: $_" -ForegroundColor Red
 }
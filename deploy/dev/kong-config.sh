@@ -27,6 +27,7 @@ echo ""
 
 # 删除已存在的配置（如果有）
 echo "Cleaning up existing configurations..."
+curl -s -X DELETE http://localhost:8001/routes/auth-internal 2>/dev/null || true
 curl -s -X DELETE http://localhost:8001/services/auth-service 2>/dev/null || true
 curl -s -X DELETE http://localhost:8001/services/file-service 2>/dev/null || true
 sleep 1
@@ -43,6 +44,18 @@ curl -i -X POST $KONG_ADMIN/services/auth-service/routes \
   --data "paths[]=/api/auth" \
   --data strip_path=false
 
+# 内部接口（仅限携带 X-Service-Token 的服务直接调用）不经网关暴露：更长的前缀优先匹配，直接返回 404
+echo ""
+echo "Blocking internal auth endpoints..."
+curl -i -X POST $KONG_ADMIN/services/auth-service/routes \
+  --data name=auth-internal \
+  --data "paths[]=/api/auth/verify/batch" \
+  --data strip_path=false
+curl -i -X POST $KONG_ADMIN/routes/auth-internal/plugins \
+  --data name=request-termination \
+  --data config.status_code=404 \
+  --data "config.message=Not Found"
+
 echo ""
 echo ""
 
@@ -65,7 +78,8 @@ echo ""
 echo "Step 3: Enabling satoken-auth plugin for file-service..."
 curl -i -X POST $KONG_ADMIN/services/file-service/plugins \
   --data name=satoken-auth \
-  --data config.auth_service_url=http://${HOST_ADDR}:8081
+  --data config.auth_service_url=http://${HOST_ADDR}:8081 \
+  --data config.redis_host=redis
 
 echo ""
 echo ""
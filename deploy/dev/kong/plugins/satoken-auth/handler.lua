@@ -1,67 +1,185 @@
 local http = require "resty.http"
-local cjson = require "cjson"
+local redis = require "resty.redis"
+local resty_sha256 = require "resty.sha256"
+local to_hex = require("resty.string").to_hex
 
 local SaTokenAuthHandler = {
-  VERSION = "1.0.0",
+  VERSION = "1.2.0",
   PRIORITY = 1000,
 }
 
+-- 缓存键前缀，键为 Token 的 SHA-256（与认证服务广播的吊销消息一致）
+local CACHE_PREFIX = "satoken-auth:"
+
+-- 已启动的吊销订阅（每个 worker 按 Redis 地址 + 频道各启动一次）
+local subscribers = {}
+
+local function token_hash(token)
+  local sha256 = resty_sha256:new()
+  sha256:update(token)
+  return to_hex(sha256:final())
+end
+
+local function cache_key(hash)
+  return CACHE_PREFIX .. hash
+end
+
+-- 从 Cache-Control 中读取 max-age，缺省时使用插件配置的 cache_ttl
+local function cache_ttl(res, conf)
+  local cache_control = res.headers["Cache-Control"]
+  if type(cache_control) == "table" then
+    cache_control = table.concat(cache_control, ",")
+  end
+  local max_age = cache_control and tonumber(cache_control:match("max%-age=(%d+)"))
+  if not max_age then
+    return conf.cache_ttl
+  end
+  -- mlcache 中 ttl = 0 表示永不过期，至少缓存 1 秒
+  return math.max(max_age, 1)
+end
+
+-- 调用认证服务 GET /api/auth/verify（204 有效，401 无效，用户信息在响应头中）
+local function verify(conf, token)
+  local httpc = http.new()
+  httpc:set_timeout(conf.timeout)
+
+  local res, err = httpc:request_uri(conf.auth_service_url .. "/api/auth/verify", {
+    method = "GET",
+    headers = {
+      ["Authorization"] = "Bearer " .. token,
+    },
+    keepalive_timeout = conf.keepalive_timeout,
+    keepalive_pool = conf.keepalive_pool_size,
+  })
+
+  if not res then
+    return nil, "failed to call auth service: " .. tostring(err)
+  end
+
+  if res.status == 401 then
+    -- 无效 Token 也缓存（负缓存），避免伪造 Token 反复穿透到认证服务
+    return nil, nil, cache_ttl(res, conf)
+  end
+
+  if res.status ~= 204 then
+    return nil, "unexpected auth service status: " .. res.status
+  end
+
+  -- 用户名为 UTF-8 百分号编码（可能包含中文等非 ASCII 字符）
+  local username = res.headers["X-Username"]
+  if username then
+    username = ngx.unescape_uri(username)
+  end
+
+  return {
+    user_id = res.headers["X-User-Id"],
+    username = username,
+    role = res.headers["X-User-Role"],
+  }, nil, cache_ttl(res, conf)
+end
+
+-- 订阅认证服务广播的吊销消息（消息体为 Token 的 SHA-256），收到后删除本节点缓存
+local function subscribe(premature, conf, id)
+  if premature or ngx.worker.exiting() then
+    subscribers[id] = nil
+    return
+  end
+
+  local red = redis:new()
+  red:set_timeouts(conf.timeout, conf.timeout, conf.revocation_read_timeout)
+
+  local ok, err = red:connect(conf.redis_host, conf.redis_port)
+  if ok and conf.redis_password then
+    ok, err = red:auth(conf.redis_password)
+  end
+  if ok then
+    ok, err = red:subscribe(conf.revocation_channel)
+  end
+
+  while ok and not ngx.worker.exiting() do
+    local reply, read_err = red:read_reply()
+    if reply then
+      if reply[1] == "message" then
+        -- invalidate_local 同时通知本节点其他 worker 清除 L1 缓存
+        kong.cache:invalidate_local(cache_key(reply[3]))
+      end
+    elseif read_err ~= "timeout" then
+      ok, err = nil, read_err
+    end
+  end
+
+  red:close()
+  if ngx.worker.exiting() then
+    subscribers[id] = nil
+    return
+  end
+
+  -- 断线期间的吊销消息会丢失，由缓存 TTL 兜底
+  kong.log.warn("revocation subscription lost, reconnecting: ", err)
+  ngx.timer.at(conf.revocation_retry_interval, subscribe, conf, id)
+end
+
+local function ensure_subscribed(conf)
+  if not conf.redis_host then
+    return
+  end
+
+  local id = conf.redis_host .. ":" .. conf.redis_port .. "/" .. conf.revocation_channel
+  if subscribers[id] then
+    return
+  end
+
+  local ok, err = ngx.timer.at(0, subscribe, conf, id)
+  if not ok then
+    kong.log.err("failed to start revocation subscription: ", err)
+    return
+  end
+  subscribers[id] = true
+end
+
 function SaTokenAuthHandler:access(conf)
+  ensure_subscribed(conf)
+
+  -- 清除客户端伪造的用户信息头
+  kong.service.request.clear_header("X-User-Id")
+  kong.service.request.clear_header("X-Username")
+  kong.service.request.clear_header("X-User-Role")
+
   -- 1. 获取 Token
   local token = kong.request.get_header(conf.token_header_name)
-  
+
   if not token then
     return kong.response.exit(401, { message = "No token provided" })
   end
-  
+
   -- 移除 "Bearer " 前缀
-  token = token:gsub("Bearer ", "")
-  
-  -- 2. 调用认证服务验证 Token
-  local httpc = http.new()
-  httpc:set_timeout(5000)
-  
-  local verify_url = conf.auth_service_url .. "/api/auth/verify"
-  
-  local res, err = httpc:request_uri(verify_url, {
-    method = "POST",
-    headers = {
-      ["Content-Type"] = "application/json",
-    },
-    body = cjson.encode({ token = token })
-  })
-  
-  if not res then
-    kong.log.err("Failed to call auth service: ", err)
+  token = token:gsub("^[Bb]earer%s+", "")
+
+  -- 2. 查询缓存，未命中时调用认证服务（并发请求同一 Token 只回源一次）
+  local user, err = kong.cache:get(cache_key(token_hash(token)), nil, verify, conf, token)
+
+  if err then
+    kong.log.err(err)
     return kong.response.exit(503, { message = "Auth service unavailable" })
   end
-  
-  if res.status ~= 200 then
+
+  if not user then
     return kong.response.exit(401, { message = "Invalid token" })
   end
-  
-  -- 3. 解析响应
-  local body = cjson.decode(res.body)
-  
-  if not body.data or not body.data.valid then
-    return kong.response.exit(401, { message = "Token verification failed" })
-  end
-  
-  -- 4. 注入用户信息到 Header (注意数据结构是嵌套的 body.data.data)
-  local userData = body.data.data or body.data
-  kong.service.request.set_header("X-User-Id", tostring(userData.userId))
-  
+
+  -- 3. 注入用户信息到 Header
+  kong.service.request.set_header("X-User-Id", user.user_id)
+
   -- 只有当字段存在时才设置 header
-  if userData.username then
-    kong.service.request.set_header("X-Username", userData.username)
+  -- 请求头只能安全传递 ASCII，用户名以 UTF-8 百分号编码转发，由下游服务解码
+  if user.username then
+    kong.service.request.set_header("X-Username", ngx.escape_uri(user.username))
   end
-  if userData.role then
-    kong.service.request.set_header("X-User-Role", userData.role)
+  if user.role then
+    kong.service.request.set_header("X-User-Role", user.role)
   end
-  
-  kong.log.info("User authenticated: ", userData.username or "unknown", " role: ", userData.role or "none")
+
+  kong.log.debug("User authenticated: ", user.username or "unknown", " role: ", user.role or "none")
 end
 
 return SaTokenAuthHandler
-
-
@@ -6,9 +6,23 @@ return {
         fields = {
           { auth_service_url = { type = "string", required = true } },
           { token_header_name = { type = "string", default = "Authorization" } },
+          -- 调用认证服务的超时（毫秒）
+          { timeout = { type = "integer", default = 1000, gt = 0 } },
+          -- 与认证服务之间的长连接空闲超时（毫秒）与每个 worker 的连接池大小
+          { keepalive_timeout = { type = "integer", default = 60000, gt = 0 } },
+          { keepalive_pool_size = { type = "integer", default = 64, gt = 0 } },
+          -- 认证服务未返回 Cache-Control: max-age 时的缓存时间（秒）
+          { cache_ttl = { type = "integer", default = 5, gt = 0 } },
+          -- 吊销广播所在的 Redis，未配置时仅依赖缓存 TTL
+          { redis_host = { type = "string" } },
+          { redis_port = { type = "integer", default = 6379, between = { 1, 65535 } } },
+          { redis_password = { type = "string", referenceable = true } },
+          { revocation_channel = { type = "string", default = "auth:token:revoked" } },
+          -- 订阅连接的读超时（毫秒），超时后继续等待，用于及时发现 worker 退出
+          { revocation_read_timeout = { type = "integer", default = 60000, gt = 0 } },
+          -- 订阅断开后的重连间隔（秒）
+          { revocation_retry_interval = { type = "number", default = 5, gt = 0 } },
         },
     }, },
   },
 }
-
-